@@ -60,6 +60,18 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
    * CheckBox for the option to notify the user about new commits in the remote.
    */
   private JCheckBox notifyAboutRemoteCommitsCheckBox;
+  /**
+   * Fetch only the upstream of the current branch.
+   */
+  private JCheckBox fetchOnlyTrackedBranchCheckBox;
+  /**
+   * Verify the fetched objects.
+   */
+  private JCheckBox checkFetchedObjectsCheckBox;
+  /**
+   * Ask for thin packs when fetching.
+   */
+  private JCheckBox fetchThinPacksCheckBox;
   /**
    * The OptionsManager instance
    */
@@ -117,6 +129,15 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
     updateSubmodulesOnPull = new JCheckBox(translator.getTranslation(Tags.UPDATE_SUBMODULES_ON_PULL));
     mainPanel.add(updateSubmodulesOnPull, c);
     
+    // Fetch settings
+    c.gridx = 0;
+    c.gridy ++;
+    c.weightx = 0;
+    c.weighty = 0;
+    c.anchor = GridBagConstraints.LINE_START;
+    c.insets = new Insets(NESTED_OPTION_INSET, 0, 0, 0);
+    mainPanel.add(createFetchSettingsPanel(), c);
+    
     // Empty panel to take up the rest of the space
     c.gridx = 0;
     c.gridy ++;
@@ -142,6 +163,10 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
     boolean updateSubmodules = optionsManager.getUpdateSubmodulesOnPull();
     updateSubmodulesOnPull.setSelected(updateSubmodules);
     
+    fetchOnlyTrackedBranchCheckBox.setSelected(optionsManager.isFetchOnlyTrackedBranch());
+    checkFetchedObjectsCheckBox.setSelected(optionsManager.isCheckFetchedObjects());
+    fetchThinPacksCheckBox.setSelected(optionsManager.isFetchThinPacks());
+    
     WhenRepoDetectedInProject whatToDo = optionsManager.getWhenRepoDetectedInProject();
     switch (whatToDo) {
       case ASK_TO_SWITCH_TO_WC:
@@ -186,6 +211,28 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
     return repoInProjectSettingsPanel;
   }
   
+  /**
+   * Create the panel that contains the settings that trade the safety of the fetch for its speed.
+   * 
+   * @return the panel.
+   */
+  private JPanel createFetchSettingsPanel() {
+    JPanel fetchSettingsPanel = new JPanel(new GridLayout(4, 1));
+    
+    fetchSettingsPanel.add(new JLabel(translator.getTranslation(Tags.FETCH_SETTINGS)));
+    
+    fetchOnlyTrackedBranchCheckBox = new JCheckBox(translator.getTranslation(Tags.FETCH_ONLY_TRACKED_BRANCH));
+    fetchSettingsPanel.add(fetchOnlyTrackedBranchCheckBox);
+    
+    checkFetchedObjectsCheckBox = new JCheckBox(translator.getTranslation(Tags.CHECK_FETCHED_OBJECTS));
+    fetchSettingsPanel.add(checkFetchedObjectsCheckBox);
+    
+    fetchThinPacksCheckBox = new JCheckBox(translator.getTranslation(Tags.FETCH_THIN_PACKS));
+    fetchSettingsPanel.add(fetchThinPacksCheckBox);
+    
+    return fetchSettingsPanel;
+  }
+  
   /**
    * @see ro.sync.exml.plugin.option.OptionPagePluginExtension#apply(ro.sync.exml.workspace.api.PluginWorkspace)
    */
@@ -193,6 +240,9 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
   public void apply(PluginWorkspace pluginWorkspace) {
     optionsManager.setNotifyAboutNewRemoteCommits(notifyAboutRemoteCommitsCheckBox.isSelected());
     optionsManager.setUpdateSubmodulesOnPull(updateSubmodulesOnPull.isSelected());
+    optionsManager.setFetchOnlyTrackedBranch(fetchOnlyTrackedBranchCheckBox.isSelected());
+    optionsManager.setCheckFetchedObjects(checkFetchedObjectsCheckBox.isSelected());
+    optionsManager.setFetchThinPacks(fetchThinPacksCheckBox.isSelected());
     
     WhenRepoDetectedInProject whatToDo = WhenRepoDetectedInProject.ASK_TO_SWITCH_TO_WC;
     if (autoSwitchToWCRadio.isSelected()) {
@@ -213,6 +263,9 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
     notifyAboutRemoteCommitsCheckBox.setSelected(false);
     updateSubmodulesOnPull.setSelected(true);
     askToSwitchToWCRadio.setSelected(true);
+    fetchOnlyTrackedBranchCheckBox.setSelected(false);
+    checkFetchedObjectsCheckBox.setSelected(true);
+    fetchThinPacksCheckBox.setSelected(true);
   }
 
   /**
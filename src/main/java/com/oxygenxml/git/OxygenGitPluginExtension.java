@@ -27,6 +27,7 @@ import com.oxygenxml.git.options.OptionsManager;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitEventAdapter;
 import com.oxygenxml.git.service.NoRepositorySelected;
+import com.oxygenxml.git.service.PooledHttpConnectionFactory;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.utils.FileHelper;
@@ -163,6 +164,7 @@ public class OxygenGitPluginExtension implements WorkspaceAccessPluginExtension,
 		  }
 		  
 		  AuthenticationInterceptor.install();
+		  PooledHttpConnectionFactory.install();
 
 			BlameManager.getInstance().install(gitController);
 			
@@ -258,6 +260,7 @@ public class OxygenGitPluginExtension implements WorkspaceAccessPluginExtension,
 		
 		RepositoryChangeWatcher watcher = RepositoryChangeWatcher.createWatcher(pluginWorkspaceAccess, gitController);
 		gitRefreshSupport = new PanelRefresh(watcher);
+		gitRefreshSupport.start();
 	  
 		UtilAccess utilAccess = PluginWorkspaceProvider.getPluginWorkspace().getUtilAccess();
     utilAccess.addCustomEditorVariablesResolver(new GitEditorVariablesResolver(gitController));
@@ -365,6 +368,7 @@ public class OxygenGitPluginExtension implements WorkspaceAccessPluginExtension,
 	 */
 	@Override
 	public boolean applicationClosing() {
+	  // Also writes the changes still waiting to be written
 		OptionsManager.getInstance().saveOptions();
 		
 		// EXM-42867: wait for the refresh to execute
@@ -7,6 +7,8 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -20,6 +22,7 @@ import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitControllerBase;
 import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.service.GitStatus;
+import com.oxygenxml.git.service.StatusService;
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.GitChangeType;
 import com.oxygenxml.git.translator.Tags;
@@ -204,16 +207,14 @@ public class ProjectMenuGitActionsProvider {
         try {
           RepoUtil.updateCurrentRepository(repository);
 
-          List<FileStatus> gitFiles = getStagedAndUnstagedFiles();
+          Set<String> selectedPaths = getSelectedPaths(new File[] {selFile}, repository);
+          List<FileStatus> gitFiles = getStagedAndUnstagedFiles(getSelectionStatus(selectedPaths));
           boolean wasDiffShown = false;
-          if (!gitFiles.isEmpty()) {
-            String selectedFilePath = FileHelper.rewriteSeparator(selFile.getAbsolutePath());
-            for (FileStatus fileStatus : gitFiles) {
-              if (selectedFilePath.endsWith(fileStatus.getFileLocation())) {
-                SwingUtilities.invokeLater(() -> DiffPresenter.showDiff(fileStatus, gitCtrl));
-                wasDiffShown = true;
-                break;
-              }
+          for (FileStatus fileStatus : gitFiles) {
+            if (isSelected(fileStatus, selectedPaths)) {
+              SwingUtilities.invokeLater(() -> DiffPresenter.showDiff(fileStatus, gitCtrl));
+              wasDiffShown = true;
+              break;
             }
           }
           if (!wasDiffShown) {
@@ -244,22 +245,21 @@ public class ProjectMenuGitActionsProvider {
         try {
           RepoUtil.updateCurrentRepository(repository);
 
-          List<FileStatus> gitFiles = getStagedAndUnstagedFiles();
+          // Computed once, for the check and for staging.
+          Set<String> selectedPaths = getSelectedPaths(selectedFiles, repository);
+          GitStatus status = getSelectionStatus(selectedPaths);
           boolean canCommit = false;
-          for (File selFile : selectedFiles) {
-            String selectedFilePath = FileHelper.rewriteSeparator(selFile.getAbsolutePath());
-            for (FileStatus fileStatus : gitFiles) {
-              if (selectedFilePath.endsWith(fileStatus.getFileLocation())) {
-                canCommit = true;
-                break;
-              }
+          for (FileStatus fileStatus : getStagedAndUnstagedFiles(status)) {
+            if (isSelected(fileStatus, selectedPaths)) {
+              canCommit = true;
+              break;
             }
           }
 
           if (canCommit) {
             SwingUtilities.invokeLater(
                 () -> pluginWS.showView(OxygenGitPluginExtension.GIT_STAGING_VIEW, true));
-            stageFiles(repository);
+            stageFiles(status, selectedPaths);
           } else {
             SwingUtilities.invokeLater(
                 () -> pluginWS.showInformationMessage(translator.getTranslation(Tags.NOTHING_TO_COMMIT)));
@@ -276,29 +276,94 @@ public class ProjectMenuGitActionsProvider {
   }
   
   /**
+   * Gets the paths of the selected resources, relative to the working tree.
+   * 
+   * @param selectedFiles The files and folders selected in the Project view.
+   * @param repository    The working tree.
+   * 
+   * @return The paths, with '/' as separator. <code>null</code> if the working tree itself is selected.
+   * The resources outside the working tree are ignored.
+   */
+  private static Set<String> getSelectedPaths(File[] selectedFiles, String repository) {
+    Set<String> selectedPaths = new HashSet<>();
+    for (File selFile : selectedFiles) {
+      String path = FileHelper.rewriteSeparator(RepoUtil.getFilePathRelativeToRepo(selFile, repository));
+      if (path.isEmpty()) {
+        // Everything is selected.
+        return null;
+      }
+      if (!path.equals("..") && !path.startsWith("../")) {
+        selectedPaths.add(path);
+      }
+    }
+    return selectedPaths;
+  }
+
+  /**
+   * Computes the status of the selected resources. Only the selected folders are walked.
+   * 
+   * @param selectedPaths The selected paths, relative to the working tree. <code>null</code> for all.
+   * 
+   * @return The status.
+   */
+  private static GitStatus getSelectionStatus(Set<String> selectedPaths) {
+    GitStatus status;
+    if (selectedPaths == null) {
+      // A new user action. It computes the status once.
+      StatusService.getInstance().invalidate();
+      status = StatusService.getInstance().getStatus();
+    } else if (selectedPaths.isEmpty()) {
+      status = new GitStatus(Collections.emptyList(), Collections.emptyList());
+    } else {
+      status = GitAccess.getInstance().getStatus(selectedPaths);
+    }
+    return status;
+  }
+
+  /**
+   * Checks if a file is one of the selected resources or inside one of them.
+   * 
+   * @param fileStatus    The file.
+   * @param selectedPaths The selected paths, relative to the working tree. <code>null</code> for all.
+   * 
+   * @return <code>true</code> if the file is selected.
+   */
+  private static boolean isSelected(FileStatus fileStatus, Set<String> selectedPaths) {
+    boolean isSelected = selectedPaths == null;
+    if (!isSelected) {
+      String path = fileStatus.getFileLocation();
+      // The folders that contain the file, from the deepest.
+      int index = path.length();
+      while (!isSelected && index > 0) {
+        isSelected = selectedPaths.contains(path.substring(0, index));
+        index = path.lastIndexOf('/', index - 1);
+      }
+    }
+    return isSelected;
+  }
+
+  /**
+   * @param status The status.
+   * 
    * @return The staged and the unstaged files.
    */
-  private List<FileStatus> getStagedAndUnstagedFiles() {
+  private static List<FileStatus> getStagedAndUnstagedFiles(GitStatus status) {
     List<FileStatus> gitFiles = new ArrayList<>();
-    GitStatus status = GitAccess.getInstance().getStatus();
     gitFiles.addAll(status.getUnstagedFiles());
     gitFiles.addAll(status.getStagedFiles());
     return gitFiles;
   }
   
   /**
-   * Stage files.
+   * Stage the selected files.
    * 
-   * @param repository The current repository.
+   * @param status        The status of the selected resources.
+   * @param selectedPaths The selected paths, relative to the working tree. <code>null</code> for all.
    */
-  private void stageFiles(String repository) {
-    repository = FileHelper.rewriteSeparator(repository);
-    
-    List<FileStatus> unstagedFiles = GitAccess.getInstance().getUnstagedFiles();
-    Set<String> allSelectedFiles = ProjectViewManager.getSelectedFilesDeep();
+  private static void stageFiles(GitStatus status, Set<String> selectedPaths) {
     List<FileStatus> stagedFiles = new ArrayList<>();
-    for (FileStatus unstagedFileStatus : unstagedFiles) {
-      if (allSelectedFiles.contains(repository + "/" + unstagedFileStatus.getFileLocation())
+    for (FileStatus unstagedFileStatus : status.getUnstagedFiles()) {
+      if (isSelected(unstagedFileStatus, selectedPaths)
           && unstagedFileStatus.getChangeType() != GitChangeType.CONFLICT) {
         stagedFiles.add(unstagedFileStatus);
       }
@@ -42,16 +42,8 @@ public class AuthenticationInterceptor {
 	 */
 	private static final class GitAuth extends Authenticator {
 
-		// The fields for for the Authenticator. They will be retrieved using java
-		// reflection
-		private final Field requestingHost;
-		private final Field requestingScheme;
-		private final Field requestingPort;
-		private final Field requestingProtocol;
-		private final Field requestingURL;
-		private final Field requestingPrompt;
-		private final Field requestingSite;
-		private final Field requestingAuthType;
+		// The fields for for the Authenticator, retrieved using java reflection
+		private final AuthenticatorMembers members;
 		private final Authenticator oldAuth;
 
 		/**
@@ -68,42 +60,13 @@ public class AuthenticationInterceptor {
 		 */
 		private GitAuth(Authenticator oldAuth) throws NoSuchFieldException {
 			this.oldAuth = oldAuth;
-
-			// Getting the fields with java reflection
-			requestingHost = Authenticator.class.getDeclaredField("requestingHost");
-			requestingSite = Authenticator.class.getDeclaredField("requestingSite");
-			requestingPort = Authenticator.class.getDeclaredField("requestingPort");
-			requestingProtocol = Authenticator.class.getDeclaredField("requestingProtocol");
-			requestingPrompt = Authenticator.class.getDeclaredField("requestingPrompt");
-			requestingScheme = Authenticator.class.getDeclaredField("requestingScheme");
-			requestingURL = Authenticator.class.getDeclaredField("requestingURL");
-			requestingAuthType = Authenticator.class.getDeclaredField("requestingAuthType");
-
-			// Making the fields accessible
-			requestingHost.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
-			requestingSite.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
-			requestingPort.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
-			requestingProtocol.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
-			requestingPrompt.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
-			requestingScheme.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
-			requestingURL.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
-			requestingAuthType.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
+			this.members = AuthenticatorMembers.getInstance();
 		}
 
 		@Override
 		protected PasswordAuthentication getPasswordAuthentication() {
 		  PasswordAuthentication passwordAuth = null;
 			try {
-				// get the old Authenticator values that will be used to delegate back
-				final String oldRequestingHost = (String) requestingHost.get(this);
-				final InetAddress oldRequestingSite = (InetAddress) requestingSite.get(this);
-				final int oldRequestingPort = (Integer) requestingPort.get(this);
-				final String oldRequestingProtocol = (String) requestingProtocol.get(this);
-				final String oldRequestingPrompt = (String) requestingPrompt.get(this);
-				final String oldRequestingScheme = (String) requestingScheme.get(this);
-				final URL oldRequestingURL = (URL) requestingURL.get(this);
-				final RequestorType oldRequestingAuthType = (RequestorType) requestingAuthType.get(this);
-
 				if (isBound(getRequestingHost())) {
 					// we need to return null to let our own authentication dialog
 					// (LoginDialog)
@@ -117,29 +80,33 @@ public class AuthenticationInterceptor {
            * or perhaps the user doesn't have permissions on the repository. 
 				   */
 				} else {
+					// get the old Authenticator values that will be used to delegate back.
+					// Only the hosts that are not bound need them.
+					final String oldRequestingHost = (String) members.requestingHost.get(this);
+					final InetAddress oldRequestingSite = (InetAddress) members.requestingSite.get(this);
+					final int oldRequestingPort = (Integer) members.requestingPort.get(this);
+					final String oldRequestingProtocol = (String) members.requestingProtocol.get(this);
+					final String oldRequestingPrompt = (String) members.requestingPrompt.get(this);
+					final String oldRequestingScheme = (String) members.requestingScheme.get(this);
+					final URL oldRequestingURL = (URL) members.requestingURL.get(this);
+					final RequestorType oldRequestingAuthType = (RequestorType) members.requestingAuthType.get(this);
+
 					// Resets the Authenticator, thus making it ready to be restored
-					Method reset = Authenticator.class.getDeclaredMethod("reset");
-					reset.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
-					reset.invoke(oldAuth);
+					members.reset.invoke(oldAuth);
 
 					// Set the Authenticator current values with the values from the old
 					// Authenticator
-					requestingHost.set(oldAuth, oldRequestingHost); // NOSONAR We don't have API to intercept Oxygen's authenticator
-					requestingSite.set(oldAuth, oldRequestingSite); // NOSONAR We don't have API to intercept Oxygen's authenticator
-					requestingPort.set(oldAuth, oldRequestingPort); // NOSONAR We don't have API to intercept Oxygen's authenticator
-					requestingProtocol.set(oldAuth, oldRequestingProtocol); // NOSONAR We don't have API to intercept Oxygen's authenticator
-					requestingPrompt.set(oldAuth, oldRequestingPrompt); // NOSONAR We don't have API to intercept Oxygen's authenticator
-					requestingScheme.set(oldAuth, oldRequestingScheme); // NOSONAR We don't have API to intercept Oxygen's authenticator
-					requestingURL.set(oldAuth, oldRequestingURL); // NOSONAR We don't have API to intercept Oxygen's authenticator
-					requestingAuthType.set(oldAuth, oldRequestingAuthType); // NOSONAR We don't have API to intercept Oxygen's authenticator
+					members.requestingHost.set(oldAuth, oldRequestingHost); // NOSONAR We don't have API to intercept Oxygen's authenticator
+					members.requestingSite.set(oldAuth, oldRequestingSite); // NOSONAR We don't have API to intercept Oxygen's authenticator
+					members.requestingPort.set(oldAuth, oldRequestingPort); // NOSONAR We don't have API to intercept Oxygen's authenticator
+					members.requestingProtocol.set(oldAuth, oldRequestingProtocol); // NOSONAR We don't have API to intercept Oxygen's authenticator
+					members.requestingPrompt.set(oldAuth, oldRequestingPrompt); // NOSONAR We don't have API to intercept Oxygen's authenticator
+					members.requestingScheme.set(oldAuth, oldRequestingScheme); // NOSONAR We don't have API to intercept Oxygen's authenticator
+					members.requestingURL.set(oldAuth, oldRequestingURL); // NOSONAR We don't have API to intercept Oxygen's authenticator
+					members.requestingAuthType.set(oldAuth, oldRequestingAuthType); // NOSONAR We don't have API to intercept Oxygen's authenticator
 
 					// Delegate back to the old Authenticator
-					Method getPasswordAuthentication = Authenticator.class.getDeclaredMethod("getPasswordAuthentication");
-					// Don't NOSONAR the following setAccessible(), because we want to be reminded that sometime
-					// in the future we should replace this with some API
-					getPasswordAuthentication.setAccessible(true);
-					
-					passwordAuth = (PasswordAuthentication) getPasswordAuthentication.invoke(oldAuth);
+					passwordAuth = (PasswordAuthentication) members.getPasswordAuthentication.invoke(oldAuth);
 				}
 			} catch (Exception e) {
 				logger.error(e, e);
@@ -192,6 +159,81 @@ public class AuthenticationInterceptor {
 		}
 	}
 
+	/**
+	 * The private members of {@link Authenticator}, made accessible once.
+	 */
+	private static final class AuthenticatorMembers {
+	  /**
+	   * The singleton instance. <code>null</code> until first needed.
+	   */
+	  private static AuthenticatorMembers instance;
+
+	  private final Field theAuthenticator;
+	  private final Field requestingHost;
+	  private final Field requestingScheme;
+	  private final Field requestingPort;
+	  private final Field requestingProtocol;
+	  private final Field requestingURL;
+	  private final Field requestingPrompt;
+	  private final Field requestingSite;
+	  private final Field requestingAuthType;
+	  private final Method reset;
+	  private final Method getPasswordAuthentication;
+
+	  /**
+	   * Constructor.
+	   * 
+	   * @throws NoSuchFieldException Unable to access the authenticator data.
+	   */
+	  private AuthenticatorMembers() throws NoSuchFieldException {
+	    // Getting the fields with java reflection
+	    theAuthenticator = Authenticator.class.getDeclaredField("theAuthenticator");
+	    requestingHost = Authenticator.class.getDeclaredField("requestingHost");
+	    requestingSite = Authenticator.class.getDeclaredField("requestingSite");
+	    requestingPort = Authenticator.class.getDeclaredField("requestingPort");
+	    requestingProtocol = Authenticator.class.getDeclaredField("requestingProtocol");
+	    requestingPrompt = Authenticator.class.getDeclaredField("requestingPrompt");
+	    requestingScheme = Authenticator.class.getDeclaredField("requestingScheme");
+	    requestingURL = Authenticator.class.getDeclaredField("requestingURL");
+	    requestingAuthType = Authenticator.class.getDeclaredField("requestingAuthType");
+	    try {
+	      reset = Authenticator.class.getDeclaredMethod("reset");
+	      getPasswordAuthentication = Authenticator.class.getDeclaredMethod("getPasswordAuthentication");
+	    } catch (NoSuchMethodException e) {
+	      NoSuchFieldException ex = new NoSuchFieldException(e.getMessage());
+	      ex.initCause(e);
+	      throw ex;
+	    }
+
+	    // Making the members accessible
+	    theAuthenticator.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
+	    requestingHost.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
+	    requestingSite.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
+	    requestingPort.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
+	    requestingProtocol.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
+	    requestingPrompt.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
+	    requestingScheme.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
+	    requestingURL.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
+	    requestingAuthType.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
+	    reset.setAccessible(true); // NOSONAR We don't have API to intercept Oxygen's authenticator
+	    // Don't NOSONAR the following setAccessible(), because we want to be reminded that sometime
+	    // in the future we should replace this with some API
+	    getPasswordAuthentication.setAccessible(true);
+	  }
+
+	  /**
+	   * @return The singleton instance.
+	   * 
+	   * @throws NoSuchFieldException Unable to access the authenticator data.
+	   */
+	  static synchronized AuthenticatorMembers getInstance() throws NoSuchFieldException {
+	    if (instance == null) {
+	      instance = new AuthenticatorMembers();
+	    }
+	    return instance;
+	  }
+	}
+
 	/**
 	 * Logger for logging.
 	 */
@@ -213,9 +255,7 @@ public class AuthenticationInterceptor {
 	public static void install() {
 		final Authenticator[] currentAuth = new Authenticator[1];
 		try {
-			Field declaredField = Authenticator.class.getDeclaredField("theAuthenticator");
-			declaredField.setAccessible(true);
-			currentAuth[0] = (Authenticator) declaredField.get(null);
+			currentAuth[0] = (Authenticator) AuthenticatorMembers.getInstance().theAuthenticator.get(null);
 
 			if (currentAuth[0] == null || currentAuth[0] != installedAuthenticator) {
 			  GitAuth oldInstalledAuth = installedAuthenticator;
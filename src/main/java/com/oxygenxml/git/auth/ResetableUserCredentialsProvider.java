@@ -55,6 +55,10 @@ public class ResetableUserCredentialsProvider extends UsernamePasswordCredential
    * Flag to keep track if the credentials were previously created.
    */
   private boolean isCredentialsPreviouslyRequested = false; 
+  /**
+   * <code>false</code> to never show dialogs, for the checks done in the background.
+   */
+  private boolean interactive = true;
 
   /**
    * Constructor.
@@ -84,6 +88,21 @@ public class ResetableUserCredentialsProvider extends UsernamePasswordCredential
     return password;
   }
 
+  /**
+   * @param interactive <code>false</code> to never show dialogs, for the checks done in the background.
+   * The stored credentials are used and, if rejected, the operation fails.
+   */
+  public void setInteractive(boolean interactive) {
+    this.interactive = interactive;
+  }
+
+  /**
+   * @return <code>false</code> if dialogs are never shown, for the checks done in the background.
+   */
+  protected boolean isInteractive() {
+    return interactive;
+  }
+
   /**
    * @see org.eclipse.jgit.transport.CredentialsProvider.reset(URIish)
    */
@@ -93,7 +112,9 @@ public class ResetableUserCredentialsProvider extends UsernamePasswordCredential
     if (logger.isDebugEnabled()) {
       logger.debug("Reset credentials provider for: " + uri.toString());
     }
-    if (isCredentialsPreviouslyRequested && !isUserCancelledLogin) {
+    // The server rejected the credentials.
+    OptionsManager.getInstance().invalidateGitCredentials(host);
+    if (interactive && isCredentialsPreviouslyRequested && !isUserCancelledLogin) {
       LoginDialog loginDialog = new LoginDialog(host, getLoginFailureMessage());
       if (loginDialog.getResult() == OKCancelDialog.RESULT_OK) {
         updateUsernameAndPassword(loginDialog.getCredentials());
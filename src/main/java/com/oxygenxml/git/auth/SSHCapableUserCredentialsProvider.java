@@ -93,7 +93,7 @@ public class SSHCapableUserCredentialsProvider extends ResetableUserCredentialsP
     // A not so great method to check that the pass phrase is requested.
     passphaseRequested = true;
     
-    if (!validPassphrase(passphrase)) {
+    if (!validPassphrase(passphrase) && isInteractive()) {
       // We don't have a phrase from options. Ask the user.
       logger.debug("Ask for new passphrase...");
       passphrase = new PassphraseDialog(translator.getTranslation(Tags.ENTER_SSH_PASS_PHRASE) + ".").getPassphrase();
@@ -138,7 +138,7 @@ public class SSHCapableUserCredentialsProvider extends ResetableUserCredentialsP
       logger.debug("Look in cache for answer to: " + promptText + ", got " + response);
     }
     
-    if (response == null) {
+    if (response == null && isInteractive()) {
       // Ask the user.
       String[] options = new String[] { "   Yes   ", "   No   " };
       int[] optonsId = new int[] { 0, 1 };
@@ -159,7 +159,7 @@ public class SSHCapableUserCredentialsProvider extends ResetableUserCredentialsP
       optionsManager.saveSshPrompt(promptText, response);
     }
     
-    return response;
+    return Boolean.TRUE.equals(response);
     
   }
 	
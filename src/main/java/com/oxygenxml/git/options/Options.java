@@ -88,6 +88,12 @@ public class Options {
 	@XmlElement(name = "projectsTested")
 	private ProjectsTestedForGit projectsTestsForGit = new ProjectsTestedForGit();
 
+	/**
+	 * The repositories found in the folders of the last opened projects.
+	 */
+	@XmlElement(name = "projectRepositories")
+	private ProjectRepositoryInfoList projectRepositories = new ProjectRepositoryInfoList();
+
 	/**
 	 * Wrapper for a list of previously selected destination paths
 	 */
@@ -121,6 +127,21 @@ public class Options {
 	 * <code>true</code> to update submodules on pull.
 	 */
 	private boolean updateSubmodulesOnPull = true;
+	/**
+	 * <code>true</code> to fetch only the upstream of the current branch.
+	 */
+	@XmlElement(name = "fetchOnlyTrackedBranch")
+	private boolean fetchOnlyTrackedBranch = false;
+	/**
+	 * <code>true</code> to verify the objects received when fetching.
+	 */
+	@XmlElement(name = "checkFetchedObjects")
+	private boolean checkFetchedObjects = true;
+	/**
+	 * <code>true</code> to ask for thin packs when fetching.
+	 */
+	@XmlElement(name = "fetchThinPacks")
+	private boolean fetchThinPacks = true;
   
 	/**
 	 * <code>true</code> to automatically push to remote when committing.
@@ -168,6 +189,14 @@ public class Options {
 		this.destinationPaths = destinationPaths;
 	}
 
+	public ProjectRepositoryInfoList getProjectRepositories() {
+	  return projectRepositories;
+	}
+
+	public void setProjectRepositories(ProjectRepositoryInfoList projectRepositories) {
+	  this.projectRepositories = projectRepositories;
+	}
+
 	public ProjectsTestedForGit getProjectsTestsForGit() {
 		return projectsTestsForGit;
 	}
@@ -335,6 +364,48 @@ public class Options {
     this.updateSubmodulesOnPull = updateSubmodules;
   }
   
+  /**
+   * @return <code>true</code> to fetch only the upstream of the current branch.
+   */
+  public boolean isFetchOnlyTrackedBranch() {
+    return fetchOnlyTrackedBranch;
+  }
+  
+  /**
+   * @param fetchOnlyTrackedBranch <code>true</code> to fetch only the upstream of the current branch.
+   */
+  public void setFetchOnlyTrackedBranch(boolean fetchOnlyTrackedBranch) {
+    this.fetchOnlyTrackedBranch = fetchOnlyTrackedBranch;
+  }
+  
+  /**
+   * @return <code>true</code> to verify the objects received when fetching.
+   */
+  public boolean isCheckFetchedObjects() {
+    return checkFetchedObjects;
+  }
+  
+  /**
+   * @param checkFetchedObjects <code>true</code> to verify the objects received when fetching.
+   */
+  public void setCheckFetchedObjects(boolean checkFetchedObjects) {
+    this.checkFetchedObjects = checkFetchedObjects;
+  }
+  
+  /**
+   * @return <code>true</code> to ask for thin packs when fetching.
+   */
+  public boolean isFetchThinPacks() {
+    return fetchThinPacks;
+  }
+  
+  /**
+   * @param fetchThinPacks <code>true</code> to ask for thin packs when fetching.
+   */
+  public void setFetchThinPacks(boolean fetchThinPacks) {
+    this.fetchThinPacks = fetchThinPacks;
+  }
+  
 
 	/**
    * @return the list of personal access token info items.
@@ -6,11 +6,14 @@ import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import javax.swing.Timer;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
@@ -75,7 +78,25 @@ public class OptionsManager {
   private static final int MAXIMUM_PROJECTS_TESTED = 10;
 
   /**
-   * All Repositories that were selected by the user with their options
+   * Constant for how many projects to remember the detected repositories for
+   */
+  private static final int MAXIMUM_PROJECT_REPOSITORIES = 20;
+
+  /**
+   * How long the changed options wait before being written, in milliseconds. The changes made
+   * meanwhile are written at the same time.
+   */
+  private static final int WRITE_DELAY = 2000;
+
+  /**
+   * The JAXB context of the options. Creating it is expensive, so it is created only once.
+   */
+  private static JAXBContext jaxbContext;
+
+  /**
+   * All Repositories that were selected by the user with their options.
+   * Read and changed only while holding the monitor of this manager, which is also held when
+   * they are written, on the AWT thread or on the thread that calls {@link #saveOptions()}.
    */
   private Options options = null;
 
@@ -84,6 +105,30 @@ public class OptionsManager {
    */
   private static OptionsManager instance;
 
+  /**
+   * The decrypted Git credentials, by host. They are read for each fetch, pull and push, and decrypting
+   * them is slow. Dropped when the credentials are saved or rejected by the server.
+   */
+  private final Map<String, CredentialsBase> decryptedGitCredentials = new HashMap<>();
+
+  /**
+   * <code>true</code> if the options changed since they were last written.
+   */
+  private boolean dirty;
+
+  /**
+   * Writes the changed options after {@link #WRITE_DELAY}, on the AWT thread.
+   */
+  private final Timer writeTimer;
+
+  /**
+   * Singleton private constructor.
+   */
+  private OptionsManager() {
+    writeTimer = new Timer(WRITE_DELAY, e -> writeOptionsIfDirty());
+    writeTimer.setRepeats(false);
+  }
+
   /**
    * Gets the singleton instance
    * 
@@ -104,8 +149,7 @@ public class OptionsManager {
     if (options == null) {
       options = new Options();
       try {
-        JAXBContext jaxbContext = JAXBContext.newInstance(Options.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
+        Unmarshaller jaxbUnmarshaller = getJAXBContext().createUnmarshaller();
         if (OxygenGitPlugin.getInstance() == null) {
           // Running outside Oxygen, for example from tests.
           File optionsFileForTests = getOptionsFileForTests();
@@ -127,7 +171,7 @@ public class OptionsManager {
             // 2. Reset
             PluginWorkspaceProvider.getPluginWorkspace().getOptionsStorage().setOption(OLD_GIT_PLUGIN_OPTIONS, null);
             // 3. Save with the new option
-            saveOptions();
+            markDirty();
           } else {
             option = PluginWorkspaceProvider.getPluginWorkspace().getOptionsStorage().getOption(GIT_PLUGIN_OPTIONS,
                 null);
@@ -164,9 +208,59 @@ public class OptionsManager {
   }
 
   /**
-   * Save options.
+   * Gets the JAXB context of the options, creating it the first time.
+   * 
+   * @return The JAXB context.
+   * 
+   * @throws JAXBException If the context can't be created.
+   */
+  private static synchronized JAXBContext getJAXBContext() throws JAXBException {
+    if (jaxbContext == null) {
+      ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+      try {
+        Thread.currentThread().setContextClassLoader(JAXBContext.class.getClassLoader());
+        jaxbContext = JAXBContext.newInstance(Options.class);
+      } finally {
+        Thread.currentThread().setContextClassLoader(contextClassLoader);
+      }
+    }
+    return jaxbContext;
+  }
+
+  /**
+   * Marks the options as changed. They are written after {@link #WRITE_DELAY}, together with
+   * the other changes made meanwhile, so the actions that change them don't wait for the writing.
+   */
+  private synchronized void markDirty() {
+    dirty = true;
+    if (!writeTimer.isRunning()) {
+      writeTimer.start();
+    }
+  }
+
+  /**
+   * Writes the options if they changed since they were last written.
+   */
+  private synchronized void writeOptionsIfDirty() {
+    if (dirty) {
+      saveOptions();
+    }
+  }
+
+  /**
+   * @return <code>true</code> if some changes are waiting to be written.
    */
-  public void saveOptions() {
+  synchronized boolean isWritePending() {
+    return dirty || writeTimer.isRunning();
+  }
+
+  /**
+   * Save options. The changes waiting to be written are written now.
+   */
+  public synchronized void saveOptions() {
+    writeTimer.stop();
+    dirty = false;
+
     boolean save = true;
     StringWriter optionsWriter = new StringWriter();
     
@@ -174,8 +268,7 @@ public class OptionsManager {
     try {
       Thread.currentThread().setContextClassLoader(JAXBContext.class.getClassLoader());
 
-      JAXBContext jaxbContext = JAXBContext.newInstance(Options.class);
-      Marshaller jaxbMarshaller = jaxbContext.createMarshaller();
+      Marshaller jaxbMarshaller = getJAXBContext().createMarshaller();
       jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
       if (OxygenGitPlugin.getInstance() == null) {
         jaxbMarshaller.marshal(getOptions(), getOptionsFileForTests());
@@ -211,15 +304,16 @@ public class OptionsManager {
    * 
    * @param stagedResViewMode The view mode.
    */
-  public void saveStagedResViewMode(ResourcesViewMode stagedResViewMode) {
+  public synchronized void saveStagedResViewMode(ResourcesViewMode stagedResViewMode) {
     getOptions().setStagedResViewMode(stagedResViewMode);
+    markDirty();
   }
   
   /**
    * Init and get the options.
    * @return The initialized options.
    */
-  private Options getOptions() {
+  private synchronized Options getOptions() {
 	  loadOptions();
 	  return options;
   }
@@ -229,8 +323,9 @@ public class OptionsManager {
    * 
    * @param pullType The pull type.
    */
-  public void saveDefaultPullType(PullType pullType) {
+  public synchronized void saveDefaultPullType(PullType pullType) {
     getOptions().setDefaultPullType(pullType);
+    markDirty();
   }
   
   /**
@@ -238,8 +333,9 @@ public class OptionsManager {
    * 
    * @param unstagedResViewMode The view mode.
    */
-  public void saveUnstagedResViewMode(ResourcesViewMode unstagedResViewMode) {
+  public synchronized void saveUnstagedResViewMode(ResourcesViewMode unstagedResViewMode) {
     getOptions().setUnstagedResViewMode(unstagedResViewMode);
+    markDirty();
   }
 
   /**
@@ -247,8 +343,8 @@ public class OptionsManager {
    * 
    * @return a set with the repository options
    */
-  public List<String> getRepositoryEntries() {
-    return getOptions().getRepositoryLocations().getLocations();
+  public synchronized List<String> getRepositoryEntries() {
+    return new ArrayList<>(getOptions().getRepositoryLocations().getLocations());
   }
 
   /**
@@ -257,7 +353,7 @@ public class OptionsManager {
    * @param repositoryOption
    *          - options to be saved
    */
-  public void addRepository(String repositoryOption) {
+  public synchronized void addRepository(String repositoryOption) {
     LinkedList<String> locations = (LinkedList<String>) getOptions().getRepositoryLocations().getLocations();
     locations.remove(repositoryOption);
     locations.addFirst(repositoryOption);
@@ -265,7 +361,7 @@ public class OptionsManager {
       locations.removeLast();
     }
     
-    saveOptions();
+    markDirty();
   }
 
   /**
@@ -274,10 +370,10 @@ public class OptionsManager {
    * @param path
    *          - the path to the selected repository
    */
-  public void saveSelectedRepository(String path) {
+  public synchronized void saveSelectedRepository(String path) {
     getOptions().setSelectedRepository(path);
 
-    saveOptions();
+    markDirty();
   }
 
   /**
@@ -285,7 +381,7 @@ public class OptionsManager {
    * 
    * @return the path to the selected repository
    */
-  public String getSelectedRepository() {
+  public synchronized String getSelectedRepository() {
     return getOptions().getSelectedRepository();
   }
 
@@ -294,10 +390,10 @@ public class OptionsManager {
    * 
    * @param path The location/path of the repository.
    */
-  public void removeRepositoryLocation(String path) {
+  public synchronized void removeRepositoryLocation(String path) {
     getOptions().getRepositoryLocations().getLocations().remove(path);
 
-    saveOptions();
+    markDirty();
   }
   
   /**
@@ -305,10 +401,10 @@ public class OptionsManager {
    * 
    * @param paths The locations/paths of the repositories to remove.
    */
-  public void removeRepositoryLocations(Collection<String> paths) {
+  public synchronized void removeRepositoryLocations(Collection<String> paths) {
     getOptions().getRepositoryLocations().getLocations().removeAll(paths);
 
-    saveOptions();
+    markDirty();
   }
   
   /**
@@ -318,7 +414,7 @@ public class OptionsManager {
    * 
    * @return the token info items. Never <code>null</code>.
    */
-  public PersonalAccessTokenInfo getPersonalAccessTokenInfo(String host) {
+  public synchronized PersonalAccessTokenInfo getPersonalAccessTokenInfo(String host) {
     String decryptedTokenValue = null;
     if (host != null) {
       String tokenVal = null;
@@ -345,7 +441,10 @@ public class OptionsManager {
    * 
    * @param credentials The credentials to be saved.
    */
-  public void saveGitCredentials(CredentialsBase credentials) {
+  public synchronized void saveGitCredentials(CredentialsBase credentials) {
+    synchronized (decryptedGitCredentials) {
+      decryptedGitCredentials.clear();
+    }
     if (credentials != null) {
       // Keep only one type of credentials for a host
       CredentialsType type = credentials.getType();
@@ -396,7 +495,7 @@ public class OptionsManager {
         getOptions().getUserCredentialsList().setCredentials(Arrays.asList(uc));
       }
     }
-    saveOptions();
+    markDirty();
   }
   
   /**
@@ -430,7 +529,7 @@ public class OptionsManager {
         getOptions().getPersonalAccessTokensList().setPersonalAccessTokens(Arrays.asList(paTokenInfo));
       }
     }
-    saveOptions();
+    markDirty();
   }
 
   /**
@@ -441,6 +540,41 @@ public class OptionsManager {
    * @return the credentials. Never <code>null</code>.
    */
   public CredentialsBase getGitCredentials(String host) {
+    CredentialsBase credentials;
+    synchronized (decryptedGitCredentials) {
+      credentials = decryptedGitCredentials.get(host);
+    }
+    if (credentials == null) {
+      credentials = decryptGitCredentials(host);
+      if (host != null) {
+        synchronized (decryptedGitCredentials) {
+          decryptedGitCredentials.put(host, credentials);
+        }
+      }
+    }
+    return credentials;
+  }
+
+  /**
+   * Forgets the decrypted credentials of a host, for example because the server rejected them.
+   * They are decrypted again from the options the next time they are needed.
+   * 
+   * @param host Host.
+   */
+  public void invalidateGitCredentials(String host) {
+    synchronized (decryptedGitCredentials) {
+      decryptedGitCredentials.remove(host);
+    }
+  }
+
+  /**
+   * Reads and decrypts the user credentials for git push and pull from the options.
+   * 
+   * @param host Host.
+   * 
+   * @return the credentials. Never <code>null</code>.
+   */
+  private CredentialsBase decryptGitCredentials(String host) {
     String username = null;
     String decryptedPassword = null;
     String decryptedToken = null;
@@ -471,7 +605,7 @@ public class OptionsManager {
   /**
    * @return All credentials: user + password ones, as well as tokens.
    */
-  private List<CredentialsBase> getAllCredentials() {
+  private synchronized List<CredentialsBase> getAllCredentials() {
     List<CredentialsBase> allCredentials = new ArrayList<>();
     List<UserAndPasswordCredentials> userAndPassCredentialsList = getOptions().getUserCredentialsList().getCredentials();
     if (userAndPassCredentialsList != null) { 
@@ -491,8 +625,8 @@ public class OptionsManager {
    * 
    * @return a list with the previously committed messages
    */
-  public List<String> getPreviouslyCommitedMessages() {
-    return getOptions().getCommitMessages().getMessages();
+  public synchronized List<String> getPreviouslyCommitedMessages() {
+    return new ArrayList<>(getOptions().getCommitMessages().getMessages());
   }
 
   /**
@@ -501,7 +635,7 @@ public class OptionsManager {
    * @param commitMessage
    *          - the last commitMessage
    */
-  public void saveCommitMessage(String commitMessage) {
+  public synchronized void saveCommitMessage(String commitMessage) {
     List<String> messages = getOptions().getCommitMessages().getMessages();
     if (messages.contains(commitMessage)) {
       messages.remove(commitMessage);
@@ -512,7 +646,7 @@ public class OptionsManager {
     }
     getOptions().getCommitMessages().setMessages(messages);
 
-    saveOptions();
+    markDirty();
   }
 
   /**
@@ -521,8 +655,8 @@ public class OptionsManager {
    * 
    * @return a list with the last MAXIMUM_PROJECTS_TESTED paths
    */
-  public List<String> getProjectsTestedForGit() {
-    return getOptions().getProjectsTestsForGit().getPaths();
+  public synchronized List<String> getProjectsTestedForGit() {
+    return new ArrayList<>(getOptions().getProjectsTestsForGit().getPaths());
   }
 
   /**
@@ -531,7 +665,7 @@ public class OptionsManager {
    * @param projectPath
    *          - the project path to be saved
    */
-  public void saveProjectTestedForGit(String projectPath) {
+  public synchronized void saveProjectTestedForGit(String projectPath) {
     List<String> projectsPath = getOptions().getProjectsTestsForGit().getPaths();
     projectsPath.add(projectPath);
     if (projectsPath.size() > MAXIMUM_PROJECTS_TESTED) {
@@ -539,7 +673,45 @@ public class OptionsManager {
     }
     getOptions().getProjectsTestsForGit().setPaths(projectsPath);
 
-    saveOptions();
+    markDirty();
+  }
+
+  /**
+   * Gets the repository found in the folders of a project, when the project was last parsed.
+   * 
+   * @param projectFile  The absolute path of the *.xpr file.
+   * @param lastModified The current modification time of the project file.
+   * @param size         The current size of the project file.
+   * 
+   * @return The detection result. <code>null</code> if the project was not parsed or if it changed since.
+   */
+  public synchronized ProjectRepositoryInfo getProjectRepository(String projectFile, long lastModified, long size) {
+    ProjectRepositoryInfo toReturn = null;
+    for (ProjectRepositoryInfo info : getOptions().getProjectRepositories().getProjectRepositories()) {
+      if (info.getProjectFile().equals(projectFile)) {
+        if (info.getLastModified() == lastModified && info.getSize() == size) {
+          toReturn = info;
+        }
+        break;
+      }
+    }
+    return toReturn;
+  }
+
+  /**
+   * Saves the repository found in the folders of a project.
+   * 
+   * @param projectRepository The detection result.
+   */
+  public synchronized void saveProjectRepository(ProjectRepositoryInfo projectRepository) {
+    List<ProjectRepositoryInfo> projectRepositories = getOptions().getProjectRepositories().getProjectRepositories();
+    projectRepositories.removeIf(info -> info.getProjectFile().equals(projectRepository.getProjectFile()));
+    projectRepositories.add(0, projectRepository);
+    if (projectRepositories.size() > MAXIMUM_PROJECT_REPOSITORIES) {
+      projectRepositories.remove(projectRepositories.size() - 1);
+    }
+
+    markDirty();
   }
 
   /**
@@ -549,7 +721,7 @@ public class OptionsManager {
    * @param destinationPath
    *          - the destination path entered by the user
    */
-  public void saveDestinationPath(String destinationPath) {
+  public synchronized void saveDestinationPath(String destinationPath) {
     LinkedList<String> destinationPaths = (LinkedList<String>) getOptions().getDestinationPaths().getPaths();
     destinationPaths.remove(destinationPath);
     destinationPaths.add(0, destinationPath);
@@ -557,7 +729,7 @@ public class OptionsManager {
       destinationPaths.removeLast();
     }
 
-    saveOptions();
+    markDirty();
   }
 
   /**
@@ -565,28 +737,28 @@ public class OptionsManager {
    * 
    * @return a list containing the destinations paths
    */
-  public List<String> getDestinationPaths() {
-    return getOptions().getDestinationPaths().getPaths();
+  public synchronized List<String> getDestinationPaths() {
+    return new ArrayList<>(getOptions().getDestinationPaths().getPaths());
   }
   
   /**
    * @return the staged resources view mode: tree or table.
    */
-  public ResourcesViewMode getStagedResViewMode() {
+  public synchronized ResourcesViewMode getStagedResViewMode() {
     return getOptions().getStagedResViewMode();
   }
   
   /**
    * @return The default pull type.
    */
-  public PullType getDefaultPullType() {
+  public synchronized PullType getDefaultPullType() {
     return getOptions().getDefaultPullType();
   }
   
   /**
    * @return the unstaged resources view mode: tree or table.
    */
-  public ResourcesViewMode getUntagedResViewMode() {
+  public synchronized ResourcesViewMode getUntagedResViewMode() {
     return getOptions().getUnstagedResViewMode();
   }
   
@@ -597,7 +769,7 @@ public class OptionsManager {
    * 
    * @return The stored answer for the given prompt or <code>null</code> if this question was never asked.
    */
-  public Boolean getSshPromptAnswer(String prompt) {
+  public synchronized Boolean getSshPromptAnswer(String prompt) {
     return getOptions().getSshPromptAnswers().get(prompt);
   }
   
@@ -607,9 +779,9 @@ public class OptionsManager {
    * @param prompt The prompt.
    * @param answer The answer.
    */
-  public void saveSshPrompt(String prompt, boolean answer) {
+  public synchronized void saveSshPrompt(String prompt, boolean answer) {
     getOptions().getSshPromptAnswers().put(prompt, answer);
-    saveOptions();
+    markDirty();
   }
 
   /**
@@ -618,11 +790,12 @@ public class OptionsManager {
    * @param passphrase
    *          - the SSH pass phrase
    */
-  public void saveSshPassphare(String passphrase) {
+  public synchronized void saveSshPassphare(String passphrase) {
     String encryptPassphrase = passphrase == null ? null
         : ((StandalonePluginWorkspace) PluginWorkspaceProvider.getPluginWorkspace())
               .getUtilAccess().encrypt(passphrase);
     getOptions().setPassphrase(encryptPassphrase);
+    markDirty();
   }
 
   /**
@@ -630,7 +803,7 @@ public class OptionsManager {
    * 
    * @return the SSH pass phrase
    */
-  public String getSshPassphrase() {
+  public synchronized String getSshPassphrase() {
     String decryptPassphrase = null;
     if (OxygenGitPlugin.getInstance() != null) {
       decryptPassphrase = ((StandalonePluginWorkspace) PluginWorkspaceProvider.getPluginWorkspace())
@@ -643,27 +816,29 @@ public class OptionsManager {
     return decryptPassphrase;
   }
   
-  public boolean isAutoPushWhenCommitting() {
+  public synchronized boolean isAutoPushWhenCommitting() {
     return getOptions().isAutoPushWhenCommitting();
   }
   
-  public void setAutoPushWhenCommitting(boolean isAutoPushWhenCommitting) {
+  public synchronized void setAutoPushWhenCommitting(boolean isAutoPushWhenCommitting) {
     getOptions().setAutoPushWhenCommitting(isAutoPushWhenCommitting);
+    markDirty();
   }
   
   /**
    * Set when to verify for remote changes in the repository.
    * @param notifyAboutNewRemoteCommits Option chosen about if to verify or not.
    */
- public void setNotifyAboutNewRemoteCommits(boolean notifyAboutNewRemoteCommits) {
+ public synchronized void setNotifyAboutNewRemoteCommits(boolean notifyAboutNewRemoteCommits) {
    getOptions().setNotifyAboutNewRemoteCommits(notifyAboutNewRemoteCommits);
+   markDirty();
  }
  
  /**
   * Get the option about when to verify about remote changes in the repository.
   * @return Option stored about to verify or not.
   */
- public boolean isNotifyAboutNewRemoteCommits() {
+ public synchronized boolean isNotifyAboutNewRemoteCommits() {
    return getOptions().isNotifyAboutNewRemoteCommits();
  }
  
@@ -671,14 +846,15 @@ public class OptionsManager {
   * @param isCheckoutNewlyCreatedLocalBranch <code>true</code> to automatically
   * checkout a newly created local branch.
   */
- public void setCheckoutNewlyCreatedLocalBranch(boolean isCheckoutNewlyCreatedLocalBranch) {
+ public synchronized void setCheckoutNewlyCreatedLocalBranch(boolean isCheckoutNewlyCreatedLocalBranch) {
    getOptions().setCheckoutNewlyCreatedLocalBranch(isCheckoutNewlyCreatedLocalBranch);
+   markDirty();
  }
  
  /**
   * @return <code>true</code> to automatically checkout a newly created local branch.
   */
- public boolean isCheckoutNewlyCreatedLocalBranch() {
+ public synchronized boolean isCheckoutNewlyCreatedLocalBranch() {
    return getOptions().isCheckoutNewlyCreatedLocalBranch();
  }
  
@@ -688,7 +864,7 @@ public class OptionsManager {
   *                     {@link org.eclipse.jgit.lib.Repository.getIdentifier()}.
   * @return The commit ID that comes from  {@link org.eclipse.jgit.revwalk.RevCommit.getId().getName()}.
   */
- public String getWarnOnChangeCommitId(String repositoryId) {
+ public synchronized String getWarnOnChangeCommitId(String repositoryId) {
    return getOptions().getWarnOnChangeCommitId(repositoryId);
  }
  /**
@@ -698,8 +874,9 @@ public class OptionsManager {
   * @param commitId     The newest commit ID, obtained from 
   *                     {@link org.eclipse.jgit.revwalk.RevCommit.getId().getName()}.
   */
- public void setWarnOnChangeCommitId(String repositoryId, String commitId) {
+ public synchronized void setWarnOnChangeCommitId(String repositoryId, String commitId) {
    getOptions().setWarnOnChangeCommitId(repositoryId, commitId);
+   markDirty();
  }
 
  /**
@@ -707,21 +884,22 @@ public class OptionsManager {
   *  
   * @param whatToDo What to do.
   */
- public void setWhenRepoDetectedInProject(WhenRepoDetectedInProject whatToDo) {
+ public synchronized void setWhenRepoDetectedInProject(WhenRepoDetectedInProject whatToDo) {
    getOptions().setWhenRepoDetectedInProject(whatToDo);
+   markDirty();
  }
 
  /**
   * @return what to do when a repo is detected inside an Oxygen project.
   */
- public WhenRepoDetectedInProject getWhenRepoDetectedInProject() {
+ public synchronized WhenRepoDetectedInProject getWhenRepoDetectedInProject() {
    return getOptions().getWhenRepoDetectedInProject();
  }
 
   /**
    * @return <code>true</code> to update submodules after a pull.
    */
-  public boolean getUpdateSubmodulesOnPull() {
+  public synchronized boolean getUpdateSubmodulesOnPull() {
     return getOptions().getUpdateSubmodulesOnPull();
   }
   
@@ -730,8 +908,56 @@ public class OptionsManager {
    * 
    * @param updateSubmodules <code>true</code> to execute the equivalent of a "git submodule update --recursive".
    */
-  public void setUpdateSubmodulesOnPull(boolean updateSubmodules) {
+  public synchronized void setUpdateSubmodulesOnPull(boolean updateSubmodules) {
     getOptions().setUpdateSubmodulesOnPull(updateSubmodules);
+    markDirty();
+  }
+  
+  /**
+   * @return <code>true</code> to fetch only the upstream of the current branch.
+   * <code>false</code> to fetch all the branches.
+   */
+  public synchronized boolean isFetchOnlyTrackedBranch() {
+    return getOptions().isFetchOnlyTrackedBranch();
+  }
+  
+  /**
+   * @param fetchOnlyTrackedBranch <code>true</code> to fetch only the upstream of the current branch.
+   */
+  public synchronized void setFetchOnlyTrackedBranch(boolean fetchOnlyTrackedBranch) {
+    getOptions().setFetchOnlyTrackedBranch(fetchOnlyTrackedBranch);
+    markDirty();
+  }
+  
+  /**
+   * @return <code>true</code> to verify the objects received when fetching. Safer, but slower.
+   */
+  public synchronized boolean isCheckFetchedObjects() {
+    return getOptions().isCheckFetchedObjects();
+  }
+  
+  /**
+   * @param checkFetchedObjects <code>true</code> to verify the objects received when fetching.
+   */
+  public synchronized void setCheckFetchedObjects(boolean checkFetchedObjects) {
+    getOptions().setCheckFetchedObjects(checkFetchedObjects);
+    markDirty();
+  }
+  
+  /**
+   * @return <code>true</code> to ask for thin packs when fetching. Less data is transferred,
+   * but the received pack must be completed locally.
+   */
+  public synchronized boolean isFetchThinPacks() {
+    return getOptions().isFetchThinPacks();
+  }
+  
+  /**
+   * @param fetchThinPacks <code>true</code> to ask for thin packs when fetching.
+   */
+  public synchronized void setFetchThinPacks(boolean fetchThinPacks) {
+    getOptions().setFetchThinPacks(fetchThinPacks);
+    markDirty();
   }
  
 }
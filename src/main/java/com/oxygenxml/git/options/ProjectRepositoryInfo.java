@@ -0,0 +1,122 @@
+package com.oxygenxml.git.options;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import com.oxygenxml.git.utils.Equaler;
+
+/**
+ * The repository found inside the folders of a project, for JAXB.
+ * Valid as long as the project file has the same modification time and size.
+ */
+@XmlRootElement(name = "projectRepository")
+@XmlAccessorType(XmlAccessType.FIELD)
+public class ProjectRepositoryInfo {
+
+  /**
+   * The absolute path of the *.xpr file.
+   */
+  @XmlElement(name = "projectFile")
+  private String projectFile;
+
+  /**
+   * The modification time of the project file when it was parsed.
+   */
+  @XmlElement(name = "lastModified")
+  private long lastModified;
+
+  /**
+   * The size of the project file when it was parsed.
+   */
+  @XmlElement(name = "size")
+  private long size;
+
+  /**
+   * The working copy found inside the folders of the project. The projects without one are not stored,
+   * because a working copy can be created in their folders without changing the project file.
+   */
+  @XmlElement(name = "repository")
+  private String repository;
+
+  /**
+   * Default constructor.
+   */
+  public ProjectRepositoryInfo() {
+    // For JAXB.
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param projectFile  The absolute path of the *.xpr file.
+   * @param lastModified The modification time of the project file when it was parsed.
+   * @param size         The size of the project file when it was parsed.
+   * @param repository   The working copy found inside the folders of the project.
+   */
+  public ProjectRepositoryInfo(String projectFile, long lastModified, long size, String repository) {
+    this.projectFile = projectFile;
+    this.lastModified = lastModified;
+    this.size = size;
+    this.repository = repository;
+  }
+
+  /**
+   * @return The absolute path of the *.xpr file.
+   */
+  public String getProjectFile() {
+    return projectFile;
+  }
+
+  /**
+   * @return The modification time of the project file when it was parsed.
+   */
+  public long getLastModified() {
+    return lastModified;
+  }
+
+  /**
+   * @return The size of the project file when it was parsed.
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * @return The working copy found inside the folders of the project.
+   */
+  public String getRepository() {
+    return repository;
+  }
+
+  @Override
+  public String toString() {
+    return "ProjectRepositoryInfo [projectFile=" + projectFile + ", lastModified=" + lastModified
+        + ", size=" + size + ", repository=" + repository + "]";
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = 1;
+    result = prime * result + ((projectFile == null) ? 0 : projectFile.hashCode());
+    result = prime * result + (int) (lastModified ^ (lastModified >>> 32));
+    result = prime * result + (int) (size ^ (size >>> 32));
+    result = prime * result + ((repository == null) ? 0 : repository.hashCode());
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    boolean toReturn = false;
+    if (obj instanceof ProjectRepositoryInfo) {
+      ProjectRepositoryInfo info = (ProjectRepositoryInfo) obj;
+      toReturn = Equaler.verifyEquals(projectFile, info.getProjectFile())
+          && lastModified == info.getLastModified()
+          && size == info.getSize()
+          && Equaler.verifyEquals(repository, info.getRepository());
+    }
+    return toReturn;
+  }
+}
@@ -0,0 +1,57 @@
+package com.oxygenxml.git.options;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import com.oxygenxml.git.utils.Equaler;
+
+/**
+ * Entity for JAXB to store the repositories found in the last opened projects.
+ */
+@XmlRootElement(name = "projectRepositories")
+@XmlAccessorType(XmlAccessType.FIELD)
+public class ProjectRepositoryInfoList {
+
+  /**
+   * The repositories found in the projects, the most recently used first.
+   */
+  @XmlElement(name = "projectRepository")
+  private List<ProjectRepositoryInfo> projectRepositories = new ArrayList<>();
+
+  /**
+   * @return The repositories found in the projects, the most recently used first.
+   */
+  public List<ProjectRepositoryInfo> getProjectRepositories() {
+    return projectRepositories;
+  }
+
+  /**
+   * @param projectRepositories The repositories found in the projects.
+   */
+  public void setProjectRepositories(List<ProjectRepositoryInfo> projectRepositories) {
+    this.projectRepositories = projectRepositories;
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = 1;
+    result = prime * result + ((projectRepositories == null) ? 0 : projectRepositories.hashCode());
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    boolean toReturn = false;
+    if (obj instanceof ProjectRepositoryInfoList) {
+      ProjectRepositoryInfoList list = (ProjectRepositoryInfoList) obj;
+      toReturn = Equaler.verifyListEquals(projectRepositories, list.getProjectRepositories());
+    }
+    return toReturn;
+  }
+}
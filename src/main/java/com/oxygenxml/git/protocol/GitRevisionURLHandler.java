@@ -103,51 +103,70 @@ public class GitRevisionURLHandler extends URLStreamHandler {
 			}
 			
 			GitAccess gitAccess = GitAccess.getInstance();
+			try {
+			  fileObject = RevisionContentCache.getInstance().getObjectId(
+			      gitAccess.getRepository(), currentHost, path, this::resolveObjectId);
+			} catch (NoRepositorySelected e) {
+			  logger.debug(e, e);
+			  fileObject = resolveObjectId();
+			}
 			
+			if (fileObject == null) {
+			  throw new IOException("Unable to obtain commit ID for: " + getURL());
+			}
+		}
+
+		/**
+		 * Resolves the version of the file from the repository.
+		 * 
+		 * @return The ID of the blob. May be <code>null</code>.
+		 * 
+		 * @throws IOException
+		 */
+		private ObjectId resolveObjectId() throws IOException {
+			GitAccess gitAccess = GitAccess.getInstance();
+			ObjectId objectId = null;
 			switch(currentHost) {
 			  case VersionIdentifier.MINE:
 			  case VersionIdentifier.MINE_RESOLVED:
-			    fileObject = gitAccess.getCommit(Commit.MINE, path);
+			    objectId = gitAccess.getCommit(Commit.MINE, path);
 			    break;
 			  case VersionIdentifier.INDEX_OR_LAST_COMMIT:
 			    try {
-	          fileObject = gitAccess.locateObjectIdInIndex(path);
+	          objectId = gitAccess.locateObjectIdInIndex(path);
 	        } catch (Exception ex) {
 	          logger.error(ex, ex);
 	        }
-	        if (fileObject == null) {
-	          fileObject = gitAccess.getCommit(Commit.LOCAL, path);
+	        if (objectId == null) {
+	          objectId = gitAccess.getCommit(Commit.LOCAL, path);
 	        }
 			    break;
 			  case VersionIdentifier.LAST_COMMIT:
-			    fileObject = gitAccess.getCommit(Commit.LOCAL, path);
+			    objectId = gitAccess.getCommit(Commit.LOCAL, path);
 			    break;
 			  case VersionIdentifier.THEIRS:
 			  case VersionIdentifier.MINE_ORIGINAL:
-			    fileObject = gitAccess.getCommit(Commit.THEIRS, path);
+			    objectId = gitAccess.getCommit(Commit.THEIRS, path);
 			    break;
 			  case VersionIdentifier.BASE:
-			    fileObject = gitAccess.getCommit(Commit.BASE, path);
+			    objectId = gitAccess.getCommit(Commit.BASE, path);
 			    break;
 			  case VersionIdentifier.CURRENT_SUBMODULE:
-			    fileObject = gitAccess.getSubmoduleAccess().submoduleCompare(path, false);
+			    objectId = gitAccess.getSubmoduleAccess().submoduleCompare(path, false);
 			    break;
 			  case VersionIdentifier.PREVIOUSLY_SUBMODULE:
-			    fileObject = gitAccess.getSubmoduleAccess().submoduleCompare(path, true);
+			    objectId = gitAccess.getSubmoduleAccess().submoduleCompare(path, true);
 			    break;
 			  default:
 	        // Probably an ID.
 	        try {
-	          fileObject = RevCommitUtil.getObjectID(gitAccess.getRepository(), currentHost, path);
+	          objectId = RevCommitUtil.getObjectID(gitAccess.getRepository(), currentHost, path);
 	        } catch (IOException | NoRepositorySelected e) {
 	          throw new IOException("Unable to extract GIT data from: " + getURL(), e);
 	        }
 			    break;
 			}
-			
-			if (fileObject == null) {
-			  throw new IOException("Unable to obtain commit ID for: " + getURL());
-			}
+			return objectId;
 		}
 
 		/**
@@ -167,7 +186,11 @@ public class GitRevisionURLHandler extends URLStreamHandler {
 				return new FileInputStream(temp);
 			}
 			
-			return GitAccess.getInstance().getInputStream(fileObject);
+			try {
+			  return RevisionContentCache.getInstance().openBlob(GitAccess.getInstance().getRepository(), fileObject);
+			} catch (NoRepositorySelected e) {
+			  throw new IOException(e);
+			}
 		}
 
 		/**
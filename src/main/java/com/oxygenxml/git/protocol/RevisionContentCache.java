@@ -0,0 +1,301 @@
+package com.oxygenxml.git.protocol;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.jgit.internal.storage.file.FileSnapshot;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Caches what the "git" protocol reads from the repository.<br><br>
+ *
+ * The diff tool opens the same URLs many times, to detect the content type and to load the content.
+ * Resolving a URL to a blob walks the index or a commit tree, and reading the blob inflates it.
+ * So both steps are cached:
+ * <ul>
+ * <li>The blob ID of each (repository, version identifier, path). An entry is reused as long as the
+ * state it was resolved from did not change: HEAD and the index. Revisions given by a commit ID
+ * never change.</li>
+ * <li>The content of the recently read blobs, up to a memory ceiling. Large blobs are not cached.</li>
+ * </ul>
+ */
+final class RevisionContentCache {
+  /**
+   * Resolves a version of a file to its blob.
+   */
+  @FunctionalInterface
+  interface Resolver {
+    /**
+     * @return The blob ID. May be <code>null</code>.
+     *
+     * @throws IOException If the repository can't be read.
+     */
+    ObjectId resolve() throws IOException;
+  }
+
+  /**
+   * What a resolved version depends on, from the least to the most.
+   */
+  private enum StateDependency {
+    /**
+     * Nothing. The version is a commit ID.
+     */
+    NONE,
+    /**
+     * The commit checked out.
+     */
+    HEAD,
+    /**
+     * The commit checked out and the index.
+     */
+    HEAD_AND_INDEX
+  }
+
+  /**
+   * How many resolved versions are kept.
+   */
+  private static final int MAX_RESOLVED_VERSIONS = 1000;
+  /**
+   * The total size of the cached blobs, in bytes.
+   */
+  private static final long MAX_CACHED_BYTES = 32L * 1024 * 1024;
+  /**
+   * Larger blobs are read from the repository every time, in bytes.
+   */
+  private static final long MAX_CACHED_BLOB_SIZE = 4L * 1024 * 1024;
+
+  /**
+   * The singleton instance.
+   */
+  private static final RevisionContentCache instance = new RevisionContentCache();
+
+  /**
+   * The resolved versions, the least recently used first.
+   */
+  private final Map<String, ResolvedVersion> resolvedVersions =
+      new LinkedHashMap<String, ResolvedVersion>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ResolvedVersion> eldest) {
+          return size() > MAX_RESOLVED_VERSIONS;
+        }
+      };
+  /**
+   * The content of the blobs, the least recently used first.
+   */
+  private final LinkedHashMap<ObjectId, byte[]> blobs = new LinkedHashMap<>(16, 0.75f, true);
+  /**
+   * The total size of the cached blobs, in bytes.
+   */
+  private long cachedBytes;
+
+  /**
+   * Singleton private constructor.
+   */
+  private RevisionContentCache() {}
+
+  /**
+   * @return The singleton instance.
+   */
+  static RevisionContentCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * Gets the blob of a version of a file, resolving it only if the state it depends on changed.
+   *
+   * @param repository        The repository.
+   * @param versionIdentifier A constant from {@link VersionIdentifier} or a commit ID.
+   * @param path              The path of the file, relative to the working tree.
+   * @param resolver          Resolves the version when it is not cached.
+   *
+   * @return The blob ID. May be <code>null</code>.
+   *
+   * @throws IOException If the repository can't be read.
+   */
+  ObjectId getObjectId(Repository repository, String versionIdentifier, String path, Resolver resolver)
+      throws IOException {
+    StateDependency dependency = getStateDependency(versionIdentifier);
+    if (dependency == null) {
+      return resolver.resolve();
+    }
+
+    String key = repository.getDirectory() + "\n" + versionIdentifier + "\n" + path;
+    ResolvedVersion cached;
+    synchronized (this) {
+      cached = resolvedVersions.get(key);
+    }
+    if (cached != null && cached.isValid(repository)) {
+      return cached.objectId;
+    }
+
+    // Capture the state before resolving, so that a change made meanwhile invalidates the entry.
+    ResolvedVersion resolved = new ResolvedVersion(repository, dependency);
+    resolved.objectId = resolver.resolve();
+    if (resolved.objectId != null) {
+      synchronized (this) {
+        resolvedVersions.put(key, resolved);
+      }
+    }
+    return resolved.objectId;
+  }
+
+  /**
+   * Opens the content of a blob, from memory if it was read recently.
+   *
+   * @param repository The repository.
+   * @param blobId     The blob ID.
+   *
+   * @return The content.
+   *
+   * @throws IOException If the blob can't be read.
+   */
+  InputStream openBlob(Repository repository, ObjectId blobId) throws IOException {
+    byte[] content;
+    synchronized (this) {
+      content = blobs.get(blobId);
+    }
+    if (content == null) {
+      ObjectLoader loader = repository.open(blobId);
+      if (loader.isLarge() || loader.getSize() > MAX_CACHED_BLOB_SIZE) {
+        return loader.openStream();
+      }
+      content = loader.getCachedBytes();
+      putBlob(blobId.copy(), content);
+    }
+    return new ByteArrayInputStream(content);
+  }
+
+  /**
+   * Drops everything.
+   */
+  synchronized void clear() {
+    resolvedVersions.clear();
+    blobs.clear();
+    cachedBytes = 0;
+  }
+
+  /**
+   * Caches the content of a blob and evicts the least recently used ones above the memory ceiling.
+   *
+   * @param blobId  The blob ID.
+   * @param content The content.
+   */
+  private synchronized void putBlob(ObjectId blobId, byte[] content) {
+    if (blobs.put(blobId, content) == null) {
+      cachedBytes += content.length;
+      Iterator<byte[]> iterator = blobs.values().iterator();
+      while (cachedBytes > MAX_CACHED_BYTES && iterator.hasNext()) {
+        cachedBytes -= iterator.next().length;
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Finds out what a version depends on.
+   *
+   * @param versionIdentifier A constant from {@link VersionIdentifier} or a commit ID.
+   *
+   * @return What the version depends on. <code>null</code> if it should not be cached,
+   * like the submodule versions and the symbolic revisions.
+   */
+  private static StateDependency getStateDependency(String versionIdentifier) {
+    StateDependency dependency;
+    switch (versionIdentifier) {
+      case VersionIdentifier.MINE:
+      case VersionIdentifier.MINE_RESOLVED:
+      case VersionIdentifier.MINE_ORIGINAL:
+      case VersionIdentifier.THEIRS:
+      case VersionIdentifier.BASE:
+        // The conflict stages from the index or, outside conflicts, the last commit.
+      case VersionIdentifier.INDEX_OR_LAST_COMMIT:
+        dependency = StateDependency.HEAD_AND_INDEX;
+        break;
+      case VersionIdentifier.LAST_COMMIT:
+        dependency = StateDependency.HEAD;
+        break;
+      case VersionIdentifier.CURRENT_SUBMODULE:
+      case VersionIdentifier.PREVIOUSLY_SUBMODULE:
+        dependency = null;
+        break;
+      default:
+        dependency = ObjectId.isId(versionIdentifier) ? StateDependency.NONE : null;
+        break;
+    }
+    return dependency;
+  }
+
+  /**
+   * Reads the commit checked out.
+   *
+   * @param repository The repository.
+   *
+   * @return The commit ID. <code>null</code> on an unborn branch.
+   *
+   * @throws IOException If HEAD can't be read.
+   */
+  private static ObjectId readHead(Repository repository) throws IOException {
+    Ref head = repository.exactRef(Constants.HEAD);
+    return head != null ? head.getObjectId() : null;
+  }
+
+  /**
+   * A resolved version and the state it was resolved from.
+   */
+  private static class ResolvedVersion {
+    /**
+     * What the version depends on.
+     */
+    private final StateDependency dependency;
+    /**
+     * The commit checked out.
+     */
+    private final ObjectId head;
+    /**
+     * The index file.
+     */
+    private final FileSnapshot index;
+    /**
+     * The blob.
+     */
+    private ObjectId objectId;
+
+    /**
+     * Captures the current state.
+     *
+     * @param repository The repository.
+     * @param dependency What the version depends on.
+     *
+     * @throws IOException If HEAD can't be read.
+     */
+    ResolvedVersion(Repository repository, StateDependency dependency) throws IOException {
+      this.dependency = dependency;
+      head = dependency.compareTo(StateDependency.HEAD) >= 0 ? readHead(repository) : null;
+      index = dependency.compareTo(StateDependency.HEAD_AND_INDEX) >= 0
+          ? FileSnapshot.save(repository.getIndexFile()) : null;
+    }
+
+    /**
+     * Checks if the state the version was resolved from is still the current one.
+     *
+     * @param repository The repository.
+     *
+     * @return <code>true</code> if the resolved version is still valid.
+     *
+     * @throws IOException If HEAD can't be read.
+     */
+    boolean isValid(Repository repository) throws IOException {
+      return (dependency.compareTo(StateDependency.HEAD) < 0 || Objects.equals(head, readHead(repository)))
+          && (index == null || !index.isModified(repository.getIndexFile()));
+    }
+  }
+}
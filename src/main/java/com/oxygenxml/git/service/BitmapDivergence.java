@@ -0,0 +1,114 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.BitmapIndex;
+import org.eclipse.jgit.lib.BitmapIndex.Bitmap;
+import org.eclipse.jgit.lib.BitmapIndex.BitmapBuilder;
+import org.eclipse.jgit.lib.BitmapObject;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.BitmapWalker;
+import org.eclipse.jgit.revwalk.ObjectWalk;
+
+/**
+ * The commits that a branch has and another one doesn't, and the other way around, computed
+ * with the reachability bitmaps written by {@link RepositoryMaintenance}.<br><br>
+ *
+ * A bitmap gives all the objects reachable from a commit at once, so the divergence is a difference
+ * of two bitmaps instead of a walk down to the merge base. Only the commits newer than the closest
+ * commit with a bitmap are walked.
+ */
+final class BitmapDivergence {
+  /**
+   * The commits reachable from the first branch and not from the second one.
+   */
+  private final List<ObjectId> ahead;
+  /**
+   * The commits reachable from the second branch and not from the first one.
+   */
+  private final List<ObjectId> behind;
+
+  /**
+   * Constructor.
+   *
+   * @param ahead  The commits reachable from the first branch and not from the second one.
+   * @param behind The commits reachable from the second branch and not from the first one.
+   */
+  private BitmapDivergence(List<ObjectId> ahead, List<ObjectId> behind) {
+    this.ahead = ahead;
+    this.behind = behind;
+  }
+
+  /**
+   * Computes the divergence of two commits.
+   *
+   * @param repository The repository.
+   * @param local      The tip of the local branch.
+   * @param upstream   The tip of the upstream branch.
+   *
+   * @return The divergence. <code>null</code> if the repository has no reachability bitmaps,
+   * in which case the history must be walked.
+   *
+   * @throws IOException If the objects can't be read.
+   */
+  static BitmapDivergence compute(Repository repository, AnyObjectId local, AnyObjectId upstream)
+      throws IOException {
+    try (ObjectReader reader = repository.newObjectReader()) {
+      BitmapIndex bitmapIndex = reader.getBitmapIndex();
+      if (bitmapIndex == null) {
+        return null;
+      }
+
+      try (ObjectWalk walk = new ObjectWalk(reader)) {
+        BitmapWalker bitmapWalker = new BitmapWalker(walk, bitmapIndex, NullProgressMonitor.INSTANCE);
+        BitmapBuilder fromLocal = bitmapWalker.findObjects(
+            Collections.singleton(local.toObjectId()), null, true);
+        BitmapBuilder fromUpstream = bitmapWalker.findObjects(
+            Collections.singleton(upstream.toObjectId()), null, true);
+
+        return new BitmapDivergence(
+            getCommits(bitmapIndex.newBitmapBuilder().or(fromLocal).andNot(fromUpstream)),
+            getCommits(bitmapIndex.newBitmapBuilder().or(fromUpstream).andNot(fromLocal)));
+      }
+    }
+  }
+
+  /**
+   * Extracts the commits from a bitmap. The bitmap also contains trees and blobs.
+   *
+   * @param bitmap The bitmap.
+   *
+   * @return The commits.
+   */
+  private static List<ObjectId> getCommits(Bitmap bitmap) {
+    List<ObjectId> commits = new ArrayList<>();
+    for (BitmapObject object : bitmap) {
+      if (object.getType() == Constants.OBJ_COMMIT) {
+        commits.add(object.getObjectId());
+      }
+    }
+    return commits;
+  }
+
+  /**
+   * @return The commits reachable from the local branch and not from the upstream branch. Not ordered.
+   */
+  List<ObjectId> getAhead() {
+    return ahead;
+  }
+
+  /**
+   * @return The commits reachable from the upstream branch and not from the local branch. Not ordered.
+   */
+  List<ObjectId> getBehind() {
+    return behind;
+  }
+}
@@ -0,0 +1,229 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+
+import org.eclipse.jgit.lib.BranchConfig;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.RevWalkUtils;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+
+/**
+ * The state of the current branch compared with its upstream branch: the branch, the upstream branch
+ * and how many commits each one has that the other doesn't.<br><br>
+ *
+ * It is computed once, from the reachability bitmaps when the repository has them, otherwise with
+ * a single merge-base walk, and then passed along. For example, the push
+ * checks it before pushing and returns it, updated, in the {@link PushResponse}, so the toolbar can
+ * show the new counters without computing them again.
+ */
+public class BranchStatus {
+  /**
+   * The current branch.
+   */
+  private final BranchInfo branchInfo;
+  /**
+   * The remote of the current branch, from the configuration. <code>null</code> if not configured.
+   */
+  private final String remote;
+  /**
+   * The full name of the remote-tracking branch of the upstream branch, from the configuration.
+   * <code>null</code> if not configured.
+   */
+  private final String upstreamBranch;
+  /**
+   * <code>true</code> if the local and the remote-tracking branches exist and were compared.
+   */
+  private final boolean tracking;
+  /**
+   * The number of local commits that are not in the upstream branch.
+   */
+  private final int pushesAhead;
+  /**
+   * The number of upstream commits that are not in the local branch.
+   */
+  private final int pullsBehind;
+
+  /**
+   * Constructor for a branch without an upstream branch.
+   *
+   * @param branchInfo The current branch.
+   */
+  BranchStatus(BranchInfo branchInfo) {
+    this(branchInfo, null, null, false, 0, 0);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param branchInfo     The current branch.
+   * @param remote         The remote of the current branch. May be <code>null</code>.
+   * @param upstreamBranch The full name of the remote-tracking branch. May be <code>null</code>.
+   * @param tracking       <code>true</code> if the local and the remote-tracking branches were compared.
+   * @param pushesAhead    The number of local commits that are not in the upstream branch.
+   * @param pullsBehind    The number of upstream commits that are not in the local branch.
+   */
+  private BranchStatus(
+      BranchInfo branchInfo,
+      String remote,
+      String upstreamBranch,
+      boolean tracking,
+      int pushesAhead,
+      int pullsBehind) {
+    this.branchInfo = branchInfo;
+    this.remote = remote;
+    this.upstreamBranch = upstreamBranch;
+    this.tracking = tracking;
+    this.pushesAhead = pushesAhead;
+    this.pullsBehind = pullsBehind;
+  }
+
+  /**
+   * Computes the state of the current branch.
+   *
+   * @param repository The repository.
+   *
+   * @return The state.
+   *
+   * @throws IOException If the references or the commits can't be read.
+   */
+  static BranchStatus compute(Repository repository) throws IOException {
+    BranchInfo branchInfo = readBranchInfo(repository);
+    String branchName = branchInfo.getBranchName();
+    if (branchName.isEmpty() || branchInfo.isDetached()) {
+      return new BranchStatus(branchInfo);
+    }
+
+    BranchConfig branchConfig = new BranchConfig(repository.getConfig(), branchName);
+    String remote = branchConfig.getRemote();
+    String upstreamBranch = branchConfig.getRemoteTrackingBranch();
+
+    String trackingBranch = branchConfig.getTrackingBranch();
+    Ref trackingRef = trackingBranch != null ? repository.exactRef(trackingBranch) : null;
+    Ref localRef = repository.exactRef(Constants.R_HEADS + branchName);
+    if (trackingRef == null || localRef == null) {
+      return new BranchStatus(branchInfo, remote, upstreamBranch, false, 0, 0);
+    }
+
+    BitmapDivergence divergence = BitmapDivergence.compute(
+        repository, localRef.getObjectId(), trackingRef.getObjectId());
+    if (divergence != null) {
+      return new BranchStatus(branchInfo, remote, upstreamBranch, true,
+          divergence.getAhead().size(), divergence.getBehind().size());
+    }
+
+    try (RevWalk walk = new RevWalk(repository)) {
+      RevCommit localCommit = walk.parseCommit(localRef.getObjectId());
+      RevCommit trackingCommit = walk.parseCommit(trackingRef.getObjectId());
+
+      walk.setRevFilter(RevFilter.MERGE_BASE);
+      walk.markStart(localCommit);
+      walk.markStart(trackingCommit);
+      RevCommit mergeBase = walk.next();
+
+      walk.reset();
+      walk.setRevFilter(RevFilter.ALL);
+      int ahead = RevWalkUtils.count(walk, localCommit, mergeBase);
+      int behind = RevWalkUtils.count(walk, trackingCommit, mergeBase);
+
+      return new BranchStatus(branchInfo, remote, upstreamBranch, true, ahead, behind);
+    }
+  }
+
+  /**
+   * Reads the current branch, without walking the history.
+   *
+   * @param repository The repository.
+   *
+   * @return The current branch. On a detached HEAD, the branch name is the ID of the checked out commit.
+   *
+   * @throws IOException If HEAD can't be read.
+   */
+  static BranchInfo readBranchInfo(Repository repository) throws IOException {
+    BranchInfo branchInfo = new BranchInfo("", false);
+    String branchName = repository.getBranch();
+    if (branchName != null) {
+      boolean detached = ObjectId.isId(branchName);
+      branchInfo = new BranchInfo(branchName, detached);
+      if (detached) {
+        branchInfo.setShortBranchName(
+            ObjectId.fromString(branchName).abbreviate(RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH).name());
+      }
+    }
+    return branchInfo;
+  }
+
+  /**
+   * Derives the state after the local commits were pushed to the upstream branch.
+   *
+   * @param pushedRemote         The remote to which the commits were pushed.
+   * @param pushedUpstreamBranch The full name of the remote-tracking branch of the branch that received
+   *                             the commits.
+   *
+   * @return The state after the push. The current branch is even with its upstream branch.
+   */
+  BranchStatus afterPush(String pushedRemote, String pushedUpstreamBranch) {
+    return new BranchStatus(
+        branchInfo,
+        remote != null ? remote : pushedRemote,
+        upstreamBranch != null ? upstreamBranch : pushedUpstreamBranch,
+        true,
+        0,
+        0);
+  }
+
+  /**
+   * @return The current branch.
+   */
+  public BranchInfo getBranchInfo() {
+    return branchInfo;
+  }
+
+  /**
+   * @return The remote of the current branch, from the configuration. <code>null</code> if not configured.
+   */
+  public String getRemote() {
+    return remote;
+  }
+
+  /**
+   * @return The full name of the remote-tracking branch of the upstream branch, from the configuration.
+   * For example "refs/remotes/origin/main". <code>null</code> if not configured.
+   */
+  public String getUpstreamBranch() {
+    return upstreamBranch;
+  }
+
+  /**
+   * @return <code>true</code> if the current branch and its remote-tracking branch exist and were compared.
+   */
+  public boolean isTracking() {
+    return tracking;
+  }
+
+  /**
+   * @return The number of local commits that are not in the upstream branch.
+   * 0 if the branch is not {@link #isTracking() tracking} another one.
+   */
+  public int getPushesAhead() {
+    return pushesAhead;
+  }
+
+  /**
+   * @return The number of upstream commits that are not in the local branch.
+   * 0 if the branch is not {@link #isTracking() tracking} another one.
+   */
+  public int getPullsBehind() {
+    return pullsBehind;
+  }
+
+  @Override
+  public String toString() {
+    return "branch: " + branchInfo.getBranchName() + ", upstream: " + upstreamBranch
+        + ", ahead: " + pushesAhead + ", behind: " + pullsBehind;
+  }
+}
@@ -0,0 +1,158 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * Finds the folders whose content was changed between two trees, for example by a pull.<br><br>
+ *
+ * A folder is changed when files were added to it or removed from it. For a file added in a new
+ * folder, the changed folder is the closest one that existed before. For a file removed together with
+ * its folder, the changed folder is the closest one that still exists. Folders inside other changed
+ * folders are not reported.
+ */
+class ChangedFoldersCollector {
+  /**
+   * The repository.
+   */
+  private final Repository repository;
+  /**
+   * The old tree.
+   */
+  private final ObjectId oldTree;
+  /**
+   * The new tree.
+   */
+  private final ObjectId newTree;
+  /**
+   * Remembers if a folder exists in the old tree.
+   */
+  private final Map<String, Boolean> inOldTree = new HashMap<>();
+  /**
+   * Remembers if a folder exists in the new tree.
+   */
+  private final Map<String, Boolean> inNewTree = new HashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param repository The repository.
+   * @param oldTree    The old tree.
+   * @param newTree    The new tree.
+   */
+  ChangedFoldersCollector(Repository repository, ObjectId oldTree, ObjectId newTree) {
+    this.repository = repository;
+    this.oldTree = oldTree;
+    this.newTree = newTree;
+  }
+
+  /**
+   * Finds the changed folders.
+   *
+   * @return The changed folders, in the working tree. Empty if no file was added or removed.
+   *
+   * @throws IOException If the trees can't be read.
+   */
+  List<File> collect() throws IOException {
+    // Sorted, so a folder comes before the folders inside it.
+    TreeSet<String> changedFolders = new TreeSet<>();
+    try (ObjectReader reader = repository.newObjectReader(); TreeWalk walk = new TreeWalk(reader)) {
+      walk.addTree(oldTree);
+      walk.addTree(newTree);
+      walk.setRecursive(true);
+      walk.setFilter(TreeFilter.ANY_DIFF);
+      for (DiffEntry entry : DiffEntry.scan(walk)) {
+        if (entry.getChangeType() == DiffEntry.ChangeType.ADD) {
+          changedFolders.add(getExistingFolder(reader, entry.getNewPath(), oldTree, inOldTree));
+        } else if (entry.getChangeType() == DiffEntry.ChangeType.DELETE) {
+          changedFolders.add(getExistingFolder(reader, entry.getOldPath(), newTree, inNewTree));
+        }
+      }
+    }
+
+    List<File> folders = new ArrayList<>();
+    Set<String> keptFolders = new HashSet<>();
+    for (String folder : changedFolders) {
+      // Other folders may sort between a folder and the ones inside it, like "a-b" between "a" and "a/c".
+      if (!isInsideAny(folder, keptFolders)) {
+        folders.add(folder.isEmpty() ? repository.getWorkTree() : new File(repository.getWorkTree(), folder));
+        keptFolders.add(folder);
+      }
+    }
+    return folders;
+  }
+
+  /**
+   * Finds the closest parent folder of a file that exists in a tree.
+   *
+   * @param reader The object reader.
+   * @param path   The path of the file.
+   * @param tree   The tree.
+   * @param cache  Remembers the folders already looked up in the tree.
+   *
+   * @return The path of the folder. Empty for the root.
+   *
+   * @throws IOException If the tree can't be read.
+   */
+  private static String getExistingFolder(
+      ObjectReader reader,
+      String path,
+      ObjectId tree,
+      Map<String, Boolean> cache) throws IOException {
+    String folder = getParent(path);
+    while (!folder.isEmpty()) {
+      Boolean exists = cache.get(folder);
+      if (exists == null) {
+        try (TreeWalk walk = TreeWalk.forPath(reader, folder, tree)) {
+          exists = walk != null;
+        }
+        cache.put(folder, exists);
+      }
+      if (exists) {
+        break;
+      }
+      folder = getParent(folder);
+    }
+    return folder;
+  }
+
+  /**
+   * @param path A path, relative to the working tree.
+   *
+   * @return The path of the parent folder. Empty for the root.
+   */
+  private static String getParent(String path) {
+    int index = path.lastIndexOf('/');
+    return index == -1 ? "" : path.substring(0, index);
+  }
+
+  /**
+   * @param folder  A folder. Empty for the root.
+   * @param parents Other folders.
+   *
+   * @return <code>true</code> if the folder is inside one of the other folders.
+   */
+  private static boolean isInsideAny(String folder, Set<String> parents) {
+    boolean inside = false;
+    String parent = folder;
+    while (!inside && !parent.isEmpty()) {
+      parent = getParent(parent);
+      inside = parents.contains(parent);
+    }
+    return inside;
+  }
+}
@@ -0,0 +1,101 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.internal.storage.file.FileSnapshot;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Finds the versions of the conflicting files: the common base (stage 1), mine (stage 2)
+ * and theirs (stage 3).<br><br>
+ *
+ * The stages of all the conflicting files are collected in one pass over the index and kept
+ * until the index file changes. So a three-way diff costs at most one index read, instead of a diff
+ * between the index and the working tree for each version.
+ */
+final class ConflictStagesResolver {
+  /**
+   * The singleton instance.
+   */
+  private static final ConflictStagesResolver instance = new ConflictStagesResolver();
+
+  /**
+   * The index file from which the stages were read. <code>null</code> if none.
+   */
+  private File indexFile;
+  /**
+   * The state of the index file when the stages were read.
+   */
+  private FileSnapshot indexSnapshot;
+  /**
+   * The blobs of the stages 1, 2 and 3 of each conflicting path. A missing stage is <code>null</code>.
+   */
+  private Map<String, ObjectId[]> stagesByPath;
+
+  /**
+   * Singleton private constructor.
+   */
+  private ConflictStagesResolver() {}
+
+  /**
+   * @return The singleton instance.
+   */
+  static ConflictStagesResolver getInstance() {
+    return instance;
+  }
+
+  /**
+   * Gets a version of a conflicting file.
+   *
+   * @param repository The repository.
+   * @param path       The path of the file, relative to the working tree.
+   * @param stage      {@link DirCacheEntry#STAGE_1}, {@link DirCacheEntry#STAGE_2} or {@link DirCacheEntry#STAGE_3}.
+   *
+   * @return The blob. <code>null</code> if the file is not in conflict or the stage is missing,
+   * for example when one side deleted the file.
+   *
+   * @throws IOException If the index can't be read.
+   */
+  synchronized ObjectId getStage(Repository repository, String path, int stage) throws IOException {
+    ObjectId[] stages = getStagesByPath(repository).get(path);
+    return stages != null ? stages[stage - 1] : null;
+  }
+
+  /**
+   * Reads the stages of the conflicting paths, if the index changed since the last read.
+   * Call with the lock held.
+   *
+   * @param repository The repository.
+   *
+   * @return The blobs of the stages of each conflicting path.
+   *
+   * @throws IOException If the index can't be read.
+   */
+  private Map<String, ObjectId[]> getStagesByPath(Repository repository) throws IOException {
+    File currentIndexFile = repository.getIndexFile();
+    if (stagesByPath == null || !currentIndexFile.equals(indexFile) || indexSnapshot.isModified(currentIndexFile)) {
+      // Taken before reading, so a change made meanwhile is detected next time.
+      FileSnapshot snapshot = FileSnapshot.save(currentIndexFile);
+      DirCache dirCache = repository.readDirCache();
+      Map<String, ObjectId[]> conflicts = new HashMap<>();
+      for (int i = 0; i < dirCache.getEntryCount(); i++) {
+        DirCacheEntry entry = dirCache.getEntry(i);
+        int stage = entry.getStage();
+        if (stage != DirCacheEntry.STAGE_0) {
+          conflicts.computeIfAbsent(entry.getPathString(), p -> new ObjectId[3])[stage - 1] = entry.getObjectId();
+        }
+      }
+
+      indexFile = currentIndexFile;
+      indexSnapshot = snapshot;
+      stagesByPath = conflicts;
+    }
+    return stagesByPath;
+  }
+}
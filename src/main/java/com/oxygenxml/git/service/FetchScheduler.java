@@ -0,0 +1,637 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.transport.FetchResult;
+
+import com.oxygenxml.git.utils.GitAddonSystemProperties;
+
+/**
+ * Owns the fetches from the remote repository.<br><br>
+ *
+ * <ul>
+ * <li>A fetch requested while another one is running waits for it and receives the same result.</li>
+ * <li>A fetch requested shortly after a successful one receives the previous result, without contacting the remote.
+ * The interval is given by the {@link GitAddonSystemProperties#FETCH_MIN_INTERVAL} system property.</li>
+ * <li>After a failure (remote unreachable, authentication failed) the fetches are not attempted again for a while
+ * and receive the same failure. The wait doubles with each consecutive failure.</li>
+ * <li>After {@link #invalidate()} or when another repository is loaded, the running fetch is not joined
+ * any more and its outcome is not remembered.</li>
+ * <li>While polling, the remote is fetched periodically, more often while the user is active.</li>
+ * </ul>
+ *
+ * Forced fetches, like the ones retried after the user gave new credentials, skip the interval and the wait.<br><br>
+ *
+ * The background checks for remote changes first ask the remote only about the upstream branch and fetch
+ * only if it moved, see {@link #fetchIfUpstreamChanged()}. These questions follow the same interval and
+ * their failures have their own wait, which also doubles.
+ */
+public class FetchScheduler {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger logger = Logger.getLogger(FetchScheduler.class);
+  /**
+   * The default minimum interval between two fetches, in milliseconds.
+   */
+  private static final int DEFAULT_MIN_INTERVAL = 20 * 1000;
+  /**
+   * The polling interval while the user is active, in milliseconds.
+   */
+  private static final int ACTIVE_POLL_INTERVAL = 3 * 60 * 1000;
+  /**
+   * The polling interval while the user is idle, in milliseconds.
+   */
+  private static final int IDLE_POLL_INTERVAL = 15 * 60 * 1000;
+  /**
+   * The user is considered idle after this much time without activity, in milliseconds.
+   */
+  private static final int IDLE_AFTER = 10 * 60 * 1000;
+  /**
+   * How long to wait after the first failure, in milliseconds.
+   */
+  private static final long INITIAL_BACKOFF = 30 * 1000L;
+  /**
+   * The longest wait after consecutive failures, in milliseconds.
+   */
+  private static final long MAX_BACKOFF = 30 * 60 * 1000L;
+
+  /**
+   * The singleton instance.
+   */
+  private static FetchScheduler instance;
+
+  /**
+   * Guards the state below.
+   */
+  private final Object lock = new Object();
+  /**
+   * The minimum interval between two fetches, in milliseconds.
+   */
+  private final int minInterval = Integer.getInteger(GitAddonSystemProperties.FETCH_MIN_INTERVAL, DEFAULT_MIN_INTERVAL);
+  /**
+   * The running fetch. <code>null</code> if there is none.
+   */
+  private CompletableFuture<FetchResult> fetchInProgress;
+  /**
+   * The repository of the running fetch.
+   */
+  private File fetchInProgressRepositoryDir;
+  /**
+   * The {@link #generation} when the running fetch started.
+   */
+  private long fetchInProgressGeneration;
+  /**
+   * The repository of the remembered results.
+   */
+  private File repositoryDir;
+  /**
+   * Incremented each time the remembered results are forgotten. The outcome of a fetch
+   * started before is not remembered.
+   */
+  private long generation;
+  /**
+   * When the last successful fetch ended. 0 if there was none.
+   */
+  private long lastSuccessTime;
+  /**
+   * The result of the last successful fetch. <code>null</code> if the repository has no remote.
+   */
+  private FetchResult lastResult;
+  /**
+   * The failure of the last fetch. <code>null</code> if it succeeded.
+   */
+  private Exception lastFailure;
+  /**
+   * The current wait after failures, in milliseconds.
+   */
+  private long backoff;
+  /**
+   * No fetch is attempted before this time, unless forced.
+   */
+  private long backoffUntil;
+  /**
+   * When the remote last answered that the upstream branch didn't move. 0 if never.
+   */
+  private long lastProbeTime;
+  /**
+   * The current wait after failures to ask the remote about the upstream branch, in milliseconds.
+   */
+  private long probeBackoff;
+  /**
+   * The remote is not asked about the upstream branch before this time.
+   */
+  private long probeBackoffUntil;
+  /**
+   * The last user activity.
+   */
+  private volatile long lastUserActivity = System.currentTimeMillis();
+  /**
+   * Notified after each successful polling fetch. <code>null</code> when not polling.
+   */
+  private Runnable pollListener;
+  /**
+   * The next polling fetch.
+   */
+  private ScheduledFuture<?> pollTask;
+  /**
+   * When the next polling fetch runs.
+   */
+  private long nextPollTime;
+
+  /**
+   * Singleton constructor. Not private, for tests.
+   */
+  FetchScheduler() {}
+
+  /**
+   * @return The singleton instance.
+   */
+  public static synchronized FetchScheduler getInstance() {
+    if (instance == null) {
+      instance = new FetchScheduler();
+    }
+    return instance;
+  }
+
+  /**
+   * Fetches from the remote repository, unless a fetch already runs or ran recently.
+   *
+   * @return The fetch result. <code>null</code> if the repository has no remote.
+   *
+   * @throws SSHPassphraseRequiredException
+   * @throws PrivateRepositoryException
+   * @throws RepositoryUnavailableException
+   */
+  public FetchResult fetch()
+      throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+    return fetch(false);
+  }
+
+  /**
+   * Fetches from the remote repository. If a fetch already runs, waits for it and returns its result.
+   *
+   * @param force <code>true</code> to contact the remote even if it was fetched recently or if it failed recently.
+   *
+   * @return The fetch result. <code>null</code> if the repository has no remote.
+   *
+   * @throws SSHPassphraseRequiredException
+   * @throws PrivateRepositoryException
+   * @throws RepositoryUnavailableException
+   */
+  public FetchResult fetch(boolean force)
+      throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+    return fetch(force, true);
+  }
+
+  /**
+   * Fetches from the remote repository. If a fetch already runs, waits for it and returns its result.
+   *
+   * @param force       <code>true</code> to contact the remote even if it was fetched recently or if it
+   *                    failed recently.
+   * @param interactive <code>false</code> to use only the stored credentials, without asking the user.
+   *                    Only used if a new fetch is started.
+   *
+   * @return The fetch result. <code>null</code> if the repository has no remote.
+   *
+   * @throws SSHPassphraseRequiredException
+   * @throws PrivateRepositoryException
+   * @throws RepositoryUnavailableException
+   */
+  private FetchResult fetch(boolean force, boolean interactive)
+      throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+    CompletableFuture<FetchResult> future;
+    boolean ownsFetch = false;
+    File fetchRepositoryDir;
+    long fetchGeneration;
+    synchronized (lock) {
+      checkRepository();
+      fetchRepositoryDir = repositoryDir;
+      fetchGeneration = generation;
+
+      if (isFetchInProgress()) {
+        future = fetchInProgress;
+      } else {
+        long now = System.currentTimeMillis();
+        if (!force && isRecentlyFetched(now)) {
+          logger.debug("Recently fetched. Reuse the result.");
+          return lastResult;
+        }
+        if (!force && isBackingOff(now)) {
+          logger.debug("Recently failed. Don't fetch yet.");
+          throwFetchException(lastFailure);
+        }
+        future = new CompletableFuture<>();
+        fetchInProgress = future;
+        fetchInProgressRepositoryDir = repositoryDir;
+        fetchInProgressGeneration = generation;
+        ownsFetch = true;
+      }
+    }
+
+    if (ownsFetch) {
+      doFetch(future, fetchRepositoryDir, fetchGeneration, interactive);
+    }
+    return await(future);
+  }
+
+  /**
+   * Fetches from the remote repository if the upstream of the current branch moved. The remote is
+   * first asked only about the upstream branch, which is much cheaper than a fetch. Nothing is asked
+   * if a fetch runs, ran or failed recently: the fetch result is used instead.<br><br>
+   *
+   * Meant for the checks done in the background. The user is never asked for credentials.
+   *
+   * @throws SSHPassphraseRequiredException
+   * @throws PrivateRepositoryException
+   * @throws RepositoryUnavailableException
+   */
+  public void fetchIfUpstreamChanged()
+      throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+    boolean probe = false;
+    File probeRepositoryDir;
+    long probeGeneration;
+    synchronized (lock) {
+      checkRepository();
+      probeRepositoryDir = repositoryDir;
+      probeGeneration = generation;
+
+      long now = System.currentTimeMillis();
+      if (!isFetchInProgress() && !isRecentlyFetched(now) && !isBackingOff(now)) {
+        if (lastProbeTime > 0 && now - lastProbeTime < minInterval) {
+          logger.debug("Recently asked about the upstream branch. Nothing changed.");
+          return;
+        }
+        if (now < probeBackoffUntil) {
+          logger.debug("Recently failed to ask about the upstream branch. Don't ask yet.");
+          return;
+        }
+        probe = true;
+      }
+    }
+
+    if (probe) {
+      boolean changed;
+      try {
+        changed = isUpstreamChanged();
+      } catch (RepositoryUnavailableException e) {
+        synchronized (lock) {
+          if (isCurrent(probeRepositoryDir, probeGeneration)) {
+            probeBackoff = probeBackoff == 0 ? INITIAL_BACKOFF : Math.min(probeBackoff * 2, MAX_BACKOFF);
+            probeBackoffUntil = System.currentTimeMillis() + probeBackoff;
+          }
+        }
+        throw e;
+      }
+
+      synchronized (lock) {
+        if (isCurrent(probeRepositoryDir, probeGeneration)) {
+          lastProbeTime = changed ? 0 : System.currentTimeMillis();
+          probeBackoff = 0;
+          probeBackoffUntil = 0;
+        }
+      }
+      if (!changed) {
+        return;
+      }
+    }
+
+    fetch(false, false);
+  }
+
+  /**
+   * Forgets the last fetch result or failure, so the next fetch contacts the remote.
+   * Called after operations that change the remote or the remote-tracking branches.
+   */
+  public void invalidate() {
+    synchronized (lock) {
+      forget();
+    }
+  }
+
+  /**
+   * Records user activity. While the user is active, the remote is polled more often.
+   */
+  public void notifyUserActivity() {
+    lastUserActivity = System.currentTimeMillis();
+    synchronized (lock) {
+      if (pollListener != null && nextPollTime - lastUserActivity > ACTIVE_POLL_INTERVAL) {
+        // Was idle. Poll sooner.
+        schedulePoll();
+      }
+    }
+  }
+
+  /**
+   * @return When the user was last active.
+   */
+  public long getLastUserActivity() {
+    return lastUserActivity;
+  }
+
+  /**
+   * Starts fetching periodically, in the background.
+   *
+   * @param listener Notified after each successful polling fetch.
+   */
+  public void startPolling(Runnable listener) {
+    synchronized (lock) {
+      pollListener = listener;
+      schedulePoll();
+    }
+  }
+
+  /**
+   * Stops the periodic fetches.
+   */
+  public void stopPolling() {
+    synchronized (lock) {
+      pollListener = null;
+      if (pollTask != null) {
+        pollTask.cancel(false);
+        pollTask = null;
+      }
+    }
+  }
+
+  /**
+   * Forgets the last fetch result or failure. The running fetch, if any, is not joined
+   * and its outcome is not remembered. Call with the lock held.
+   */
+  private void forget() {
+    generation++;
+    lastSuccessTime = 0;
+    lastResult = null;
+    lastFailure = null;
+    backoff = 0;
+    backoffUntil = 0;
+    lastProbeTime = 0;
+    probeBackoff = 0;
+    probeBackoffUntil = 0;
+  }
+
+  /**
+   * Forgets everything if another repository was loaded. Call with the lock held.
+   */
+  private void checkRepository() {
+    File currentRepositoryDir = getCurrentRepositoryDir();
+    if (!Objects.equals(currentRepositoryDir, repositoryDir)) {
+      // Another repository. Forget everything.
+      repositoryDir = currentRepositoryDir;
+      forget();
+    }
+  }
+
+  /**
+   * Call with the lock held.
+   *
+   * @return <code>true</code> if a fetch that can be joined runs.
+   */
+  private boolean isFetchInProgress() {
+    return fetchInProgress != null
+        && fetchInProgressGeneration == generation
+        && Objects.equals(fetchInProgressRepositoryDir, repositoryDir);
+  }
+
+  /**
+   * Call with the lock held.
+   *
+   * @param now The current time.
+   *
+   * @return <code>true</code> if the last successful fetch ended less than the minimum interval ago.
+   */
+  private boolean isRecentlyFetched(long now) {
+    return lastSuccessTime > 0 && now - lastSuccessTime < minInterval;
+  }
+
+  /**
+   * Call with the lock held.
+   *
+   * @param now The current time.
+   *
+   * @return <code>true</code> if the last fetch failed and its wait didn't pass yet.
+   */
+  private boolean isBackingOff(long now) {
+    return lastFailure != null && now < backoffUntil;
+  }
+
+  /**
+   * Fetches and records the outcome, unless the results were forgotten meanwhile.
+   *
+   * @param future              Receives the outcome.
+   * @param fetchRepositoryDir  The repository of the fetch.
+   * @param fetchGeneration     The {@link #generation} when the fetch started.
+   * @param interactive         <code>false</code> to use only the stored credentials.
+   */
+  private void doFetch(
+      CompletableFuture<FetchResult> future,
+      File fetchRepositoryDir,
+      long fetchGeneration,
+      boolean interactive) {
+    try {
+      FetchResult result = fetchFromRemote(interactive);
+      synchronized (lock) {
+        if (isCurrent(fetchRepositoryDir, fetchGeneration)) {
+          lastSuccessTime = System.currentTimeMillis();
+          lastResult = result;
+          lastFailure = null;
+          backoff = 0;
+        }
+        fetchEnded(future);
+      }
+      future.complete(result);
+    } catch (SSHPassphraseRequiredException | PrivateRepositoryException | RepositoryUnavailableException e) {
+      synchronized (lock) {
+        if (isCurrent(fetchRepositoryDir, fetchGeneration)) {
+          lastSuccessTime = 0;
+          lastResult = null;
+          lastFailure = e;
+          backoff = backoff == 0 ? INITIAL_BACKOFF : Math.min(backoff * 2, MAX_BACKOFF);
+          backoffUntil = System.currentTimeMillis() + backoff;
+        }
+        fetchEnded(future);
+      }
+      future.completeExceptionally(e);
+    } catch (RuntimeException e) {
+      synchronized (lock) {
+        fetchEnded(future);
+      }
+      future.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Contacts the remote repository.
+   *
+   * @param interactive <code>false</code> to use only the stored credentials, without asking the user.
+   *
+   * @return The fetch result. <code>null</code> if the repository has no remote.
+   *
+   * @throws SSHPassphraseRequiredException
+   * @throws PrivateRepositoryException
+   * @throws RepositoryUnavailableException
+   */
+  FetchResult fetchFromRemote(boolean interactive)
+      throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+    return GitAccess.getInstance().fetch(interactive);
+  }
+
+  /**
+   * Asks the remote repository about the upstream branch.
+   *
+   * @return <code>true</code> if the upstream branch moved.
+   *
+   * @throws RepositoryUnavailableException
+   */
+  boolean isUpstreamChanged() throws RepositoryUnavailableException {
+    return GitAccess.getInstance().isUpstreamChanged();
+  }
+
+  /**
+   * Checks if the outcome of a fetch can be remembered. Call with the lock held.
+   *
+   * @param fetchRepositoryDir The repository of the fetch.
+   * @param fetchGeneration    The {@link #generation} when the fetch started.
+   *
+   * @return <code>true</code> if the results were not forgotten since the fetch started
+   * and the fetch was for the current repository.
+   */
+  private boolean isCurrent(File fetchRepositoryDir, long fetchGeneration) {
+    return fetchGeneration == generation
+        && Objects.equals(fetchRepositoryDir, repositoryDir)
+        && Objects.equals(fetchRepositoryDir, getCurrentRepositoryDir());
+  }
+
+  /**
+   * Clears the running fetch, if it is the given one. Call with the lock held.
+   *
+   * @param future The fetch that ended.
+   */
+  private void fetchEnded(CompletableFuture<FetchResult> future) {
+    if (fetchInProgress == future) {
+      fetchInProgress = null;
+      fetchInProgressRepositoryDir = null;
+    }
+  }
+
+  /**
+   * @return The current wait after failures, in milliseconds. For tests.
+   */
+  long getBackoff() {
+    synchronized (lock) {
+      return backoff;
+    }
+  }
+
+  /**
+   * Waits for a fetch to end.
+   *
+   * @param future The fetch outcome.
+   *
+   * @return The fetch result.
+   *
+   * @throws SSHPassphraseRequiredException
+   * @throws PrivateRepositoryException
+   * @throws RepositoryUnavailableException
+   */
+  private static FetchResult await(CompletableFuture<FetchResult> future)
+      throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RepositoryUnavailableException(e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throwFetchException((Exception) cause);
+      return null;
+    }
+  }
+
+  /**
+   * Throws a fetch failure.
+   *
+   * @param e The failure.
+   *
+   * @throws SSHPassphraseRequiredException
+   * @throws PrivateRepositoryException
+   * @throws RepositoryUnavailableException
+   */
+  private static void throwFetchException(Exception e)
+      throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+    if (e instanceof SSHPassphraseRequiredException) {
+      throw (SSHPassphraseRequiredException) e;
+    } else if (e instanceof PrivateRepositoryException) {
+      throw (PrivateRepositoryException) e;
+    } else if (e instanceof RepositoryUnavailableException) {
+      throw (RepositoryUnavailableException) e;
+    }
+    throw new RepositoryUnavailableException(e);
+  }
+
+  /**
+   * Schedules the next polling fetch. Call with the lock held.
+   */
+  private void schedulePoll() {
+    if (pollTask != null) {
+      pollTask.cancel(false);
+    }
+    long now = System.currentTimeMillis();
+    long delay = now - lastUserActivity < IDLE_AFTER ? ACTIVE_POLL_INTERVAL : IDLE_POLL_INTERVAL;
+    if (lastFailure != null) {
+      delay = Math.max(delay, backoffUntil - now);
+    }
+    nextPollTime = now + delay;
+    pollTask = GitOperationScheduler.getInstance().schedule(this::poll, (int) delay);
+  }
+
+  /**
+   * Fetches in the background and schedules the next polling fetch. Only the stored credentials
+   * are used: the user is never asked for credentials by a polling fetch. Package visibility for tests.
+   */
+  void poll() {
+    Runnable listener;
+    synchronized (lock) {
+      listener = pollListener;
+    }
+    if (listener != null) {
+      try {
+        fetch(false, false);
+        listener.run();
+      } catch (SSHPassphraseRequiredException | PrivateRepositoryException | RepositoryUnavailableException e) {
+        // Not reported. Missing or rejected credentials are asked only by the operations started from the UI,
+        // like pull and push.
+        logger.debug(e, e);
+      } catch (RuntimeException e) {
+        logger.error(e, e);
+      }
+
+      synchronized (lock) {
+        if (pollListener != null) {
+          schedulePoll();
+        }
+      }
+    }
+  }
+
+  /**
+   * @return The directory of the current repository. <code>null</code> if no repository is loaded.
+   */
+  private static File getCurrentRepositoryDir() {
+    File dir = null;
+    try {
+      dir = GitAccess.getInstance().getRepository().getDirectory();
+    } catch (NoRepositorySelected e) {
+      logger.debug(e, e);
+    }
+    return dir;
+  }
+}
@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.text.MessageFormat;
 import java.util.ArrayList;
@@ -53,22 +54,22 @@ import org.eclipse.jgit.api.errors.NoMessageException;
 import org.eclipse.jgit.api.errors.TransportException;
 import org.eclipse.jgit.api.errors.UnmergedPathsException;
 import org.eclipse.jgit.api.errors.WrongRepositoryStateException;
-import org.eclipse.jgit.diff.DiffEntry;
-import org.eclipse.jgit.diff.DiffEntry.ChangeType;
 import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.dircache.DirCacheTree;
 import org.eclipse.jgit.errors.NoMergeBaseException;
 import org.eclipse.jgit.errors.NoMergeBaseException.MergeBaseFailureReason;
 import org.eclipse.jgit.errors.NoWorkTreeException;
 import org.eclipse.jgit.errors.RevisionSyntaxException;
 import org.eclipse.jgit.internal.JGitText;
 import org.eclipse.jgit.lib.AnyObjectId;
-import org.eclipse.jgit.lib.BranchTrackingStatus;
+import org.eclipse.jgit.lib.BranchConfig;
 import org.eclipse.jgit.lib.Config;
 import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectLoader;
-import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.ProgressMonitor;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.RefUpdate;
@@ -85,14 +86,17 @@ import org.eclipse.jgit.revwalk.filter.RevFilter;
 import org.eclipse.jgit.submodule.SubmoduleStatus;
 import org.eclipse.jgit.submodule.SubmoduleWalk;
 import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.FetchConnection;
+import org.eclipse.jgit.transport.FetchResult;
 import org.eclipse.jgit.transport.PushResult;
 import org.eclipse.jgit.transport.RefSpec;
 import org.eclipse.jgit.transport.RemoteRefUpdate;
 import org.eclipse.jgit.transport.TrackingRefUpdate;
+import org.eclipse.jgit.transport.Transport;
 import org.eclipse.jgit.transport.URIish;
-import org.eclipse.jgit.treewalk.CanonicalTreeParser;
 import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
 import org.eclipse.jgit.util.FS;
 
 import com.oxygenxml.git.auth.AuthExceptionMessagePresenter;
@@ -104,8 +108,8 @@ import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.GitChangeType;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
-import com.oxygenxml.git.utils.FileHelper;
 import com.oxygenxml.git.utils.RepoUtil;
+import com.oxygenxml.git.utils.SubmoduleUpdater;
 import com.oxygenxml.git.view.dialog.ProgressDialog;
 import com.oxygenxml.git.view.event.BranchGitEventInfo;
 import com.oxygenxml.git.view.event.FileGitEventInfo;
@@ -129,6 +133,15 @@ public class GitAccess {
    * The length of the short commit ID.
    */
   public static final int SHORT_COMMIT_ID_LENGTH = 7;
+  /**
+   * Above this number of resources, staging is done in a single index pass, with progress and cancellation.
+   */
+  static final int STAGE_IN_ONE_PASS_THRESHOLD = 2000;
+  /**
+   * Starting from this number of resources, unstaging and discarding edit the index directly,
+   * in a single pass, instead of going through the reset and checkout commands.
+   */
+  static final int BULK_INDEX_EDIT_THRESHOLD = 100;
   /**
 	 * A synthetic object representing the uncommitted changes.
 	 */
@@ -138,6 +151,10 @@ public class GitAccess {
 	 * Logger for logging.
 	 */
 	private static final Logger logger = Logger.getLogger(GitAccess.class);
+	/**
+	 * The maximum number of folders refreshed at once in the Project view, after a pull.
+	 */
+	private static final int PROJECT_REFRESH_BATCH_SIZE = 50;
 	/**
 	 * Listeners notifications.
 	 */
@@ -184,6 +201,31 @@ public class GitAccess {
 	 */
 	public void clone(URIish url, File directory, final ProgressDialog progressDialog, String branchName)
 			throws GitAPIException {
+	  clone(url, directory, progressDialog, branchName, false, true);
+	}
+
+	/**
+	 * Creates a local clone of the given repository and loads it.
+	 * 
+	 * @param url Remote repository to clone.
+	 * @param directory Local directory in which to create the clone.
+	 * @param progressDialog Progress support.
+	 * @param branchName     The name of the branch to clone and checkout. Must be
+	 *                       specified as full ref names (e.g.
+	 *                       "refs/heads/hotfixes/17.0").
+	 * @param singleBranch   <code>true</code> to download only the history of the cloned branch.
+	 *                       The other branches can be fetched later.
+	 * @param cloneSubmodules <code>true</code> to also clone the submodules.
+	 * 
+	 * @throws GitAPIException
+	 */
+	public void clone(
+	    URIish url,
+	    File directory,
+	    final ProgressDialog progressDialog,
+	    String branchName,
+	    boolean singleBranch,
+	    boolean cloneSubmodules) throws GitAPIException {
 	  closeRepo();
 	  
 		// Intercept all authentication requests.
@@ -197,7 +239,8 @@ public class GitAccess {
 		
     CloneCommand cloneCommand = 
 		    Git.cloneRepository()
-		    .setCloneSubmodules(true)
+		    // The submodules are updated afterwards, in parallel.
+		    .setCloneSubmodules(false)
 		    .setURI(url.toString())
 		    .setDirectory(directory)
 		    .setCredentialsProvider(AuthUtil.getCredentialsProvider(host))
@@ -205,19 +248,52 @@ public class GitAccess {
 		
 		fireOperationAboutToStart(new WorkingCopyGitEventInfo(GitOperation.OPEN_WORKING_COPY, directory));
 		try {
+		  if (singleBranch && branchName == null) {
+		    branchName = getRemoteDefaultBranch(url);
+		  }
 		  if (branchName != null) {
-		    git = cloneCommand.setBranch(branchName).call();
-		  } else {
-		    git = cloneCommand.call();
-		  } 
+		    cloneCommand.setBranch(branchName);
+		    if (singleBranch) {
+		      cloneCommand.setCloneAllBranches(false).setBranchesToClone(Collections.singletonList(branchName));
+		    }
+		  }
+		  git = cloneCommand.call();
+		  if (cloneSubmodules) {
+		    new SubmoduleUpdater(AuthUtil.getCredentialsProvider(host)).update(git, progressMonitor);
+		  }
 		  fireOperationSuccessfullyEnded(new WorkingCopyGitEventInfo(GitOperation.OPEN_WORKING_COPY, directory));
 		} catch (GitAPIException ex)  {
 		  fireOperationFailed(new WorkingCopyGitEventInfo(GitOperation.OPEN_WORKING_COPY, directory), ex);
       throw ex;
+		} catch (IOException ex) {
+		  fireOperationFailed(new WorkingCopyGitEventInfo(GitOperation.OPEN_WORKING_COPY, directory), ex);
+		  throw new GitAPIException(ex.getMessage(), ex) {};
 		}
 		
 	}
 
+	/**
+	 * Finds the branch pointed by the HEAD of a remote repository.
+	 * 
+	 * @param url The remote repository.
+	 * 
+	 * @return The full name of the branch, or <code>null</code> if the remote doesn't advertise it.
+	 * 
+	 * @throws GitAPIException If the remote repository can't be reached.
+	 */
+	private String getRemoteDefaultBranch(URIish url) throws GitAPIException {
+	  String branchName = null;
+	  Ref head = Git.lsRemoteRepository()
+	      .setRemote(url.toString())
+	      .setCredentialsProvider(AuthUtil.getCredentialsProvider(url.getHost()))
+	      .callAsMap()
+	      .get(Constants.HEAD);
+	  if (head != null && head.isSymbolic()) {
+	    branchName = head.getTarget().getName();
+	  }
+	  return branchName;
+	}
+
 	/**
 	 * Create progress monitor for the clone operation.
 	 * 
@@ -489,6 +565,40 @@ public class GitAccess {
     return gitStatus != null ? gitStatus 
         : new GitStatus(Collections.emptyList(),Collections.emptyList());
   }
+
+  /**
+   * Computes the status only under some paths. Only the folders on those paths are walked,
+   * so the cost depends on the size of the given files and folders, not on the size of the repository.
+   * 
+   * @param paths Files and folders, relative to the working tree. If empty, the whole Working Copy.
+   * 
+   * @return A status of the given files and of the files inside the given folders, with the unstaged
+   * and staged files. Changed submodules might be reported even if they are not under the given paths.
+   */
+  public GitStatus getStatus(Collection<String> paths) {
+    if (paths.isEmpty()) {
+      return getStatus();
+    }
+
+    GitStatus gitStatus = null;
+    if (git != null) {
+      try {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Compute our GitStatus, in paths " + paths);
+        }
+        StatusCommand statusCmd = git.status();
+        for (String path : paths) {
+          statusCmd.addPath(path);
+        }
+        Status status = statusCmd.call();
+        gitStatus = new GitStatus(getUnstagedFiles(status), getStagedFiles(status));
+      } catch (GitAPIException e) {
+        logger.error(e, e);
+      }
+    }
+    return gitStatus != null ? gitStatus 
+        : new GitStatus(Collections.emptyList(),Collections.emptyList());
+  }
 	
 	/**
    * Makes a diff between the files from the last commit and the files from the
@@ -531,6 +641,34 @@ public class GitAccess {
       }
     }
     
+    return Collections.emptyList();
+  }
+
+  /**
+   * Computes the unstaged state of an explicit set of files. Unlike {@link #getUnstagedFiles(Collection)},
+   * the cost depends on the number of given files, not on the size of the repository: each file is
+   * looked up in the index and checked on disk, and only the ones that look changed are compared by content.
+   * Folders and submodules go through the regular status computation.
+   * 
+   * @param paths The files of interest. If empty, no file is returned.
+   * 
+   * @return The files from the given set that are un-staged, with their states.
+   */
+  public List<FileStatus> getUnstagedFilesForPaths(Collection<String> paths) {
+    if (git != null && !paths.isEmpty()) {
+      try {
+        PathStatusResolver resolver = new PathStatusResolver(getRepository());
+        List<FileStatus> unstagedFiles = resolver.getUnstagedFiles(paths);
+        if (!resolver.getUnresolvedPaths().isEmpty()) {
+          unstagedFiles.addAll(getUnstagedFiles(resolver.getUnresolvedPaths()));
+        }
+        return unstagedFiles;
+      } catch (IOException | NoRepositorySelected e) {
+        logger.error(e, e);
+        return getUnstagedFiles(paths);
+      }
+    }
+    
     return Collections.emptyList();
   }
 
@@ -795,6 +933,7 @@ public class GitAccess {
 			git.close();
 			git = null;
 		}
+		IndexReader.getInstance().clear();
 	}
 
 	/**
@@ -981,6 +1120,8 @@ public class GitAccess {
 	    throws GitAPIException {
 
 	  AuthenticationInterceptor.install();
+	  // The remote and the remote-tracking branches change.
+	  FetchScheduler.getInstance().invalidate();
 	  
 	  PushResponse response = new PushResponse();
 	  
@@ -995,25 +1136,27 @@ public class GitAccess {
 	    return response;
 	  }
 	  
-	  if (getPullsBehind() > 0) {
+	  // Computed once and returned with the response.
+	  BranchStatus branchStatus = getBranchStatus();
+	  response.setBranchStatus(branchStatus);
+	  
+	  if (branchStatus.getPullsBehind() > 0) {
 	    response.setStatus(org.eclipse.jgit.transport.RemoteRefUpdate.Status.REJECTED_NONFASTFORWARD);
 	    response.setMessage(translator.getTranslation(Tags.BRANCH_BEHIND));
 	    return response;
 	  }
 	  
-    try {
-      if (getPushesAhead() == 0) {
-        response.setStatus(org.eclipse.jgit.transport.RemoteRefUpdate.Status.UP_TO_DATE);
-        response.setMessage(translator.getTranslation(Tags.PUSH_UP_TO_DATE));
-        return response;
-      }
-    } catch (RepoNotInitializedException e) {
-      logger.debug(e, e);
+    if (branchStatus.isTracking() && branchStatus.getPushesAhead() == 0) {
+      response.setStatus(org.eclipse.jgit.transport.RemoteRefUpdate.Status.UP_TO_DATE);
+      response.setMessage(translator.getTranslation(Tags.PUSH_UP_TO_DATE));
+      return response;
     }
 	  
     PushCommand pushCommand = git.push().setCredentialsProvider(credentialsProvider);
-    String localBranchName = getBranchInfo().getBranchName();
-    String upstreamBranch = getUpstreamBranchShortNameFromConfig(localBranchName);
+    String localBranchName = branchStatus.getBranchInfo().getBranchName();
+    String upstreamBranch = branchStatus.getUpstreamBranch() != null 
+        ? Repository.shortenRefName(branchStatus.getUpstreamBranch()) 
+        : null;
     if (upstreamBranch != null) {
       pushCommand.setRefSpecs(
           Arrays.asList(
@@ -1028,7 +1171,7 @@ public class GitAccess {
 	    PushResult result = results.next();
 	    for (RemoteRefUpdate info : result.getRemoteUpdates()) {
 	      try {
-          if (getRemoteFromConfig(localBranchName) == null) {
+          if (branchStatus.getRemote() == null) {
             repo.getConfig().setString(
                 ConfigConstants.CONFIG_BRANCH_SECTION,
                 localBranchName,
@@ -1041,10 +1184,16 @@ public class GitAccess {
                 info.getRemoteName());
             repo.getConfig().save();
           }
-        } catch (NoRepositorySelected | IOException ex) {
+        } catch (IOException ex) {
           PluginWorkspaceProvider.getPluginWorkspace().showErrorMessage(ex.getMessage(), ex);
         } 
 	      
+	      if (info.getStatus() == org.eclipse.jgit.transport.RemoteRefUpdate.Status.OK) {
+	        response.setBranchStatus(
+	            branchStatus.afterPush(
+	                Constants.DEFAULT_REMOTE_NAME,
+	                Constants.R_REMOTES + Constants.DEFAULT_REMOTE_NAME + "/" + Repository.shortenRefName(info.getRemoteName())));
+	      }
 	      response.setStatus(info.getStatus());
 	      response.setMessage(info.getMessage());
 	      
@@ -1080,14 +1229,18 @@ public class GitAccess {
       boolean updateSubmodules) throws GitAPIException {
 	  PullResponse pullResponseToReturn = new PullResponse(PullStatus.OK, new HashSet<>());
 	  AuthenticationInterceptor.install();
+	  // The remote-tracking branches change.
+	  FetchScheduler.getInstance().invalidate();
 
 		if (!getConflictingFiles().isEmpty()) {
 			pullResponseToReturn.setStatus(PullStatus.REPOSITORY_HAS_CONFLICTS);
 		} else {
-		  git.reset().call();
+		  Repository repository = git.getRepository();
+		  if (!isIndexSameAsHead(repository)) {
+		    git.reset().call();
+		  }
 
 		  // Call "Pull"
-		  Repository repository = git.getRepository();
 		  ObjectId oldHead = resolveHead(repository);
       PullCommand pullCmd = git.pull()
           .setRebase(PullType.REBASE == pullType)
@@ -1277,40 +1430,63 @@ public class GitAccess {
   }
 
 	/**
-	 * Refresh the Project view.
+	 * Refresh the Project view. Only the folders in which files were added or removed are refreshed,
+	 * in batches of {@link #PROJECT_REFRESH_BATCH_SIZE}.
 	 * 
 	 * @param repository The current repository.      
-	 * @param oldHead    The old HEAD (before pull).
-	 * @param head       The new HEAD (after pull).
-	 * 
-	 * @throws GitAPIException when error occurs during diff.
+	 * @param oldHead    The old HEAD tree (before pull).
+	 * @param head       The new HEAD tree (after pull).
 	 */
-  private void refreshProject(Repository repository, ObjectId oldHead, ObjectId head) throws GitAPIException {
-    CanonicalTreeParser oldTreeIter = new CanonicalTreeParser();
-    CanonicalTreeParser newTreeIter = new CanonicalTreeParser();
+  private void refreshProject(Repository repository, ObjectId oldHead, ObjectId head) {
     try {
-      ObjectReader reader = repository.newObjectReader();
-      oldTreeIter.reset(reader, oldHead);
-      newTreeIter.reset(reader, head);
-			List<DiffEntry> diffs = git.diff().setNewTree(newTreeIter).setOldTree(oldTreeIter).call();
-      
-      Set<File> pulledFilesParentDirs = new HashSet<>();
-      String selectedRepository = OptionsManager.getInstance().getSelectedRepository();
-      for (DiffEntry diffEntry : diffs) {
-        if (diffEntry.getChangeType() == ChangeType.ADD) {
-          pulledFilesParentDirs.add(new File(selectedRepository, diffEntry.getNewPath()).getParentFile());
-        } else if (diffEntry.getChangeType() == ChangeType.DELETE) {
-          pulledFilesParentDirs.add(new File(selectedRepository, diffEntry.getOldPath()).getParentFile());
+      List<File> changedFolders = new ChangedFoldersCollector(repository, oldHead, head).collect();
+      if (!changedFolders.isEmpty()) {
+        StandalonePluginWorkspace wsAccess = (StandalonePluginWorkspace) PluginWorkspaceProvider.getPluginWorkspace();
+        for (int i = 0; i < changedFolders.size(); i += PROJECT_REFRESH_BATCH_SIZE) {
+          List<File> batch = changedFolders.subList(i, Math.min(i + PROJECT_REFRESH_BATCH_SIZE, changedFolders.size()));
+          wsAccess.getProjectManager().refreshFolders(batch.toArray(new File[0]));
         }
       }
-      // Refresh the Project view
-      StandalonePluginWorkspace wsAccess = (StandalonePluginWorkspace) PluginWorkspaceProvider.getPluginWorkspace();
-      wsAccess.getProjectManager().refreshFolders(new File[] { FileHelper.getCommonDir(pulledFilesParentDirs) });
     } catch (IOException e) {
       logger.error(e, e);
     }
   }
 
+  /**
+   * Checks if the index has the same content as the HEAD tree, meaning that there is nothing staged.
+   * 
+   * @param repository The current repository.
+   * 
+   * @return <code>true</code> if the index matches the HEAD tree.
+   * 
+   * @throws GitAPIException if the index or the HEAD tree can't be read.
+   */
+  private static boolean isIndexSameAsHead(Repository repository) throws GitAPIException {
+    boolean same = false;
+    try {
+      ObjectId headTree = repository.resolve("HEAD^{tree}");
+      if (headTree != null) {
+        DirCache dirCache = repository.readDirCache();
+        DirCacheTree cacheTree = dirCache.getCacheTree(false);
+        if (cacheTree != null && cacheTree.isValid()) {
+          // The tree cached in the index was not invalidated by staging.
+          same = headTree.equals(cacheTree.getObjectId());
+        } else {
+          try (TreeWalk treeWalk = new TreeWalk(repository)) {
+            treeWalk.addTree(headTree);
+            treeWalk.addTree(new DirCacheIterator(dirCache));
+            treeWalk.setRecursive(true);
+            treeWalk.setFilter(TreeFilter.ANY_DIFF);
+            same = !treeWalk.next();
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new GitAPIException(e.getMessage(), e) {};
+    }
+    return same;
+  }
+
 	/**
 	 * Finds the common base for the given commit "a" and the given commit "b"
 	 * 
@@ -1366,6 +1542,59 @@ public class GitAccess {
 	 * @param files The files to be added.
 	 */
 	public void addAll(List<FileStatus> files) {
+	  addAll(files, NullProgressMonitor.INSTANCE);
+	}
+
+	/**
+	 * Adds multiple files to the staging area. Preparing the for commit.<br><br>
+	 * 
+	 * Sets larger than {@link #STAGE_IN_ONE_PASS_THRESHOLD} resources are written to the index in a single
+	 * pass, which reports its progress for each resource and is checked for cancellation before each one.
+	 * The resources already staged remain staged.
+	 * 
+	 * @param files   The files to be added.
+	 * @param monitor Receives progress notifications and can cancel the operation.
+	 */
+	public void addAll(List<FileStatus> files, ProgressMonitor monitor) {
+	  if (files.size() <= STAGE_IN_ONE_PASS_THRESHOLD) {
+	    addAllWithCommands(files);
+	  } else {
+	    addAllInOnePass(files, monitor);
+	  }
+	}
+
+	/**
+	 * Adds multiple files to the staging area, in a single index pass.
+	 * 
+	 * @param files   The files to be added.
+	 * @param monitor Receives progress notifications and can cancel the operation.
+	 */
+	private void addAllInOnePass(List<FileStatus> files, ProgressMonitor monitor) {
+	  Collection<String> paths = getFilePaths(files);
+	  monitor.beginTask(translator.getTranslation(Tags.STAGING), paths.size());
+	  try {
+	    fireOperationAboutToStart(new FileGitEventInfo(GitOperation.STAGE, paths));
+	    // When canceled, only the resources reached before are staged.
+	    Set<String> stagedPaths = IndexStager.stage(getRepository(), paths, monitor);
+	    fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.STAGE, stagedPaths));
+
+	    if (monitor.isCancelled() && logger.isDebugEnabled()) {
+	      logger.debug("Staging canceled.");
+	    }
+	  } catch (IOException | NoRepositorySelected e) {
+	    fireOperationFailed(new FileGitEventInfo(GitOperation.STAGE, paths), e);
+	    logger.error(e, e);
+	  } finally {
+	    monitor.endTask();
+	  }
+	}
+
+	/**
+	 * Adds multiple files to the staging area, through the add and remove commands.
+	 * 
+	 * @param files The files to be added.
+	 */
+	private void addAllWithCommands(List<FileStatus> files) {
 	  Collection<String> filePaths = getFilePaths(files);
 		try {
 		  fireOperationAboutToStart(new FileGitEventInfo(GitOperation.STAGE, filePaths));
@@ -1437,6 +1666,34 @@ public class GitAccess {
       }
     }
     
+    return Collections.emptyList();
+  }
+
+  /**
+   * Computes the staged state of an explicit set of files. Unlike {@link #getStagedFile(Collection)},
+   * the cost depends on the number of given files, not on the size of the repository: each file is
+   * looked up in the index and in the HEAD tree. Folders and submodules go through the regular
+   * status computation.
+   * 
+   * @param paths The files of interest. If empty, no file is returned.
+   * 
+   * @return The files from the given set that are staged, with their states.
+   */
+  public List<FileStatus> getStagedFilesForPaths(Collection<String> paths) {
+    if (git != null && !paths.isEmpty()) {
+      try {
+        PathStatusResolver resolver = new PathStatusResolver(getRepository());
+        List<FileStatus> stagedFiles = resolver.getStagedFiles(paths);
+        if (!resolver.getUnresolvedPaths().isEmpty()) {
+          stagedFiles.addAll(getStagedFile(resolver.getUnresolvedPaths()));
+        }
+        return stagedFiles;
+      } catch (IOException | NoRepositorySelected e) {
+        logger.error(e, e);
+        return getStagedFile(paths);
+      }
+    }
+    
     return Collections.emptyList();
   }
 
@@ -1497,7 +1754,10 @@ public class GitAccess {
 	}
 
 	/**
-	 * Reset all the specified files from the staging area.
+	 * Reset all the specified files from the staging area.<br><br>
+	 * 
+	 * Starting from {@link #BULK_INDEX_EDIT_THRESHOLD} files, the HEAD entries are resolved
+	 * in a single walk and the index is rebuilt in a single pass.
 	 * 
 	 * @param files The list of file to be removed
 	 */
@@ -1505,7 +1765,9 @@ public class GitAccess {
 	  Collection<String> filePaths = getFilePaths(files);
 		try {
 		  fireOperationAboutToStart(new FileGitEventInfo(GitOperation.UNSTAGE, filePaths));
-			if (!files.isEmpty()) {
+			if (files.size() >= BULK_INDEX_EDIT_THRESHOLD) {
+			  IndexRestorer.resetIndex(getRepository(), filePaths);
+			} else if (!files.isEmpty()) {
 				ResetCommand reset = git.reset();
 				for (FileStatus file : files) {
 					reset.addPath(file.getFileLocation());
@@ -1513,7 +1775,7 @@ public class GitAccess {
 				reset.call();
 			}
 			fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.UNSTAGE, filePaths));
-		} catch (GitAPIException e) {
+		} catch (GitAPIException | IOException | NoRepositorySelected e) {
 		  fireOperationFailed(new FileGitEventInfo(GitOperation.UNSTAGE, filePaths), e);
 		  logger.error(e, e);
 		}
@@ -1661,18 +1923,25 @@ public class GitAccess {
 
 	/**
 	 * Restores the last commit file content to the local file at the given path.
-	 * Both files must have the same path, otherwise it will not work.
+	 * Both files must have the same path, otherwise it will not work.<br><br>
+	 * 
+	 * Starting from {@link #BULK_INDEX_EDIT_THRESHOLD} files, the index is read once
+	 * and the content is written on several threads.
 	 * 
 	 * @param paths The paths to the files to restore.
 	 */
 	public void restoreLastCommitFile(List<String> paths) {
 		try {
 		  fireOperationAboutToStart(new FileGitEventInfo(GitOperation.DISCARD, paths));
-		  CheckoutCommand checkoutCmd = git.checkout();
-		  checkoutCmd.addPaths(paths);
-			checkoutCmd.call();
+		  if (paths.size() >= BULK_INDEX_EDIT_THRESHOLD) {
+		    IndexRestorer.checkoutIndex(getRepository(), paths);
+		  } else {
+		    CheckoutCommand checkoutCmd = git.checkout();
+		    checkoutCmd.addPaths(paths);
+		    checkoutCmd.call();
+		  }
 			fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.DISCARD, paths));
-		} catch (GitAPIException e) {
+		} catch (GitAPIException | IOException | NoRepositorySelected e) {
       fireOperationFailed(new FileGitEventInfo(GitOperation.DISCARD, paths), e);
 		  logger.error(e, e);
 		}
@@ -1687,23 +1956,13 @@ public class GitAccess {
 	 * @throws RepoNotInitializedException when the remote repo has not been initialized.
 	 */
 	public int getPushesAhead() throws RepoNotInitializedException {
-		int numberOfCommits = 0;
-		
-	  try {
-	    String branchName = getBranchInfo().getBranchName();
-	    if (branchName != null && branchName.length() > 0) {
-	      BranchTrackingStatus bts = BranchTrackingStatus.of(getRepository(), branchName);
-	      if (bts != null) {
-	        numberOfCommits = bts.getAheadCount();
-	      } else {
-	        throw new RepoNotInitializedException();
-	      }
-	    }
-	  } catch (IOException | NoRepositorySelected e) {
-	    logger.error(e, e);
+	  BranchStatus branchStatus = getBranchStatus();
+	  String branchName = branchStatus.getBranchInfo().getBranchName();
+	  if (branchName != null && branchName.length() > 0 && !branchStatus.isTracking()) {
+	    throw new RepoNotInitializedException();
 	  }
 	  
-	  return numberOfCommits;
+	  return branchStatus.getPushesAhead();
 	}
 
 	/**
@@ -1713,32 +1972,58 @@ public class GitAccess {
 	 * @return the number of commits the remote is ahead
 	 */
 	public int getPullsBehind() {
-	  int numberOfCommits = 0;
+		return getBranchStatus().getPullsBehind();
+	}
 
-	  try {
-	    String branchName = getBranchInfo().getBranchName();
-	    if (branchName != null && branchName.length() > 0) {
-	      BranchTrackingStatus bts = BranchTrackingStatus.of(getRepository(), branchName);
-	      if (bts != null) {
-	        numberOfCommits = bts.getBehindCount();
-	      }
+	/**
+	 * Computes the state of the current branch compared with its upstream branch: the branch, 
+	 * the upstream branch and the commits ahead and behind. Prefer it when more than one of these
+	 * are needed, as they are computed together.
+	 * 
+	 * @return The state of the current branch. Never <code>null</code>.
+	 */
+	public BranchStatus getBranchStatus() {
+	  BranchStatus branchStatus = new BranchStatus(new BranchInfo("", false));
+	  if (git != null) {
+	    try {
+	      branchStatus = BranchStatus.compute(git.getRepository());
+	    } catch (IOException e) {
+	      logger.error(e, e);
 	    }
-	  } catch (IOException | NoRepositorySelected e) {
-	    logger.error(e, e);
 	  }
+	  return branchStatus;
+	}
 
-		return numberOfCommits;
+	/**
+	 * Brings all the commits to the local repository but does not merge them.<br><br>
+	 * 
+	 * NOTE: the views should fetch through {@link FetchScheduler}, which avoids redundant fetches.
+	 * 
+	 * @return The fetch result. <code>null</code> if the repository has no remote.
+	 * 
+	 * @throws SSHPassphraseRequiredException
+	 * @throws PrivateRepositoryException
+	 * @throws RepositoryUnavailableException
+	 */
+	public FetchResult fetch()
+			throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+	  return fetch(true);
 	}
 
 	/**
 	 * Brings all the commits to the local repository but does not merge them.
 	 * 
+	 * @param interactive <code>false</code> to use only the stored credentials, without asking the user
+	 *                    for others. For the fetches done in the background.
+	 * 
+	 * @return The fetch result. <code>null</code> if the repository has no remote.
+	 * 
 	 * @throws SSHPassphraseRequiredException
 	 * @throws PrivateRepositoryException
 	 * @throws RepositoryUnavailableException
 	 */
-	public void fetch()
-			throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+	public FetchResult fetch(boolean interactive)
+	    throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
 	  logger.debug("Begin fetch");
     if (git == null) {
       throw new RepositoryUnavailableException(new NoRepositorySelected("Repository is empty"));
@@ -1746,41 +2031,138 @@ public class GitAccess {
 	  
 		AuthenticationInterceptor.install();
 		
+		FetchResult fetchResult = null;
 		SSHCapableUserCredentialsProvider credentialsProvider = AuthUtil.getCredentialsProvider(getHostName());
+		credentialsProvider.setInteractive(interactive);
 		try {
 			StoredConfig config = git.getRepository().getConfig();
 			Set<String> sections = config.getSections();
 			if (sections.contains(ConfigConstants.CONFIG_KEY_REMOTE)) {
-        git.fetch()
-            .setRefSpecs(new RefSpec("+refs/heads/*:refs/remotes/origin/*"))
-            .setCheckFetchedObjects(true)
+        OptionsManager optionsManager = OptionsManager.getInstance();
+        fetchResult = git.fetch()
+            .setRefSpecs(getFetchRefSpec(optionsManager.isFetchOnlyTrackedBranch()))
+            .setCheckFetchedObjects(optionsManager.isCheckFetchedObjects())
+            .setThin(optionsManager.isFetchThinPacks())
             .setRemoveDeletedRefs(true)
 						.setCredentialsProvider(credentialsProvider)
 						.call();
 			}
 		} catch (TransportException e) {
 		  logger.debug(e, e);
-			
-			Throwable cause = e;
-	    while (cause.getCause() != null) {
-	      cause = cause.getCause();
-	    }
-
-			String message = e.getMessage();
-      if (message != null && (message.contains("Authentication is required but no CredentialsProvider has been registered")
-					|| message.contains("not authorized"))) {
-				throw new PrivateRepositoryException(e);
-			} else if (message != null && message.contains("Auth fail") && credentialsProvider.isPassphaseRequested()
-			    || (cause instanceof SshException)
-              && ((SshException) cause).getDisconnectCode() == SshConstants.SSH2_DISCONNECT_NO_MORE_AUTH_METHODS_AVAILABLE) {
-			  throw new SSHPassphraseRequiredException(e);
-			} else {
-			  throw new RepositoryUnavailableException(e);
-			}
+		  treatRemoteAccessException(e, credentialsProvider);
 		} catch (GitAPIException | RevisionSyntaxException e) {
 		  logger.error(e, e);
     } 
 		logger.debug("End fetch");
+		return fetchResult;
+	}
+
+	/**
+	 * Computes what to fetch.
+	 * 
+	 * @param onlyTrackedBranch <code>true</code> to fetch only the upstream of the current branch.
+	 * 
+	 * @return The ref spec. All the branches of the remote when only the tracked branch
+	 * was requested, but the current branch doesn't track a branch from "origin".
+	 */
+	private RefSpec getFetchRefSpec(boolean onlyTrackedBranch) {
+	  RefSpec refSpec = new RefSpec("+refs/heads/*:refs/remotes/origin/*");
+	  if (onlyTrackedBranch) {
+	    try {
+	      Repository repository = git.getRepository();
+	      BranchConfig branchConfig = new BranchConfig(repository.getConfig(), repository.getBranch());
+	      String upstreamBranch = branchConfig.getMerge();
+	      String trackingBranch = branchConfig.getRemoteTrackingBranch();
+	      if (Constants.DEFAULT_REMOTE_NAME.equals(branchConfig.getRemote())
+	          && upstreamBranch != null && trackingBranch != null) {
+	        refSpec = new RefSpec("+" + upstreamBranch + ":" + trackingBranch);
+	      }
+	    } catch (IOException e) {
+	      logger.debug(e, e);
+	    }
+	  }
+	  return refSpec;
+	}
+
+	/**
+	 * Checks if the upstream of the current branch moved, by asking the remote only about that branch.
+	 * No objects are transferred, so this is much cheaper than a fetch. Meant for the checks done
+	 * in the background: the stored credentials are used and the user is never asked for others.
+	 * 
+	 * @return <code>true</code> if the upstream branch points to another commit than its remote-tracking
+	 * branch. <code>false</code> if it doesn't or if there is nothing to compare with (no upstream,
+	 * no remote-tracking branch).
+	 * 
+	 * @throws RepositoryUnavailableException If the remote can't be reached or the credentials were rejected.
+	 */
+	public boolean isUpstreamChanged() throws RepositoryUnavailableException {
+	  if (git == null) {
+	    throw new RepositoryUnavailableException(new NoRepositorySelected("Repository is empty"));
+	  }
+	  
+	  AuthenticationInterceptor.install();
+	  
+	  boolean changed = false;
+	  Repository repository = git.getRepository();
+	  SSHCapableUserCredentialsProvider credentialsProvider = AuthUtil.getCredentialsProvider(getHostName());
+	  credentialsProvider.setInteractive(false);
+	  try {
+	    BranchConfig branchConfig = new BranchConfig(repository.getConfig(), repository.getBranch());
+	    String remote = branchConfig.getRemote();
+	    String upstreamBranch = branchConfig.getMerge();
+	    String trackingBranch = branchConfig.getRemoteTrackingBranch();
+	    Ref trackingRef = trackingBranch != null ? repository.exactRef(trackingBranch) : null;
+	    if (remote != null && upstreamBranch != null && trackingRef != null) {
+	      try (Transport transport = Transport.open(repository, remote)) {
+	        transport.setCredentialsProvider(credentialsProvider);
+	        // With protocol v2 the remote advertises only the refs matching the given spec.
+	        try (FetchConnection connection = transport.openFetch(
+	            Collections.singletonList(new RefSpec(upstreamBranch)))) {
+	          Ref advertisedRef = connection.getRef(upstreamBranch);
+	          changed = advertisedRef == null || !trackingRef.getObjectId().equals(advertisedRef.getObjectId());
+	        }
+	      }
+	    }
+	  } catch (IOException | URISyntaxException e) {
+	    throw new RepositoryUnavailableException(e);
+	  }
+	  
+	  if (logger.isDebugEnabled()) {
+	    logger.debug("Upstream changed: " + changed);
+	  }
+	  return changed;
+	}
+
+	/**
+	 * Converts a failure to reach the remote into the exception that tells the views how to react.
+	 * 
+	 * @param e                   The transport failure.
+	 * @param credentialsProvider The credentials provider used to contact the remote.
+	 * 
+	 * @throws SSHPassphraseRequiredException
+	 * @throws PrivateRepositoryException
+	 * @throws RepositoryUnavailableException
+	 */
+	private static void treatRemoteAccessException(
+	    Exception e,
+	    SSHCapableUserCredentialsProvider credentialsProvider)
+	        throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+	  Throwable cause = e;
+	  while (cause.getCause() != null) {
+	    cause = cause.getCause();
+	  }
+
+	  String message = e.getMessage();
+	  if (message != null && (message.contains("Authentication is required but no CredentialsProvider has been registered")
+	      || message.contains("not authorized"))) {
+	    throw new PrivateRepositoryException(e);
+	  } else if (message != null && message.contains("Auth fail") && credentialsProvider.isPassphaseRequested()
+	      || (cause instanceof SshException)
+	      && ((SshException) cause).getDisconnectCode() == SshConstants.SSH2_DISCONNECT_NO_MORE_AUTH_METHODS_AVAILABLE) {
+	    throw new SSHPassphraseRequiredException(e);
+	  } else {
+	    throw new RepositoryUnavailableException(e);
+	  }
 	}
 
 	/**
@@ -1838,24 +2220,9 @@ public class GitAccess {
 	public BranchInfo getBranchInfo() {
 	  BranchInfo branchInfo = new BranchInfo("", false);
 		if (git != null) {
-			branchInfo = new BranchInfo();
-			String branchName = "";
 			try {
-				branchName = git.getRepository().getBranch();
-				branchInfo.setBranchName(branchName);
-				Iterable<RevCommit> results = git.log().call();
-				for (RevCommit revCommit : results) {
-					if (revCommit.getId().name().equals(branchName)) {
-						branchInfo.setDetached(true);
-						branchInfo.setShortBranchName(
-						    revCommit.getId().abbreviate(RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH).name());
-						break;
-					}
-				}
-			} catch (NoHeadException e) {
-			  branchInfo = new BranchInfo(branchName, false);
-			  logger.debug(e, e);
-			} catch (IOException | GitAPIException e) {
+				branchInfo = BranchStatus.readBranchInfo(git.getRepository());
+			} catch (IOException e) {
 			  logger.error(e, e);
 			}
 		}
@@ -1937,15 +2304,21 @@ public class GitAccess {
 	 * @throws IOException Unable to read the index.
 	 */
 	public ObjectId locateObjectIdInIndex(String path)  throws IOException {
-	  DirCache dc = git.getRepository().readDirCache();
-	  int firstIndex = dc.findEntry(path);
-	  if (firstIndex < 0) {
-	    return null;
-	  }
+	  return IndexReader.getInstance().getObjectId(git.getRepository(), path);
+	}
 
-	  org.eclipse.jgit.dircache.DirCacheEntry firstEntry = dc.getEntry(firstIndex);
-	  
-	  return firstEntry.getObjectId();
+	/**
+	 * Locates the files with the given paths in the index. All the paths are looked up in the same
+	 * version of the index.
+	 * 
+	 * @param paths File paths.
+	 * 
+	 * @return The IDs of the files found in the index, by path.
+	 * 
+	 * @throws IOException Unable to read the index.
+	 */
+	public Map<String, ObjectId> locateObjectIdsInIndex(Collection<String> paths) throws IOException {
+	  return IndexReader.getInstance().getObjectIds(git.getRepository(), paths);
 	}
 	
 	/**
@@ -2034,7 +2407,7 @@ public class GitAccess {
 			  default:
 			    break;
 			}
-		} catch (GitAPIException | IOException e) {
+		} catch (IOException e) {
 		  logger.error(e, e);
 		}
 		return toReturn;
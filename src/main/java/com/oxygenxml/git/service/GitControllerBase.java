@@ -7,8 +7,11 @@ import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ScheduledFuture;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.apache.log4j.Logger;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ProgressMonitor;
 import org.eclipse.jgit.lib.RepositoryState;
 
 import com.oxygenxml.git.service.entities.FileStatus;
@@ -52,6 +55,10 @@ public abstract class GitControllerBase {
    * Git notifications.
    */
   protected GitListeners listeners = GitListeners.getInstance();
+  /**
+   * Creates the progress monitors for the operations that can take long, like staging many resources.
+   */
+  private Supplier<ProgressMonitor> progressMonitorFactory = () -> NullProgressMonitor.INSTANCE;
 
   /**
    * Constructor.
@@ -201,7 +208,18 @@ public abstract class GitControllerBase {
    * @param filesStatuses Files to add.
    */
   public void asyncAddToIndex(List<FileStatus> filesStatuses) {
-    async(() -> gitAccess.addAll(filesStatuses));
+    ProgressMonitor progressMonitor = progressMonitorFactory.get();
+    async(() -> gitAccess.addAll(filesStatuses, progressMonitor));
+  }
+  
+  /**
+   * Sets the factory for the progress monitors of the operations that can take long,
+   * like staging many resources.
+   * 
+   * @param progressMonitorFactory Creates progress monitors.
+   */
+  public void setProgressMonitorFactory(Supplier<ProgressMonitor> progressMonitorFactory) {
+    this.progressMonitorFactory = progressMonitorFactory;
   }
 
   /**
@@ -325,6 +343,27 @@ public abstract class GitControllerBase {
     listeners.addGitListener(listener);
   }
 
+  /**
+   * Add a listener that gets notified about file or repository changes.
+   * 
+   * @param listener The listener to add.
+   * @param delivery How the events are delivered to the listener.
+   */
+  public void addGitListener(GitEventListener listener, GitEventDelivery delivery) {
+    listeners.addGitListener(listener, delivery);
+  }
+
+  /**
+   * Add a listener that gets notified about file or repository changes. The bursts of operations
+   * on files, like staging one resource after the other, are merged into one event with all the affected files.
+   * 
+   * @param listener The listener to add.
+   * @param delivery How the events are delivered to the listener. Not {@link GitEventDelivery#SYNCHRONOUS}.
+   */
+  public void addCoalescingGitListener(GitEventListener listener, GitEventDelivery delivery) {
+    listeners.addCoalescingGitListener(listener, delivery);
+  }
+
   /**
    * Removes a listener that gets notified about file or repository changes.
    * 
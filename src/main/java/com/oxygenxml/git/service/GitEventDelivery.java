@@ -0,0 +1,20 @@
+package com.oxygenxml.git.service;
+
+/**
+ * How the Git events are delivered to a listener.
+ */
+public enum GitEventDelivery {
+  /**
+   * On the thread that fired the event, before the operation continues. For the listeners that must
+   * see the event before anything else happens, like the ones that invalidate caches.
+   */
+  SYNCHRONOUS,
+  /**
+   * On the AWT event dispatch thread, in order. For the listeners that only update the UI.
+   */
+  EDT,
+  /**
+   * On a background thread, in order. For the listeners that query the repository.
+   */
+  BACKGROUND
+}
@@ -1,15 +1,35 @@
 package com.oxygenxml.git.service;
 
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
 
 import org.apache.log4j.Logger;
 
+import com.oxygenxml.git.view.event.FileGitEventInfo;
 import com.oxygenxml.git.view.event.GitEventInfo;
+import com.oxygenxml.git.view.event.GitOperation;
 
 /**
  * Git notifications support. Central point to register all parties interested in receiving 
- * Git operation notifications.
+ * Git operation notifications.<br><br>
+ *
+ * Each listener declares how it wants to receive the events, see {@link GitEventDelivery}.
+ * The listeners that are not synchronous get the events through their own queue, so a slow listener
+ * delays neither the other listeners nor the next Git operation. An event identical to the last one
+ * waiting in a queue is dropped.<br><br>
+ *
+ * The listeners registered with {@link #addCoalescingGitListener(GitEventListener, GitEventDelivery)}
+ * also get the bursts of file operations, like staging one resource after the other, as one event: the end of an operation
+ * on files is merged into the end of the same operation still waiting in the queue.
  */
 public class GitListeners {
   /**
@@ -18,9 +38,18 @@ public class GitListeners {
   private static final Logger logger = Logger.getLogger(GitListeners.class);
   
   /**
-   * Receive notifications when things change.
+   * Delivers the events to the background listeners.
+   */
+  private static final ExecutorService backgroundDelivery = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "Git Event Delivery");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Receive notifications when things change, with the queues through which they receive them.
    */
-  private HashSet<GitEventListener> gitEventListeners = new LinkedHashSet<>();
+  private LinkedHashMap<GitEventListener, ListenerQueue> gitEventListeners = new LinkedHashMap<>();
   /**
    * Singleton.
    */
@@ -50,9 +79,10 @@ public class GitListeners {
       logger.debug("Fire operation about to start: " + info);
     }
     
-    for (GitEventListener gitEventListener : gitEventListeners) {
-      gitEventListener.operationAboutToStart(info);
-    }
+    // The operation changes the status of the working copy.
+    StatusService.getInstance().invalidate();
+    
+    fire(new GitEvent(GitEventType.ABOUT_TO_START, info, null));
   }
   
   /**
@@ -65,9 +95,10 @@ public class GitListeners {
       logger.debug("Fire operation successfully ended: " + info);
     }
     
-    for (GitEventListener gitEventListener : gitEventListeners) {
-      gitEventListener.operationSuccessfullyEnded(info);
-    }
+    // The operation changes the status of the working copy.
+    StatusService.getInstance().invalidate();
+    
+    fire(new GitEvent(GitEventType.SUCCESSFULLY_ENDED, info, null));
   }
   
   /**
@@ -81,40 +112,386 @@ public class GitListeners {
       logger.debug("Fire operation failed: " + info + ". Reason: " + t.getMessage());
     }
     
-    for (GitEventListener gitEventListener : gitEventListeners) {
-      gitEventListener.operationFailed(info, t);
+    // The operation changes the status of the working copy.
+    StatusService.getInstance().invalidate();
+    
+    fire(new GitEvent(GitEventType.FAILED, info, t));
+  }
+
+  /**
+   * Sends an event to all the listeners.
+   *
+   * @param event The event.
+   */
+  private void fire(GitEvent event) {
+    for (ListenerQueue queue : gitEventListeners.values()) {
+      if (queue.delivery == GitEventDelivery.SYNCHRONOUS) {
+        queue.deliver(event);
+      } else {
+        queue.enqueue(event);
+      }
     }
   }
   
-  
+  /**
+   * Add a listener that gets notified about file or repository changes,
+   * on the thread that fired the event.
+   *
+   * @param listener The listener to add.
+   */
+  public void addGitListener(GitEventListener listener) {
+    addGitListener(listener, GitEventDelivery.SYNCHRONOUS);
+  }
 
   /**
    * Add a listener that gets notified about file or repository changes.
    * 
    * @param listener The listener to add.
+   * @param delivery How the events are delivered to the listener.
+   */
+  public void addGitListener(GitEventListener listener, GitEventDelivery delivery) {
+    addGitListener(listener, delivery, false);
+  }
+
+  /**
+   * Add a listener that gets notified about file or repository changes. The ends of the operations
+   * on files that pile up in its queue are merged into one event with all the affected files.
+   * Their starts are still delivered one by one.
+   * 
+   * @param listener The listener to add.
+   * @param delivery How the events are delivered to the listener. Not {@link GitEventDelivery#SYNCHRONOUS}.
+   */
+  public void addCoalescingGitListener(GitEventListener listener, GitEventDelivery delivery) {
+    if (delivery == GitEventDelivery.SYNCHRONOUS) {
+      throw new IllegalArgumentException("Synchronous events can't be coalesced.");
+    }
+    addGitListener(listener, delivery, true);
+  }
+
+  /**
+   * Add a listener that gets notified about file or repository changes.
+   * 
+   * @param listener        The listener to add.
+   * @param delivery        How the events are delivered to the listener.
+   * @param mergeFileEvents <code>true</code> to merge the ends of the operations on files.
    */
   @SuppressWarnings("unchecked")
-  public void addGitListener(GitEventListener listener) {
-    HashSet<GitEventListener> clone = (HashSet<GitEventListener>) gitEventListeners.clone();
-    clone.add(listener);
+  private void addGitListener(GitEventListener listener, GitEventDelivery delivery, boolean mergeFileEvents) {
+    LinkedHashMap<GitEventListener, ListenerQueue> clone =
+        (LinkedHashMap<GitEventListener, ListenerQueue>) gitEventListeners.clone();
+    clone.put(listener, new ListenerQueue(listener, delivery, mergeFileEvents));
     
     gitEventListeners = clone;
   }
   
   /**
    * Removes a listener that gets notified about file or repository changes.
+   * The events waiting in its queue are dropped.
    * 
    * @param listener The listener to remove.
    */
   @SuppressWarnings("unchecked")
   public void removeGitListener(GitEventListener listener) {
-    HashSet<GitEventListener> clone = (HashSet<GitEventListener>) gitEventListeners.clone();
-    clone.remove(listener);
+    LinkedHashMap<GitEventListener, ListenerQueue> clone =
+        (LinkedHashMap<GitEventListener, ListenerQueue>) gitEventListeners.clone();
+    ListenerQueue queue = clone.remove(listener);
+    if (queue != null) {
+      queue.clear();
+    }
     
     gitEventListeners = clone;
   }
 
   public void clear() {
+    for (ListenerQueue queue : gitEventListeners.values()) {
+      queue.clear();
+    }
     gitEventListeners.clear();
   }
+
+  /**
+   * @param listener A registered listener.
+   *
+   * @return The longest time between firing an event and the end of its handling by the listener,
+   * in milliseconds. -1 if the listener is not registered.
+   */
+  public long getMaxDeliveryLatency(GitEventListener listener) {
+    long latency = -1;
+    ListenerQueue queue = gitEventListeners.get(listener);
+    if (queue != null) {
+      synchronized (queue) {
+        latency = TimeUnit.NANOSECONDS.toMillis(queue.maxLatency);
+      }
+    }
+    return latency;
+  }
+
+  /**
+   * The kinds of Git events.
+   */
+  private enum GitEventType {
+    /**
+     * {@link GitEventListener#operationAboutToStart(GitEventInfo)}
+     */
+    ABOUT_TO_START,
+    /**
+     * {@link GitEventListener#operationSuccessfullyEnded(GitEventInfo)}
+     */
+    SUCCESSFULLY_ENDED,
+    /**
+     * {@link GitEventListener#operationFailed(GitEventInfo, Throwable)}
+     */
+    FAILED
+  }
+
+  /**
+   * A fired event.
+   */
+  private static class GitEvent {
+    /**
+     * The kind of event.
+     */
+    private final GitEventType type;
+    /**
+     * Event info.
+     */
+    private final GitEventInfo info;
+    /**
+     * The reason of a failure. May be <code>null</code>.
+     */
+    private final Throwable cause;
+    /**
+     * When the event was fired, in nanoseconds.
+     */
+    private final long firedTime;
+
+    /**
+     * Constructor.
+     *
+     * @param type  The kind of event.
+     * @param info  Event info.
+     * @param cause The reason of a failure. May be <code>null</code>.
+     */
+    GitEvent(GitEventType type, GitEventInfo info, Throwable cause) {
+      this(type, info, cause, System.nanoTime());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param type      The kind of event.
+     * @param info      Event info.
+     * @param cause     The reason of a failure. May be <code>null</code>.
+     * @param firedTime When the event was fired, in nanoseconds.
+     */
+    private GitEvent(GitEventType type, GitEventInfo info, Throwable cause, long firedTime) {
+      this.type = type;
+      this.info = info;
+      this.cause = cause;
+      this.firedTime = firedTime;
+    }
+
+    /**
+     * @return <code>true</code> if this is the end of an operation on files, that can be merged
+     * with the end of another one.
+     */
+    boolean isMergeable() {
+      return type == GitEventType.SUCCESSFULLY_ENDED && info.getClass() == FileGitEventInfo.class;
+    }
+
+    /**
+     * Merges the end of a later operation on files into this one.
+     *
+     * @param later The end of the later operation. Must be mergeable and for the same operation.
+     *
+     * @return The end of the operation on the files of both events, fired when this one was fired.
+     */
+    GitEvent merge(GitEvent later) {
+      Set<String> paths = new LinkedHashSet<>(((FileGitEventInfo) info).getAffectedFilePaths());
+      paths.addAll(((FileGitEventInfo) later.info).getAffectedFilePaths());
+      return new GitEvent(type, new FileGitEventInfo(info.getGitOperation(), paths), null, firedTime);
+    }
+
+    /**
+     * @param other Another event.
+     *
+     * @return <code>true</code> if delivering the other event after this one brings nothing new.
+     */
+    boolean isSameAs(GitEvent other) {
+      return type == other.type && Objects.equals(info, other.info) && cause == other.cause;
+    }
+
+    @Override
+    public String toString() {
+      return type + " " + info;
+    }
+  }
+
+  /**
+   * Delivers the events to a listener.
+   */
+  private static class ListenerQueue {
+    /**
+     * The listener.
+     */
+    private final GitEventListener listener;
+    /**
+     * How the events are delivered.
+     */
+    private final GitEventDelivery delivery;
+    /**
+     * <code>true</code> to merge the ends of the operations on files.
+     */
+    private final boolean mergeFileEvents;
+    /**
+     * The events waiting to be delivered.
+     */
+    private final LinkedList<GitEvent> pendingEvents = new LinkedList<>();
+    /**
+     * <code>true</code> while a task that delivers the pending events is scheduled or running.
+     */
+    private boolean draining;
+    /**
+     * The longest time between firing an event and the end of its handling by the listener, in nanoseconds.
+     */
+    private long maxLatency;
+
+    /**
+     * Constructor.
+     *
+     * @param listener        The listener.
+     * @param delivery        How the events are delivered.
+     * @param mergeFileEvents <code>true</code> to merge the ends of the operations on files.
+     */
+    ListenerQueue(GitEventListener listener, GitEventDelivery delivery, boolean mergeFileEvents) {
+      this.listener = listener;
+      this.delivery = delivery;
+      this.mergeFileEvents = mergeFileEvents;
+    }
+
+    /**
+     * Queues an event. Starts delivering the events if not already doing it.
+     *
+     * @param event The event.
+     */
+    void enqueue(GitEvent event) {
+      boolean startDraining = false;
+      synchronized (this) {
+        GitEvent last = pendingEvents.peekLast();
+        if (last != null && last.isSameAs(event) || mergeFileEvents && mergeIntoPending(event)) {
+          if (logger.isDebugEnabled()) {
+            logger.debug("Coalesced " + event + " for " + listener);
+          }
+        } else {
+          pendingEvents.addLast(event);
+          if (!draining) {
+            draining = true;
+            startDraining = true;
+          }
+        }
+      }
+
+      if (startDraining) {
+        if (delivery == GitEventDelivery.EDT) {
+          SwingUtilities.invokeLater(this::drain);
+        } else {
+          backgroundDelivery.execute(this::drain);
+        }
+      }
+    }
+
+    /**
+     * Merges the end of an operation on files into the end of the same operation waiting in the queue,
+     * if no other event came in between, except for the starts of that operation. Call with the lock held.
+     *
+     * @param event The event.
+     *
+     * @return <code>true</code> if the event was merged.
+     */
+    private boolean mergeIntoPending(GitEvent event) {
+      if (!event.isMergeable()) {
+        return false;
+      }
+
+      GitOperation operation = event.info.getGitOperation();
+      ListIterator<GitEvent> iterator = pendingEvents.listIterator(pendingEvents.size());
+      while (iterator.hasPrevious()) {
+        GitEvent pending = iterator.previous();
+        if (pending.info.getGitOperation() != operation) {
+          break;
+        }
+        if (pending.isMergeable()) {
+          iterator.set(pending.merge(event));
+          return true;
+        }
+        if (pending.type != GitEventType.ABOUT_TO_START) {
+          break;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Delivers the pending events, in order.
+     */
+    private void drain() {
+      while (true) {
+        GitEvent event;
+        synchronized (this) {
+          event = pendingEvents.pollFirst();
+          if (event == null) {
+            draining = false;
+            return;
+          }
+        }
+
+        try {
+          deliver(event);
+        } catch (RuntimeException e) {
+          logger.error(e, e);
+        }
+      }
+    }
+
+    /**
+     * Drops the pending events.
+     */
+    synchronized void clear() {
+      pendingEvents.clear();
+    }
+
+    /**
+     * Delivers an event to the listener and measures the delay.
+     *
+     * @param event The event.
+     */
+    void deliver(GitEvent event) {
+      long start = System.nanoTime();
+      switch (event.type) {
+        case ABOUT_TO_START:
+          listener.operationAboutToStart(event.info);
+          break;
+        case SUCCESSFULLY_ENDED:
+          listener.operationSuccessfullyEnded(event.info);
+          break;
+        case FAILED:
+          listener.operationFailed(event.info, event.cause);
+          break;
+        default:
+          break;
+      }
+
+      long end = System.nanoTime();
+      long latency = end - event.firedTime;
+      synchronized (this) {
+        maxLatency = Math.max(maxLatency, latency);
+      }
+      if (logger.isDebugEnabled()) {
+        logger.debug(delivery + " delivery of " + event + " to " + listener
+            + ": waited " + TimeUnit.NANOSECONDS.toMillis(start - event.firedTime) + " ms,"
+            + " handled in " + TimeUnit.NANOSECONDS.toMillis(end - start) + " ms.");
+      }
+    }
+  }
+
 }
@@ -25,6 +25,10 @@ public class GitStatus {
    * Staged files.
    */
   private List<FileStatus> stagedFiles;
+  /**
+   * The version of a snapshot produced by the {@link StatusService}. 0 for a status computed directly.
+   */
+  private final long generation;
   
   /**
    * Constructor.
@@ -33,8 +37,20 @@ public class GitStatus {
    * @param stagedFiles Staged files.
    */
   public GitStatus(List<FileStatus> unstagedFiles, List<FileStatus> stagedFiles) {
+    this(unstagedFiles, stagedFiles, 0);
+  }
+  
+  /**
+   * Constructor.
+   * 
+   * @param unstagedFiles Unstaged files.
+   * @param stagedFiles Staged files.
+   * @param generation The version of the snapshot.
+   */
+  GitStatus(List<FileStatus> unstagedFiles, List<FileStatus> stagedFiles, long generation) {
     this.unstagedFiles = unstagedFiles;
     this.stagedFiles = stagedFiles;
+    this.generation = generation;
     logger.debug("Create GitStatus...");
     logger.debug("GitStatus unstaged files: " + unstagedFiles);
     logger.debug("GitStatus staged files: " + stagedFiles);
@@ -53,4 +69,12 @@ public class GitStatus {
   public List<FileStatus> getUnstagedFiles() {
     return unstagedFiles;
   }
+  
+  /**
+   * @return The version of a snapshot produced by the {@link StatusService}. Newer snapshots have
+   * greater versions. 0 for a status computed directly.
+   */
+  public long getGeneration() {
+    return generation;
+  }
 }
@@ -0,0 +1,366 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.internal.storage.file.FileSnapshot;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Finds the blobs of the files in the index without parsing the whole index.<br><br>
+ *
+ * {@link Repository#readDirCache()} creates an object for each entry of the index, which is slow for large
+ * repositories when only a few paths are needed. Here, the index file is read into memory as it is and only
+ * the offsets of its entries are computed. The entries are sorted by path in the file, so a path is found
+ * with a binary search on the raw bytes. The parsed index is kept until the index file changes.<br><br>
+ *
+ * The index is not memory-mapped because a mapped file can't be replaced on Windows until the mapping
+ * is garbage collected, and Git replaces the index file each time it writes it.
+ */
+final class IndexReader {
+  /**
+   * The signature at the start of the index file.
+   */
+  private static final int INDEX_SIGNATURE = 0x44495243; // "DIRC"
+  /**
+   * The size of the fields of an entry that come before the path, in bytes.
+   */
+  private static final int ENTRY_INFO_LENGTH = 62;
+  /**
+   * The offset of the object ID in an entry.
+   */
+  private static final int OBJECT_ID_OFFSET = 40;
+  /**
+   * The offset of the flags in an entry.
+   */
+  private static final int FLAGS_OFFSET = 60;
+  /**
+   * The flag of the entries that have extended flags, from version 3 on.
+   */
+  private static final int EXTENDED_FLAG = 0x4000;
+  /**
+   * The mask of the path length in the flags. Longer paths have this value.
+   */
+  private static final int NAME_LENGTH_MASK = 0xfff;
+
+  /**
+   * The singleton instance.
+   */
+  private static final IndexReader instance = new IndexReader();
+
+  /**
+   * The last parsed index. <code>null</code> if none.
+   */
+  private ParsedIndex parsedIndex;
+
+  /**
+   * Singleton private constructor.
+   */
+  private IndexReader() {}
+
+  /**
+   * @return The singleton instance.
+   */
+  static IndexReader getInstance() {
+    return instance;
+  }
+
+  /**
+   * Finds the blob of a file in the index. For a file in conflict, the blob of its first stage.
+   *
+   * @param repository The repository.
+   * @param path       The path of the file, relative to the working tree.
+   *
+   * @return The blob. <code>null</code> if the file is not in the index.
+   *
+   * @throws IOException If the index can't be read.
+   */
+  ObjectId getObjectId(Repository repository, String path) throws IOException {
+    return getParsedIndex(repository).getObjectId(path);
+  }
+
+  /**
+   * Finds the blobs of many files in the index. For a file in conflict, the blob of its first stage.
+   * All the paths are looked up in the same version of the index.
+   *
+   * @param repository The repository.
+   * @param paths      The paths of the files, relative to the working tree.
+   *
+   * @return The blobs of the files that are in the index, by path.
+   *
+   * @throws IOException If the index can't be read.
+   */
+  Map<String, ObjectId> getObjectIds(Repository repository, Collection<String> paths) throws IOException {
+    ParsedIndex index = getParsedIndex(repository);
+    Map<String, ObjectId> objectIds = new HashMap<>();
+    for (String path : paths) {
+      ObjectId objectId = index.getObjectId(path);
+      if (objectId != null) {
+        objectIds.put(path, objectId);
+      }
+    }
+    return objectIds;
+  }
+
+  /**
+   * Drops the parsed index.
+   */
+  synchronized void clear() {
+    parsedIndex = null;
+  }
+
+  /**
+   * Gets the parsed index, reading the index file again if it changed.
+   *
+   * @param repository The repository.
+   *
+   * @return The parsed index.
+   *
+   * @throws IOException If the index can't be read.
+   */
+  private synchronized ParsedIndex getParsedIndex(Repository repository) throws IOException {
+    File indexFile = repository.getIndexFile();
+    if (parsedIndex == null
+        || !indexFile.equals(parsedIndex.indexFile)
+        || parsedIndex.snapshot.isModified(indexFile)) {
+      parsedIndex = ParsedIndex.read(repository, indexFile);
+    }
+    return parsedIndex;
+  }
+
+  /**
+   * An index file and the offsets of its entries.
+   */
+  private static class ParsedIndex {
+    /**
+     * The index file.
+     */
+    private final File indexFile;
+    /**
+     * The state of the index file when it was read.
+     */
+    private final FileSnapshot snapshot;
+    /**
+     * The content of the index file. <code>null</code> if it is in a format read by {@link #dirCache}.
+     */
+    private final byte[] content;
+    /**
+     * The offset of each entry in {@link #content}.
+     */
+    private final int[] entryOffsets;
+    /**
+     * The index, for the formats that are not parsed here. <code>null</code> otherwise.
+     */
+    private final DirCache dirCache;
+
+    /**
+     * Constructor.
+     *
+     * @param indexFile    The index file.
+     * @param snapshot     The state of the index file when it was read.
+     * @param content      The content of the index file. May be <code>null</code>.
+     * @param entryOffsets The offset of each entry in the content.
+     * @param dirCache     The index parsed by JGit. May be <code>null</code>.
+     */
+    private ParsedIndex(File indexFile, FileSnapshot snapshot, byte[] content, int[] entryOffsets,
+        DirCache dirCache) {
+      this.indexFile = indexFile;
+      this.snapshot = snapshot;
+      this.content = content;
+      this.entryOffsets = entryOffsets;
+      this.dirCache = dirCache;
+    }
+
+    /**
+     * Reads an index file.
+     *
+     * @param repository The repository.
+     * @param indexFile  The index file.
+     *
+     * @return The parsed index.
+     *
+     * @throws IOException If the index can't be read.
+     */
+    static ParsedIndex read(Repository repository, File indexFile) throws IOException {
+      // Taken before reading, so a change made meanwhile is detected next time.
+      FileSnapshot snapshot = FileSnapshot.save(indexFile);
+      if (!indexFile.exists()) {
+        return new ParsedIndex(indexFile, snapshot, new byte[0], new int[0], null);
+      }
+
+      byte[] content = Files.readAllBytes(indexFile.toPath());
+      int[] entryOffsets = computeEntryOffsets(content);
+      if (entryOffsets == null) {
+        // A version with compressed paths, or a file being written. JGit reports the errors.
+        return new ParsedIndex(indexFile, snapshot, null, null, repository.readDirCache());
+      }
+      return new ParsedIndex(indexFile, snapshot, content, entryOffsets, null);
+    }
+
+    /**
+     * Computes the offset of each entry.
+     *
+     * @param content The content of the index file.
+     *
+     * @return The offsets. <code>null</code> if the format is not supported here.
+     */
+    private static int[] computeEntryOffsets(byte[] content) {
+      if (content.length < 12 || readInt(content, 0) != INDEX_SIGNATURE) {
+        return null;
+      }
+      int version = readInt(content, 4);
+      if (version != 2 && version != 3) {
+        return null;
+      }
+
+      int entryCount = readInt(content, 8);
+      if (entryCount < 0) {
+        return null;
+      }
+      int[] entryOffsets = new int[entryCount];
+      int offset = 12;
+      for (int i = 0; i < entryCount; i++) {
+        if (offset + ENTRY_INFO_LENGTH > content.length) {
+          return null;
+        }
+        entryOffsets[i] = offset;
+        int nameStart = getNameStart(content, offset);
+        int nameEnd = getNameEnd(content, offset, nameStart);
+        if (nameEnd < 0) {
+          return null;
+        }
+        // The path is followed by 1 to 8 NUL bytes, so that the length of the entry is a multiple of 8.
+        offset += (nameEnd - offset + 8) & ~7;
+      }
+      return entryOffsets;
+    }
+
+    /**
+     * Finds a path in the index.
+     *
+     * @param path The path, relative to the working tree.
+     *
+     * @return The blob of the first entry with that path. <code>null</code> if none.
+     */
+    ObjectId getObjectId(String path) {
+      if (dirCache != null) {
+        int entryIndex = dirCache.findEntry(path);
+        return entryIndex >= 0 ? dirCache.getEntry(entryIndex).getObjectId() : null;
+      }
+
+      byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+      // The first entry with a path greater than or equal to the searched one.
+      int low = 0;
+      int high = entryOffsets.length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (comparePath(entryOffsets[middle], pathBytes) < 0) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+
+      ObjectId objectId = null;
+      if (low < entryOffsets.length && comparePath(entryOffsets[low], pathBytes) == 0) {
+        objectId = ObjectId.fromRaw(content, entryOffsets[low] + OBJECT_ID_OFFSET);
+      }
+      return objectId;
+    }
+
+    /**
+     * Compares the path of an entry with a path, byte by byte, like Git sorts the entries.
+     *
+     * @param entryOffset The offset of the entry.
+     * @param path        The path, encoded in UTF-8.
+     *
+     * @return A negative number, zero or a positive number if the path of the entry is before,
+     * the same or after the given path.
+     */
+    private int comparePath(int entryOffset, byte[] path) {
+      int nameStart = getNameStart(content, entryOffset);
+      int nameLength = getNameEnd(content, entryOffset, nameStart) - nameStart;
+      int length = Math.min(nameLength, path.length);
+      for (int i = 0; i < length; i++) {
+        int difference = (content[nameStart + i] & 0xff) - (path[i] & 0xff);
+        if (difference != 0) {
+          return difference;
+        }
+      }
+      return nameLength - path.length;
+    }
+
+    /**
+     * @param content     The content of the index file.
+     * @param entryOffset The offset of an entry.
+     *
+     * @return The offset of the path of the entry.
+     */
+    private static int getNameStart(byte[] content, int entryOffset) {
+      int flags = readShort(content, entryOffset + FLAGS_OFFSET);
+      return entryOffset + ENTRY_INFO_LENGTH + ((flags & EXTENDED_FLAG) != 0 ? 2 : 0);
+    }
+
+    /**
+     * @param content     The content of the index file.
+     * @param entryOffset The offset of an entry.
+     * @param nameStart   The offset of the path of the entry.
+     *
+     * @return The offset after the path of the entry. -1 if the path is not terminated.
+     */
+    private static int getNameEnd(byte[] content, int entryOffset, int nameStart) {
+      int nameLength = readShort(content, entryOffset + FLAGS_OFFSET) & NAME_LENGTH_MASK;
+      int nameEnd;
+      if (nameLength < NAME_LENGTH_MASK) {
+        nameEnd = nameStart + nameLength;
+        if (nameEnd >= content.length) {
+          nameEnd = -1;
+        }
+      } else {
+        // Long paths are terminated by NUL.
+        nameEnd = nameStart + NAME_LENGTH_MASK;
+        while (nameEnd < content.length && content[nameEnd] != 0) {
+          nameEnd++;
+        }
+        if (nameEnd == content.length) {
+          nameEnd = -1;
+        }
+      }
+      return nameEnd;
+    }
+
+    /**
+     * Reads a big-endian integer.
+     *
+     * @param content The bytes.
+     * @param offset  The offset of the integer.
+     *
+     * @return The integer.
+     */
+    private static int readInt(byte[] content, int offset) {
+      return ((content[offset] & 0xff) << 24)
+          | ((content[offset + 1] & 0xff) << 16)
+          | ((content[offset + 2] & 0xff) << 8)
+          | (content[offset + 3] & 0xff);
+    }
+
+    /**
+     * Reads a big-endian unsigned short.
+     *
+     * @param content The bytes.
+     * @param offset  The offset of the short.
+     *
+     * @return The short.
+     */
+    private static int readShort(byte[] content, int offset) {
+      return ((content[offset] & 0xff) << 8) | (content[offset + 1] & 0xff);
+    }
+  }
+}
@@ -0,0 +1,217 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheBuildIterator;
+import org.eclipse.jgit.dircache.DirCacheBuilder;
+import org.eclipse.jgit.dircache.DirCacheCheckout;
+import org.eclipse.jgit.dircache.DirCacheCheckout.CheckoutMetadata;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.TreeWalk.OperationType;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+
+/**
+ * Unstages and discards a batch of resources with one walk and one index write for the whole batch.<br><br>
+ *
+ * Unstaging resolves the HEAD entries of all the paths in a single {@link TreeWalk} and rebuilds the
+ * index in one pass. Discarding writes the index content in the working tree, streaming the blobs
+ * on several threads when there are many of them.
+ */
+class IndexRestorer {
+
+  /**
+   * Starting from this number of resources, the working tree content is written on several threads.
+   */
+  private static final int PARALLEL_CHECKOUT_THRESHOLD = 64;
+  /**
+   * The maximum number of threads that write in the working tree.
+   */
+  private static final int MAX_CHECKOUT_THREADS = 4;
+
+  /**
+   * Hidden constructor.
+   */
+  private IndexRestorer() {
+    // Nothing
+  }
+
+  /**
+   * Resets the index entries of the given paths to their state from HEAD. The working tree is not touched.
+   * Paths that are not in HEAD are removed from the index.
+   *
+   * @param repository The repository.
+   * @param paths      Paths relative to the working tree. Must not be empty.
+   *
+   * @throws IOException If the index can't be locked, read or written.
+   */
+  static void resetIndex(Repository repository, Collection<String> paths) throws IOException {
+    DirCache dirCache = repository.lockDirCache();
+    try (TreeWalk treeWalk = new TreeWalk(repository)) {
+      DirCacheBuilder builder = dirCache.builder();
+      treeWalk.addTree(new DirCacheBuildIterator(builder));
+      ObjectId headTree = repository.resolve(Constants.HEAD + "^{tree}");
+      if (headTree != null) {
+        treeWalk.addTree(headTree);
+      } else {
+        // No commits yet.
+        treeWalk.addTree(new EmptyTreeIterator());
+      }
+      treeWalk.setFilter(PathFilterGroup.createFromStrings(paths));
+      treeWalk.setRecursive(true);
+
+      String lastAddedPath = null;
+      while (treeWalk.next()) {
+        CanonicalTreeParser headIterator = treeWalk.getTree(1, CanonicalTreeParser.class);
+        String path = treeWalk.getPathString();
+        if (headIterator != null && !path.equals(lastAddedPath)) {
+          DirCacheEntry entry = new DirCacheEntry(treeWalk.getRawPath());
+          entry.setFileMode(headIterator.getEntryFileMode());
+          entry.setObjectId(headIterator.getEntryObjectId());
+
+          DirCacheIterator indexIterator = treeWalk.getTree(0, DirCacheIterator.class);
+          DirCacheEntry indexEntry = indexIterator != null ? indexIterator.getDirCacheEntry() : null;
+          if (indexEntry != null && indexEntry.getStage() == DirCacheEntry.STAGE_0
+              && indexEntry.getObjectId().equals(entry.getObjectId())) {
+            // Same content. Keep the file information so it isn't hashed again.
+            entry.setLastModified(indexEntry.getLastModifiedInstant());
+            entry.setLength(indexEntry.getLength());
+          }
+          builder.add(entry);
+          lastAddedPath = path;
+        }
+        // Paths missing from HEAD are not copied, which removes them from the index.
+      }
+
+      builder.commit();
+    } finally {
+      dirCache.unlock();
+    }
+  }
+
+  /**
+   * Writes the index content of the given paths in the working tree.
+   * Paths that are not in the index, or that are in conflict, are skipped.
+   *
+   * @param repository The repository.
+   * @param paths      Paths relative to the working tree. Must not be empty.
+   *
+   * @throws IOException If the index can't be locked, read or written or if a file can't be written.
+   */
+  static void checkoutIndex(Repository repository, Collection<String> paths) throws IOException {
+    DirCache dirCache = repository.lockDirCache();
+    try {
+      List<DirCacheEntry> entries = new ArrayList<>();
+      List<CheckoutMetadata> metadata = new ArrayList<>();
+      try (TreeWalk treeWalk = new TreeWalk(repository)) {
+        treeWalk.setOperationType(OperationType.CHECKOUT_OP);
+        treeWalk.addTree(new DirCacheIterator(dirCache));
+        treeWalk.setFilter(PathFilterGroup.createFromStrings(paths));
+        treeWalk.setRecursive(true);
+        while (treeWalk.next()) {
+          DirCacheEntry entry = treeWalk.getTree(0, DirCacheIterator.class).getDirCacheEntry();
+          if (entry.getStage() == DirCacheEntry.STAGE_0 && entry.getFileMode() != FileMode.GITLINK) {
+            entries.add(entry);
+            metadata.add(new CheckoutMetadata(
+                treeWalk.getEolStreamType(OperationType.CHECKOUT_OP),
+                treeWalk.getFilterCommand(Constants.ATTR_FILTER_TYPE_SMUDGE)));
+          }
+        }
+      }
+
+      if (entries.size() < PARALLEL_CHECKOUT_THRESHOLD) {
+        checkout(repository, entries, metadata, 0, entries.size());
+      } else {
+        checkoutInParallel(repository, entries, metadata);
+      }
+
+      // The entries now have the information of the written files.
+      dirCache.write();
+      dirCache.commit();
+    } finally {
+      dirCache.unlock();
+    }
+  }
+
+  /**
+   * Writes the content of the entries in the working tree, on several threads. Each thread
+   * takes a contiguous range of the sorted entries, so they rarely create the same folders.
+   *
+   * @param repository The repository.
+   * @param entries    The index entries.
+   * @param metadata   The checkout information of each entry.
+   *
+   * @throws IOException If a file can't be written.
+   */
+  private static void checkoutInParallel(
+      Repository repository,
+      List<DirCacheEntry> entries,
+      List<CheckoutMetadata> metadata) throws IOException {
+    int threads = Math.min(MAX_CHECKOUT_THREADS, Runtime.getRuntime().availableProcessors());
+    int rangeSize = (entries.size() + threads - 1) / threads;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int from = 0; from < entries.size(); from += rangeSize) {
+        int start = from;
+        int end = Math.min(from + rangeSize, entries.size());
+        futures.add(executor.submit(() -> {
+          checkout(repository, entries, metadata, start, end);
+          return null;
+        }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Writes the content of a range of entries in the working tree.
+   *
+   * @param repository The repository.
+   * @param entries    The index entries.
+   * @param metadata   The checkout information of each entry.
+   * @param from       The first entry, inclusive.
+   * @param to         The last entry, exclusive.
+   *
+   * @throws IOException If a file can't be written.
+   */
+  private static void checkout(
+      Repository repository,
+      List<DirCacheEntry> entries,
+      List<CheckoutMetadata> metadata,
+      int from,
+      int to) throws IOException {
+    // Object readers are not thread safe. Each range gets its own.
+    try (ObjectReader reader = repository.newObjectReader()) {
+      for (int i = from; i < to; i++) {
+        DirCacheCheckout.checkoutEntry(repository, entries.get(i), reader, true, metadata.get(i));
+      }
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package com.oxygenxml.git.service;
+
+import static org.eclipse.jgit.lib.Constants.OBJ_BLOB;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheBuildIterator;
+import org.eclipse.jgit.dircache.DirCacheBuilder;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.NameConflictTreeWalk;
+import org.eclipse.jgit.treewalk.TreeWalk.OperationType;
+import org.eclipse.jgit.treewalk.WorkingTreeIterator;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+
+/**
+ * Stages a batch of resources by rebuilding the index in a single {@link DirCacheBuilder} pass.<br><br>
+ *
+ * The index and the working tree are walked together, filtered by the batch paths. Entries outside
+ * the batch are copied as they are. Resources that exist in the working tree are added (the same way
+ * <code>git add</code> does), the ones missing from the working tree are removed from the index.
+ * The index is locked and written only once, even when canceled: the entries not reached yet are
+ * copied as they are.
+ */
+class IndexStager {
+
+  /**
+   * Hidden constructor.
+   */
+  private IndexStager() {
+    // Nothing
+  }
+
+  /**
+   * Stages the given resources.
+   *
+   * @param repository The repository.
+   * @param paths      Paths relative to the working tree. Must not be empty.
+   * @param monitor    Notified for each staged resource. Checked for cancellation before each resource.
+   *
+   * @return The paths of the files that were added to the index, removed from it or found unchanged.
+   * When canceled, the files not reached yet are not among them.
+   *
+   * @throws IOException If the index can't be locked, read or written.
+   */
+  static Set<String> stage(Repository repository, Collection<String> paths, ProgressMonitor monitor)
+      throws IOException {
+    Set<String> stagedPaths = new LinkedHashSet<>();
+    DirCache dirCache = repository.lockDirCache();
+    try (ObjectInserter inserter = repository.newObjectInserter();
+        NameConflictTreeWalk treeWalk = new NameConflictTreeWalk(repository)) {
+      DirCacheBuilder builder = dirCache.builder();
+      treeWalk.setOperationType(OperationType.CHECKIN_OP);
+      treeWalk.addTree(new DirCacheBuildIterator(builder));
+      FileTreeIterator fileTreeIterator = new FileTreeIterator(repository);
+      fileTreeIterator.setDirCacheIterator(treeWalk, 0);
+      treeWalk.addTree(fileTreeIterator);
+      treeWalk.setFilter(PathFilterGroup.createFromStrings(paths));
+
+      String lastAddedPath = null;
+      boolean canceled = false;
+      while (treeWalk.next()) {
+        DirCacheIterator indexIterator = treeWalk.getTree(0, DirCacheIterator.class);
+        WorkingTreeIterator fileIterator = treeWalk.getTree(1, WorkingTreeIterator.class);
+        DirCacheEntry entry = indexIterator != null ? indexIterator.getDirCacheEntry() : null;
+        String path = treeWalk.getPathString();
+
+        if (!canceled && !treeWalk.isSubtree() && !path.equals(lastAddedPath)) {
+          canceled = monitor.isCancelled();
+        }
+        if (canceled) {
+          // Keep the index as it was for the rest of the resources.
+          if (entry != null) {
+            builder.add(entry);
+          }
+          if (treeWalk.isSubtree()) {
+            treeWalk.enterSubtree();
+          }
+          continue;
+        }
+        if (indexIterator == null && fileIterator != null && fileIterator.isEntryIgnored()) {
+          // Untracked and ignored. Not staged.
+          continue;
+        }
+        if (treeWalk.isSubtree() && !treeWalk.isDirectoryFileConflict()) {
+          treeWalk.enterSubtree();
+          continue;
+        }
+        if (path.equals(lastAddedPath)) {
+          // A conflict has an index entry for each stage. Only one entry replaces them.
+          continue;
+        }
+        if (fileIterator == null) {
+          // Missing from the working tree. Not copying the entry removes it from the index.
+          stagedPaths.add(path);
+          lastAddedPath = path;
+          monitor.update(1);
+          continue;
+        }
+        if (entry != null && (entry.isAssumeValid()
+            || entry.getStage() == DirCacheEntry.STAGE_0
+                && !fileIterator.isModified(entry, true, treeWalk.getObjectReader()))) {
+          // Nothing changed. Avoid hashing the content again.
+          builder.add(entry);
+          if (stagedPaths.add(path)) {
+            monitor.update(1);
+          }
+          continue;
+        }
+        FileMode mode = fileIterator.getIndexFileMode(indexIterator);
+        if (fileIterator.getEntryFileMode() == FileMode.TREE && mode != FileMode.GITLINK) {
+          // A file in the index became a folder in the working tree.
+          treeWalk.enterSubtree();
+          continue;
+        }
+        if (mode == FileMode.GITLINK && fileIterator.getEntryObjectId() == null) {
+          // A submodule without commits can't be staged. Keep what the index had.
+          if (entry != null) {
+            builder.add(entry);
+          }
+          continue;
+        }
+
+        if (entry == null || entry.getStage() != DirCacheEntry.STAGE_0) {
+          entry = new DirCacheEntry(treeWalk.getRawPath());
+        }
+        entry.setFileMode(mode);
+        if (mode != FileMode.GITLINK) {
+          entry.setLength(fileIterator.getEntryLength());
+          entry.setLastModified(fileIterator.getEntryLastModifiedInstant());
+          long contentLength = fileIterator.getEntryContentLength();
+          try (InputStream in = fileIterator.openEntryStream()) {
+            entry.setObjectId(inserter.insert(OBJ_BLOB, contentLength, in));
+          }
+        } else {
+          entry.setLength(0);
+          entry.setLastModified(Instant.ofEpochSecond(0));
+          entry.setObjectId(fileIterator.getEntryObjectId());
+        }
+        builder.add(entry);
+        stagedPaths.add(path);
+        lastAddedPath = path;
+        monitor.update(1);
+      }
+
+      inserter.flush();
+      builder.commit();
+    } finally {
+      dirCache.unlock();
+    }
+    return stagedPaths;
+  }
+}
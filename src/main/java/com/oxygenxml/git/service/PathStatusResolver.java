@@ -0,0 +1,271 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.WorkingTreeIterator;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+
+/**
+ * Computes the status of an explicit list of files, without walking the repository.<br><br>
+ *
+ * For each path, the index entry is found with a binary search, the HEAD entry by descending the
+ * HEAD tree along the path and the working tree file is checked through its size and timestamp.
+ * Only the files whose size or timestamp don't match the index, or that are not in the index,
+ * are compared by content, in a walk restricted to them.<br><br>
+ *
+ * Folders and submodules are not resolved. They are collected in {@link #getUnresolvedPaths()}
+ * and should go through the regular status computation.
+ */
+class PathStatusResolver {
+  /**
+   * The repository.
+   */
+  private final Repository repository;
+  /**
+   * The index, read once.
+   */
+  private final DirCache dirCache;
+  /**
+   * The paths that could not be resolved directly.
+   */
+  private final Set<String> unresolvedPaths = new LinkedHashSet<>();
+
+  /**
+   * Constructor.
+   *
+   * @param repository The repository.
+   *
+   * @throws IOException If the index can't be read.
+   */
+  PathStatusResolver(Repository repository) throws IOException {
+    this.repository = repository;
+    this.dirCache = repository.readDirCache();
+  }
+
+  /**
+   * @return The paths that could not be resolved directly: folders and submodules.
+   */
+  Set<String> getUnresolvedPaths() {
+    return unresolvedPaths;
+  }
+
+  /**
+   * Computes the staged state of the given files: the index compared with HEAD.
+   *
+   * @param paths The paths of the files, relative to the working tree.
+   *
+   * @return The staged files, from the given ones.
+   *
+   * @throws IOException If the HEAD tree can't be read.
+   */
+  List<FileStatus> getStagedFiles(Collection<String> paths) throws IOException {
+    List<FileStatus> stagedFiles = new ArrayList<>();
+    ObjectId headTree = repository.resolve(Constants.HEAD + "^{tree}");
+    try (ObjectReader reader = repository.newObjectReader()) {
+      for (String path : paths) {
+        List<DirCacheEntry> indexEntries = getIndexEntries(path);
+        if (indexEntries == null) {
+          unresolvedPaths.add(path);
+          continue;
+        }
+        DirCacheEntry indexEntry = indexEntries.isEmpty() ? null : indexEntries.get(0);
+        if (indexEntry != null && indexEntry.getStage() != DirCacheEntry.STAGE_0) {
+          // Conflicts are not staged.
+          continue;
+        }
+
+        FileMode headMode = null;
+        ObjectId headId = null;
+        if (headTree != null) {
+          try (TreeWalk headWalk = TreeWalk.forPath(reader, path, headTree)) {
+            if (headWalk != null) {
+              headMode = headWalk.getFileMode(0);
+              headId = headWalk.getObjectId(0);
+            }
+          }
+        }
+
+        if (headMode == FileMode.TREE || headMode == FileMode.GITLINK
+            || indexEntry != null && indexEntry.getFileMode() == FileMode.GITLINK) {
+          unresolvedPaths.add(path);
+        } else if (indexEntry != null && headId == null) {
+          stagedFiles.add(new FileStatus(GitChangeType.ADD, path));
+        } else if (indexEntry != null
+            && (!headId.equals(indexEntry.getObjectId()) || headMode != indexEntry.getFileMode())) {
+          stagedFiles.add(new FileStatus(GitChangeType.CHANGED, path));
+        } else if (indexEntry == null && headId != null) {
+          stagedFiles.add(new FileStatus(GitChangeType.REMOVED, path));
+        }
+      }
+    }
+    return stagedFiles;
+  }
+
+  /**
+   * Computes the unstaged state of the given files: the working tree compared with the index.
+   *
+   * @param paths The paths of the files, relative to the working tree.
+   *
+   * @return The unstaged files, from the given ones.
+   *
+   * @throws IOException If the working tree can't be read.
+   */
+  List<FileStatus> getUnstagedFiles(Collection<String> paths) throws IOException {
+    List<FileStatus> unstagedFiles = new ArrayList<>();
+    Set<String> toCompareByContent = new LinkedHashSet<>();
+    File workTree = repository.getWorkTree();
+    Instant indexLastModified = Files.getLastModifiedTime(repository.getIndexFile().toPath()).toInstant();
+    boolean checkExecutable = repository.getFS().supportsExecute()
+        && repository.getConfig().getBoolean(
+            ConfigConstants.CONFIG_CORE_SECTION, ConfigConstants.CONFIG_KEY_FILEMODE, true);
+
+    for (String path : paths) {
+      List<DirCacheEntry> indexEntries = getIndexEntries(path);
+      Path file = new File(workTree, path).toPath();
+      BasicFileAttributes attributes = null;
+      if (Files.exists(file, LinkOption.NOFOLLOW_LINKS)) {
+        attributes = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+      }
+
+      if (indexEntries == null || attributes != null && attributes.isDirectory()) {
+        unresolvedPaths.add(path);
+      } else if (indexEntries.isEmpty()) {
+        if (attributes != null) {
+          // Untracked, unless it is ignored.
+          toCompareByContent.add(path);
+        }
+      } else {
+        DirCacheEntry indexEntry = indexEntries.get(0);
+        if (indexEntry.getStage() != DirCacheEntry.STAGE_0) {
+          unstagedFiles.add(new FileStatus(GitChangeType.CONFLICT, path));
+        } else if (indexEntry.getFileMode() == FileMode.GITLINK) {
+          unresolvedPaths.add(path);
+        } else if (attributes == null) {
+          unstagedFiles.add(new FileStatus(GitChangeType.MISSING, path));
+        } else if (!isStatClean(indexEntry, file, attributes, indexLastModified, checkExecutable)) {
+          toCompareByContent.add(path);
+        }
+      }
+    }
+
+    if (!toCompareByContent.isEmpty()) {
+      compareByContent(toCompareByContent, unstagedFiles);
+    }
+    return unstagedFiles;
+  }
+
+  /**
+   * Compares the working tree files with the index, by content. Applies the same filters
+   * and ignore rules as the regular status computation.
+   *
+   * @param paths         The files to compare.
+   * @param unstagedFiles Receives the untracked and the modified files.
+   *
+   * @throws IOException If the working tree can't be read.
+   */
+  private void compareByContent(Set<String> paths, List<FileStatus> unstagedFiles) throws IOException {
+    try (TreeWalk treeWalk = new TreeWalk(repository)) {
+      treeWalk.addTree(new DirCacheIterator(dirCache));
+      FileTreeIterator fileTreeIterator = new FileTreeIterator(repository);
+      fileTreeIterator.setDirCacheIterator(treeWalk, 0);
+      treeWalk.addTree(fileTreeIterator);
+      treeWalk.setFilter(PathFilterGroup.createFromStrings(paths));
+      treeWalk.setRecursive(true);
+
+      while (treeWalk.next()) {
+        String path = treeWalk.getPathString();
+        DirCacheIterator indexIterator = treeWalk.getTree(0, DirCacheIterator.class);
+        WorkingTreeIterator fileIterator = treeWalk.getTree(1, WorkingTreeIterator.class);
+        if (fileIterator != null && paths.contains(path)) {
+          if (indexIterator == null) {
+            if (!fileIterator.isEntryIgnored()) {
+              unstagedFiles.add(new FileStatus(GitChangeType.UNTRACKED, path));
+            }
+          } else if (fileIterator.isModified(indexIterator.getDirCacheEntry(), true, treeWalk.getObjectReader())) {
+            unstagedFiles.add(new FileStatus(GitChangeType.MODIFIED, path));
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks if a file is unchanged, judging by its size, timestamp and executable flag.
+   *
+   * @param indexEntry        The index entry of the file.
+   * @param file              The file.
+   * @param attributes        The file attributes.
+   * @param indexLastModified When the index was written.
+   * @param checkExecutable   <code>true</code> to also compare the executable flag.
+   *
+   * @return <code>true</code> if the file is surely unchanged. <code>false</code> if it must be
+   * compared by content.
+   */
+  private static boolean isStatClean(
+      DirCacheEntry indexEntry,
+      Path file,
+      BasicFileAttributes attributes,
+      Instant indexLastModified,
+      boolean checkExecutable) {
+    FileMode mode = indexEntry.getFileMode();
+    Instant lastModified = indexEntry.getLastModifiedInstant();
+    return attributes.isRegularFile()
+        && (mode == FileMode.REGULAR_FILE || mode == FileMode.EXECUTABLE_FILE)
+        && !indexEntry.isSmudged()
+        && attributes.size() == indexEntry.getLength()
+        && attributes.lastModifiedTime().toInstant().equals(lastModified)
+        // An entry as recent as the index might have been changed right after it was recorded.
+        && lastModified.isBefore(indexLastModified)
+        && (!checkExecutable || (mode == FileMode.EXECUTABLE_FILE) == Files.isExecutable(file));
+  }
+
+  /**
+   * Finds the index entries of a file, with a binary search.
+   *
+   * @param path The path of the file.
+   *
+   * @return The entries, one for each stage. Empty if the file is not in the index.
+   * <code>null</code> if the path is a folder in the index.
+   */
+  private List<DirCacheEntry> getIndexEntries(String path) {
+    List<DirCacheEntry> entries = new ArrayList<>(1);
+    int index = dirCache.findEntry(path);
+    if (index >= 0) {
+      for (int i = index; i < dirCache.getEntryCount(); i++) {
+        DirCacheEntry entry = dirCache.getEntry(i);
+        if (!path.equals(entry.getPathString())) {
+          break;
+        }
+        entries.add(entry);
+      }
+    } else if (dirCache.getEntriesWithin(path).length > 0) {
+      entries = null;
+    }
+    return entries;
+  }
+}
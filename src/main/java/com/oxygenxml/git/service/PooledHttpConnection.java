@@ -0,0 +1,226 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ProtocolException;
+import java.net.URL;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.TrustManager;
+
+import org.eclipse.jgit.transport.http.HttpConnection;
+
+/**
+ * An HTTP connection of a Git transport that goes back to the pool of the JDK when done.<br><br>
+ *
+ * The JDK keeps a connection alive only if its response was read until the end. JGit doesn't read
+ * the body of the error responses, like the authentication challenges, so here it is read for them.
+ * The HTTPS connections use the socket factories of {@link PooledHttpConnectionFactory}, which stay
+ * the same from one connection to the next, as the JDK requires to reuse a connection.
+ */
+class PooledHttpConnection implements HttpConnection {
+  /**
+   * The maximum size of an error response that is read to keep the connection alive, in bytes.
+   * The connection is dropped for larger ones.
+   */
+  private static final int MAX_DRAINED_ERROR_LENGTH = 64 * 1024;
+
+  /**
+   * The JDK connection.
+   */
+  private final HttpURLConnection connection;
+  /**
+   * The factory that created the connection.
+   */
+  private final PooledHttpConnectionFactory factory;
+  /**
+   * <code>true</code> after the response was received.
+   */
+  private boolean responseReceived;
+
+  /**
+   * Constructor.
+   *
+   * @param connection The JDK connection.
+   * @param factory    The factory that created the connection.
+   */
+  PooledHttpConnection(HttpURLConnection connection, PooledHttpConnectionFactory factory) {
+    this.connection = connection;
+    this.factory = factory;
+    if (connection instanceof HttpsURLConnection) {
+      ((HttpsURLConnection) connection).setSSLSocketFactory(factory.getSocketFactory());
+    }
+  }
+
+  @Override
+  public int getResponseCode() throws IOException {
+    int responseCode = connection.getResponseCode();
+    if (!responseReceived) {
+      responseReceived = true;
+      factory.requestSent(connection instanceof HttpsURLConnection);
+      if (responseCode >= HttpURLConnection.HTTP_BAD_REQUEST) {
+        drainErrorStream();
+      }
+    }
+    return responseCode;
+  }
+
+  /**
+   * Reads the body of an error response, so the connection can be reused.
+   */
+  private void drainErrorStream() {
+    InputStream errorStream = connection.getErrorStream();
+    if (errorStream != null) {
+      try (InputStream in = errorStream) {
+        byte[] buffer = new byte[8 * 1024];
+        int total = 0;
+        int read;
+        while (total <= MAX_DRAINED_ERROR_LENGTH && (read = in.read(buffer)) != -1) {
+          total += read;
+        }
+      } catch (IOException e) {
+        // The connection is not reused. Nothing else to do.
+      }
+    }
+  }
+
+  @Override
+  public URL getURL() {
+    return connection.getURL();
+  }
+
+  @Override
+  public String getResponseMessage() throws IOException {
+    return connection.getResponseMessage();
+  }
+
+  @Override
+  public Map<String, List<String>> getHeaderFields() {
+    return connection.getHeaderFields();
+  }
+
+  /**
+   * @param name The name of a header, case insensitive.
+   *
+   * @return All the values of the header. Never <code>null</code>.
+   */
+  public List<String> getHeaderFields(String name) {
+    for (Map.Entry<String, List<String>> entry : connection.getHeaderFields().entrySet()) {
+      if (name.equalsIgnoreCase(entry.getKey())) {
+        return entry.getValue();
+      }
+    }
+    return Collections.emptyList();
+  }
+
+  @Override
+  public void setRequestProperty(String key, String value) {
+    connection.setRequestProperty(key, value);
+  }
+
+  @Override
+  public void setRequestMethod(String method) throws ProtocolException {
+    connection.setRequestMethod(method);
+  }
+
+  @Override
+  public void setUseCaches(boolean usecaches) {
+    connection.setUseCaches(usecaches);
+  }
+
+  @Override
+  public void setConnectTimeout(int timeout) {
+    connection.setConnectTimeout(timeout);
+  }
+
+  @Override
+  public void setReadTimeout(int timeout) {
+    connection.setReadTimeout(timeout);
+  }
+
+  @Override
+  public String getContentType() {
+    return connection.getContentType();
+  }
+
+  @Override
+  public InputStream getInputStream() throws IOException {
+    return connection.getInputStream();
+  }
+
+  @Override
+  public String getHeaderField(String name) {
+    return connection.getHeaderField(name);
+  }
+
+  @Override
+  public int getContentLength() {
+    return connection.getContentLength();
+  }
+
+  @Override
+  public void setInstanceFollowRedirects(boolean followRedirects) {
+    connection.setInstanceFollowRedirects(followRedirects);
+  }
+
+  @Override
+  public void setDoOutput(boolean dooutput) {
+    connection.setDoOutput(dooutput);
+  }
+
+  @Override
+  public void setFixedLengthStreamingMode(int contentLength) {
+    connection.setFixedLengthStreamingMode(contentLength);
+  }
+
+  @Override
+  public OutputStream getOutputStream() throws IOException {
+    return connection.getOutputStream();
+  }
+
+  @Override
+  public void setChunkedStreamingMode(int chunklen) {
+    connection.setChunkedStreamingMode(chunklen);
+  }
+
+  @Override
+  public String getRequestMethod() {
+    return connection.getRequestMethod();
+  }
+
+  @Override
+  public boolean usingProxy() {
+    return connection.usingProxy();
+  }
+
+  @Override
+  public void connect() throws IOException {
+    connection.connect();
+  }
+
+  @Override
+  public void configure(KeyManager[] km, TrustManager[] tm, SecureRandom random)
+      throws NoSuchAlgorithmException, KeyManagementException {
+    if (connection instanceof HttpsURLConnection) {
+      ((HttpsURLConnection) connection).setSSLSocketFactory(factory.getSocketFactory(km, tm, random));
+    }
+  }
+
+  @Override
+  public void setHostnameVerifier(HostnameVerifier hostnameverifier)
+      throws NoSuchAlgorithmException, KeyManagementException {
+    if (connection instanceof HttpsURLConnection) {
+      ((HttpsURLConnection) connection).setHostnameVerifier(hostnameverifier);
+    }
+  }
+}
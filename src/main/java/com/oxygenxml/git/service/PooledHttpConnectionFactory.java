@@ -0,0 +1,359 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.Proxy;
+import java.net.Socket;
+import java.net.URL;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.transport.HttpTransport;
+import org.eclipse.jgit.transport.http.HttpConnection;
+import org.eclipse.jgit.transport.http.HttpConnectionFactory;
+
+import com.oxygenxml.git.utils.GitAddonSystemProperties;
+
+/**
+ * Creates the HTTP connections of the fetches, pulls, pushes and remote listings so that they reuse
+ * the connections and the TLS sessions of the previous ones.<br><br>
+ *
+ * The connections are pooled by the JDK, which keeps them alive between requests. For that:
+ * <ul>
+ * <li>The pool size and the idle timeout are given by the {@link GitAddonSystemProperties#HTTP_MAX_CONNECTIONS}
+ * and {@link GitAddonSystemProperties#HTTP_KEEP_ALIVE_TIME} system properties. They are passed to the JDK
+ * unless the JDK properties are already set. The JDK reads them when it opens its first HTTP connection,
+ * so they have no effect if Oxygen connected before the plug-in was started. Not all Java versions
+ * support the idle timeout.</li>
+ * <li>The body of the error responses is read, so that, for example, the connection that received
+ * an authentication challenge is used for the authenticated request.</li>
+ * <li>The HTTPS connections share one socket factory, so they share the connections and the TLS sessions.
+ * The connections configured by JGit with their own key or trust managers, for example for the servers
+ * whose certificates are not verified, get a new socket factory each time. A factory is never shared by
+ * connections that may trust different certificates.</li>
+ * </ul>
+ *
+ * The number of requests, new TLS connections and resumed TLS sessions are counted, for diagnostics.
+ */
+public class PooledHttpConnectionFactory implements HttpConnectionFactory {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger logger = Logger.getLogger(PooledHttpConnectionFactory.class);
+  /**
+   * The default maximum number of idle connections kept alive for each server.
+   */
+  private static final int DEFAULT_MAX_CONNECTIONS = 10;
+  /**
+   * The default time an idle connection is kept alive, in seconds.
+   */
+  private static final int DEFAULT_KEEP_ALIVE_TIME = 30;
+
+  /**
+   * The singleton instance.
+   */
+  private static PooledHttpConnectionFactory instance;
+
+  /**
+   * The number of HTTP requests.
+   */
+  private final AtomicLong requests = new AtomicLong();
+  /**
+   * The number of HTTPS requests.
+   */
+  private final AtomicLong secureRequests = new AtomicLong();
+  /**
+   * The number of TLS connections opened.
+   */
+  private final AtomicLong secureConnections = new AtomicLong();
+  /**
+   * The number of TLS connections that resumed a previous session.
+   */
+  private final AtomicLong resumedSessions = new AtomicLong();
+  /**
+   * The socket factory of the HTTPS connections. <code>null</code> until first needed.
+   */
+  private CountingSocketFactory socketFactory;
+
+  /**
+   * Singleton private constructor.
+   */
+  private PooledHttpConnectionFactory() {}
+
+  /**
+   * @return The singleton instance.
+   */
+  public static synchronized PooledHttpConnectionFactory getInstance() {
+    if (instance == null) {
+      instance = new PooledHttpConnectionFactory();
+    }
+    return instance;
+  }
+
+  /**
+   * Configures the connection pool of the JDK and makes JGit create its HTTP connections here.
+   * The pool is shared by all the HTTP connections of the JVM, so the system properties
+   * that are already defined are left unchanged.
+   */
+  public static void install() {
+    setIfMissing(
+        "http.maxConnections",
+        Integer.getInteger(GitAddonSystemProperties.HTTP_MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS));
+    int keepAliveTime = Integer.getInteger(GitAddonSystemProperties.HTTP_KEEP_ALIVE_TIME, DEFAULT_KEEP_ALIVE_TIME);
+    setIfMissing("http.keepAlive.time.server", keepAliveTime);
+    setIfMissing("http.keepAlive.time.proxy", keepAliveTime);
+
+    HttpTransport.setConnectionFactory(getInstance());
+  }
+
+  /**
+   * Sets a system property, unless it is already set.
+   *
+   * @param name  The name of the property.
+   * @param value The value.
+   */
+  private static void setIfMissing(String name, int value) {
+    if (System.getProperty(name) == null) {
+      System.setProperty(name, String.valueOf(value));
+    }
+  }
+
+  @Override
+  public HttpConnection create(URL url) throws IOException {
+    return new PooledHttpConnection((HttpURLConnection) url.openConnection(), this);
+  }
+
+  @Override
+  public HttpConnection create(URL url, Proxy proxy) throws IOException {
+    return new PooledHttpConnection((HttpURLConnection) url.openConnection(proxy), this);
+  }
+
+  /**
+   * @return The socket factory of the HTTPS connections.
+   */
+  synchronized SSLSocketFactory getSocketFactory() {
+    SSLSocketFactory defaultFactory = HttpsURLConnection.getDefaultSSLSocketFactory();
+    if (socketFactory == null || socketFactory.delegate != defaultFactory) {
+      // First time, or someone changed the default.
+      socketFactory = new CountingSocketFactory(defaultFactory);
+    }
+    return socketFactory;
+  }
+
+  /**
+   * Creates a socket factory for the HTTPS connections with the given managers. It is not cached:
+   * two managers of the same class may trust different certificates, and JGit creates new managers
+   * each time it configures a connection.
+   *
+   * @param km     The key managers. May be <code>null</code>.
+   * @param tm     The trust managers. May be <code>null</code>.
+   * @param random The source of randomness. May be <code>null</code>.
+   *
+   * @return The socket factory.
+   *
+   * @throws NoSuchAlgorithmException If TLS is not supported.
+   * @throws KeyManagementException   If the managers can't be used.
+   */
+  SSLSocketFactory getSocketFactory(KeyManager[] km, TrustManager[] tm, SecureRandom random)
+      throws NoSuchAlgorithmException, KeyManagementException {
+    SSLContext context = SSLContext.getInstance("TLS"); // NOSONAR Same as JGit
+    context.init(km, tm, random);
+    return new CountingSocketFactory(context.getSocketFactory());
+  }
+
+  /**
+   * Counts a request.
+   *
+   * @param secure <code>true</code> for an HTTPS request.
+   */
+  void requestSent(boolean secure) {
+    requests.incrementAndGet();
+    if (secure) {
+      secureRequests.incrementAndGet();
+    }
+  }
+
+  /**
+   * @return The counters of the connections created so far.
+   */
+  public Statistics getStatistics() {
+    return new Statistics(requests.get(), secureRequests.get(), secureConnections.get(), resumedSessions.get());
+  }
+
+  /**
+   * The counters of the HTTP connections.
+   */
+  public static class Statistics {
+    /**
+     * The number of HTTP requests.
+     */
+    private final long requests;
+    /**
+     * The number of HTTPS requests.
+     */
+    private final long secureRequests;
+    /**
+     * The number of TLS connections opened.
+     */
+    private final long secureConnections;
+    /**
+     * The number of TLS connections that resumed a previous session.
+     */
+    private final long resumedSessions;
+
+    /**
+     * Constructor.
+     *
+     * @param requests          The number of HTTP requests.
+     * @param secureRequests    The number of HTTPS requests.
+     * @param secureConnections The number of TLS connections opened.
+     * @param resumedSessions   The number of TLS connections that resumed a previous session.
+     */
+    Statistics(long requests, long secureRequests, long secureConnections, long resumedSessions) {
+      this.requests = requests;
+      this.secureRequests = secureRequests;
+      this.secureConnections = secureConnections;
+      this.resumedSessions = resumedSessions;
+    }
+
+    /**
+     * @return The number of HTTP requests.
+     */
+    public long getRequests() {
+      return requests;
+    }
+
+    /**
+     * @return The number of HTTPS requests.
+     */
+    public long getSecureRequests() {
+      return secureRequests;
+    }
+
+    /**
+     * @return The number of TLS connections opened.
+     */
+    public long getSecureConnections() {
+      return secureConnections;
+    }
+
+    /**
+     * @return The number of TLS connections that resumed a previous session.
+     */
+    public long getResumedSessions() {
+      return resumedSessions;
+    }
+
+    /**
+     * @return The fraction of the HTTPS requests sent over a connection that was already open,
+     * between 0 and 1.
+     */
+    public double getConnectionReuseRate() {
+      return secureRequests == 0 ? 0 : Math.max(0, 1 - (double) secureConnections / secureRequests);
+    }
+
+    @Override
+    public String toString() {
+      return "requests: " + requests
+          + ", HTTPS requests: " + secureRequests
+          + ", TLS connections: " + secureConnections
+          + ", resumed TLS sessions: " + resumedSessions
+          + ", connection reuse rate: " + Math.round(getConnectionReuseRate() * 100) + "%";
+    }
+  }
+
+  /**
+   * Creates the TLS sockets with another factory and counts them.
+   */
+  private class CountingSocketFactory extends SSLSocketFactory {
+    /**
+     * The factory that creates the sockets.
+     */
+    private final SSLSocketFactory delegate;
+
+    /**
+     * Constructor.
+     *
+     * @param delegate The factory that creates the sockets.
+     */
+    CountingSocketFactory(SSLSocketFactory delegate) {
+      this.delegate = delegate;
+    }
+
+    /**
+     * Counts a new socket and, once connected, if it resumed a TLS session.
+     *
+     * @param socket The socket.
+     *
+     * @return The socket.
+     */
+    private Socket count(Socket socket) {
+      if (socket instanceof SSLSocket) {
+        secureConnections.incrementAndGet();
+        long creationTime = System.currentTimeMillis();
+        ((SSLSocket) socket).addHandshakeCompletedListener(event -> {
+          // A resumed session was created by an older connection.
+          if (event.getSession().getCreationTime() < creationTime) {
+            resumedSessions.incrementAndGet();
+          }
+          if (logger.isDebugEnabled()) {
+            logger.debug("TLS connection to " + event.getSession().getPeerHost() + ". " + getStatistics());
+          }
+        });
+      }
+      return socket;
+    }
+
+    @Override
+    public String[] getDefaultCipherSuites() {
+      return delegate.getDefaultCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+      return delegate.getSupportedCipherSuites();
+    }
+
+    @Override
+    public Socket createSocket() throws IOException {
+      return count(delegate.createSocket());
+    }
+
+    @Override
+    public Socket createSocket(Socket s, String host, int port, boolean autoClose) throws IOException {
+      return count(delegate.createSocket(s, host, port, autoClose));
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+      return count(delegate.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+      return count(delegate.createSocket(host, port, localHost, localPort));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+      return count(delegate.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort)
+        throws IOException {
+      return count(delegate.createSocket(address, port, localAddress, localPort));
+    }
+  }
+}
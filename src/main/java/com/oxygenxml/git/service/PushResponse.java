@@ -20,6 +20,12 @@ public class PushResponse {
 	 */
 	private String message;
 
+	/**
+	 * The state of the current branch: after the push if it succeeded, before it otherwise.
+	 * <code>null</code> if it was not computed.
+	 */
+	private BranchStatus branchStatus;
+
 	public Status getStatus() {
 		return status;
 	}
@@ -36,6 +42,21 @@ public class PushResponse {
 		this.message = message;
 	}
 
+	/**
+	 * @return The state of the current branch: after the push if it succeeded, before it otherwise.
+	 * <code>null</code> if it was not computed.
+	 */
+	public BranchStatus getBranchStatus() {
+	  return branchStatus;
+	}
+
+	/**
+	 * @param branchStatus The state of the current branch.
+	 */
+	public void setBranchStatus(BranchStatus branchStatus) {
+	  this.branchStatus = branchStatus;
+	}
+
 	@Override
 	public String toString() {
 	  return "status: " + status + " message " + message;
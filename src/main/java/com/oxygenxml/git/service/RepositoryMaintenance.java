@@ -0,0 +1,378 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.internal.storage.file.GC;
+import org.eclipse.jgit.internal.storage.file.GC.RepoStatistics;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.pack.PackConfig;
+
+/**
+ * Keeps the object database of the current repository compact.<br><br>
+ *
+ * Loose objects and packs accumulate with each commit and fetch, and they slow down the status,
+ * the history and the blame. While polling, the statistics of the current repository are checked
+ * when the user is idle. If there are too many loose objects, packs or loose references,
+ * the references are packed, the objects are repacked and the unreachable loose objects are pruned,
+ * on the Git operations thread. Large repositories without reachability bitmaps are also optimized,
+ * to get them. A repository is optimized at most once a day, unless requested.<br><br>
+ *
+ * The outcome of the last optimization is kept in a {@link Report}, for diagnostics.
+ */
+public class RepositoryMaintenance {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger logger = Logger.getLogger(RepositoryMaintenance.class);
+  /**
+   * How often the statistics are checked, in milliseconds.
+   */
+  private static final int CHECK_INTERVAL = 10 * 60 * 1000;
+  /**
+   * The user must be idle for this long before an optimization starts, in milliseconds.
+   */
+  private static final long IDLE_BEFORE_MAINTENANCE = 5 * 60 * 1000L;
+  /**
+   * The minimum time between two automatic optimizations of a repository, in milliseconds.
+   */
+  private static final long MIN_INTERVAL_BETWEEN_RUNS = 24 * 60 * 60 * 1000L;
+  /**
+   * More loose objects than this trigger an optimization.
+   */
+  private static final long LOOSE_OBJECTS_LIMIT = 2000;
+  /**
+   * More packs than this trigger an optimization.
+   */
+  private static final long PACK_FILES_LIMIT = 20;
+  /**
+   * More loose references than this trigger an optimization.
+   */
+  private static final long LOOSE_REFS_LIMIT = 500;
+  /**
+   * Repositories with more objects than this and without reachability bitmaps are optimized,
+   * so the ahead/behind counters and the push don't have to walk the history.
+   */
+  private static final long OBJECTS_WITHOUT_BITMAPS_LIMIT = 10000;
+
+  /**
+   * The singleton instance.
+   */
+  private static RepositoryMaintenance instance;
+
+  /**
+   * When each repository was last optimized. The key is the Git directory.
+   */
+  private final Map<File, Long> lastRunTimes = new HashMap<>();
+  /**
+   * The next check. <code>null</code> when not started.
+   */
+  private ScheduledFuture<?> checkTask;
+  /**
+   * The outcome of the last optimization. <code>null</code> if there was none.
+   */
+  private volatile Report lastReport;
+
+  /**
+   * Singleton private constructor.
+   */
+  private RepositoryMaintenance() {}
+
+  /**
+   * @return The singleton instance.
+   */
+  public static synchronized RepositoryMaintenance getInstance() {
+    if (instance == null) {
+      instance = new RepositoryMaintenance();
+    }
+    return instance;
+  }
+
+  /**
+   * Starts checking the current repository periodically.
+   */
+  public synchronized void start() {
+    if (checkTask == null) {
+      scheduleCheck();
+    }
+  }
+
+  /**
+   * Stops the periodic checks.
+   */
+  public synchronized void stop() {
+    if (checkTask != null) {
+      checkTask.cancel(false);
+      checkTask = null;
+    }
+  }
+
+  /**
+   * @return The outcome of the last optimization. <code>null</code> if there was none.
+   */
+  public Report getLastReport() {
+    return lastReport;
+  }
+
+  /**
+   * Computes the statistics of the object database.
+   *
+   * @param repository The repository.
+   *
+   * @return The statistics. <code>null</code> if the repository is not stored in files.
+   *
+   * @throws IOException If the object database can't be read.
+   */
+  public RepoStatistics getStatistics(Repository repository) throws IOException {
+    RepoStatistics statistics = null;
+    if (repository instanceof FileRepository) {
+      statistics = new GC((FileRepository) repository).getStatistics();
+    }
+    return statistics;
+  }
+
+  /**
+   * Checks if a repository needs to be optimized.
+   *
+   * @param statistics The statistics of the repository.
+   *
+   * @return <code>true</code> if there are too many loose objects, packs or loose references,
+   * or if a large repository has no reachability bitmaps.
+   */
+  static boolean isMaintenanceNeeded(RepoStatistics statistics) {
+    return statistics.numberOfLooseObjects > LOOSE_OBJECTS_LIMIT
+        || statistics.numberOfPackFiles > PACK_FILES_LIMIT
+        || statistics.numberOfLooseRefs > LOOSE_REFS_LIMIT
+        || statistics.numberOfBitmaps == 0
+            && statistics.numberOfLooseObjects + statistics.numberOfPackedObjects > OBJECTS_WITHOUT_BITMAPS_LIMIT;
+  }
+
+  /**
+   * Optimizes a repository: packs the references, repacks the objects and prunes the unreachable
+   * loose objects. The pack of the branches and tags gets a reachability bitmap index, used to count
+   * the commits to push and pull and the objects to send on push. Should run on the Git operations thread, so it doesn't overlap other operations.
+   *
+   * @param repository The repository.
+   *
+   * @return The outcome. <code>null</code> if the repository is not stored in files.
+   *
+   * @throws IOException If the optimization fails.
+   */
+  public Report optimize(Repository repository) throws IOException {
+    if (!(repository instanceof FileRepository)) {
+      return null;
+    }
+
+    GC gc = new GC((FileRepository) repository);
+    gc.setProgressMonitor(NullProgressMonitor.INSTANCE);
+    PackConfig packConfig = new PackConfig(repository);
+    // Even if disabled by "pack.buildBitmaps".
+    packConfig.setBuildBitmaps(true);
+    gc.setPackConfig(packConfig);
+
+    long start = System.currentTimeMillis();
+    RepoStatistics before = gc.getStatistics();
+
+    gc.packRefs();
+    long packRefsEnd = System.currentTimeMillis();
+
+    gc.repack();
+    long repackEnd = System.currentTimeMillis();
+
+    try {
+      // Only the loose objects older than the configured expiration (two weeks by default).
+      gc.prune(Collections.emptySet());
+    } catch (ParseException e) {
+      // Bad "gc.pruneExpire" setting.
+      throw new IOException(e);
+    }
+    long pruneEnd = System.currentTimeMillis();
+
+    Report report = new Report(
+        repository.getDirectory(),
+        start,
+        before,
+        gc.getStatistics(),
+        packRefsEnd - start,
+        repackEnd - packRefsEnd,
+        pruneEnd - repackEnd);
+    synchronized (this) {
+      lastRunTimes.put(repository.getDirectory(), pruneEnd);
+    }
+    lastReport = report;
+    if (logger.isDebugEnabled()) {
+      logger.debug("Repository optimized: " + report);
+    }
+    return report;
+  }
+
+  /**
+   * Schedules the next check. Call with the lock held.
+   */
+  private void scheduleCheck() {
+    checkTask = GitOperationScheduler.getInstance().schedule(this::check, CHECK_INTERVAL);
+  }
+
+  /**
+   * Optimizes the current repository if the user is idle and the repository needs it.
+   * Then schedules the next check.
+   */
+  private void check() {
+    try {
+      long now = System.currentTimeMillis();
+      boolean idle = now - FetchScheduler.getInstance().getLastUserActivity() >= IDLE_BEFORE_MAINTENANCE;
+      if (idle) {
+        Repository repository = GitAccess.getInstance().getRepository();
+        Long lastRun;
+        synchronized (this) {
+          lastRun = lastRunTimes.get(repository.getDirectory());
+        }
+        if (lastRun == null || now - lastRun >= MIN_INTERVAL_BETWEEN_RUNS) {
+          RepoStatistics statistics = getStatistics(repository);
+          if (statistics != null && isMaintenanceNeeded(statistics)) {
+            optimize(repository);
+          }
+        }
+      }
+    } catch (NoRepositorySelected e) {
+      logger.debug(e, e);
+    } catch (IOException | RuntimeException e) {
+      logger.error(e, e);
+    } finally {
+      synchronized (this) {
+        if (checkTask != null) {
+          scheduleCheck();
+        }
+      }
+    }
+  }
+
+  /**
+   * The outcome of an optimization: the statistics before and after and how long each step took.
+   */
+  public static class Report {
+    /**
+     * The Git directory of the repository.
+     */
+    private final File repositoryDir;
+    /**
+     * When the optimization started.
+     */
+    private final long startTime;
+    /**
+     * The statistics before.
+     */
+    private final RepoStatistics before;
+    /**
+     * The statistics after.
+     */
+    private final RepoStatistics after;
+    /**
+     * How long packing the references took, in milliseconds.
+     */
+    private final long packRefsDuration;
+    /**
+     * How long repacking the objects took, in milliseconds.
+     */
+    private final long repackDuration;
+    /**
+     * How long pruning the loose objects took, in milliseconds.
+     */
+    private final long pruneDuration;
+
+    /**
+     * Constructor.
+     *
+     * @param repositoryDir    The Git directory of the repository.
+     * @param startTime        When the optimization started.
+     * @param before           The statistics before.
+     * @param after            The statistics after.
+     * @param packRefsDuration How long packing the references took, in milliseconds.
+     * @param repackDuration   How long repacking the objects took, in milliseconds.
+     * @param pruneDuration    How long pruning the loose objects took, in milliseconds.
+     */
+    Report(
+        File repositoryDir,
+        long startTime,
+        RepoStatistics before,
+        RepoStatistics after,
+        long packRefsDuration,
+        long repackDuration,
+        long pruneDuration) {
+      this.repositoryDir = repositoryDir;
+      this.startTime = startTime;
+      this.before = before;
+      this.after = after;
+      this.packRefsDuration = packRefsDuration;
+      this.repackDuration = repackDuration;
+      this.pruneDuration = pruneDuration;
+    }
+
+    /**
+     * @return The Git directory of the repository.
+     */
+    public File getRepositoryDir() {
+      return repositoryDir;
+    }
+
+    /**
+     * @return When the optimization started.
+     */
+    public long getStartTime() {
+      return startTime;
+    }
+
+    /**
+     * @return The statistics before.
+     */
+    public RepoStatistics getBefore() {
+      return before;
+    }
+
+    /**
+     * @return The statistics after.
+     */
+    public RepoStatistics getAfter() {
+      return after;
+    }
+
+    /**
+     * @return How long packing the references took, in milliseconds.
+     */
+    public long getPackRefsDuration() {
+      return packRefsDuration;
+    }
+
+    /**
+     * @return How long repacking the objects took, in milliseconds.
+     */
+    public long getRepackDuration() {
+      return repackDuration;
+    }
+
+    /**
+     * @return How long pruning the loose objects took, in milliseconds.
+     */
+    public long getPruneDuration() {
+      return pruneDuration;
+    }
+
+    @Override
+    public String toString() {
+      return "repository: " + repositoryDir
+          + ", before: " + before
+          + ", after: " + after
+          + ", pack refs: " + packRefsDuration + "ms"
+          + ", repack: " + repackDuration + "ms"
+          + ", prune: " + pruneDuration + "ms";
+    }
+  }
+}
@@ -18,6 +18,7 @@ import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.diff.DiffEntry.ChangeType;
 import org.eclipse.jgit.diff.DiffFormatter;
 import org.eclipse.jgit.diff.RenameDetector;
+import org.eclipse.jgit.dircache.DirCacheEntry;
 import org.eclipse.jgit.errors.RevisionSyntaxException;
 import org.eclipse.jgit.lib.BranchConfig;
 import org.eclipse.jgit.lib.Constants;
@@ -49,10 +50,6 @@ import com.oxygenxml.git.view.history.CommitsAheadAndBehind;
  * Utility methods for working with commits.
  */
 public class RevCommitUtil {
-  /**
-   * Maximum number of diff entries.
-   */
-  private static final int THREE_DIFF_ENTRIES = 3;
   /**
    * Logger for logging.
    */
@@ -746,7 +743,7 @@ public class RevCommitUtil {
   }
   
   /**
-   * Get commits ahead and behind.
+   * Get commits ahead and behind. Uses the reachability bitmaps, when the repository has them.
    * 
    * @param repository Current repo.
    * @param branchName Current branch.
@@ -778,6 +775,13 @@ public class RevCommitUtil {
     }
 
     try (RevWalk walk = new RevWalk(repository)) {
+      BitmapDivergence divergence = BitmapDivergence.compute(repository, local.getObjectId(), tracking.getObjectId());
+      if (divergence != null) {
+        return new CommitsAheadAndBehind(
+            parseCommitsNewestFirst(walk, divergence.getAhead()),
+            parseCommitsNewestFirst(walk, divergence.getBehind()));
+      }
+
       RevCommit localCommit = walk.parseCommit(local.getObjectId());
       RevCommit trackingCommit = walk.parseCommit(tracking.getObjectId());
 
@@ -794,6 +798,25 @@ public class RevCommitUtil {
       return new CommitsAheadAndBehind(commitsAhead, commitsBehind);
     }
   }
+
+  /**
+   * Parses commits and orders them like a walk would: the newest first.
+   * 
+   * @param walk      Parses the commits.
+   * @param commitIds The IDs of the commits.
+   * 
+   * @return The commits.
+   * 
+   * @throws IOException If a commit can't be read.
+   */
+  private static List<RevCommit> parseCommitsNewestFirst(RevWalk walk, List<ObjectId> commitIds) throws IOException {
+    List<RevCommit> commits = new ArrayList<>(commitIds.size());
+    for (ObjectId commitId : commitIds) {
+      commits.add(walk.parseCommit(commitId));
+    }
+    commits.sort((c1, c2) -> Integer.compare(c2.getCommitTime(), c1.getCommitTime()));
+    return commits;
+  }
   
 
   /**
@@ -806,14 +829,11 @@ public class RevCommitUtil {
    * @return The SHA-1 commit ID or <code>null</code>.
    * 
    * @throws IOException
-   * @throws GitAPIException 
    */
-  public static ObjectId getBaseCommit(Git git, String filePath) throws IOException, GitAPIException {
-    ObjectId toReturn;
-    List<DiffEntry> entries = git.diff().setPathFilter(PathFilter.create(filePath)).call();
-    if (!entries.isEmpty()) {
-      toReturn = entries.get(0).getOldId().toObjectId();
-    } else { 
+  public static ObjectId getBaseCommit(Git git, String filePath) throws IOException {
+    ObjectId toReturn = ConflictStagesResolver.getInstance().getStage(
+        git.getRepository(), filePath, DirCacheEntry.STAGE_1);
+    if (toReturn == null) { 
       if (logger.isDebugEnabled()) {
         logger.debug("No BASE commit for: '" + filePath + "'");
       }
@@ -832,17 +852,11 @@ public class RevCommitUtil {
    * @return The SHA-1 commit ID or <code>null</code>.
    * 
    * @throws IOException
-   * @throws GitAPIException 
    */
-  public static ObjectId getTheirCommit(Git git, String filePath) throws IOException, GitAPIException {
-    ObjectId toReturn;
-    List<DiffEntry> entries = git.diff().setPathFilter(PathFilter.create(filePath)).call();
-    int noOfDiffEntries = entries.size();
-    boolean isTwoWayDiff = noOfDiffEntries < THREE_DIFF_ENTRIES;
-    int indexOfTheirs = isTwoWayDiff ? 1 : 2;
-    if (indexOfTheirs < noOfDiffEntries) {
-      toReturn =  entries.get(indexOfTheirs).getOldId().toObjectId();
-    } else {
+  public static ObjectId getTheirCommit(Git git, String filePath) throws IOException {
+    ObjectId toReturn = ConflictStagesResolver.getInstance().getStage(
+        git.getRepository(), filePath, DirCacheEntry.STAGE_3);
+    if (toReturn == null) {
       if (logger.isDebugEnabled()) {
         logger.debug("No THEIRS commit available for: '" + filePath + "'. "
             + "Falling back to the last commit for this path.");
@@ -862,17 +876,11 @@ public class RevCommitUtil {
    * @return The SHA-1 commit ID or <code>null</code>.
    * 
    * @throws IOException
-   * @throws GitAPIException 
    */
-  public static ObjectId getMyCommit(Git git, String path) throws IOException, GitAPIException {
-    ObjectId toReturn;
-    List<DiffEntry> entries = git.diff().setPathFilter(PathFilter.create(path)).call();
-    int noOfDiffEntries = entries.size();
-    boolean isTwoWayDiff = noOfDiffEntries < THREE_DIFF_ENTRIES;
-    int indexOfMine = isTwoWayDiff ? 0 : 1;
-    if (indexOfMine < noOfDiffEntries) {
-      toReturn =  entries.get(indexOfMine).getOldId().toObjectId();
-    } else {
+  public static ObjectId getMyCommit(Git git, String path) throws IOException {
+    ObjectId toReturn = ConflictStagesResolver.getInstance().getStage(
+        git.getRepository(), path, DirCacheEntry.STAGE_2);
+    if (toReturn == null) {
       if (logger.isDebugEnabled()) {
         logger.debug("No MINE commit available for: '" + path + "'."
             + " Falling back to the last commit for this path.");
@@ -0,0 +1,337 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Shares the status of the working copy between the views.<br><br>
+ *
+ * Computing the status scans the whole working tree. The staging views, the refresh, the commit panel,
+ * the history and the Project view actions all need it, often for the same user action. So the status
+ * is computed here, into immutable and versioned snapshots:
+ * <ul>
+ * <li>A snapshot is reused while nothing invalidated it, HEAD and the index file are unchanged and it
+ * is recent. The Git operations invalidate the snapshot when they start and when they end, and so do
+ * the user actions that must see the latest state, like the refresh when Oxygen is activated.</li>
+ * <li>Concurrent requests wait for the computation in progress instead of starting their own.</li>
+ * <li>The parties interested in every new status subscribe with {@link #addSnapshotListener(Consumer)}.</li>
+ * </ul>
+ */
+public class StatusService {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger logger = Logger.getLogger(StatusService.class);
+  /**
+   * Older snapshots are computed again, even if nothing invalidated them, because the files edited
+   * outside Oxygen are not signaled. Milliseconds.
+   */
+  private static final long MAX_SNAPSHOT_AGE = 2000;
+
+  /**
+   * The singleton instance.
+   */
+  private static StatusService instance;
+
+  /**
+   * Notified about each new snapshot.
+   */
+  private final List<Consumer<GitStatus>> snapshotListeners = new CopyOnWriteArrayList<>();
+  /**
+   * Incremented each time the snapshots are invalidated.
+   */
+  private long epoch;
+  /**
+   * The version of the last computed snapshot.
+   */
+  private long lastGeneration;
+  /**
+   * The last computed snapshot. <code>null</code> if none.
+   */
+  private Snapshot lastSnapshot;
+  /**
+   * The computation in progress. <code>null</code> if none.
+   */
+  private CompletableFuture<Snapshot> pendingComputation;
+  /**
+   * The epoch in which the computation in progress started.
+   */
+  private long pendingEpoch;
+
+  /**
+   * Singleton private constructor.
+   */
+  private StatusService() {}
+
+  /**
+   * @return The singleton instance.
+   */
+  public static synchronized StatusService getInstance() {
+    if (instance == null) {
+      instance = new StatusService();
+    }
+    return instance;
+  }
+
+  /**
+   * Gets the status of the working copy. The last snapshot is returned if still valid.
+   * Otherwise, a new one is computed, or the computation already in progress is awaited.
+   *
+   * @return The status. The lists of files are read-only. Never <code>null</code>.
+   */
+  public GitStatus getStatus() {
+    Snapshot snapshot;
+    long requestEpoch;
+    synchronized (this) {
+      snapshot = lastSnapshot;
+      requestEpoch = epoch;
+    }
+    if (snapshot != null && snapshot.epoch == requestEpoch && snapshot.isFresh()) {
+      return snapshot.status;
+    }
+
+    CompletableFuture<Snapshot> computation;
+    boolean computeHere = false;
+    synchronized (this) {
+      if (pendingComputation != null && pendingEpoch == epoch) {
+        computation = pendingComputation;
+      } else {
+        computation = new CompletableFuture<>();
+        pendingComputation = computation;
+        pendingEpoch = epoch;
+        requestEpoch = epoch;
+        computeHere = true;
+      }
+    }
+
+    if (computeHere) {
+      return compute(computation, requestEpoch).status;
+    }
+
+    try {
+      return computation.join().status;
+    } catch (CompletionException e) {
+      logger.debug(e, e);
+      return GitAccess.getInstance().getStatus();
+    }
+  }
+
+  /**
+   * Invalidates the current snapshot. The next request computes the status again.
+   * Requests already waiting for a computation are not affected.
+   */
+  public synchronized void invalidate() {
+    epoch++;
+  }
+
+  /**
+   * Subscribes to the new snapshots. The listener is notified on the thread that computed the snapshot.
+   * The snapshots computed concurrently are notified in the order of their requests, or not at all.
+   *
+   * @param listener Receives the new snapshots.
+   */
+  public void addSnapshotListener(Consumer<GitStatus> listener) {
+    snapshotListeners.add(listener);
+  }
+
+  /**
+   * Unsubscribes from the new snapshots.
+   *
+   * @param listener The listener to remove.
+   */
+  public void removeSnapshotListener(Consumer<GitStatus> listener) {
+    snapshotListeners.remove(listener);
+  }
+
+  /**
+   * Computes a new snapshot and notifies the listeners.
+   *
+   * @param computation      Receives the snapshot, for the requests waiting for it.
+   * @param computationEpoch The epoch in which the computation started.
+   *
+   * @return The snapshot.
+   */
+  private Snapshot compute(CompletableFuture<Snapshot> computation, long computationEpoch) {
+    Snapshot snapshot;
+    boolean isLatest;
+    try {
+      // Captured before scanning, so that a change made meanwhile makes the snapshot stale.
+      Fingerprint fingerprint = Fingerprint.capture();
+      GitStatus status = GitAccess.getInstance().getStatus();
+      synchronized (this) {
+        lastGeneration++;
+        snapshot = new Snapshot(
+            new GitStatus(
+                Collections.unmodifiableList(status.getUnstagedFiles()),
+                Collections.unmodifiableList(status.getStagedFiles()),
+                lastGeneration),
+            computationEpoch,
+            fingerprint);
+        // An older computation that ended later doesn't replace a newer snapshot.
+        isLatest = lastSnapshot == null || lastSnapshot.epoch <= computationEpoch;
+        if (isLatest) {
+          lastSnapshot = snapshot;
+        }
+      }
+      computation.complete(snapshot);
+    } catch (RuntimeException e) {
+      computation.completeExceptionally(e);
+      throw e;
+    } finally {
+      synchronized (this) {
+        if (pendingComputation == computation) {
+          pendingComputation = null;
+        }
+      }
+    }
+
+    if (logger.isDebugEnabled()) {
+      logger.debug("Status snapshot " + snapshot.status.getGeneration() + " computed.");
+    }
+    if (isLatest) {
+      for (Consumer<GitStatus> listener : snapshotListeners) {
+        try {
+          listener.accept(snapshot.status);
+        } catch (RuntimeException e) {
+          logger.error(e, e);
+        }
+      }
+    }
+    return snapshot;
+  }
+
+  /**
+   * A computed status and the state it was computed from.
+   */
+  private static class Snapshot {
+    /**
+     * The status.
+     */
+    private final GitStatus status;
+    /**
+     * The epoch in which it was computed.
+     */
+    private final long epoch;
+    /**
+     * The state of the repository before the computation. <code>null</code> if unknown.
+     */
+    private final Fingerprint fingerprint;
+    /**
+     * When it was computed.
+     */
+    private final long time = System.currentTimeMillis();
+
+    /**
+     * Constructor.
+     *
+     * @param status      The status.
+     * @param epoch       The epoch in which it was computed.
+     * @param fingerprint The state of the repository before the computation. May be <code>null</code>.
+     */
+    Snapshot(GitStatus status, long epoch, Fingerprint fingerprint) {
+      this.status = status;
+      this.epoch = epoch;
+      this.fingerprint = fingerprint;
+    }
+
+    /**
+     * @return <code>true</code> if the snapshot is recent and the repository, HEAD and the index
+     * are the same.
+     */
+    boolean isFresh() {
+      return System.currentTimeMillis() - time < MAX_SNAPSHOT_AGE
+          && fingerprint != null
+          && fingerprint.equals(Fingerprint.capture());
+    }
+  }
+
+  /**
+   * Identifies the state of the repository: the repository, HEAD and the index file.
+   */
+  private static class Fingerprint {
+    /**
+     * The Git directory.
+     */
+    private final File gitDir;
+    /**
+     * The commit checked out. <code>null</code> on an unborn branch.
+     */
+    private final ObjectId head;
+    /**
+     * When the index file was last modified.
+     */
+    private final long indexLastModified;
+    /**
+     * The size of the index file.
+     */
+    private final long indexLength;
+
+    /**
+     * Constructor.
+     *
+     * @param gitDir            The Git directory.
+     * @param head              The commit checked out. May be <code>null</code>.
+     * @param indexLastModified When the index file was last modified.
+     * @param indexLength       The size of the index file.
+     */
+    private Fingerprint(File gitDir, ObjectId head, long indexLastModified, long indexLength) {
+      this.gitDir = gitDir;
+      this.head = head;
+      this.indexLastModified = indexLastModified;
+      this.indexLength = indexLength;
+    }
+
+    /**
+     * Captures the state of the current repository.
+     *
+     * @return The state. <code>null</code> if there is no repository or HEAD can't be read.
+     */
+    static Fingerprint capture() {
+      Fingerprint fingerprint = null;
+      try {
+        Repository repository = GitAccess.getInstance().getRepository();
+        Ref head = repository.exactRef(Constants.HEAD);
+        File indexFile = repository.getIndexFile();
+        fingerprint = new Fingerprint(
+            repository.getDirectory(),
+            head != null ? head.getObjectId() : null,
+            indexFile.lastModified(),
+            indexFile.length());
+      } catch (NoRepositorySelected | IOException e) {
+        logger.debug(e, e);
+      }
+      return fingerprint;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      boolean equal = false;
+      if (obj instanceof Fingerprint) {
+        Fingerprint other = (Fingerprint) obj;
+        equal = gitDir.equals(other.gitDir)
+            && Objects.equals(head, other.head)
+            && indexLastModified == other.indexLastModified
+            && indexLength == other.indexLength;
+      }
+      return equal;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(gitDir, head, indexLastModified, indexLength);
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package com.oxygenxml.git.service.entities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.oxygenxml.git.utils.Equaler;
+
+/**
+ * The differences between two snapshots of file statuses: the resources that were added,
+ * the ones that were removed and the ones whose state changed.
+ */
+public class FileStatusDelta {
+  /**
+   * A delta without any changes.
+   */
+  private static final FileStatusDelta EMPTY = new FileStatusDelta(
+      Collections.emptyList(),
+      Collections.emptyList(),
+      Collections.emptyList(),
+      Collections.emptyList());
+
+  /**
+   * Resources present only in the new snapshot.
+   */
+  private final List<FileStatus> added;
+  /**
+   * Resources present only in the old snapshot.
+   */
+  private final List<FileStatus> removed;
+  /**
+   * The old states of the resources whose state changed.
+   */
+  private final List<FileStatus> changedFrom;
+  /**
+   * The new states of the resources whose state changed. Same order as {@link #changedFrom}.
+   */
+  private final List<FileStatus> changedTo;
+
+  /**
+   * Constructor.
+   *
+   * @param added        Resources present only in the new snapshot.
+   * @param removed      Resources present only in the old snapshot.
+   * @param changedFrom  The old states of the resources whose state changed.
+   * @param changedTo    The new states of the resources whose state changed.
+   */
+  private FileStatusDelta(
+      List<FileStatus> added,
+      List<FileStatus> removed,
+      List<FileStatus> changedFrom,
+      List<FileStatus> changedTo) {
+    this.added = added;
+    this.removed = removed;
+    this.changedFrom = changedFrom;
+    this.changedTo = changedTo;
+  }
+
+  /**
+   * Computes the differences between two snapshots. The old snapshot is indexed by path
+   * and the new one is probed against that index (a hash join), so the cost is linear
+   * in the size of the two snapshots.
+   *
+   * @param oldFiles The old snapshot. Usually the resources presented in a view.
+   * @param newFiles The new snapshot. Usually the resources from a freshly computed status.
+   *
+   * @return The differences. Never <code>null</code>.
+   */
+  public static FileStatusDelta compute(Collection<FileStatus> oldFiles, Collection<FileStatus> newFiles) {
+    Map<String, FileStatus> oldByPath = new HashMap<>(oldFiles.size() * 2);
+    for (FileStatus fileStatus : oldFiles) {
+      oldByPath.put(fileStatus.getFileLocation(), fileStatus);
+    }
+
+    List<FileStatus> added = new ArrayList<>();
+    List<FileStatus> changedFrom = new ArrayList<>();
+    List<FileStatus> changedTo = new ArrayList<>();
+    for (FileStatus newStatus : newFiles) {
+      FileStatus oldStatus = oldByPath.remove(newStatus.getFileLocation());
+      if (oldStatus == null) {
+        added.add(newStatus);
+      } else if (oldStatus.getChangeType() != newStatus.getChangeType()
+          || !Equaler.verifyEquals(oldStatus.getDescription(), newStatus.getDescription())) {
+        changedFrom.add(oldStatus);
+        changedTo.add(newStatus);
+      }
+    }
+
+    FileStatusDelta delta = EMPTY;
+    if (!added.isEmpty() || !oldByPath.isEmpty() || !changedTo.isEmpty()) {
+      delta = new FileStatusDelta(added, new ArrayList<>(oldByPath.values()), changedFrom, changedTo);
+    }
+    return delta;
+  }
+
+  /**
+   * @return <code>true</code> if the two snapshots contain the same resources, in the same states.
+   */
+  public boolean isEmpty() {
+    return added.isEmpty() && removed.isEmpty() && changedTo.isEmpty();
+  }
+
+  /**
+   * @return <code>true</code> if resources were added or removed. <code>false</code> if, at most,
+   * the states of some resources changed.
+   */
+  public boolean isStructural() {
+    return !added.isEmpty() || !removed.isEmpty();
+  }
+
+  /**
+   * @return Resources present only in the new snapshot.
+   */
+  public List<FileStatus> getAdded() {
+    return added;
+  }
+
+  /**
+   * @return Resources present only in the old snapshot.
+   */
+  public List<FileStatus> getRemoved() {
+    return removed;
+  }
+
+  /**
+   * @return The old states of the resources whose state changed.
+   */
+  public List<FileStatus> getChangedFrom() {
+    return changedFrom;
+  }
+
+  /**
+   * @return The new states of the resources whose state changed, in the same order as {@link #getChangedFrom()}.
+   */
+  public List<FileStatus> getChangedTo() {
+    return changedTo;
+  }
+
+  @Override
+  public String toString() {
+    return "FileStatusDelta [added=" + added + ", removed=" + removed + ", changed=" + changedTo + "]";
+  }
+}
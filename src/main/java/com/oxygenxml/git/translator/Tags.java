@@ -1226,4 +1226,116 @@ public class Tags {
    * The previous commit tracked by a submodule.
    */
   public static final String SUBMODULE_PREVIOUS_TRACKED_COMMIT = "Submodule_previous_tracked_commit";
+  /**
+   * Progress message for staging many resources.
+   */
+  public static final String STAGING = "Staging";
+  /**
+   * Hint for canceling an operation in progress.
+   */
+  public static final String CLICK_TO_CANCEL = "Click_to_cancel";
+  /**
+   * Check box for cloning only the selected branch.
+   */
+  public static final String CLONE_ONLY_SELECTED_BRANCH = "Clone_only_selected_branch";
+  /**
+   * Tooltip for the check box that clones only the selected branch.
+   */
+  public static final String CLONE_ONLY_SELECTED_BRANCH_TOOLTIP = "Clone_only_selected_branch_tooltip";
+  /**
+   * Check box for cloning the submodules.
+   */
+  public static final String CLONE_SUBMODULES = "Clone_submodules";
+  /**
+   * Progress message for updating the submodules.
+   */
+  public static final String UPDATING_SUBMODULES = "Updating_submodules";
+  /**
+   * Label for the fetch settings in the preferences page.
+   */
+  public static final String FETCH_SETTINGS = "Fetch_settings";
+  /**
+   * Option for fetching only the upstream of the current branch.
+   */
+  public static final String FETCH_ONLY_TRACKED_BRANCH = "Fetch_only_tracked_branch";
+  /**
+   * Option for verifying the fetched objects.
+   */
+  public static final String CHECK_FETCHED_OBJECTS = "Check_fetched_objects";
+  /**
+   * Option for asking thin packs when fetching.
+   */
+  public static final String FETCH_THIN_PACKS = "Fetch_thin_packs";
+  /**
+   * Title of the repository maintenance dialog.
+   */
+  public static final String REPOSITORY_MAINTENANCE = "Repository_maintenance";
+  /**
+   * Button that optimizes the repository.
+   */
+  public static final String OPTIMIZE_REPOSITORY = "Optimize_repository";
+  /**
+   * Message presented while the repository is optimized. The other Git actions wait for it.
+   */
+  public static final String OPTIMIZING_REPOSITORY = "Optimizing_repository";
+  /**
+   * Column with the current repository statistics.
+   */
+  public static final String MAINTENANCE_CURRENT = "Maintenance_current";
+  /**
+   * Column with the statistics before the last optimization.
+   */
+  public static final String MAINTENANCE_BEFORE = "Maintenance_before";
+  /**
+   * Column with the statistics after the last optimization.
+   */
+  public static final String MAINTENANCE_AFTER = "Maintenance_after";
+  /**
+   * Number of loose objects.
+   */
+  public static final String LOOSE_OBJECTS = "Loose_objects";
+  /**
+   * Size of the loose objects.
+   */
+  public static final String LOOSE_OBJECTS_SIZE = "Loose_objects_size";
+  /**
+   * Number of packed objects.
+   */
+  public static final String PACKED_OBJECTS = "Packed_objects";
+  /**
+   * Size of the packed objects.
+   */
+  public static final String PACKED_OBJECTS_SIZE = "Packed_objects_size";
+  /**
+   * Number of pack files.
+   */
+  public static final String PACK_FILES = "Pack_files";
+  /**
+   * Number of loose references.
+   */
+  public static final String LOOSE_REFS = "Loose_refs";
+  /**
+   * Number of packed references.
+   */
+  public static final String PACKED_REFS = "Packed_refs";
+  /**
+   * Details about the last optimization.
+   */
+  public static final String LAST_OPTIMIZATION_DETAILS = "Last_optimization_details";
+  /**
+   * Message presented when the repository was not optimized yet.
+   */
+  public static final String REPOSITORY_NOT_OPTIMIZED_YET = "Repository_not_optimized_yet";
+  /**
+   * Row label for the number of reachability bitmaps.
+   */
+  public static final String REACHABILITY_BITMAPS = "Reachability_bitmaps";
+  /**
+   * Message presented while the repository statistics are computed.
+   */
+  public static final String COMPUTING_REPOSITORY_STATISTICS = "Computing_repository_statistics";
+  /**
+   * The statistics of the HTTP connections.
+   */
+  public static final String HTTP_CONNECTION_STATISTICS = "HTTP_connection_statistics";
 }
@@ -4,7 +4,6 @@ import java.io.File;
 import java.io.FileFilter;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
@@ -165,33 +164,6 @@ public class FileHelper {
     return name;
   }
 
-	/**
-	 * Searches a given path for all files in that path. Generates the files paths
-	 * relative to the given path.
-	 * 
-	 * @param path The path to the folder you want to search.
-	 * 
-	 * @return list of paths relative to the given path
-	 */
-	public static List<String> getAllFilesFromPath(String path) {
-		File rootFolder = new File(path);
-		List<String> fileNames = new ArrayList<>();
-		if (rootFolder.isFile()) {
-			fileNames.add(rewriteSeparator(rootFolder.getAbsolutePath()));
-			return fileNames;
-		}
-		File[] listOfFiles = rootFolder.listFiles();
-
-		for (int i = 0; i < listOfFiles.length; i++) {
-			if (listOfFiles[i].isDirectory() && (!listOfFiles[i].getName().equals(".git"))) {
-				fileNames.addAll(getAllFilesFromPath(listOfFiles[i].getAbsolutePath()));
-			} else if (listOfFiles[i].isFile()) {
-				fileNames.add(rewriteSeparator(listOfFiles[i].getAbsolutePath()));
-			}
-		}
-		return fileNames;
-	}
-
 	/**
 	 * Returns the URL from a given path
 	 * 
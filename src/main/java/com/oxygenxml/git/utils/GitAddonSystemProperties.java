@@ -17,5 +17,42 @@ public class GitAddonSystemProperties {
    * makes the add-on use JSCH for SSH operations.
    */
   public static final String USE_JSCH_FOR_SSH_OPERATIONS = "useJschForSSHOperations";
+
+  /**
+   * The number of changed files starting from which the tree view of the staging area creates
+   * the nodes of a folder only when the folder is expanded. Defaults to 5000.
+   */
+  public static final String LAZY_TREE_VIEW_THRESHOLD = "gitLazyTreeViewThreshold";
+
+  /**
+   * The maximum number of submodules cloned or updated at the same time. Defaults to 4.
+   */
+  public static final String SUBMODULE_UPDATE_THREADS = "gitSubmoduleUpdateThreads";
+
+  /**
+   * When <code>true</code>, a failed submodule update doesn't stop the updates of the other submodules.
+   * The failures are reported after all the submodules were processed. Defaults to <code>false</code>.
+   */
+  public static final String SUBMODULE_UPDATE_CONTINUE_ON_ERROR = "gitSubmoduleUpdateContinueOnError";
+
+  /**
+   * The minimum interval between two fetches started by the views, in milliseconds. Defaults to 20 seconds.
+   */
+  public static final String FETCH_MIN_INTERVAL = "gitFetchMinInterval";
+
+  /**
+   * The maximum number of idle HTTP connections kept alive for each server. Defaults to 10.
+   * Sets the <code>http.maxConnections</code> property of the JDK, which applies to all the HTTP
+   * connections of Oxygen, unless that property is already defined.
+   */
+  public static final String HTTP_MAX_CONNECTIONS = "gitHttpMaxConnections";
+
+  /**
+   * The time an idle HTTP connection is kept alive, in seconds. Defaults to 30 seconds.
+   * Sets the <code>http.keepAlive.time.server</code> and <code>http.keepAlive.time.proxy</code>
+   * properties of the JDK, which apply to all the HTTP connections of Oxygen, unless they are
+   * already defined.
+   */
+  public static final String HTTP_KEEP_ALIVE_TIME = "gitHttpKeepAliveTime";
   
 }
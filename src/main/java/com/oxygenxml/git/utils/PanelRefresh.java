@@ -3,10 +3,9 @@ package com.oxygenxml.git.utils;
 import java.io.File;
 import java.io.IOException;
 import java.text.MessageFormat;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
 
 import javax.swing.JComboBox;
 import javax.swing.SwingUtilities;
@@ -17,14 +16,18 @@ import org.eclipse.jgit.lib.Repository;
 
 import com.oxygenxml.git.OxygenGitOptionPagePluginExtension.WhenRepoDetectedInProject;
 import com.oxygenxml.git.options.OptionsManager;
+import com.oxygenxml.git.service.FetchScheduler;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.service.GitStatus;
 import com.oxygenxml.git.service.NoRepositorySelected;
 import com.oxygenxml.git.service.PrivateRepositoryException;
+import com.oxygenxml.git.service.RepositoryMaintenance;
 import com.oxygenxml.git.service.RepositoryUnavailableException;
 import com.oxygenxml.git.service.SSHPassphraseRequiredException;
+import com.oxygenxml.git.service.StatusService;
 import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.FileStatusDelta;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.utils.RepositoryStatusInfo.RepositoryStatus;
@@ -91,6 +94,14 @@ public class PanelRefresh implements GitRefreshSupport {
    * History panel.
    */
   private HistoryPanel historyPanel;
+	/**
+	 * Receives the new status snapshots.
+	 */
+	private final Consumer<GitStatus> statusListener = this::statusComputed;
+	/**
+	 * The version of the status presented in the staging views.
+	 */
+	private long presentedStatusGeneration;
 	/**
 	 * Refresh task.
 	 */
@@ -106,15 +117,11 @@ public class PanelRefresh implements GitRefreshSupport {
 	      if (repository != null) {
 	        if (stagingPanel != null) {
 	          stagingPanel.updateConflictButtonsPanelBasedOnRepoState();
-	          GitStatus status = GitAccess.getInstance().getStatus();
-	          updateFiles(
-	              stagingPanel.getUnstagedChangesPanel(), 
-	              status.getUnstagedFiles());
-	          updateFiles(
-	              stagingPanel.getStagedChangesPanel(), 
-	              status.getStagedFiles());
-
-	          RepositoryStatusInfo rstatus = fetch();
+	          // Shared with the other views that need the status for the same refresh.
+	          // A newly computed status was already presented by the snapshot listener.
+	          statusComputed(StatusService.getInstance().getStatus());
+
+	          RepositoryStatusInfo rstatus = fetch(false);
 	          updateCounters(rstatus);
 
 	          if (OptionsManager.getInstance().isNotifyAboutNewRemoteCommits()) {
@@ -149,11 +156,52 @@ public class PanelRefresh implements GitRefreshSupport {
     this.watcher = watcher;
   }
 
+  /**
+   * Starts the background work: polling the remote, the repository maintenance
+   * and keeping the staging views in sync with the status snapshots.
+   * Stopped by {@link #shutdown()}.
+   */
+  public void start() {
+    FetchScheduler.getInstance().startPolling(this::remoteFetched);
+    RepositoryMaintenance.getInstance().start();
+    StatusService.getInstance().addSnapshotListener(statusListener);
+  }
+
+  /**
+   * Keeps the staging views in sync with the status computed for any other view.
+   * 
+   * @param status The new status.
+   */
+  private synchronized void statusComputed(GitStatus status) {
+    if (stagingPanel != null && status.getGeneration() > presentedStatusGeneration) {
+      presentedStatusGeneration = status.getGeneration();
+      updateFiles(stagingPanel.getUnstagedChangesPanel(), status.getUnstagedFiles());
+      updateFiles(stagingPanel.getStagedChangesPanel(), status.getStagedFiles());
+    }
+  }
+
+  /**
+   * Called after the remote was fetched in the background. Updates the counters
+   * and checks for new remote commits.
+   */
+  private void remoteFetched() {
+    if (stagingPanel != null) {
+      updateCounters(new RepositoryStatusInfo(RepositoryStatus.AVAILABLE));
+      if (OptionsManager.getInstance().isNotifyAboutNewRemoteCommits()) {
+        watcher.checkRemoteRepository(false);
+      }
+    }
+  }
+
   /**
    * @see com.oxygenxml.git.utils.GitRefreshSupport.call()
    */
   @Override
   public void call() {
+    // The refresh is triggered by the user working in Oxygen.
+    FetchScheduler.getInstance().notifyUserActivity();
+    // The files might have changed outside Oxygen.
+    StatusService.getInstance().invalidate();
     if (refreshFuture != null && !refreshFuture.isDone()) {
       logger.debug("cancel refresh task");
       refreshFuture.cancel(true);
@@ -360,13 +408,15 @@ public class PanelRefresh implements GitRefreshSupport {
 	/**
 	 * Fetch the latest changes from the remote repository.
 	 * 
+	 * @param force <code>true</code> to contact the remote even if it was fetched or failed recently.
+	 * 
 	 * @return Repository status.
 	 */
-  private RepositoryStatusInfo fetch() {
+  private RepositoryStatusInfo fetch(boolean force) {
     // Connect to the remote.
     RepositoryStatusInfo statusInfo = new RepositoryStatusInfo(RepositoryStatus.AVAILABLE);
     try {
-      GitAccess.getInstance().fetch();
+      FetchScheduler.getInstance().fetch(force);
     } catch (RepositoryUnavailableException e) {
       statusInfo = new RepositoryStatusInfo(RepositoryStatus.UNAVAILABLE, computeStatusExtraInfo(e));
     } catch (SSHPassphraseRequiredException e) {
@@ -380,7 +430,7 @@ public class PanelRefresh implements GitRefreshSupport {
         String message = translator.getTranslation(Tags.ENTER_SSH_PASS_PHRASE);
         String passphrase = new PassphraseDialog(message).getPassphrase();
         if(passphrase != null) {
-          return fetch();
+          return fetch(true);
         }
       }
     } catch (PrivateRepositoryException e) {
@@ -390,7 +440,7 @@ public class PanelRefresh implements GitRefreshSupport {
           GitAccess.getInstance().getHostName(), 
           translator.getTranslation(Tags.LOGIN_DIALOG_PRIVATE_REPOSITORY_MESSAGE));
       if (loginDlg.getCredentials() != null) {
-        return fetch();
+        return fetch(true);
       }
     } catch (Exception e) {
       statusInfo = new RepositoryStatusInfo(RepositoryStatus.UNAVAILABLE, computeStatusExtraInfo(e));
@@ -421,33 +471,25 @@ public class PanelRefresh implements GitRefreshSupport {
   }
 
 	/**
-	 * Updates the files in the model. 
+	 * Updates the files in the model. Only the differences between the presented 
+	 * files and the new ones reach the view. Nothing is scheduled on AWT if there 
+	 * are no differences.
 	 * 
 	 * @param panelToUpdate The panel to update: staged or unstaged resources panel.
 	 * @param newfiles The new files to be presented in the panel.
 	 */
 	private void updateFiles(ChangesPanel panelToUpdate, final List<FileStatus> newfiles) {
 	  // The current files presented in the panel.
-	  List<FileStatus> filesInModel = panelToUpdate.getFilesStatuses();
+	  List<FileStatus> filesInModel = panelToUpdate.getFilesStatusesSnapshot();
 	  
 	  if (logger.isDebugEnabled()) {
 	    logger.debug("New files      " + newfiles);
 	    logger.debug("Files in model " + filesInModel);
 	  }
 	  
-	  // Quick change detection.
-	  boolean changeDetected = newfiles.size() != filesInModel.size();
-	  if (!changeDetected) {
-	    // Same size. Sort and compare files.
-	    Collections.sort(newfiles, (o1, o2) -> o1.getFileLocation().compareTo(o2.getFileLocation()));
-	    List<FileStatus> sortedModel = new ArrayList<>(filesInModel.size());
-	    Collections.sort(sortedModel, (o1, o2) -> o1.getFileLocation().compareTo(o2.getFileLocation()));
-	    
-	    changeDetected = !newfiles.equals(sortedModel);
-	  }
-
-	  if (changeDetected) {
-	    SwingUtilities.invokeLater(() -> panelToUpdate.update(newfiles));
+	  FileStatusDelta delta = FileStatusDelta.compute(filesInModel, newfiles);
+	  if (!delta.isEmpty()) {
+	    SwingUtilities.invokeLater(() -> panelToUpdate.applyDelta(delta));
 	  }
 	}
 
@@ -482,6 +524,9 @@ public class PanelRefresh implements GitRefreshSupport {
    * Attempts to shutdown any running refresh tasks.
    */
   public void shutdown() {
+    FetchScheduler.getInstance().stopPolling();
+    RepositoryMaintenance.getInstance().stop();
+    StatusService.getInstance().removeSnapshotListener(statusListener);
     if (refreshFuture != null) {
       // Just in case the task isn't running yet.
       refreshFuture.cancel(false);
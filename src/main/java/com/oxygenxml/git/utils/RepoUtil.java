@@ -21,6 +21,7 @@ import org.apache.xerces.jaxp.SAXParserFactoryImpl;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.RepositoryState;
 import org.eclipse.jgit.revwalk.RevCommit;
@@ -29,6 +30,7 @@ import org.eclipse.jgit.submodule.SubmoduleWalk;
 import org.xml.sax.SAXException;
 
 import com.oxygenxml.git.options.OptionsManager;
+import com.oxygenxml.git.options.ProjectRepositoryInfo;
 import com.oxygenxml.git.sax.XPRHandler;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.translator.Tags;
@@ -44,6 +46,11 @@ public class RepoUtil {
    */
   private static Logger logger = Logger.getLogger(RepoUtil.class);
 
+  /**
+   * The factory of the parsers for the project files. <code>null</code> until first needed.
+   */
+  private static SAXParserFactory projectParserFactory;
+
   /**
    * Hidden constructor.
    */
@@ -119,7 +126,10 @@ public class RepoUtil {
   }
   
   /**
-   * Checks the project directory for Git repositories.
+   * Checks the project directory for Git repositories.<br><br>
+   * 
+   * Looking downwards in the folders of a project can take long for large projects, so the working copy
+   * found is kept in the options, until the project file changes. Looking upwards is always done, it is fast.
    * 
    * @param projectFile The *.xpr file.
    * 
@@ -133,24 +143,36 @@ public class RepoUtil {
     // We will go up in the hierarchy, so we need the absolute path.
     projectFile = projectFile.getAbsoluteFile();
     File projectDir = projectFile.getParentFile();
-    try {
-      // Parse the XML file to detected the referred resources.
-      SAXParserFactory saxParserFactory = new SAXParserFactoryImpl();
-      saxParserFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING , true);
-      
-      // XXE vulnerabilities fix.
-      saxParserFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-      saxParserFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-      
-      SAXParser saxParser = saxParserFactory.newSAXParser();
-      XPRHandler handler = new XPRHandler();
-      
-      saxParser.parse(projectFile, handler);
-      
-      repoDir = detectRepoDownwards(projectDir, handler.getPaths());
-    } catch (ParserConfigurationException | SAXException | IOException e1) {
-      if (logger.isDebugEnabled()) {
-        logger.debug(e1, e1);
+    // Taken before parsing, so a change made meanwhile is seen next time.
+    long lastModified = projectFile.lastModified();
+    long size = projectFile.length();
+    
+    ProjectRepositoryInfo detected = OptionsManager.getInstance().getProjectRepository(
+        projectFile.getPath(), lastModified, size);
+    // The working copy found last time might have been deleted meanwhile.
+    boolean upToDate = detected != null
+        && detected.getRepository() != null
+        && FileHelper.isGitRepository(detected.getRepository());
+    if (upToDate) {
+      repoDir = new File(detected.getRepository());
+    } else {
+      try {
+        // Parse the XML file to detected the referred resources.
+        SAXParser saxParser = newProjectParser();
+        XPRHandler handler = new XPRHandler();
+
+        saxParser.parse(projectFile, handler);
+
+        repoDir = detectRepoDownwards(projectDir, handler.getPaths());
+        // A project without a working copy is searched each time, one can be created in its folders.
+        if (repoDir != null) {
+          OptionsManager.getInstance().saveProjectRepository(new ProjectRepositoryInfo(
+              projectFile.getPath(), lastModified, size, repoDir.getPath()));
+        }
+      } catch (ParserConfigurationException | SAXException | IOException e1) {
+        if (logger.isDebugEnabled()) {
+          logger.debug(e1, e1);
+        }
       }
     }
 
@@ -161,6 +183,27 @@ public class RepoUtil {
     return repoDir;
   }
 
+  /**
+   * Creates a parser for the project files.
+   * 
+   * @return The parser.
+   * 
+   * @throws ParserConfigurationException If the parser can't be created.
+   * @throws SAXException If the parser can't be configured.
+   */
+  private static synchronized SAXParser newProjectParser() throws ParserConfigurationException, SAXException {
+    if (projectParserFactory == null) {
+      SAXParserFactory saxParserFactory = new SAXParserFactoryImpl();
+      saxParserFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING , true);
+
+      // XXE vulnerabilities fix.
+      saxParserFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+      saxParserFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+      projectParserFactory = saxParserFactory;
+    }
+    return projectParserFactory.newSAXParser();
+  }
+
   /**
    * Looks upwards in the ancestors of a directory in search for a Git repository.
    * 
@@ -246,27 +289,17 @@ public class RepoUtil {
   }
 
   /**
-   * Recursively updates submodules.
+   * Recursively updates submodules. The submodules of a repository are updated in parallel.
    * 
    * @param git Current git repository.
    * 
    * @throws GitAPIException Git command falied.
    * @throws IOException Problems while iterating the modules.
+   * 
+   * @see SubmoduleUpdater
    */
   public static void updateSubmodules(Git git) throws GitAPIException, IOException {
-    // Update current repo.
-    git.submoduleInit().call();
-    git.submoduleUpdate().call();
-    
-    // Go recursively.
-    SubmoduleWalk walk = SubmoduleWalk.forIndex(git.getRepository());
-    while (walk.next()) {
-      try (Repository subRepo = walk.getRepository()) {
-        if (subRepo != null) {
-          updateSubmodules(Git.wrap(subRepo));
-        }
-      }
-    }
+    new SubmoduleUpdater(null).update(git, NullProgressMonitor.INSTANCE);
   }
   
   /**
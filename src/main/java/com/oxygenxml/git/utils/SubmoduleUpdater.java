@@ -0,0 +1,407 @@
+package com.oxygenxml.git.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.submodule.SubmoduleWalk;
+import org.eclipse.jgit.transport.CredentialsProvider;
+
+import com.oxygenxml.git.translator.Tags;
+import com.oxygenxml.git.translator.Translator;
+
+/**
+ * Initializes and updates the submodules of a repository, recursively. The submodules of the
+ * repository are cloned or updated in parallel, each of them together with its own submodules.<br><br>
+ *
+ * The number of threads is given by the {@link GitAddonSystemProperties#SUBMODULE_UPDATE_THREADS}
+ * system property. By default, the first failure cancels the other updates. Set the
+ * {@link GitAddonSystemProperties#SUBMODULE_UPDATE_CONTINUE_ON_ERROR} system property to
+ * <code>true</code> to update all the submodules that can be updated and report the failures at the end.
+ */
+public class SubmoduleUpdater {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger logger = Logger.getLogger(SubmoduleUpdater.class);
+  /**
+   * The default number of submodules updated at the same time.
+   */
+  private static final int DEFAULT_THREADS = 4;
+  /**
+   * How long to wait for the running updates to stop after a failure, in seconds.
+   */
+  private static final int STOP_TIMEOUT = 30;
+
+  /**
+   * The maximum number of submodules updated at the same time.
+   */
+  private final int threads;
+  /**
+   * <code>true</code> to continue with the other submodules when one of them fails.
+   */
+  private final boolean continueOnError;
+  /**
+   * The credentials provider used when cloning or fetching the submodules. May be <code>null</code>.
+   */
+  private final CredentialsProvider credentialsProvider;
+
+  /**
+   * Constructor.
+   *
+   * @param threads             The maximum number of submodules updated at the same time.
+   * @param continueOnError     <code>true</code> to continue with the other submodules when one of them fails.
+   * @param credentialsProvider The credentials provider used when cloning or fetching the submodules.
+   *                            May be <code>null</code>.
+   */
+  public SubmoduleUpdater(int threads, boolean continueOnError, CredentialsProvider credentialsProvider) {
+    this.threads = Math.max(1, threads);
+    this.continueOnError = continueOnError;
+    this.credentialsProvider = credentialsProvider;
+  }
+
+  /**
+   * Constructor. The concurrency and the error policy are taken from the system properties.
+   *
+   * @param credentialsProvider The credentials provider used when cloning or fetching the submodules.
+   *                            May be <code>null</code>.
+   */
+  public SubmoduleUpdater(CredentialsProvider credentialsProvider) {
+    this(
+        Integer.getInteger(GitAddonSystemProperties.SUBMODULE_UPDATE_THREADS, DEFAULT_THREADS),
+        Boolean.getBoolean(GitAddonSystemProperties.SUBMODULE_UPDATE_CONTINUE_ON_ERROR),
+        credentialsProvider);
+  }
+
+  /**
+   * Initializes and updates the submodules, recursively.
+   *
+   * @param git     The repository.
+   * @param monitor Receives a unit of work each time a submodule of the repository (together with
+   *                its own submodules) is updated. Canceling it stops the updates.
+   *
+   * @throws GitAPIException Git command failed.
+   * @throws IOException Problems while iterating the modules.
+   */
+  public void update(Git git, ProgressMonitor monitor) throws GitAPIException, IOException {
+    update(git, monitor, new AtomicBoolean(false), true);
+  }
+
+  /**
+   * Initializes and updates the submodules of a repository. Only the submodules of the top
+   * repository are updated in parallel, each of them together with its own submodules, so the
+   * number of threads never goes over the configured one.
+   *
+   * @param git      The repository.
+   * @param monitor  The progress monitor.
+   * @param failed   Set when an update fails and the others should stop.
+   * @param topLevel <code>true</code> for the top repository. Its updated submodules are reported
+   *                 to the monitor. Nested submodules only check it for cancellation.
+   *
+   * @throws GitAPIException Git command failed.
+   * @throws IOException Problems while iterating the modules.
+   */
+  private void update(
+      Git git,
+      ProgressMonitor monitor,
+      AtomicBoolean failed,
+      boolean topLevel) throws GitAPIException, IOException {
+    git.submoduleInit().call();
+
+    List<String> paths = new ArrayList<>();
+    try (SubmoduleWalk walk = SubmoduleWalk.forIndex(git.getRepository())) {
+      while (walk.next()) {
+        paths.add(walk.getPath());
+      }
+    }
+    if (paths.isEmpty()) {
+      return;
+    }
+
+    ProgressMonitor progress = new SynchronizedMonitor(monitor, failed, topLevel);
+    progress.beginTask(Translator.getInstance().getTranslation(Tags.UPDATING_SUBMODULES), paths.size());
+    try {
+      if (topLevel && threads > 1 && paths.size() > 1) {
+        updateInParallel(git.getRepository(), paths, progress, failed);
+      } else {
+        updateSerially(git, paths, progress, failed);
+      }
+    } finally {
+      progress.endTask();
+    }
+  }
+
+  /**
+   * Updates the given submodules one after the other.
+   *
+   * @param git      The parent repository.
+   * @param paths    The paths of the submodules.
+   * @param progress The progress monitor.
+   * @param failed   Set when an update fails and the others should stop.
+   *
+   * @throws GitAPIException Git command failed.
+   * @throws IOException Problems while iterating the modules.
+   */
+  private void updateSerially(
+      Git git,
+      List<String> paths,
+      ProgressMonitor progress,
+      AtomicBoolean failed) throws GitAPIException, IOException {
+    Throwable firstFailure = null;
+    for (String path : paths) {
+      if (progress.isCancelled()) {
+        break;
+      }
+      try {
+        updateSubmodule(git, path, progress, failed);
+      } catch (GitAPIException | IOException | RuntimeException e) {
+        firstFailure = addFailure(firstFailure, e, failed);
+        if (!continueOnError) {
+          break;
+        }
+      }
+    }
+
+    if (firstFailure != null) {
+      rethrow(firstFailure);
+    }
+  }
+
+  /**
+   * Updates the given submodules on several threads. Each thread works with its own instance
+   * of the parent repository, so no configuration or index is shared between threads.
+   *
+   * @param parent   The parent repository.
+   * @param paths    The paths of the submodules.
+   * @param progress The progress monitor.
+   * @param failed   Set when an update fails and the others should stop.
+   *
+   * @throws GitAPIException Git command failed.
+   * @throws IOException Problems while iterating the modules.
+   */
+  private void updateInParallel(
+      Repository parent,
+      List<String> paths,
+      ProgressMonitor progress,
+      AtomicBoolean failed) throws GitAPIException, IOException {
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, paths.size()));
+    CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+    for (String path : paths) {
+      completionService.submit(() -> {
+        if (!progress.isCancelled()) {
+          try (Repository parentCopy = new FileRepositoryBuilder()
+              .setGitDir(parent.getDirectory())
+              .setWorkTree(parent.getWorkTree())
+              .setMustExist(true)
+              .build()) {
+            updateSubmodule(Git.wrap(parentCopy), path, progress, failed);
+          }
+        }
+        return null;
+      });
+    }
+
+    Throwable firstFailure = null;
+    try {
+      for (int i = 0; i < paths.size(); i++) {
+        try {
+          completionService.take().get();
+        } catch (ExecutionException e) {
+          firstFailure = addFailure(firstFailure, e.getCause(), failed);
+          if (!continueOnError) {
+            break;
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      failed.set(true);
+      firstFailure = e;
+    } finally {
+      executor.shutdownNow();
+      awaitTermination(executor);
+    }
+
+    if (firstFailure != null) {
+      rethrow(firstFailure);
+    }
+  }
+
+  /**
+   * Records the failure of a submodule update. Without {@link #continueOnError}, the other
+   * updates are stopped at their next cancel check.
+   *
+   * @param firstFailure The first failure so far. May be <code>null</code>.
+   * @param failure      The new failure.
+   * @param failed       Set when an update fails and the others should stop.
+   *
+   * @return The first failure, with the others added as suppressed.
+   */
+  private Throwable addFailure(Throwable firstFailure, Throwable failure, AtomicBoolean failed) {
+    if (!continueOnError) {
+      failed.set(true);
+    } else {
+      logger.error(failure, failure);
+    }
+    if (firstFailure == null) {
+      return failure;
+    }
+    firstFailure.addSuppressed(failure);
+    return firstFailure;
+  }
+
+  /**
+   * Updates a submodule and then its own submodules.
+   *
+   * @param git      The parent repository.
+   * @param path     The path of the submodule.
+   * @param progress The progress monitor.
+   * @param failed   Set when an update fails and the others should stop.
+   *
+   * @throws GitAPIException Git command failed.
+   * @throws IOException Problems while iterating the modules.
+   */
+  private void updateSubmodule(
+      Git git,
+      String path,
+      ProgressMonitor progress,
+      AtomicBoolean failed) throws GitAPIException, IOException {
+    ProgressMonitor cancelMonitor = new SynchronizedMonitor(progress, failed, false);
+    git.submoduleUpdate()
+        .addPath(path)
+        .setProgressMonitor(cancelMonitor)
+        .setCredentialsProvider(credentialsProvider)
+        .call();
+
+    try (Repository subRepo = SubmoduleWalk.getSubmoduleRepository(git.getRepository(), path)) {
+      if (subRepo != null) {
+        update(Git.wrap(subRepo), cancelMonitor, failed, false);
+      }
+    }
+    progress.update(1);
+  }
+
+  /**
+   * Waits for the running updates to stop.
+   *
+   * @param executor The executor running the updates.
+   */
+  private static void awaitTermination(ExecutorService executor) {
+    try {
+      if (!executor.awaitTermination(STOP_TIMEOUT, TimeUnit.SECONDS)) {
+        logger.warn("Submodule updates still running after " + STOP_TIMEOUT + " seconds.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Throws a failure from a submodule update.
+   *
+   * @param failure The failure.
+   *
+   * @throws GitAPIException If the failure is a Git exception.
+   * @throws IOException If the failure is an I/O exception.
+   */
+  private static void rethrow(Throwable failure) throws GitAPIException, IOException {
+    if (failure instanceof GitAPIException) {
+      throw (GitAPIException) failure;
+    } else if (failure instanceof IOException) {
+      throw (IOException) failure;
+    } else if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+    throw new IOException(failure);
+  }
+
+  /**
+   * Forwards the progress of parallel updates to a monitor that is not thread safe.
+   * Reports cancellation when the delegate is canceled or when an update failed.
+   */
+  private static class SynchronizedMonitor implements ProgressMonitor {
+    /**
+     * The monitor receiving the progress.
+     */
+    private final ProgressMonitor delegate;
+    /**
+     * Set when an update fails and the others should stop.
+     */
+    private final AtomicBoolean failed;
+    /**
+     * <code>true</code> to forward the progress. <code>false</code> to only check for cancellation.
+     */
+    private final boolean forwardProgress;
+
+    /**
+     * Constructor.
+     *
+     * @param delegate        The monitor receiving the progress.
+     * @param failed          Set when an update fails and the others should stop.
+     * @param forwardProgress <code>true</code> to forward the progress.
+     *                        <code>false</code> to only check for cancellation.
+     */
+    SynchronizedMonitor(ProgressMonitor delegate, AtomicBoolean failed, boolean forwardProgress) {
+      this.delegate = delegate;
+      this.failed = failed;
+      this.forwardProgress = forwardProgress;
+    }
+
+    @Override
+    public void start(int totalTasks) {
+      // Nothing
+    }
+
+    @Override
+    public void beginTask(String title, int totalWork) {
+      if (forwardProgress) {
+        synchronized (delegate) {
+          delegate.beginTask(title, totalWork);
+        }
+      }
+    }
+
+    @Override
+    public void update(int completed) {
+      if (forwardProgress) {
+        synchronized (delegate) {
+          delegate.update(completed);
+        }
+      }
+    }
+
+    @Override
+    public void endTask() {
+      if (forwardProgress) {
+        synchronized (delegate) {
+          delegate.endTask();
+        }
+      }
+    }
+
+    @Override
+    public boolean isCancelled() {
+      if (failed.get()) {
+        return true;
+      }
+      synchronized (delegate) {
+        return delegate.isCancelled();
+      }
+    }
+  }
+}
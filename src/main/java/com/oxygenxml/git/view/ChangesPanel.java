@@ -49,10 +49,15 @@ import com.oxygenxml.git.options.OptionsManager;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitControllerBase;
 import com.oxygenxml.git.service.GitEventAdapter;
+import com.oxygenxml.git.service.GitEventDelivery;
+import com.oxygenxml.git.service.GitStatus;
 import com.oxygenxml.git.service.NoRepositorySelected;
+import com.oxygenxml.git.service.StatusService;
 import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.FileStatusDelta;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
+import com.oxygenxml.git.utils.GitAddonSystemProperties;
 import com.oxygenxml.git.utils.PlatformDetectionUtil;
 import com.oxygenxml.git.utils.TreeUtil;
 import com.oxygenxml.git.view.dialog.UIUtil;
@@ -101,6 +106,12 @@ public class ChangesPanel extends JPanel {
    */
   private static Logger logger = Logger.getLogger(ChangesPanel.class);
   
+  /**
+   * Starting from this number of files, the tree view creates the nodes of a folder only when it is expanded.
+   */
+  private static final int LAZY_TREE_VIEW_THRESHOLD = 
+      Integer.getInteger(GitAddonSystemProperties.LAZY_TREE_VIEW_THRESHOLD, 5000);
+  
   /**
    * The current view name.
    */
@@ -198,7 +209,8 @@ public class ChangesPanel extends JPanel {
 		this.currentViewMode = forStagedResources ? OptionsManager.getInstance().getStagedResViewMode()
 		    : OptionsManager.getInstance().getUntagedResViewMode();
 		
-    gitController.addGitListener(new GitEventAdapter() {
+    // A burst of operations on files, like staging one resource after the other, updates the models only once.
+    gitController.addCoalescingGitListener(new GitEventAdapter() {
       @Override
       public void operationAboutToStart(GitEventInfo info) {
         if (info.getGitOperation() == GitOperation.OPEN_WORKING_COPY) {
@@ -218,13 +230,11 @@ public class ChangesPanel extends JPanel {
               Repository repository = gitAccess.getRepository();
               if (repository != null) {
                 
+                // The staged and the unstaged panels share the same status computation.
                 gitController.asyncTask(
                     () -> {
-                      if (forStagedResources) {
-                        return gitAccess.getStagedFiles();
-                      } else {
-                        return gitAccess.getUnstagedFiles();
-                      }
+                      GitStatus status = StatusService.getInstance().getStatus();
+                      return forStagedResources ? status.getStagedFiles() : status.getUnstagedFiles();
                     }, 
                     this::refresh, 
                     ex -> refresh(Collections.emptyList()));
@@ -243,7 +253,7 @@ public class ChangesPanel extends JPanel {
           case ABORT_MERGE:
           case ABORT_REBASE:
           case CONTINUE_REBASE:
-            SwingUtilities.invokeLater(() -> ChangesPanel.this.fileStatesChanged(info));
+            ChangesPanel.this.fileStatesChanged(info);
             break;
           default:
             break;
@@ -267,7 +277,7 @@ public class ChangesPanel extends JPanel {
           // TODO Enable widgets
         }
       }
-    });
+    }, GitEventDelivery.EDT);
 	}
 
 	JTable getFilesTable() {
@@ -307,12 +317,7 @@ public class ChangesPanel extends JPanel {
 	    TreePath[] selectionPaths = tree.getSelectionPaths();
 
 	    // Create the tree with the new model
-	    tree.setModel(
-	        new StagingResourcesTreeModel(
-	            gitController, 
-	            GitAccess.getInstance().getWorkingCopyName(), 
-	            forStagedResources, 
-	            filesStatus));
+	    tree.setModel(createTreeModel(filesStatus));
 
 	    // restore last expanded paths after refresh
 	    TreeUtil.restoreLastExpandedPaths(expandedPaths, tree);
@@ -339,17 +344,85 @@ public class ChangesPanel extends JPanel {
 	}
 	
 	 /**
-   * Updates the flat view with the given files. Also if in the view some of the
-   * files were selected, the selection is preserved.
+   * Updates the current view with the given files. Only the differences between the 
+   * presented files and the new ones are applied, so selection is preserved.
    * 
-   * @param newFiles The new files to update in the flat view.
+   * @param newFiles The new files to present.
    */
   public void update(List<FileStatus> newFiles) {
+    applyDelta(FileStatusDelta.compute(getFilesStatusesSnapshot(), newFiles));
+  }
+  
+  /**
+   * @return A copy of the files in the model, safe to iterate on any thread.
+   */
+  public List<FileStatus> getFilesStatusesSnapshot() {
+    List<FileStatus> filesStatuses = getFilesStatuses();
+    synchronized (filesStatuses) {
+      return new ArrayList<>(filesStatuses);
+    }
+  }
+  
+  /**
+   * Applies the differences between the presented files and a newer snapshot.
+   * Does nothing if the delta is empty.
+   * 
+   * @param delta The differences to apply.
+   */
+  public void applyDelta(FileStatusDelta delta) {
+    if (delta.isEmpty()) {
+      return;
+    }
+    
     if (currentViewMode == ResourcesViewMode.FLAT_VIEW) {
-      updateFlatView(newFiles);
+      ((StagingResourcesTableModel) filesTable.getModel()).applyDelta(delta);
+    } else if (delta.isStructural()) {
+      Enumeration<TreePath> expandedPaths = TreeUtil.getLastExpandedPaths(tree);
+      TreePath[] selectionPaths = tree.getSelectionPaths();
+      
+      ((StagingResourcesTreeModel) tree.getModel()).applyDelta(delta);
+      
+      // Restore last expanded paths after refresh
+      TreeUtil.restoreLastExpandedPaths(expandedPaths, tree);
+      tree.setSelectionPaths(selectionPaths);
     } else {
-      updateTreeView(newFiles);
+      ((StagingResourcesTreeModel) tree.getModel()).applyDelta(delta);
     }
+    
+    if (currentViewMode == ResourcesViewMode.TREE_VIEW) {
+      List<FileStatus> filesStatuses = getFilesStatusesSnapshot();
+      boolean lazy = tree.getModel() instanceof VirtualStagingResourcesTreeModel;
+      if (lazy != shouldUseLazyTreeModel(filesStatuses)) {
+        // The number of files crossed the threshold. Switch the model.
+        updateTreeView(filesStatuses);
+      }
+    }
+    
+    toggleSelectedButton();
+  }
+  
+  /**
+   * Creates the model for the tree view. Large change sets get a model that creates
+   * the nodes of a folder only when the folder is expanded.
+   * 
+   * @param filesStatuses The files to present.
+   * 
+   * @return The model.
+   */
+  private StagingResourcesTreeModel createTreeModel(List<FileStatus> filesStatuses) {
+    String rootName = GitAccess.getInstance().getWorkingCopyName();
+    return shouldUseLazyTreeModel(filesStatuses) 
+        ? new VirtualStagingResourcesTreeModel(gitController, rootName, forStagedResources, filesStatuses)
+        : new StagingResourcesTreeModel(gitController, rootName, forStagedResources, filesStatuses);
+  }
+  
+  /**
+   * @param filesStatuses The files to present.
+   * 
+   * @return <code>true</code> if there are so many files that the tree view should create nodes on demand.
+   */
+  private static boolean shouldUseLazyTreeModel(List<FileStatus> filesStatuses) {
+    return filesStatuses != null && filesStatuses.size() >= LAZY_TREE_VIEW_THRESHOLD;
   }
   
 	
@@ -967,12 +1040,7 @@ public class ChangesPanel extends JPanel {
 	    }
 	    
 	     // Create the tree with the new model
-      tree.setModel(
-          new StagingResourcesTreeModel(
-              gitController, 
-              GitAccess.getInstance().getWorkingCopyName(), 
-              forStagedResources, 
-              filesStatuses));
+      tree.setModel(createTreeModel(filesStatuses));
 	    
 	    restoreSelectedPathsFromTableToTree();
 	    
@@ -13,6 +13,8 @@ import java.awt.event.InputEvent;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
 import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.Collections;
@@ -38,6 +40,7 @@ import javax.swing.Timer;
 
 import org.apache.log4j.Logger;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ProgressMonitor;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.RepositoryState;
 import org.eclipse.jgit.revwalk.RevCommit;
@@ -52,6 +55,7 @@ import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.service.GitStatus;
 import com.oxygenxml.git.service.NoRepositorySelected;
 import com.oxygenxml.git.service.RepoNotInitializedException;
+import com.oxygenxml.git.service.StatusService;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.utils.PlatformDetectionUtil;
@@ -308,6 +312,11 @@ public class CommitAndStatusPanel extends JPanel {
 	 * Git controller.
 	 */
   private GitController gitController;
+  
+  /**
+   * Monitors the last long operation started from the view. Clicking the status cancels it.
+   */
+  private volatile StatusProgressMonitor progressMonitor;
 
 	/**
 	 * Constructor.
@@ -321,6 +330,8 @@ public class CommitAndStatusPanel extends JPanel {
 	  commitButtonAndMessageUpdateTaskTimer.setRepeats(false);
 	  
     createGUI();
+    
+    gitController.setProgressMonitorFactory(this::createProgressMonitor);
 	  
     gitController.addGitListener(new GitEventAdapter() {
       @Override
@@ -609,6 +620,15 @@ public class CommitAndStatusPanel extends JPanel {
 		    super.setToolTipText(text);
 		  }
 		};
+		statusLabel.addMouseListener(new MouseAdapter() {
+		  @Override
+		  public void mouseClicked(MouseEvent e) {
+		    StatusProgressMonitor monitor = progressMonitor;
+		    if (monitor != null) {
+		      monitor.cancel();
+		    }
+		  }
+		});
 		statusLabel.addComponentListener(new ComponentAdapter() {
 		  @Override
 		  public void componentResized(ComponentEvent e) {
@@ -710,7 +730,7 @@ public class CommitAndStatusPanel extends JPanel {
             String message = null;
             @Override
             protected Void doInBackground() throws Exception {
-              GitStatus status = gitAccess.getStatus();
+              GitStatus status = StatusService.getInstance().getStatus();
               if (repositoryState == RepositoryState.MERGING_RESOLVED
                   && status.getStagedFiles().isEmpty()
                   && status.getUnstagedFiles().isEmpty()) {
@@ -772,6 +792,18 @@ public class CommitAndStatusPanel extends JPanel {
     statusLabel.setIcon(null);
     statusLabel.setText(message);
   }
+  
+  /**
+   * Creates a progress monitor that presents the progress in the status label.
+   * The operation is canceled by clicking on the label.
+   * 
+   * @return The progress monitor.
+   */
+  private ProgressMonitor createProgressMonitor() {
+    StatusProgressMonitor monitor = new StatusProgressMonitor(this::setStatusMessage);
+    progressMonitor = monitor;
+    return monitor;
+  }
 
 	/**
 	 * Resets the panel. Clears any selection done by the user or inserted text.
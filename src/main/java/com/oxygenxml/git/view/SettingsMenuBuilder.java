@@ -10,6 +10,7 @@ import com.oxygenxml.git.options.OptionsManager;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.utils.GitRefreshSupport;
+import com.oxygenxml.git.view.dialog.RepositoryMaintenanceDialog;
 
 import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
 import ro.sync.exml.workspace.api.standalone.ui.SplitMenuButton;
@@ -40,6 +41,7 @@ final class SettingsMenuBuilder {
         false);
     
     settingsMenuButton.addActionToMenu(createResetCredentialsAction(refreshSupport), false);
+    settingsMenuButton.addActionToMenu(createRepositoryMaintenanceAction(), false);
     settingsMenuButton.addSeparator();
     settingsMenuButton.addActionToMenu(createGoToPreferencesAction(), false);
     
@@ -76,6 +78,18 @@ final class SettingsMenuBuilder {
     };
   }
   
+  /**
+   * @return the "Repository maintenance" action.
+   */
+  private static AbstractAction createRepositoryMaintenanceAction() {
+    return new AbstractAction(TRANSLATOR.getTranslation(Tags.REPOSITORY_MAINTENANCE) + "...") {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        new RepositoryMaintenanceDialog().setVisible(true);
+      }
+    };
+  }
+  
   /**
    * @return the "Preferences" action.
    */
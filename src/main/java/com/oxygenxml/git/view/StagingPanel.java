@@ -31,6 +31,7 @@ import com.oxygenxml.git.service.GitEventListener;
 import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.service.GitStatus;
 import com.oxygenxml.git.service.NoRepositorySelected;
+import com.oxygenxml.git.service.StatusService;
 import com.oxygenxml.git.utils.FileHelper;
 import com.oxygenxml.git.utils.GitRefreshSupport;
 import com.oxygenxml.git.view.branches.BranchManagementViewPresenter;
@@ -462,13 +463,14 @@ public class StagingPanel extends JPanel {
 	      workingCopySelectionPanel.getWorkingCopyCombo().setEnabled(true);
 
 	      // Update models.
-	      GitStatus status = GitAccess.getInstance().getStatus();
+	      GitStatus status = StatusService.getInstance().getStatus();
 	      unstagedChangesPanel.update(status.getUnstagedFiles());
 	      stagedChangesPanel.update(status.getStagedFiles());
 
 	      if (toolbarPanel != null) {
 	        toolbarPanel.updateButtonState(true);
-	        toolbarPanel.refresh();
+	        // After a push, the branch state is already known.
+	        toolbarPanel.refresh(pushPullEvent.getBranchStatus());
 	      }
 	    }
 
@@ -5,6 +5,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Set;
 
 import javax.swing.table.AbstractTableModel;
@@ -15,6 +16,7 @@ import org.eclipse.jgit.diff.DiffEntry.ChangeType;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitControllerBase;
 import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.FileStatusDelta;
 import com.oxygenxml.git.service.entities.GitChangeType;
 import com.oxygenxml.git.view.event.FileGitEventInfo;
 import com.oxygenxml.git.view.event.GitEventInfo;
@@ -145,6 +147,68 @@ public class StagingResourcesTableModel extends AbstractTableModel {
 		fireTableRowsInserted(0, getRowCount());
 	}
 
+	/**
+	 * Applies the differences between the files in the model and a newer snapshot.
+	 * Only the affected rows are removed or inserted, so the table keeps its selection
+	 * and an empty delta does nothing.
+	 * 
+	 * @param delta The differences to apply.
+	 */
+	public void applyDelta(FileStatusDelta delta) {
+	  if (delta.isEmpty()) {
+	    return;
+	  }
+
+	  Set<String> pathsToRemove = new HashSet<>();
+	  addPaths(pathsToRemove, delta.getRemoved());
+	  addPaths(pathsToRemove, delta.getChangedFrom());
+	  // Guards against an entry with the same path but a stale state.
+	  addPaths(pathsToRemove, delta.getChangedTo());
+	  addPaths(pathsToRemove, delta.getAdded());
+
+	  synchronized (filesStatuses) {
+	    ListIterator<FileStatus> iterator = filesStatuses.listIterator(filesStatuses.size());
+	    while (iterator.hasPrevious()) {
+	      int row = iterator.previousIndex();
+	      if (pathsToRemove.contains(iterator.previous().getFileLocation())) {
+	        iterator.remove();
+	        fireTableRowsDeleted(row, row);
+	      }
+	    }
+
+	    insertSorted(delta.getChangedTo());
+	    insertSorted(delta.getAdded());
+	  }
+	}
+
+	/**
+	 * Collects the paths of the given files.
+	 * 
+	 * @param paths The set that receives the paths.
+	 * @param files The files.
+	 */
+	private static void addPaths(Set<String> paths, List<FileStatus> files) {
+	  for (FileStatus fileStatus : files) {
+	    paths.add(fileStatus.getFileLocation());
+	  }
+	}
+
+	/**
+	 * Inserts the given files at their sorted positions and notifies about each inserted row.
+	 * 
+	 * @param toInsert The files to insert.
+	 */
+	private void insertSorted(List<FileStatus> toInsert) {
+	  for (FileStatus fileStatus : toInsert) {
+	    int index = Collections.binarySearch(filesStatuses, fileStatus, fileStatusComparator);
+	    if (index < 0) {
+	      int row = -index - 1;
+	      filesStatuses.add(row, fileStatus);
+	      fireTableRowsInserted(row, row);
+	    }
+	  }
+	}
+
 	/**
 	 * Returns the file from the given row
 	 * 
@@ -210,7 +274,7 @@ public class StagingResourcesTableModel extends AbstractTableModel {
     switch (changeEvent.getGitOperation()) {
       case STAGE:
         if (inIndex) {
-          insertRows(GitAccess.getInstance().getStagedFile(((FileGitEventInfo) changeEvent).getAffectedFilePaths()));
+          insertRows(GitAccess.getInstance().getStagedFilesForPaths(((FileGitEventInfo) changeEvent).getAffectedFilePaths()));
         } else {
           deleteRows(((FileGitEventInfo) changeEvent).getAffectedFileStatuses());
         }
@@ -222,7 +286,7 @@ public class StagingResourcesTableModel extends AbstractTableModel {
           // Things were taken out of the INDEX. 
           // The same resource might be present in the UnStaged and INDEX. Remove old states.
           deleteRows(((FileGitEventInfo) changeEvent).getAffectedFileStatuses());
-          insertRows(GitAccess.getInstance().getUnstagedFiles(((FileGitEventInfo) changeEvent).getAffectedFilePaths()));
+          insertRows(GitAccess.getInstance().getUnstagedFilesForPaths(((FileGitEventInfo) changeEvent).getAffectedFilePaths()));
         }
         break;
       case COMMIT:
@@ -2,7 +2,9 @@ package com.oxygenxml.git.view;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.swing.tree.DefaultTreeModel;
 
@@ -11,6 +13,7 @@ import org.apache.log4j.Logger;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitControllerBase;
 import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.FileStatusDelta;
 import com.oxygenxml.git.service.entities.GitChangeType;
 import com.oxygenxml.git.utils.TreeUtil;
 import com.oxygenxml.git.view.event.FileGitEventInfo;
@@ -73,7 +76,7 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
 	  switch (eventInfo.getGitOperation()) {
 	    case STAGE:
 	      if (inIndex) {
-	        insertNodes(gitAccess.getStagedFile(((FileGitEventInfo) eventInfo).getAffectedFilePaths()));
+	        insertNodes(gitAccess.getStagedFilesForPaths(((FileGitEventInfo) eventInfo).getAffectedFilePaths()));
 	      } else {
 	        deleteNodes(((FileGitEventInfo) eventInfo).getAffectedFileStatuses());
 	      }
@@ -85,7 +88,7 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
 	        // Things were taken out of the index / "staged" area. 
 	        // The same resource might be present in the Unstaged and Staged. Remove old states.
 	        deleteNodes(((FileGitEventInfo) eventInfo).getAffectedFileStatuses());
-	        insertNodes(gitAccess.getUnstagedFiles(((FileGitEventInfo) eventInfo).getAffectedFilePaths()));
+	        insertNodes(gitAccess.getUnstagedFilesForPaths(((FileGitEventInfo) eventInfo).getAffectedFilePaths()));
 	      }
 	      break;
 	    case COMMIT:
@@ -117,10 +120,76 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
 	  fireTreeStructureChanged(this, null, null, null);
 	}
 
+	/**
+	 * Applies the differences between the files in the model and a newer snapshot.
+	 * The node structure is touched only if resources were added or removed. When
+	 * just the states changed, only the affected leaves are notified.
+	 * 
+	 * @param delta The differences to apply.
+	 */
+	public void applyDelta(FileStatusDelta delta) {
+	  if (logger.isDebugEnabled()) {
+	    logger.debug("Tree model for index: " + inIndex + " delta " + delta);
+	  }
+
+	  if (delta.isEmpty()) {
+	    return;
+	  }
+
+	  Set<String> replacedPaths = new HashSet<>();
+	  for (FileStatus fileStatus : delta.getChangedTo()) {
+	    replacedPaths.add(fileStatus.getFileLocation());
+	  }
+	  // Guards against an entry with the same path but a stale state.
+	  for (FileStatus fileStatus : delta.getAdded()) {
+	    replacedPaths.add(fileStatus.getFileLocation());
+	  }
+	  synchronized (filesStatuses) {
+	    filesStatuses.removeIf(fileStatus -> replacedPaths.contains(fileStatus.getFileLocation()));
+	    filesStatuses.addAll(delta.getChangedTo());
+	  }
+
+	  if (delta.isStructural()) {
+	    replaceNodes(delta.getRemoved(), delta.getAdded());
+	    fireTreeStructureChanged(this, null, null, null);
+	  } else {
+	    statesChanged(delta.getChangedTo());
+	  }
+	}
+
+	/**
+	 * Removes and adds nodes, as part of the same change.
+	 * 
+	 * @param removedFiles The files whose nodes are removed.
+	 * @param addedFiles   The files whose nodes are added.
+	 */
+	protected void replaceNodes(List<FileStatus> removedFiles, List<FileStatus> addedFiles) {
+	  if (!removedFiles.isEmpty()) {
+	    deleteNodes(removedFiles);
+	  }
+	  if (!addedFiles.isEmpty()) {
+	    insertNodes(addedFiles);
+	  }
+	}
+
+	/**
+	 * Notifies the leaves of the resources whose state changed. The structure is the same.
+	 * 
+	 * @param changedFiles The new states of the resources.
+	 */
+	protected void statesChanged(List<FileStatus> changedFiles) {
+	  for (FileStatus fileStatus : changedFiles) {
+	    GitTreeNode node = TreeUtil.getTreeNodeFromString(this, fileStatus.getFileLocation());
+	    if (node != null) {
+	      nodeChanged(node);
+	    }
+	  }
+	}
+
 	/**
 	 * Clears all the nodes in the model and leaves an empty root.
 	 */
-  private void clearModel() {
+  protected void clearModel() {
     filesStatuses.clear();
     // Rebuild the tree
     GitTreeNode root = (GitTreeNode) getRoot();
@@ -133,7 +202,7 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
 	 * @param fileToBeUpdated
 	 *          - the files on which the nodes will be created
 	 */
-	private void insertNodes(List<FileStatus> fileToBeUpdated) {
+	protected void insertNodes(List<FileStatus> fileToBeUpdated) {
 		for (FileStatus fileStatus : fileToBeUpdated) {
 			TreeUtil.buildTreeFromString(this, fileStatus.getFileLocation());
 		}
@@ -147,7 +216,7 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
 	 * @param fileToBeUpdated
 	 *          - the files on which the nodes will be deleted
 	 */
-	private void deleteNodes(List<FileStatus> fileToBeUpdated) {
+	protected void deleteNodes(List<FileStatus> fileToBeUpdated) {
 		for (FileStatus fileStatus : fileToBeUpdated) {
 			GitTreeNode node = TreeUtil.getTreeNodeFromString(this, fileStatus.getFileLocation());
 			while (node != null && node.getParent() != null) {
@@ -238,6 +307,10 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
 	  if (filesStatus == null) {
 	    filesStatus = Collections.emptyList();
 	  }
+	  if (filesStatus.isEmpty() && this.filesStatuses.isEmpty()) {
+	    // Nothing to build. Also keeps subclasses from being called before their own initialization.
+	    return;
+	  }
 	  
 		deleteNodes(this.filesStatuses);
 		insertNodes(filesStatus);
@@ -0,0 +1,93 @@
+package com.oxygenxml.git.view;
+
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import org.eclipse.jgit.lib.ProgressMonitor;
+
+import com.oxygenxml.git.translator.Tags;
+import com.oxygenxml.git.translator.Translator;
+
+/**
+ * Presents the progress of a long operation as a status message. The message is only
+ * updated when the percentage changes. Can be canceled.
+ */
+public class StatusProgressMonitor implements ProgressMonitor {
+  /**
+   * Receives the status messages. Called on AWT.
+   */
+  private final Consumer<String> statusPresenter;
+  /**
+   * The title of the current task.
+   */
+  private String taskTitle;
+  /**
+   * The total amount of work for the current task.
+   */
+  private int totalWork;
+  /**
+   * The amount of work done for the current task.
+   */
+  private int currentWork;
+  /**
+   * The last presented percentage.
+   */
+  private int lastPercent = -1;
+  /**
+   * <code>true</code> if the user canceled the operation.
+   */
+  private volatile boolean canceled = false;
+
+  /**
+   * Constructor.
+   *
+   * @param statusPresenter Receives the status messages. Called on AWT.
+   */
+  public StatusProgressMonitor(Consumer<String> statusPresenter) {
+    this.statusPresenter = statusPresenter;
+  }
+
+  @Override
+  public void start(int totalTasks) {
+    // Nothing
+  }
+
+  @Override
+  public void beginTask(String title, int totalWork) {
+    this.taskTitle = title;
+    this.totalWork = totalWork;
+    this.currentWork = 0;
+    this.lastPercent = -1;
+    update(0);
+  }
+
+  @Override
+  public void update(int completed) {
+    currentWork += completed;
+    int percent = totalWork > 0 ? (int) (currentWork * 100L / totalWork) : 100;
+    if (percent != lastPercent) {
+      lastPercent = percent;
+      String message = taskTitle + " " + percent + "% ("
+          + Translator.getInstance().getTranslation(Tags.CLICK_TO_CANCEL) + ")";
+      SwingUtilities.invokeLater(() -> statusPresenter.accept(message));
+    }
+  }
+
+  @Override
+  public void endTask() {
+    SwingUtilities.invokeLater(() -> statusPresenter.accept(""));
+  }
+
+  @Override
+  public boolean isCancelled() {
+    return canceled;
+  }
+
+  /**
+   * Cancels the operation. It stops at the next check.
+   */
+  public void cancel() {
+    canceled = true;
+  }
+}
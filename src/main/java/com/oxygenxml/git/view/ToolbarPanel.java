@@ -41,12 +41,14 @@ import com.oxygenxml.git.options.CredentialsBase;
 import com.oxygenxml.git.options.CredentialsBase.CredentialsType;
 import com.oxygenxml.git.options.OptionsManager;
 import com.oxygenxml.git.service.BranchInfo;
+import com.oxygenxml.git.service.BranchStatus;
+import com.oxygenxml.git.service.FetchScheduler;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitEventAdapter;
+import com.oxygenxml.git.service.GitEventDelivery;
 import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.service.NoRepositorySelected;
 import com.oxygenxml.git.service.PrivateRepositoryException;
-import com.oxygenxml.git.service.RepoNotInitializedException;
 import com.oxygenxml.git.service.RepositoryUnavailableException;
 import com.oxygenxml.git.service.SSHPassphraseRequiredException;
 import com.oxygenxml.git.translator.Tags;
@@ -249,7 +251,7 @@ public class ToolbarPanel extends JPanel {
 	        refresh();
         }
       }
-	  });
+	  }, GitEventDelivery.BACKGROUND);
 	}
 	
 	/**
@@ -266,7 +268,8 @@ public class ToolbarPanel extends JPanel {
 	 */
   private void fetch(boolean firstRun) {
     try {
-      GitAccess.getInstance().fetch();
+      // A retry with new credentials must contact the remote again.
+      FetchScheduler.getInstance().fetch(!firstRun);
     } catch (SSHPassphraseRequiredException e) {
       String message = null;
       if (firstRun) {
@@ -575,14 +578,27 @@ public class ToolbarPanel extends JPanel {
 	 * and branch status.
 	 */
 	public void refresh() {
+	  refresh(null);
+	}
+
+	/**
+	 * Updates the presented information, like the Pull-behind, Pushes-ahead
+	 * and branch status.
+	 * 
+	 * @param knownBranchStatus The state of the current branch, if already known, for example after a push.
+	 *                          <code>null</code> to compute it.
+	 */
+	public void refresh(BranchStatus knownBranchStatus) {
     GitAccess gitAccess = GitAccess.getInstance();
+    BranchStatus branchStatus = knownBranchStatus != null ? knownBranchStatus : gitAccess.getBranchStatus();
     
-    this.pullsBehind = gitAccess.getPullsBehind();
-    try {
-      this.pushesAhead = gitAccess.getPushesAhead();
-    } catch (RepoNotInitializedException e) {
+    this.pullsBehind = branchStatus.getPullsBehind();
+    String branchName = branchStatus.getBranchInfo().getBranchName();
+    if (branchName != null && !branchName.isEmpty() && !branchStatus.isTracking()) {
+      // No upstream to compare with.
       this.pushesAhead = -1;
-      logger.debug(e, e);
+    } else {
+      this.pushesAhead = branchStatus.getPushesAhead();
     }
     
     SwingUtilities.invokeLater(() -> {
@@ -598,7 +614,7 @@ public class ToolbarPanel extends JPanel {
       logger.debug(e, e);
     }
     
-		BranchInfo branchInfo = gitAccess.getBranchInfo();
+		BranchInfo branchInfo = branchStatus.getBranchInfo();
 		String currentBranchName = branchInfo.getBranchName();
 		String branchInfoText = "";
 		if (branchInfo.isDetached()) {
@@ -622,7 +638,9 @@ public class ToolbarPanel extends JPanel {
 			if (currentBranchName != null && !currentBranchName.isEmpty()) {
 			  branchInfoText = "<html><b>" + currentBranchName + "</b></html>";
 			  
-			  String upstreamBranchFromConfig = gitAccess.getUpstreamBranchShortNameFromConfig(currentBranchName);
+			  String upstreamBranchFromConfig = branchStatus.getUpstreamBranch() != null
+			      ? Repository.shortenRefName(branchStatus.getUpstreamBranch())
+			      : null;
 			  boolean isAnUpstreamBranchDefinedInConfig = upstreamBranchFromConfig != null;
 			  
         String upstreamShortestName = 
@@ -0,0 +1,331 @@
+package com.oxygenxml.git.view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.tree.TreeNode;
+
+import com.oxygenxml.git.service.GitControllerBase;
+import com.oxygenxml.git.service.entities.FileStatus;
+
+/**
+ * Tree model for staged or unstaged resources, meant for very large change sets.<br><br>
+ *
+ * Instead of building a node for each path, the model keeps a sorted array with all the paths.
+ * A folder node only covers a range of that array and creates its children the first time
+ * they are requested, which happens when the folder is expanded. Memory grows with the number
+ * of expanded folders, not with the number of changed files.
+ */
+public class VirtualStagingResourcesTreeModel extends StagingResourcesTreeModel {
+
+  /**
+   * A folder node whose children are created on demand, from a range of the sorted paths.
+   */
+  public static class DirectoryNode extends GitTreeNode {
+    /**
+     * All the paths in the model, sorted.
+     */
+    private final String[] paths;
+    /**
+     * The index of the first path inside this folder.
+     */
+    private final int from;
+    /**
+     * The index after the last path inside this folder.
+     */
+    private final int to;
+    /**
+     * The length of the path prefix that identifies this folder, including the trailing slash.
+     */
+    private final int prefixLength;
+    /**
+     * <code>true</code> after the children were created.
+     */
+    private boolean childrenLoaded = false;
+
+    /**
+     * Constructor.
+     *
+     * @param name          Folder name.
+     * @param paths         All the paths in the model, sorted.
+     * @param from          The index of the first path inside this folder.
+     * @param to            The index after the last path inside this folder.
+     * @param prefixLength  The length of the path prefix that identifies this folder.
+     */
+    DirectoryNode(String name, String[] paths, int from, int to, int prefixLength) {
+      super(name);
+      this.paths = paths;
+      this.from = from;
+      this.to = to;
+      this.prefixLength = prefixLength;
+    }
+
+    /**
+     * @return The number of files inside this folder and its sub-folders.
+     * Computed without creating any node.
+     */
+    public int getLeafCount() {
+      return to - from;
+    }
+
+    /**
+     * Folders are never leaves. Answering this doesn't create the children.
+     */
+    @Override
+    public boolean isLeaf() {
+      return false;
+    }
+
+    @Override
+    public int getChildCount() {
+      loadChildren();
+      return super.getChildCount();
+    }
+
+    @Override
+    public TreeNode getChildAt(int index) {
+      loadChildren();
+      return super.getChildAt(index);
+    }
+
+    @Override
+    public int getIndex(TreeNode aChild) {
+      loadChildren();
+      return super.getIndex(aChild);
+    }
+
+    @Override
+    public Enumeration<TreeNode> children() {
+      loadChildren();
+      return super.children();
+    }
+
+    /**
+     * Creates the children, if not already created. Each sub-folder covers a contiguous
+     * range of the sorted paths, so it is skipped over with a binary search.
+     */
+    private void loadChildren() {
+      if (!childrenLoaded) {
+        childrenLoaded = true;
+
+        List<GitTreeNode> folders = new ArrayList<>();
+        List<GitTreeNode> files = new ArrayList<>();
+        int i = from;
+        while (i < to) {
+          String path = paths[i];
+          int slash = path.indexOf('/', prefixLength);
+          if (slash == -1) {
+            files.add(new GitTreeNode(path.substring(prefixLength)));
+            i++;
+          } else {
+            String folderPrefix = path.substring(0, slash + 1);
+            int end = rangeEnd(paths, folderPrefix, i, to);
+            folders.add(new DirectoryNode(
+                path.substring(prefixLength, slash), paths, i, end, folderPrefix.length()));
+            i = end;
+          }
+        }
+
+        NodeTreeComparator comparator = new NodeTreeComparator();
+        Collections.sort(folders, comparator);
+        Collections.sort(files, comparator);
+        folders.forEach(this::add);
+        files.forEach(this::add);
+      }
+    }
+  }
+
+  /**
+   * All the paths in the model, sorted.
+   */
+  private String[] sortedPaths = new String[0];
+  /**
+   * Fast access to the status of a path.
+   */
+  private Map<String, FileStatus> statusByPath = new HashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param controller  Git controller.
+   * @param root        Root folder's name.
+   * @param inIndex     <code>true</code> if this model presents the resources inside the index.
+   *                    <code>false</code> if it presents the modified resources that can be put in the index.
+   * @param filesStatus The files statuses in the model.
+   */
+  public VirtualStagingResourcesTreeModel(
+      GitControllerBase controller,
+      String root,
+      boolean inIndex,
+      List<FileStatus> filesStatus) {
+    super(controller, root, inIndex, null);
+
+    if (filesStatus != null) {
+      getFilesStatuses().addAll(filesStatus);
+    }
+    rebuild();
+  }
+
+  @Override
+  protected void insertNodes(List<FileStatus> fileToBeUpdated) {
+    getFilesStatuses().addAll(fileToBeUpdated);
+    rebuild();
+  }
+
+  @Override
+  protected void deleteNodes(List<FileStatus> fileToBeUpdated) {
+    getFilesStatuses().removeAll(new HashSet<>(fileToBeUpdated));
+    rebuild();
+  }
+
+  @Override
+  protected void replaceNodes(List<FileStatus> removedFiles, List<FileStatus> addedFiles) {
+    // One rebuild for both.
+    getFilesStatuses().removeAll(new HashSet<>(removedFiles));
+    getFilesStatuses().addAll(addedFiles);
+    rebuild();
+  }
+
+  @Override
+  protected void clearModel() {
+    getFilesStatuses().clear();
+    rebuild();
+  }
+
+  /**
+   * Recreates the sorted paths and replaces the root with a folder node covering all of them.
+   * No other node is created.
+   */
+  private void rebuild() {
+    List<FileStatus> filesStatuses = getFilesStatuses();
+    Map<String, FileStatus> newStatusByPath = new HashMap<>(filesStatuses.size() * 2);
+    synchronized (filesStatuses) {
+      for (FileStatus fileStatus : filesStatuses) {
+        newStatusByPath.put(fileStatus.getFileLocation(), fileStatus);
+      }
+    }
+    String[] newPaths = newStatusByPath.keySet().toArray(new String[0]);
+    Arrays.sort(newPaths);
+
+    statusByPath = newStatusByPath;
+    sortedPaths = newPaths;
+
+    Object rootName = ((GitTreeNode) getRoot()).getUserObject();
+    setRoot(new DirectoryNode((String) rootName, sortedPaths, 0, sortedPaths.length, 0));
+  }
+
+  @Override
+  protected void statesChanged(List<FileStatus> changedFiles) {
+    for (FileStatus fileStatus : changedFiles) {
+      statusByPath.put(fileStatus.getFileLocation(), fileStatus);
+      GitTreeNode node = findLoadedNode(fileStatus.getFileLocation());
+      if (node != null) {
+        nodeChanged(node);
+      }
+    }
+  }
+
+  /**
+   * Searches for the node of a path, without creating the children of folders that were not expanded.
+   *
+   * @param path The path of the resource.
+   *
+   * @return The node or <code>null</code> if it was not created yet.
+   */
+  private GitTreeNode findLoadedNode(String path) {
+    GitTreeNode node = (GitTreeNode) getRoot();
+    for (String segment : path.split("/")) {
+      if (node instanceof DirectoryNode && !((DirectoryNode) node).childrenLoaded) {
+        return null;
+      }
+      GitTreeNode child = null;
+      for (int i = 0; i < node.getChildCount(); i++) {
+        GitTreeNode candidate = (GitTreeNode) node.getChildAt(i);
+        if (segment.equals(candidate.getUserObject())) {
+          child = candidate;
+          break;
+        }
+      }
+      if (child == null) {
+        return null;
+      }
+      node = child;
+    }
+    return node;
+  }
+
+  @Override
+  public FileStatus getFileByPath(String path) {
+    return statusByPath.get(path);
+  }
+
+  @Override
+  public List<FileStatus> getFilesByPaths(List<String> selectedPaths) {
+    List<FileStatus> containingPaths = new ArrayList<>();
+    String[] paths = sortedPaths;
+    Map<String, FileStatus> statuses = statusByPath;
+    for (String path : selectedPaths) {
+      int start = rangeStart(paths, path);
+      int end = rangeEnd(paths, path, start, paths.length);
+      for (int i = start; i < end; i++) {
+        containingPaths.add(new FileStatus(statuses.get(paths[i])));
+      }
+    }
+    return containingPaths;
+  }
+
+  @Override
+  public List<FileStatus> getFileLeavesByPaths(List<String> selectedPaths) {
+    List<FileStatus> containingPaths = new ArrayList<>();
+    for (String path : selectedPaths) {
+      FileStatus fileStatus = statusByPath.get(path);
+      if (fileStatus != null) {
+        containingPaths.add(new FileStatus(fileStatus));
+      }
+    }
+    return containingPaths;
+  }
+
+  /**
+   * Finds the first path that starts with the given prefix.
+   *
+   * @param paths   Sorted paths.
+   * @param prefix  The prefix.
+   *
+   * @return The index of the first path that starts with the prefix.
+   */
+  private static int rangeStart(String[] paths, String prefix) {
+    int index = Arrays.binarySearch(paths, prefix);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  /**
+   * Finds the end of the contiguous range of paths that start with the given prefix.
+   *
+   * @param paths   Sorted paths.
+   * @param prefix  The prefix.
+   * @param from    An index inside the range, or its start.
+   * @param to      The upper limit for the search.
+   *
+   * @return The index after the last path that starts with the prefix.
+   */
+  private static int rangeEnd(String[] paths, String prefix, int from, int to) {
+    int low = from;
+    int high = to;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (paths[middle].startsWith(prefix) || paths[middle].compareTo(prefix) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+}
@@ -14,6 +14,7 @@ import com.google.common.io.Files;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitControllerBase;
 import com.oxygenxml.git.service.GitEventAdapter;
+import com.oxygenxml.git.service.GitEventDelivery;
 import com.oxygenxml.git.service.NoRepositorySelected;
 import com.oxygenxml.git.view.event.GitEventInfo;
 import com.oxygenxml.git.view.event.GitOperation;
@@ -80,7 +81,7 @@ public class BlameManager {
    */
   public void install(GitControllerBase ctrl) {
     ctrl.removeGitListener(listener);
-    ctrl.addGitListener(listener);
+    ctrl.addGitListener(listener, GitEventDelivery.EDT);
   }
   
   /**
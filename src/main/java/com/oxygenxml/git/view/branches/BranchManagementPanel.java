@@ -39,6 +39,8 @@ import com.oxygenxml.git.constants.UIConstants;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitControllerBase;
 import com.oxygenxml.git.service.GitEventAdapter;
+import com.oxygenxml.git.service.GitEventDelivery;
+import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.service.NoRepositorySelected;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
@@ -126,7 +128,7 @@ public class BranchManagementPanel extends JPanel {
           BranchManagementPanel.this.refreshBranches();
         }
       }
-    });
+    }, GitEventDelivery.EDT);
     addTreeListeners();
     
     branchesTreeActionProvider = new BranchTreeMenuActionsProvider(ctrl);
@@ -405,12 +407,18 @@ public class BranchManagementPanel extends JPanel {
   }
 
   /**
-   * Refresh branches.
+   * Refresh branches. The branches are read on the Git operations thread and presented on the AWT thread.
    */
   public void refreshBranches() {
-    currentBranchName = GitAccess.getInstance().getBranchInfo().getBranchName();
-    allBranches = getAllBranches();
-    filterTree(searchField.getText());
+    GitOperationScheduler.getInstance().schedule(() -> {
+      String branchName = GitAccess.getInstance().getBranchInfo().getBranchName();
+      List<String> branches = getAllBranches();
+      SwingUtilities.invokeLater(() -> {
+        currentBranchName = branchName;
+        allBranches = branches;
+        filterTree(searchField.getText());
+      });
+    });
   }
   
   /**
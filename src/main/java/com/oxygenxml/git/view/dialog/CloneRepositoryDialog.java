@@ -26,6 +26,7 @@ import javax.swing.AbstractAction;
 import javax.swing.Action;
 import javax.swing.DefaultListCellRenderer;
 import javax.swing.Icon;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -112,6 +113,14 @@ public class CloneRepositoryDialog extends OKCancelDialog { // NOSONAR squid:Max
 		 * The branch to checkout.
 		 */
     private Ref branch;
+    /**
+     * <code>true</code> to download only the history of the checked out branch.
+     */
+    private final boolean singleBranch;
+    /**
+     * <code>true</code> to also clone the submodules.
+     */
+    private final boolean cloneSubmodules;
 
 		/**
 		 * Constructor.
@@ -120,12 +129,22 @@ public class CloneRepositoryDialog extends OKCancelDialog { // NOSONAR squid:Max
 		 * @param sourceUrl      Repository (source) URL.
 		 * @param destFile       Destination file.
 		 * @param branch         The branch to checkout.
+		 * @param singleBranch   <code>true</code> to download only the history of the checked out branch.
+		 * @param cloneSubmodules <code>true</code> to also clone the submodules.
 		 */
-		private CloneWorker(ProgressDialog progressDialog, URIish sourceUrl, File destFile, Ref branch) {
+		private CloneWorker(
+		    ProgressDialog progressDialog,
+		    URIish sourceUrl,
+		    File destFile,
+		    Ref branch,
+		    boolean singleBranch,
+		    boolean cloneSubmodules) {
 			this.progressDialog = progressDialog;
 			this.sourceUrl = sourceUrl;
 			this.destFile = destFile;
       this.branch = branch;
+      this.singleBranch = singleBranch;
+      this.cloneSubmodules = cloneSubmodules;
 		}
 
 		@Override
@@ -135,7 +154,9 @@ public class CloneRepositoryDialog extends OKCancelDialog { // NOSONAR squid:Max
 			    sourceUrl,
 			    destFile,
 			    progressDialog,
-			    branch != null && branch != DEFAULT_BRANCH_MARKER ? branch.getName() : null);
+			    branch != null && branch != DEFAULT_BRANCH_MARKER ? branch.getName() : null,
+			    singleBranch,
+			    cloneSubmodules);
 			progressDialog.dispose();
 			return null;
 		}
@@ -393,6 +414,16 @@ public class CloneRepositoryDialog extends OKCancelDialog { // NOSONAR squid:Max
 	 */
   private JComboBox<Ref> branchesComboBox;
   
+  /**
+   * Check box for downloading only the history of the checked out branch.
+   */
+  private JCheckBox singleBranchCheckBox;
+  
+  /**
+   * Check box for cloning the submodules.
+   */
+  private JCheckBox cloneSubmodulesCheckBox;
+  
   /**
    * Plugin workspace access.
    */
@@ -503,6 +534,25 @@ public class CloneRepositoryDialog extends OKCancelDialog { // NOSONAR squid:Max
       }
     });
     
+    // "Clone only the selected branch" check box
+    singleBranchCheckBox = new JCheckBox(translator.getTranslation(Tags.CLONE_ONLY_SELECTED_BRANCH));
+    singleBranchCheckBox.setToolTipText(translator.getTranslation(Tags.CLONE_ONLY_SELECTED_BRANCH_TOOLTIP));
+    gbc.insets = new Insets(UIConstants.COMPONENT_TOP_PADDING, UIConstants.COMPONENT_LEFT_PADDING,
+        UIConstants.COMPONENT_BOTTOM_PADDING, UIConstants.COMPONENT_RIGHT_PADDING);
+    gbc.anchor = GridBagConstraints.WEST;
+    gbc.fill = GridBagConstraints.NONE;
+    gbc.weightx = 1;
+    gbc.weighty = 0;
+    gbc.gridx = 1;
+    gbc.gridy ++;
+    gbc.gridwidth = 2;
+    panel.add(singleBranchCheckBox, gbc);
+    
+    // "Clone submodules" check box
+    cloneSubmodulesCheckBox = new JCheckBox(translator.getTranslation(Tags.CLONE_SUBMODULES), true);
+    gbc.gridy ++;
+    panel.add(cloneSubmodulesCheckBox, gbc);
+    
     // Loading icon
     loadIcon = Icons.getIcon(Icons.LOADING_ICON);
     
@@ -644,7 +694,9 @@ public class CloneRepositoryDialog extends OKCancelDialog { // NOSONAR squid:Max
 	            progressDialog,
 	            sourceURL,
 	            destFile,
-	            (Ref) branchesComboBox.getSelectedItem());
+	            (Ref) branchesComboBox.getSelectedItem(),
+	            singleBranchCheckBox.isSelected(),
+	            cloneSubmodulesCheckBox.isSelected());
           cloneWorker.execute();
 	        // Make sure we present the dialog after this one is closed.
 	        // TODO There is a progress dialog support in Java. Maybe is better to use that.
@@ -0,0 +1,197 @@
+package com.oxygenxml.git.view.dialog;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.MessageFormat;
+import java.util.Date;
+import java.util.function.Function;
+
+import javax.swing.BorderFactory;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+import org.eclipse.jgit.internal.storage.file.GC.RepoStatistics;
+import org.eclipse.jgit.lib.Repository;
+
+import com.oxygenxml.git.constants.UIConstants;
+import com.oxygenxml.git.service.GitAccess;
+import com.oxygenxml.git.service.GitOperationScheduler;
+import com.oxygenxml.git.service.NoRepositorySelected;
+import com.oxygenxml.git.service.PooledHttpConnectionFactory;
+import com.oxygenxml.git.service.PooledHttpConnectionFactory.Statistics;
+import com.oxygenxml.git.service.RepositoryMaintenance;
+import com.oxygenxml.git.service.RepositoryMaintenance.Report;
+import com.oxygenxml.git.translator.Tags;
+import com.oxygenxml.git.translator.Translator;
+
+import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
+import ro.sync.exml.workspace.api.standalone.ui.OKCancelDialog;
+
+/**
+ * Presents the statistics of the object database of the current repository and the outcome
+ * of the last optimization. The repository can also be optimized on request.
+ */
+@SuppressWarnings("java:S110")
+public class RepositoryMaintenanceDialog extends OKCancelDialog {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger logger = Logger.getLogger(RepositoryMaintenanceDialog.class);
+  /**
+   * i18n.
+   */
+  private static final Translator translator = Translator.getInstance();
+
+  /**
+   * Presents the statistics.
+   */
+  private final JLabel statisticsLabel = new JLabel();
+
+  /**
+   * Constructor.
+   */
+  public RepositoryMaintenanceDialog() {
+    super((JFrame) PluginWorkspaceProvider.getPluginWorkspace().getParentFrame(),
+        translator.getTranslation(Tags.REPOSITORY_MAINTENANCE), true);
+
+    statisticsLabel.setBorder(BorderFactory.createEmptyBorder(
+        UIConstants.COMPONENT_TOP_PADDING,
+        UIConstants.COMPONENT_LEFT_PADDING,
+        UIConstants.COMPONENT_BOTTOM_PADDING,
+        UIConstants.COMPONENT_RIGHT_PADDING));
+    setLayout(new BorderLayout());
+    getContentPane().add(statisticsLabel, BorderLayout.CENTER);
+    setOkButtonText(translator.getTranslation(Tags.OPTIMIZE_REPOSITORY));
+    getCancelButton().setText(translator.getTranslation(Tags.CLOSE));
+
+    statisticsLabel.setText(translator.getTranslation(Tags.COMPUTING_REPOSITORY_STATISTICS));
+    updateStatistics();
+
+    setMinimumSize(new Dimension(500, 250));
+    setResizable(true);
+    pack();
+    setLocationRelativeTo((JFrame) PluginWorkspaceProvider.getPluginWorkspace().getParentFrame());
+  }
+
+  /**
+   * Optimizes the repository in the background. The dialog stays open and presents the outcome.
+   * The optimization runs on the Git thread, so the other Git actions wait for it.
+   */
+  @Override
+  protected void doOK() {
+    getOkButton().setEnabled(false);
+    statisticsLabel.setText(translator.getTranslation(Tags.OPTIMIZING_REPOSITORY));
+    GitOperationScheduler.getInstance().schedule(() -> {
+      try {
+        RepositoryMaintenance.getInstance().optimize(GitAccess.getInstance().getRepository());
+      } catch (IOException e) {
+        logger.error(e, e);
+        SwingUtilities.invokeLater(() -> PluginWorkspaceProvider.getPluginWorkspace().showErrorMessage(e.getMessage()));
+      } catch (NoRepositorySelected e) {
+        logger.debug(e, e);
+      }
+      String statistics = getStatisticsText();
+      SwingUtilities.invokeLater(() -> {
+        statisticsLabel.setText(statistics);
+        getOkButton().setEnabled(true);
+        pack();
+      });
+    });
+  }
+
+  /**
+   * Presents the current statistics and the outcome of the last optimization.
+   * They are computed on the Git thread.
+   */
+  private void updateStatistics() {
+    GitOperationScheduler.getInstance().schedule(() -> {
+      String statistics = getStatisticsText();
+      SwingUtilities.invokeLater(() -> {
+        statisticsLabel.setText(statistics);
+        pack();
+      });
+    });
+  }
+
+  /**
+   * Computes the current statistics. Reads the object database, so it should not be called on AWT.
+   *
+   * @return The current statistics, the outcome of the last optimization and the statistics
+   * of the HTTP connections, as HTML.
+   */
+  private static String getStatisticsText() {
+    RepoStatistics current = null;
+    try {
+      Repository repository = GitAccess.getInstance().getRepository();
+      current = RepositoryMaintenance.getInstance().getStatistics(repository);
+    } catch (NoRepositorySelected | IOException e) {
+      logger.debug(e, e);
+    }
+
+    Report report = RepositoryMaintenance.getInstance().getLastReport();
+    StringBuilder text = new StringBuilder("<html><table>");
+    text.append("<tr><td></td><th>").append(translator.getTranslation(Tags.MAINTENANCE_CURRENT)).append("</th>");
+    if (report != null) {
+      text.append("<th>").append(translator.getTranslation(Tags.MAINTENANCE_BEFORE)).append("</th>");
+      text.append("<th>").append(translator.getTranslation(Tags.MAINTENANCE_AFTER)).append("</th>");
+    }
+    text.append("</tr>");
+    appendRow(text, Tags.LOOSE_OBJECTS, current, report, s -> String.valueOf(s.numberOfLooseObjects));
+    appendRow(text, Tags.LOOSE_OBJECTS_SIZE, current, report, s -> FileUtils.byteCountToDisplaySize(s.sizeOfLooseObjects));
+    appendRow(text, Tags.PACKED_OBJECTS, current, report, s -> String.valueOf(s.numberOfPackedObjects));
+    appendRow(text, Tags.PACKED_OBJECTS_SIZE, current, report, s -> FileUtils.byteCountToDisplaySize(s.sizeOfPackedObjects));
+    appendRow(text, Tags.PACK_FILES, current, report, s -> String.valueOf(s.numberOfPackFiles));
+    appendRow(text, Tags.LOOSE_REFS, current, report, s -> String.valueOf(s.numberOfLooseRefs));
+    appendRow(text, Tags.PACKED_REFS, current, report, s -> String.valueOf(s.numberOfPackedRefs));
+    appendRow(text, Tags.REACHABILITY_BITMAPS, current, report, s -> String.valueOf(s.numberOfBitmaps));
+    text.append("</table><br>");
+
+    if (report != null) {
+      text.append(MessageFormat.format(
+          translator.getTranslation(Tags.LAST_OPTIMIZATION_DETAILS),
+          DateFormat.getDateTimeInstance().format(new Date(report.getStartTime())),
+          report.getPackRefsDuration(),
+          report.getRepackDuration(),
+          report.getPruneDuration()));
+    } else {
+      text.append(translator.getTranslation(Tags.REPOSITORY_NOT_OPTIMIZED_YET));
+    }
+
+    Statistics connections = PooledHttpConnectionFactory.getInstance().getStatistics();
+    text.append("<br><br>").append(MessageFormat.format(
+        translator.getTranslation(Tags.HTTP_CONNECTION_STATISTICS),
+        Math.round(connections.getConnectionReuseRate() * 100),
+        connections));
+    text.append("</html>");
+    return text.toString();
+  }
+
+  /**
+   * Adds a row of statistics.
+   *
+   * @param text      Receives the row.
+   * @param labelTag  The translation tag of the row label.
+   * @param current   The current statistics. May be <code>null</code>.
+   * @param report    The outcome of the last optimization. May be <code>null</code>.
+   * @param value     Extracts the presented value from the statistics.
+   */
+  private static void appendRow(
+      StringBuilder text,
+      String labelTag,
+      RepoStatistics current,
+      Report report,
+      Function<RepoStatistics, String> value) {
+    text.append("<tr><td>").append(translator.getTranslation(labelTag)).append("</td>");
+    text.append("<td>").append(current != null ? value.apply(current) : "-").append("</td>");
+    if (report != null) {
+      text.append("<td>").append(value.apply(report.getBefore())).append("</td>");
+      text.append("<td>").append(value.apply(report.getAfter())).append("</td>");
+    }
+    text.append("</tr>");
+  }
+}
@@ -1,5 +1,7 @@
 package com.oxygenxml.git.view.event;
 
+import java.util.Objects;
+
 /**
  * Information about an event that is related to a branch.
  */
@@ -33,4 +35,14 @@ public class BranchGitEventInfo extends GitEventInfo {
     return "BranchGitEventInfo [Operation: " + gitOp + ", branch: " + branch + "].";
   }
 
+  @Override
+  public int hashCode() {
+    return 31 * super.hashCode() + Objects.hashCode(branch);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return super.equals(obj) && Objects.equals(branch, ((BranchGitEventInfo) obj).branch);
+  }
+
 }
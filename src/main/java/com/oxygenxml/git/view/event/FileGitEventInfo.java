@@ -54,4 +54,14 @@ public class FileGitEventInfo extends GitEventInfo {
   public String toString() {
     return "FileGitEventInfo [Operation: " + gitOp + ", affected files: " + affectedFiles + "].";
   }
+
+  @Override
+  public int hashCode() {
+    return 31 * super.hashCode() + affectedFiles.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return super.equals(obj) && affectedFiles.equals(((FileGitEventInfo) obj).affectedFiles);
+  }
 }
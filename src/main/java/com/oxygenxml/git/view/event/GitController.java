@@ -285,12 +285,14 @@ public class GitController extends GitControllerBase {
       PushResponse response = gitAccess.push(credentialsProvider);
       PushPullEvent event = null;
       if (Status.OK == response.getStatus()) {
-        event = new PushPullEvent(GitOperation.PUSH, translator.getTranslation(Tags.PUSH_SUCCESSFUL));
+        event = new PushPullEvent(
+            GitOperation.PUSH, translator.getTranslation(Tags.PUSH_SUCCESSFUL), response.getBranchStatus());
       } else if (Status.REJECTED_NONFASTFORWARD == response.getStatus()) {
         ((StandalonePluginWorkspace) PluginWorkspaceProvider.getPluginWorkspace())
         .showErrorMessage(translator.getTranslation(Tags.BRANCH_BEHIND));
       } else if (Status.UP_TO_DATE == response.getStatus()) {
-        event = new PushPullEvent(GitOperation.PUSH, translator.getTranslation(Tags.PUSH_UP_TO_DATE));
+        event = new PushPullEvent(
+            GitOperation.PUSH, translator.getTranslation(Tags.PUSH_UP_TO_DATE), response.getBranchStatus());
       } else if (Status.REJECTED_OTHER_REASON == response.getStatus()) {
         String errMess = translator.getTranslation(Tags.PUSH_FAILED_UNKNOWN);
         if (response.getMessage() != null) {
@@ -1,5 +1,7 @@
 package com.oxygenxml.git.view.event;
 
+import java.util.Objects;
+
 /**
  * Git event information.
  */
@@ -30,5 +32,15 @@ public class GitEventInfo {
 	public String toString() {
 	  return "GitEventInfo [Operation: " + gitOp + "].";
 	}
+
+	@Override
+	public int hashCode() {
+	  return Objects.hash(getClass(), gitOp);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+	  return obj != null && obj.getClass() == getClass() && gitOp == ((GitEventInfo) obj).gitOp;
+	}
 	
 }
\ No newline at end of file
@@ -1,5 +1,9 @@
 package com.oxygenxml.git.view.event;
 
+import java.util.Objects;
+
+import com.oxygenxml.git.service.BranchStatus;
+
 /**
  * Event created when an the push or the pull action is initiated
  * 
@@ -21,6 +25,10 @@ public class PushPullEvent extends GitEventInfo {
    * An exception if the operation failed.
    */
   private Exception cause;
+  /**
+   * The state of the current branch after the operation. <code>null</code> if not known.
+   */
+  private BranchStatus branchStatus;
 
   /**
    * Constructor.
@@ -44,6 +52,19 @@ public class PushPullEvent extends GitEventInfo {
     this.message = message;
   }
 
+  /**
+   * Constructor.
+   * 
+   * @param op The executed operation.
+   * @param message An optional message about the operation.
+   * @param branchStatus The state of the current branch after the operation.
+   */
+  public PushPullEvent(GitOperation op, String message, BranchStatus branchStatus) {
+    super(op);
+    this.message = message;
+    this.branchStatus = branchStatus;
+  }
+
   /**
    * Constructor.
    * 
@@ -64,6 +85,13 @@ public class PushPullEvent extends GitEventInfo {
     return cause;
   }
 
+  /**
+   * @return The state of the current branch after the operation. <code>null</code> if not known.
+   */
+  public BranchStatus getBranchStatus() {
+    return branchStatus;
+  }
+
   /**
    * @return Extra details about the result.
    */
@@ -83,6 +111,24 @@ public class PushPullEvent extends GitEventInfo {
     return "Status: " + actionStatus + ", message: " + message + " " + super.toString();
   }
 
+  @Override
+  public int hashCode() {
+    return 31 * super.hashCode() + Objects.hash(actionStatus, message, cause, branchStatus);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    boolean equal = false;
+    if (super.equals(obj)) {
+      PushPullEvent other = (PushPullEvent) obj;
+      equal = actionStatus == other.actionStatus
+          && Objects.equals(message, other.message)
+          && Objects.equals(cause, other.cause)
+          && Objects.equals(branchStatus, other.branchStatus);
+    }
+    return equal;
+  }
+
   /**
    * @return <code>true</code> if the operation finished and generated conflicts.
    */
@@ -1,6 +1,7 @@
 package com.oxygenxml.git.view.event;
 
 import java.io.File;
+import java.util.Objects;
 
 /**
  * Information about a Git event that affected a working copy.
@@ -59,4 +60,19 @@ public class WorkingCopyGitEventInfo extends GitEventInfo {
     return "WorkinCopyGitEventInfo [Operation: " + gitOp + ", working-copy: " + workingCopy + "].";
   }
 
+  @Override
+  public int hashCode() {
+    return 31 * super.hashCode() + Objects.hash(workingCopy, isWcSubmodule);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    boolean equal = false;
+    if (super.equals(obj)) {
+      WorkingCopyGitEventInfo other = (WorkingCopyGitEventInfo) obj;
+      equal = Objects.equals(workingCopy, other.workingCopy) && isWcSubmodule == other.isWcSubmodule;
+    }
+    return equal;
+  }
+
 }
@@ -54,8 +54,10 @@ import org.eclipse.jgit.util.StringUtils;
 
 import com.jidesoft.swing.JideSplitPane;
 import com.oxygenxml.git.constants.Icons;
+import com.oxygenxml.git.service.FetchScheduler;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitEventAdapter;
+import com.oxygenxml.git.service.GitEventDelivery;
 import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.service.NoRepositorySelected;
 import com.oxygenxml.git.service.PrivateRepositoryException;
@@ -276,7 +278,7 @@ public class HistoryPanel extends JPanel {
           }
         }
       }
-    });
+    }, GitEventDelivery.EDT);
 
     // Listens on the save event in the Oxygen editor and updates the history table
     pluginWS.addEditorChangeListener(new WSEditorChangeListener() {
@@ -804,7 +806,7 @@ public class HistoryPanel extends JPanel {
    */
   private void tryFetch() {
     try {
-      gitAccess.fetch();
+      FetchScheduler.getInstance().fetch();
     } catch (SSHPassphraseRequiredException | PrivateRepositoryException | RepositoryUnavailableException e) {
       if (LOGGER.isDebugEnabled()) {
         LOGGER.debug(e, e);
@@ -17,6 +17,7 @@ import org.eclipse.jgit.errors.RevisionSyntaxException;
 
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.RevCommitUtil;
+import com.oxygenxml.git.service.StatusService;
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
@@ -98,7 +99,9 @@ public class RowHistoryTableSelectionListener implements ListSelectionListener {
           logger.error(e, e);
         }
       } else {
-        dataModel.setFilesStatus(GitAccess.getInstance().getUnstagedFiles());
+        // The user asked for the current changes.
+        StatusService.getInstance().invalidate();
+        dataModel.setFilesStatus(StatusService.getInstance().getStatus().getUnstagedFiles());
       }
     }
   }
@@ -15,6 +15,7 @@ import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.GitChangeType;
 import com.oxygenxml.git.utils.TreeUtil;
 import com.oxygenxml.git.view.StagingResourcesTreeModel;
+import com.oxygenxml.git.view.VirtualStagingResourcesTreeModel;
 
 /**
  * Renderer for the leafs icon in the tree, based on the git change type file
@@ -59,7 +60,8 @@ public class ChangesTreeCellRenderer extends DefaultTreeCellRenderer {
 		TreePath treePath = tree.getPathForRow(row);
 		if (treePath != null) {
 			String path = TreeUtil.getStringPath(treePath);
-			if (!"".equals(path) && model.isLeaf(TreeUtil.getTreeNodeFromString(model, path))) {
+			// The rendered value is the node itself. No need to search for it by path.
+			if (!"".equals(path) && model.isLeaf(value)) {
 				FileStatus file = model.getFileByPath(path);
 				if (file != null) {
 				  GitChangeType changeType = file.getChangeType();
@@ -75,6 +77,10 @@ public class ChangesTreeCellRenderer extends DefaultTreeCellRenderer {
 				} else {
 				  label = null;
 				}
+			} else if (value instanceof VirtualStagingResourcesTreeModel.DirectoryNode) {
+			  // Large change sets. Show how many files are inside, it is known without expanding.
+			  int leafCount = ((VirtualStagingResourcesTreeModel.DirectoryNode) value).getLeafCount();
+			  label.setText(label.getText() + " (" + leafCount + ")");
 			}
 		}
 		
@@ -13,6 +13,7 @@ import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 
 import com.oxygenxml.git.options.OptionsManager;
+import com.oxygenxml.git.service.FetchScheduler;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.service.NoRepositorySelected;
@@ -240,7 +241,8 @@ public class RepositoryChangeWatcher {
     try {
       GitAccess gitAccess = GitAccess.getInstance();
       if (fetch) {
-        gitAccess.fetch();
+        // Asks the remote about the tracked branch first. Fetches only if it moved.
+        FetchScheduler.getInstance().fetchIfUpstreamChanged();
       }
       Repository repository = gitAccess.getRepository();
       CommitsAheadAndBehind commitsAheadAndBehind = RevCommitUtil.getCommitsAheadAndBehind(repository, repository.getFullBranch());
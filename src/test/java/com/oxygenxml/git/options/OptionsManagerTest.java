@@ -0,0 +1,68 @@
+package com.oxygenxml.git.options;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Writing the options.
+ */
+public class OptionsManagerTest {
+
+  /**
+   * The file where the options are written when running outside Oxygen.
+   */
+  private static final File OPTIONS_FILE = new File("src/test/resources/Options.xml");
+
+  /**
+   * The selected repository before the test.
+   */
+  private String initialSelectedRepository;
+
+  @Before
+  public void init() {
+    initialSelectedRepository = OptionsManager.getInstance().getSelectedRepository();
+  }
+
+  /**
+   * <p><b>Description:</b> saveOptions() writes the pending changes right away, with the latest values,
+   * even while another thread keeps changing the options, and cancels the delayed write.</p>
+   */
+  @Test
+  public void testSaveOptionsFlushesPendingChanges() throws Exception {
+    OptionsManager optionsManager = OptionsManager.getInstance();
+    Thread writer = new Thread(() -> {
+      for (int i = 0; i < 200; i++) {
+        optionsManager.saveSelectedRepository("target/test-resources/OptionsManagerTest/repo" + i);
+      }
+    });
+    writer.start();
+    while (writer.isAlive()) {
+      optionsManager.saveOptions();
+    }
+    writer.join();
+
+    optionsManager.saveSelectedRepository("target/test-resources/OptionsManagerTest/latest");
+    assertTrue(optionsManager.isWritePending());
+    optionsManager.saveOptions();
+
+    assertFalse(optionsManager.isWritePending());
+    String content = FileUtils.readFileToString(OPTIONS_FILE, StandardCharsets.UTF_8);
+    assertTrue(content, content.contains("target/test-resources/OptionsManagerTest/latest"));
+  }
+
+  @After
+  public void freeResources() {
+    OptionsManager optionsManager = OptionsManager.getInstance();
+    optionsManager.saveSelectedRepository(initialSelectedRepository);
+    optionsManager.saveOptions();
+    OPTIONS_FILE.delete();
+  }
+}
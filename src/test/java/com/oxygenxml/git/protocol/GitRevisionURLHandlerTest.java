@@ -127,6 +127,47 @@ public class GitRevisionURLHandlerTest extends GitTestBase {
     }
   }
   
+  /**
+   * The versions read through the protocol are cached, but they follow the changes in the index
+   * and in HEAD.
+   * 
+   * @throws Exception Problems.
+   */
+  @Test
+  public void testCachedVersionContent() throws Exception {
+    String localTestRepository = "target/test-resources/GitRevisionURLHandlerTest_testCachedVersionContent/local";
+    
+    GitAccess gitAccess = GitAccess.getInstance();
+    createRepository(localTestRepository);
+    
+    File file = new File(localTestRepository + "/test.txt");
+    setFileContent(file, "initial content");
+    gitAccess.add(new FileStatus(GitChangeType.ADD, "test.txt"));
+    gitAccess.commit("First version.");
+    
+    URL indexVersionURL = new URL("git://" + VersionIdentifier.INDEX_OR_LAST_COMMIT  + "/test.txt");
+    URL headVersionURL = new URL("git://" + VersionIdentifier.LAST_COMMIT  + "/test.txt");
+    assertEquals("initial content", read(indexVersionURL));
+    // Served from the cache.
+    assertEquals("initial content", read(indexVersionURL));
+    assertEquals("initial content", read(headVersionURL));
+    
+    // The index changes.
+    setFileContent(file, "index content");
+    gitAccess.add(new FileStatus(GitChangeType.MODIFIED, "test.txt"));
+    assertEquals("index content", read(indexVersionURL));
+    assertEquals("initial content", read(headVersionURL));
+    
+    // HEAD changes.
+    gitAccess.commit("Second version.");
+    assertEquals("index content", read(headVersionURL));
+    
+    String commitId = gitAccess.getRepository().resolve("HEAD").getName();
+    URL commitVersionURL = new URL("git://" + commitId + "/test.txt");
+    assertEquals("index content", read(commitVersionURL));
+    assertEquals("index content", read(commitVersionURL));
+  }
+
   /**
    * EXM-44977 Tests the commit revisions retrieval.
    * 
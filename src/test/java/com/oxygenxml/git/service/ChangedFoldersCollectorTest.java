@@ -0,0 +1,104 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+
+/**
+ * Finding the folders to refresh in the Project view after a pull.
+ */
+public class ChangedFoldersCollectorTest {
+
+  private static final String LOCAL_TEST_REPOSITORY = "target/test-resources/ChangedFoldersCollectorTest";
+  private GitAccess gitAccess;
+
+  @Before
+  public void init() throws GitAPIException, IOException {
+    gitAccess = GitAccess.getInstance();
+    gitAccess.createNewRepository(LOCAL_TEST_REPOSITORY);
+    for (String name : new String[] {"a.txt", "x/b.txt", "x/y/c.txt", "x-y/d.txt", "m.txt"}) {
+      FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, name), name, "UTF-8");
+      gitAccess.add(new FileStatus(GitChangeType.ADD, name));
+    }
+    gitAccess.commit("files added");
+  }
+
+  /**
+   * <p><b>Description:</b> only the folders in which files were added or removed are reported.
+   * New folders are covered by their closest existing parent. Folders inside other reported folders
+   * and modified files are ignored.</p>
+   */
+  @Test
+  public void testChangedFolders() throws Exception {
+    Repository repository = gitAccess.getRepository();
+    ObjectId oldTree = repository.resolve("HEAD^{tree}");
+
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "m.txt"), "changed", "UTF-8");
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "x/y/new.txt"), "new", "UTF-8");
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "x/y/z/new.txt"), "new", "UTF-8");
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "n/new.txt"), "new", "UTF-8");
+    FileUtils.forceDelete(new File(LOCAL_TEST_REPOSITORY, "x/b.txt"));
+    gitAccess.addAll(Arrays.asList(
+        new FileStatus(GitChangeType.MODIFIED, "m.txt"),
+        new FileStatus(GitChangeType.UNTRACKED, "x/y/new.txt"),
+        new FileStatus(GitChangeType.UNTRACKED, "x/y/z/new.txt"),
+        new FileStatus(GitChangeType.UNTRACKED, "n/new.txt"),
+        new FileStatus(GitChangeType.MISSING, "x/b.txt")));
+    gitAccess.commit("changes");
+    ObjectId newTree = repository.resolve("HEAD^{tree}");
+
+    // "n" is new, so the root changed too.
+    assertEquals(
+        Arrays.asList(repository.getWorkTree()),
+        new ChangedFoldersCollector(repository, oldTree, newTree).collect());
+
+    // Without "n".
+    FileUtils.forceDelete(new File(LOCAL_TEST_REPOSITORY, "n/new.txt"));
+    gitAccess.addAll(Arrays.asList(new FileStatus(GitChangeType.MISSING, "n/new.txt")));
+    gitAccess.commit("n removed");
+    ObjectId lastTree = repository.resolve("HEAD^{tree}");
+    assertEquals(
+        Arrays.asList(new File(repository.getWorkTree(), "x")),
+        new ChangedFoldersCollector(repository, oldTree, lastTree).collect());
+  }
+
+  /**
+   * <p><b>Description:</b> a folder inside a reported folder is ignored even if other folders
+   * sort between them, like "x-y" between "x" and "x/y".</p>
+   */
+  @Test
+  public void testChangedFoldersWithSimilarNames() throws Exception {
+    Repository repository = gitAccess.getRepository();
+    ObjectId oldTree = repository.resolve("HEAD^{tree}");
+
+    for (String name : new String[] {"x/new.txt", "x-y/new.txt", "x/y/new.txt"}) {
+      FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, name), "new", "UTF-8");
+      gitAccess.add(new FileStatus(GitChangeType.UNTRACKED, name));
+    }
+    gitAccess.commit("changes");
+    ObjectId newTree = repository.resolve("HEAD^{tree}");
+
+    assertEquals(
+        Arrays.asList(new File(repository.getWorkTree(), "x"), new File(repository.getWorkTree(), "x-y")),
+        new ChangedFoldersCollector(repository, oldTree, newTree).collect());
+  }
+
+  @After
+  public void freeResources() throws IOException {
+    gitAccess.closeRepo();
+    FileUtils.deleteDirectory(new File(LOCAL_TEST_REPOSITORY));
+  }
+}
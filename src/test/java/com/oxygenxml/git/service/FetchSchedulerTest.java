@@ -0,0 +1,420 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.transport.FetchResult;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+
+/**
+ * Tests for the fetch scheduler.
+ */
+public class FetchSchedulerTest extends GitTestBase {
+
+  /**
+   * The outcome of a fetch, given by the test.
+   */
+  private static class Outcome {
+    /**
+     * The result. <code>null</code> for a failure.
+     */
+    private final FetchResult result;
+    /**
+     * The failure. <code>null</code> for a success.
+     */
+    private final RepositoryUnavailableException failure;
+    /**
+     * Counted down when the fetch contacts the remote.
+     */
+    private final CountDownLatch started = new CountDownLatch(1);
+    /**
+     * The fetch ends after this is counted down.
+     */
+    private final CountDownLatch gate;
+
+    /**
+     * Constructor.
+     *
+     * @param result  The result. <code>null</code> for a failure.
+     * @param failure The failure. <code>null</code> for a success.
+     * @param blocked <code>true</code> to wait for {@link #gate} before ending the fetch.
+     */
+    Outcome(FetchResult result, RepositoryUnavailableException failure, boolean blocked) {
+      this.result = result;
+      this.failure = failure;
+      this.gate = new CountDownLatch(blocked ? 1 : 0);
+    }
+  }
+
+  /**
+   * A scheduler that doesn't contact the remote. The fetches end with the outcomes given by the test.
+   */
+  private static class ControlledFetchScheduler extends FetchScheduler {
+    /**
+     * The outcomes of the next fetches, in order.
+     */
+    private final Queue<Outcome> outcomes = new ConcurrentLinkedQueue<>();
+    /**
+     * How many times the remote was contacted.
+     */
+    private final AtomicInteger remoteCalls = new AtomicInteger();
+    /**
+     * For each contact with the remote, if the user could be asked for credentials.
+     */
+    private final Queue<Boolean> interactiveCalls = new ConcurrentLinkedQueue<>();
+    /**
+     * The next answers about the upstream branch: a boolean or the failure to throw.
+     */
+    private final Queue<Object> probeOutcomes = new ConcurrentLinkedQueue<>();
+    /**
+     * How many times the remote was asked about the upstream branch.
+     */
+    private final AtomicInteger probeCalls = new AtomicInteger();
+
+    @Override
+    boolean isUpstreamChanged() throws RepositoryUnavailableException {
+      probeCalls.incrementAndGet();
+      Object outcome = probeOutcomes.remove();
+      if (outcome instanceof RepositoryUnavailableException) {
+        throw (RepositoryUnavailableException) outcome;
+      }
+      return (Boolean) outcome;
+    }
+
+    @Override
+    FetchResult fetchFromRemote(boolean interactive) throws RepositoryUnavailableException {
+      remoteCalls.incrementAndGet();
+      interactiveCalls.add(interactive);
+      Outcome outcome = outcomes.remove();
+      outcome.started.countDown();
+      try {
+        outcome.gate.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (outcome.failure != null) {
+        throw outcome.failure;
+      }
+      return outcome.result;
+    }
+  }
+
+  /**
+   * Fetches on another thread.
+   *
+   * @param scheduler The scheduler.
+   *
+   * @return The fetch.
+   */
+  private static FutureTask<FetchResult> fetchInBackground(FetchScheduler scheduler) {
+    FutureTask<FetchResult> fetch = new FutureTask<>(scheduler::fetch);
+    new Thread(fetch).start();
+    return fetch;
+  }
+
+  /**
+   * <p><b>Description:</b> a fetch requested shortly after another one reuses its result.
+   * Forced fetches and fetches after a push contact the remote again.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testReuseRecentFetch() throws Exception {
+    String localRepoLoc = "target/test-resources/FetchSchedulerTest/local";
+    String remoteRepoLoc = "target/test-resources/FetchSchedulerTest/remote";
+    Repository localRepo = createRepository(localRepoLoc);
+    Repository remoteRepo = createRepository(remoteRepoLoc);
+    bindLocalToRemote(localRepo, remoteRepo);
+
+    GitAccess gitAccess = GitAccess.getInstance();
+    gitAccess.setRepositorySynchronously(localRepoLoc);
+    new File(localRepoLoc, "test.txt").createNewFile();
+    gitAccess.add(new FileStatus(GitChangeType.ADD, "test.txt"));
+    gitAccess.commit("First commit.");
+    push("", "");
+
+    FetchScheduler scheduler = FetchScheduler.getInstance();
+    FetchResult first = scheduler.fetch();
+    assertNotNull(first);
+    assertSame(first, scheduler.fetch());
+
+    FetchResult forced = scheduler.fetch(true);
+    assertNotSame(first, forced);
+
+    push("", "");
+    assertNotSame(forced, scheduler.fetch());
+  }
+
+  /**
+   * <p><b>Description:</b> after a failure the remote is not contacted for a while, except by
+   * forced fetches. The wait doubles with each consecutive failure.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testBackoff() throws Exception {
+    createRepository("target/test-resources/FetchSchedulerTest/backoff");
+    ControlledFetchScheduler scheduler = new ControlledFetchScheduler();
+    RepositoryUnavailableException firstFailure = new RepositoryUnavailableException(new Exception("first"));
+    RepositoryUnavailableException secondFailure = new RepositoryUnavailableException(new Exception("second"));
+    scheduler.outcomes.add(new Outcome(null, firstFailure, false));
+    scheduler.outcomes.add(new Outcome(null, secondFailure, false));
+
+    try {
+      scheduler.fetch();
+      fail("The fetch must fail");
+    } catch (RepositoryUnavailableException e) {
+      assertSame(firstFailure, e);
+    }
+    long firstBackoff = scheduler.getBackoff();
+    assertTrue(firstBackoff > 0);
+
+    // Still waiting. The remote is not contacted.
+    try {
+      scheduler.fetch();
+      fail("The fetch must fail");
+    } catch (RepositoryUnavailableException e) {
+      assertSame(firstFailure, e);
+    }
+    assertEquals(1, scheduler.remoteCalls.get());
+
+    try {
+      scheduler.fetch(true);
+      fail("The fetch must fail");
+    } catch (RepositoryUnavailableException e) {
+      assertSame(secondFailure, e);
+    }
+    assertEquals(2, scheduler.remoteCalls.get());
+    assertEquals(firstBackoff * 2, scheduler.getBackoff());
+  }
+
+  /**
+   * <p><b>Description:</b> a fetch requested while another one runs waits for it and
+   * receives the same result.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testConcurrentFetchesShareOne() throws Exception {
+    createRepository("target/test-resources/FetchSchedulerTest/concurrent");
+    ControlledFetchScheduler scheduler = new ControlledFetchScheduler();
+    FetchResult result = Mockito.mock(FetchResult.class);
+    Outcome outcome = new Outcome(result, null, true);
+    scheduler.outcomes.add(outcome);
+
+    FutureTask<FetchResult> first = fetchInBackground(scheduler);
+    assertTrue(outcome.started.await(5, TimeUnit.SECONDS));
+    FutureTask<FetchResult> second = fetchInBackground(scheduler);
+    // Give the second fetch the time to join the first one.
+    Thread.sleep(200);
+    outcome.gate.countDown();
+
+    assertSame(result, first.get(5, TimeUnit.SECONDS));
+    assertSame(result, second.get(5, TimeUnit.SECONDS));
+    assertEquals(1, scheduler.remoteCalls.get());
+  }
+
+  /**
+   * <p><b>Description:</b> a fetch that runs while the results are invalidated is not joined
+   * and its result is not remembered.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testInvalidateDuringFetch() throws Exception {
+    createRepository("target/test-resources/FetchSchedulerTest/invalidate");
+    ControlledFetchScheduler scheduler = new ControlledFetchScheduler();
+    FetchResult staleResult = Mockito.mock(FetchResult.class);
+    FetchResult newResult = Mockito.mock(FetchResult.class);
+    Outcome staleOutcome = new Outcome(staleResult, null, true);
+    scheduler.outcomes.add(staleOutcome);
+    scheduler.outcomes.add(new Outcome(newResult, null, false));
+
+    FutureTask<FetchResult> staleFetch = fetchInBackground(scheduler);
+    assertTrue(staleOutcome.started.await(5, TimeUnit.SECONDS));
+    scheduler.invalidate();
+    assertSame(newResult, scheduler.fetch());
+
+    staleOutcome.gate.countDown();
+    assertSame(staleResult, staleFetch.get(5, TimeUnit.SECONDS));
+
+    // The fetch that ended last started before the invalidation.
+    assertSame(newResult, scheduler.fetch());
+    assertEquals(2, scheduler.remoteCalls.get());
+  }
+
+  /**
+   * <p><b>Description:</b> a fetch for the previous repository is not joined and its result
+   * is not remembered for the new repository.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testRepositorySwitchDuringFetch() throws Exception {
+    createRepository("target/test-resources/FetchSchedulerTest/first");
+    ControlledFetchScheduler scheduler = new ControlledFetchScheduler();
+    FetchResult firstResult = Mockito.mock(FetchResult.class);
+    FetchResult secondResult = Mockito.mock(FetchResult.class);
+    Outcome firstOutcome = new Outcome(firstResult, null, true);
+    scheduler.outcomes.add(firstOutcome);
+    scheduler.outcomes.add(new Outcome(secondResult, null, false));
+
+    FutureTask<FetchResult> firstFetch = fetchInBackground(scheduler);
+    assertTrue(firstOutcome.started.await(5, TimeUnit.SECONDS));
+    // Loads another repository.
+    createRepository("target/test-resources/FetchSchedulerTest/second");
+    assertSame(secondResult, scheduler.fetch());
+
+    firstOutcome.gate.countDown();
+    assertSame(firstResult, firstFetch.get(5, TimeUnit.SECONDS));
+
+    assertSame(secondResult, scheduler.fetch());
+    assertEquals(2, scheduler.remoteCalls.get());
+  }
+
+  /**
+   * <p><b>Description:</b> the polling fetches never ask the user for credentials.
+   * The fetches requested by the views may.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testPollIsNotInteractive() throws Exception {
+    createRepository("target/test-resources/FetchSchedulerTest/poll");
+    ControlledFetchScheduler scheduler = new ControlledFetchScheduler();
+    scheduler.outcomes.add(new Outcome(Mockito.mock(FetchResult.class), null, false));
+    scheduler.outcomes.add(new Outcome(Mockito.mock(FetchResult.class), null, false));
+    AtomicInteger polled = new AtomicInteger();
+
+    scheduler.startPolling(polled::incrementAndGet);
+    try {
+      scheduler.poll();
+    } finally {
+      scheduler.stopPolling();
+    }
+    assertEquals(1, polled.get());
+
+    scheduler.fetch(true);
+    assertEquals("[false, true]", scheduler.interactiveCalls.toString());
+  }
+
+  /**
+   * <p><b>Description:</b> the background checks ask the remote about the upstream branch and fetch
+   * only if it moved. They follow the minimum interval.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testFetchIfUpstreamChanged() throws Exception {
+    createRepository("target/test-resources/FetchSchedulerTest/probe");
+    ControlledFetchScheduler scheduler = new ControlledFetchScheduler();
+    scheduler.probeOutcomes.add(Boolean.FALSE);
+
+    scheduler.fetchIfUpstreamChanged();
+    assertEquals(1, scheduler.probeCalls.get());
+    assertEquals(0, scheduler.remoteCalls.get());
+
+    // Recently asked. Nothing changed.
+    scheduler.fetchIfUpstreamChanged();
+    assertEquals(1, scheduler.probeCalls.get());
+
+    scheduler.invalidate();
+    scheduler.probeOutcomes.add(Boolean.TRUE);
+    scheduler.outcomes.add(new Outcome(Mockito.mock(FetchResult.class), null, false));
+    scheduler.fetchIfUpstreamChanged();
+    assertEquals(2, scheduler.probeCalls.get());
+    assertEquals(1, scheduler.remoteCalls.get());
+    assertEquals("[false]", scheduler.interactiveCalls.toString());
+
+    // Recently fetched. The remote is not asked again.
+    scheduler.fetchIfUpstreamChanged();
+    assertEquals(2, scheduler.probeCalls.get());
+    assertEquals(1, scheduler.remoteCalls.get());
+  }
+
+  /**
+   * <p><b>Description:</b> after a failure to reach the remote, the background checks don't ask it
+   * again for a while.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testFetchIfUpstreamChangedBackoff() throws Exception {
+    createRepository("target/test-resources/FetchSchedulerTest/probeBackoff");
+    ControlledFetchScheduler scheduler = new ControlledFetchScheduler();
+    RepositoryUnavailableException probeFailure = new RepositoryUnavailableException(new Exception("probe"));
+    scheduler.probeOutcomes.add(probeFailure);
+
+    try {
+      scheduler.fetchIfUpstreamChanged();
+      fail("The check must fail");
+    } catch (RepositoryUnavailableException e) {
+      assertSame(probeFailure, e);
+    }
+    scheduler.fetchIfUpstreamChanged();
+    assertEquals(1, scheduler.probeCalls.get());
+
+    // A failed fetch also stops the checks.
+    scheduler.invalidate();
+    RepositoryUnavailableException fetchFailure = new RepositoryUnavailableException(new Exception("fetch"));
+    scheduler.outcomes.add(new Outcome(null, fetchFailure, false));
+    try {
+      scheduler.fetch();
+      fail("The fetch must fail");
+    } catch (RepositoryUnavailableException e) {
+      assertSame(fetchFailure, e);
+    }
+    try {
+      scheduler.fetchIfUpstreamChanged();
+      fail("The check must fail");
+    } catch (RepositoryUnavailableException e) {
+      assertSame(fetchFailure, e);
+    }
+    assertEquals(1, scheduler.probeCalls.get());
+    assertEquals(1, scheduler.remoteCalls.get());
+  }
+
+  /**
+   * <p><b>Description:</b> the upstream branch is reported as changed only when the remote
+   * has another commit than the remote-tracking branch. Without an upstream or a remote-tracking
+   * branch there is nothing to compare with.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testIsUpstreamChanged() throws Exception {
+    String localRepoLoc = "target/test-resources/FetchSchedulerTest/upstreamLocal";
+    String remoteRepoLoc = "target/test-resources/FetchSchedulerTest/upstreamRemote";
+    Repository localRepo = createRepository(localRepoLoc);
+    Repository remoteRepo = createRepository(remoteRepoLoc);
+    GitAccess gitAccess = GitAccess.getInstance();
+    gitAccess.setRepositorySynchronously(localRepoLoc);
+    new File(localRepoLoc, "test.txt").createNewFile();
+    gitAccess.add(new FileStatus(GitChangeType.ADD, "test.txt"));
+    gitAccess.commit("First commit.");
+
+    // No upstream.
+    assertFalse(gitAccess.isUpstreamChanged());
+
+    // No remote-tracking branch.
+    bindLocalToRemote(localRepo, remoteRepo);
+    gitAccess.setRepositorySynchronously(localRepoLoc);
+    assertFalse(gitAccess.isUpstreamChanged());
+
+    push("", "");
+    assertFalse(gitAccess.isUpstreamChanged());
+
+    TestUtil.commitOneFile(remoteRepo, "remote.txt", "remote");
+    assertTrue(gitAccess.isUpstreamChanged());
+  }
+}
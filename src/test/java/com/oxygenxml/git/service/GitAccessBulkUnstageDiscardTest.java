@@ -0,0 +1,91 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+
+/**
+ * Unstaging and discarding many resources, by editing the index directly.
+ */
+public class GitAccessBulkUnstageDiscardTest {
+
+  private static final String LOCAL_TEST_REPOSITORY = "target/test-resources/GitAccessBulkUnstageDiscardTest";
+  /**
+   * How many files are in the repository. Enough to go past the bulk threshold.
+   */
+  private static final int FILES_COUNT = GitAccess.BULK_INDEX_EDIT_THRESHOLD + 20;
+  private GitAccess gitAccess;
+  /**
+   * The paths of the committed files.
+   */
+  private List<String> paths = new ArrayList<>();
+
+  @Before
+  public void init() throws GitAPIException, IOException {
+    gitAccess = GitAccess.getInstance();
+    gitAccess.createNewRepository(LOCAL_TEST_REPOSITORY);
+    List<FileStatus> files = new ArrayList<>();
+    for (int i = 0; i < FILES_COUNT; i++) {
+      String path = "dir" + (i % 5) + "/file" + i + ".txt";
+      FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, path), "content " + i, "UTF-8");
+      files.add(new FileStatus(GitChangeType.UNTRACKED, path));
+      paths.add(path);
+    }
+    gitAccess.addAll(files);
+    gitAccess.commit("files added");
+  }
+
+  /**
+   * <p><b>Description:</b> many modified, new and deleted resources are unstaged and then discarded.</p>
+   */
+  @Test
+  public void testUnstageAndDiscard() throws IOException {
+    List<FileStatus> files = new ArrayList<>();
+    for (String path : paths) {
+      FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, path), "changed", "UTF-8");
+      files.add(new FileStatus(GitChangeType.MODIFIED, path));
+    }
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "new.txt"), "new", "UTF-8");
+    files.add(new FileStatus(GitChangeType.UNTRACKED, "new.txt"));
+    gitAccess.addAll(files);
+    assertEquals(FILES_COUNT + 1, gitAccess.getStagedFiles().size());
+
+    // Unstage.
+    List<FileStatus> stagedFiles = gitAccess.getStagedFiles();
+    gitAccess.resetAll(stagedFiles);
+    assertEquals(0, gitAccess.getStagedFiles().size());
+    List<FileStatus> unstagedFiles = gitAccess.getUnstagedFiles();
+    assertEquals(FILES_COUNT + 1, unstagedFiles.size());
+    assertEquals(
+        1,
+        unstagedFiles.stream().filter(f -> f.getChangeType() == GitChangeType.UNTRACKED).count());
+
+    // Discard.
+    FileUtils.forceDelete(new File(LOCAL_TEST_REPOSITORY, paths.get(0)));
+    gitAccess.restoreLastCommitFile(paths);
+    assertEquals("[(changeType=UNTRACKED, fileLocation=new.txt)]", gitAccess.getUnstagedFiles().toString());
+    for (int i = 0; i < FILES_COUNT; i++) {
+      assertEquals(
+          "content " + i,
+          FileUtils.readFileToString(new File(LOCAL_TEST_REPOSITORY, paths.get(i)), "UTF-8"));
+    }
+  }
+
+  @After
+  public void freeResources() throws IOException {
+    gitAccess.closeRepo();
+    FileUtils.deleteDirectory(new File(LOCAL_TEST_REPOSITORY));
+  }
+}
@@ -0,0 +1,112 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+
+/**
+ * Computing the status of an explicit set of files.
+ */
+public class GitAccessPathStatusTest {
+
+  private static final String LOCAL_TEST_REPOSITORY = "target/test-resources/GitAccessPathStatusTest";
+  private GitAccess gitAccess;
+
+  @Before
+  public void init() throws GitAPIException, IOException {
+    gitAccess = GitAccess.getInstance();
+    gitAccess.createNewRepository(LOCAL_TEST_REPOSITORY);
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, ".gitignore"), "*.log", "UTF-8");
+    for (String name : new String[] {"modified.txt", "missing.txt", "changed.txt", "dir/removed.txt", "clean.txt"}) {
+      FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, name), name, "UTF-8");
+      gitAccess.add(new FileStatus(GitChangeType.ADD, name));
+    }
+    gitAccess.add(new FileStatus(GitChangeType.ADD, ".gitignore"));
+    gitAccess.commit("files added");
+  }
+
+  /**
+   * <p><b>Description:</b> the staged and unstaged states of the given files are the same
+   * as the ones from the full status. Files that are not given are not reported.</p>
+   */
+  @Test
+  public void testStatusForPaths() throws IOException {
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "modified.txt"), "changed", "UTF-8");
+    FileUtils.forceDelete(new File(LOCAL_TEST_REPOSITORY, "missing.txt"));
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "changed.txt"), "changed", "UTF-8");
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "added.txt"), "added", "UTF-8");
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "untracked.txt"), "untracked", "UTF-8");
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "ignored.log"), "ignored", "UTF-8");
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "notGiven.txt"), "not given", "UTF-8");
+    FileUtils.forceDelete(new File(LOCAL_TEST_REPOSITORY, "dir/removed.txt"));
+    gitAccess.addAll(Arrays.asList(
+        new FileStatus(GitChangeType.MODIFIED, "changed.txt"),
+        new FileStatus(GitChangeType.UNTRACKED, "added.txt"),
+        new FileStatus(GitChangeType.MISSING, "dir/removed.txt")));
+
+    List<String> paths = Arrays.asList(
+        "modified.txt", "missing.txt", "changed.txt", "added.txt", "untracked.txt",
+        "ignored.log", "dir/removed.txt", "clean.txt", "unknown.txt");
+
+    assertEquals(
+        "[(changeType=MISSING, fileLocation=missing.txt), "
+        + "(changeType=MODIFIED, fileLocation=modified.txt), "
+        + "(changeType=UNTRACKED, fileLocation=untracked.txt)]",
+        gitAccess.getUnstagedFilesForPaths(paths).toString());
+    assertEquals(
+        "[(changeType=CHANGED, fileLocation=changed.txt), "
+        + "(changeType=ADD, fileLocation=added.txt), "
+        + "(changeType=REMOVED, fileLocation=dir/removed.txt)]",
+        gitAccess.getStagedFilesForPaths(paths).toString());
+  }
+
+  /**
+   * <p><b>Description:</b> folders are resolved through the full status.</p>
+   */
+  @Test
+  public void testFolder() throws IOException {
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "dir/new.txt"), "new", "UTF-8");
+
+    assertEquals(
+        "[(changeType=UNTRACKED, fileLocation=dir/new.txt)]",
+        gitAccess.getUnstagedFilesForPaths(Arrays.asList("dir")).toString());
+  }
+
+  /**
+   * <p><b>Description:</b> the status under some folders reports only their files.</p>
+   */
+  @Test
+  public void testStatusUnderFolders() throws IOException {
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "dir/new.txt"), "new", "UTF-8");
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "dir-other/new.txt"), "new", "UTF-8");
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "modified.txt"), "changed", "UTF-8");
+    FileUtils.forceDelete(new File(LOCAL_TEST_REPOSITORY, "dir/removed.txt"));
+    gitAccess.addAll(Arrays.asList(new FileStatus(GitChangeType.MISSING, "dir/removed.txt")));
+
+    GitStatus status = gitAccess.getStatus(Arrays.asList("dir"));
+    assertEquals(
+        "[(changeType=UNTRACKED, fileLocation=dir/new.txt)]",
+        status.getUnstagedFiles().toString());
+    assertEquals(
+        "[(changeType=REMOVED, fileLocation=dir/removed.txt)]",
+        status.getStagedFiles().toString());
+  }
+
+  @After
+  public void freeResources() throws IOException {
+    gitAccess.closeRepo();
+    FileUtils.deleteDirectory(new File(LOCAL_TEST_REPOSITORY));
+  }
+}
@@ -75,6 +75,51 @@ public class GitAccessPush2Test extends GitTestBase {
         remoteRepo.resolve(gitAccess.getLastLocalCommitInRepo().getName() + "^{commit}"));
   }
   
+  /**
+   * <p><b>Description:</b> the push returns the state of the branch after the push,
+   * which is the same as the one computed afterwards.</p>
+   *
+   * @throws Exception
+   */
+  public void testPushReturnsBranchStatus() throws Exception {
+    gitAccess.setRepositorySynchronously(LOCAL_TEST_REPOSITPRY);
+    
+    File file = new File(LOCAL_TEST_REPOSITPRY, "/test.txt");
+    file.createNewFile();
+    gitAccess.add(new FileStatus(GitChangeType.ADD, "test.txt"));
+    gitAccess.commit("file test added");
+    
+    // No upstream yet.
+    BranchStatus branchStatus = gitAccess.getBranchStatus();
+    assertEquals("master", branchStatus.getBranchInfo().getBranchName());
+    assertFalse(branchStatus.isTracking());
+    
+    PushResponse response = push("", "");
+    assertEquals(org.eclipse.jgit.transport.RemoteRefUpdate.Status.OK, response.getStatus());
+    assertEquals(
+        "branch: master, upstream: refs/remotes/origin/master, ahead: 0, behind: 0",
+        response.getBranchStatus().toString());
+    assertTrue(response.getBranchStatus().isTracking());
+    assertEquals(response.getBranchStatus().toString(), gitAccess.getBranchStatus().toString());
+    
+    setFileContent(file, "NEW TEXT CONTENT");
+    gitAccess.add(new FileStatus(GitChangeType.ADD, "test.txt"));
+    gitAccess.commit("file test changed");
+    assertEquals(
+        "branch: master, upstream: refs/remotes/origin/master, ahead: 1, behind: 0",
+        gitAccess.getBranchStatus().toString());
+    
+    response = push("", "");
+    assertEquals(
+        "branch: master, upstream: refs/remotes/origin/master, ahead: 0, behind: 0",
+        response.getBranchStatus().toString());
+    
+    // Nothing to push. The state before the push is returned.
+    response = push("", "");
+    assertEquals(org.eclipse.jgit.transport.RemoteRefUpdate.Status.UP_TO_DATE, response.getStatus());
+    assertEquals(0, response.getBranchStatus().getPushesAhead());
+  }
+  
   /**
    * Tear each test down.
    */
@@ -0,0 +1,160 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ProgressMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+import com.oxygenxml.git.view.event.FileGitEventInfo;
+import com.oxygenxml.git.view.event.GitEventInfo;
+import com.oxygenxml.git.view.event.GitOperation;
+
+/**
+ * Staging many resources, in a single index pass.
+ */
+public class GitAccessStageInOnePassTest {
+
+  private static final String LOCAL_TEST_REPOSITORY = "target/test-resources/GitAccessStageInOnePassTest";
+  private GitAccess gitAccess;
+  /**
+   * The resources of each received STAGE event.
+   */
+  private List<Collection<String>> stageEvents = new ArrayList<>();
+  /**
+   * Collects the STAGE events.
+   */
+  private GitEventAdapter stageListener = new GitEventAdapter() {
+    @Override
+    public void operationSuccessfullyEnded(GitEventInfo info) {
+      if (info.getGitOperation() == GitOperation.STAGE) {
+        stageEvents.add(((FileGitEventInfo) info).getAffectedFilePaths());
+      }
+    }
+  };
+
+  @Before
+  public void init() throws GitAPIException, IOException {
+    gitAccess = GitAccess.getInstance();
+    gitAccess.createNewRepository(LOCAL_TEST_REPOSITORY);
+    File file = new File(LOCAL_TEST_REPOSITORY + "/test.txt");
+    FileUtils.writeStringToFile(file, "test", "UTF-8");
+    gitAccess.add(new FileStatus(GitChangeType.ADD, file.getName()));
+    gitAccess.commit("file test added");
+
+    GitListeners.getInstance().addGitListener(stageListener);
+  }
+
+  /**
+   * Creates new files and the corresponding statuses.
+   *
+   * @param count How many files.
+   *
+   * @return The statuses.
+   *
+   * @throws IOException
+   */
+  private List<FileStatus> createFiles(int count) throws IOException {
+    List<FileStatus> files = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      String path = "dir" + (i % 10) + "/file" + i + ".txt";
+      FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, path), "content " + i, "UTF-8");
+      files.add(new FileStatus(GitChangeType.UNTRACKED, path));
+    }
+    return files;
+  }
+
+  /**
+   * <p><b>Description:</b> many resources are staged in one pass, with one event.
+   * New, modified and missing resources are all staged.</p>
+   */
+  @Test
+  public void testStageInOnePass() throws IOException {
+    List<FileStatus> files = createFiles(GitAccess.STAGE_IN_ONE_PASS_THRESHOLD + 10);
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "test.txt"), "changed", "UTF-8");
+    files.add(new FileStatus(GitChangeType.MODIFIED, "test.txt"));
+
+    gitAccess.addAll(files, NullProgressMonitor.INSTANCE);
+
+    assertEquals(1, stageEvents.size());
+    assertEquals(GitAccess.STAGE_IN_ONE_PASS_THRESHOLD + 11, stageEvents.get(0).size());
+    assertEquals(0, gitAccess.getUnstagedFiles().size());
+    List<FileStatus> stagedFiles = gitAccess.getStagedFiles();
+    assertEquals(GitAccess.STAGE_IN_ONE_PASS_THRESHOLD + 11, stagedFiles.size());
+    assertEquals(
+        1,
+        stagedFiles.stream().filter(f -> f.getChangeType() == GitChangeType.CHANGED).count());
+
+    new File(LOCAL_TEST_REPOSITORY, "test.txt").delete();
+    List<FileStatus> deleted = createFiles(GitAccess.STAGE_IN_ONE_PASS_THRESHOLD);
+    deleted.add(new FileStatus(GitChangeType.MISSING, "test.txt"));
+    gitAccess.addAll(deleted, NullProgressMonitor.INSTANCE);
+
+    assertEquals(
+        1,
+        gitAccess.getStagedFiles().stream().filter(f -> f.getChangeType() == GitChangeType.REMOVED).count());
+  }
+
+  /**
+   * <p><b>Description:</b> canceling stops before the next resource. The resources already staged
+   * remain staged and they are the only ones in the event.</p>
+   */
+  @Test
+  public void testCancel() throws IOException {
+    List<FileStatus> files = createFiles(GitAccess.STAGE_IN_ONE_PASS_THRESHOLD * 2 + 10);
+
+    gitAccess.addAll(files, new ProgressMonitor() {
+      private int staged = 0;
+      @Override
+      public void update(int completed) {
+        staged += completed;
+      }
+      @Override
+      public boolean isCancelled() {
+        return staged >= 100;
+      }
+      @Override
+      public void start(int totalTasks) {
+        // Not needed
+      }
+      @Override
+      public void beginTask(String title, int totalWork) {
+        // Not needed
+      }
+      @Override
+      public void endTask() {
+        // Not needed
+      }
+    });
+
+    assertEquals(1, stageEvents.size());
+    Set<String> stagedPaths = gitAccess.getStagedFiles().stream()
+        .map(FileStatus::getFileLocation)
+        .collect(Collectors.toSet());
+    assertEquals(100, stagedPaths.size());
+    assertEquals(stagedPaths, new HashSet<>(stageEvents.get(0)));
+    assertEquals(GitAccess.STAGE_IN_ONE_PASS_THRESHOLD * 2 + 10 - 100, gitAccess.getUnstagedFiles().size());
+  }
+
+  @After
+  public void freeResources() throws IOException {
+    GitListeners.getInstance().removeGitListener(stageListener);
+    gitAccess.closeRepo();
+    FileUtils.deleteDirectory(new File(LOCAL_TEST_REPOSITORY));
+  }
+}
@@ -132,6 +132,51 @@ public class GitCloneTest extends GitTestBase {
   }
   
   
+  /**
+   * <p><b>Description:</b> clone only one branch. The history of the other branches
+   * is not downloaded and only the cloned branch is fetched afterwards.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testCloneSingleBranch() throws Exception {
+    String localRepoLoc = "target/test-resources/GitCloneTest/testCloneSingleBranch-local";
+    String remoteRepoLoc = "target/test-resources/GitCloneTest/testCloneSingleBranch-remote";
+    File cloneDest = new File("target/test-resources/GitCloneTest/testCloneSingleBranch-cloneDest");
+
+    try {
+      Repository localRepo = createRepository(localRepoLoc);
+      Repository remoteRepo = createRepository(remoteRepoLoc);
+      bindLocalToRemote(localRepo, remoteRepo);
+
+      GitAccess gitAccess = GitAccess.getInstance();
+      gitAccess.setRepositorySynchronously(localRepoLoc);
+      File localTestFile = new File(localRepoLoc, "test.txt");
+      localTestFile.createNewFile();
+      gitAccess.add(new FileStatus(GitChangeType.ADD, "test.txt"));
+      gitAccess.commit("");
+      push("", "");
+      gitAccess.getGit().push().setRefSpecs(new RefSpec("refs/heads/master:refs/heads/slave")).call();
+
+      gitAccess.clone(
+          new URIish(remoteRepo.getDirectory().toURI().toURL()),
+          cloneDest,
+          null,
+          "refs/heads/slave",
+          true,
+          true);
+      
+      assertEquals("slave", gitAccess.getRepository().getBranch());
+      StoredConfig config = gitAccess.getRepository().getConfig();
+      String value = config.getString(ConfigConstants.CONFIG_REMOTE_SECTION, Constants.DEFAULT_REMOTE_NAME, ConfigConstants.CONFIG_FETCH_SECTION);
+      assertEquals("+refs/heads/slave:refs/remotes/origin/slave", value);
+      assertNull(gitAccess.getRepository().exactRef("refs/remotes/origin/master"));
+    } finally {
+      GitAccess.getInstance().closeRepo();
+      FileUtils.deleteDirectory(cloneDest);
+    }
+  }
+  
   /**
    * <p><b>Description:</b> Clone a project that has submodules, and try to load the submodule.</p>
    * <p><b>Bug ID:</b> EXM-42006</p>
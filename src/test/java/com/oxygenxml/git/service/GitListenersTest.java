@@ -0,0 +1,150 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.oxygenxml.git.view.event.BranchGitEventInfo;
+import com.oxygenxml.git.view.event.FileGitEventInfo;
+import com.oxygenxml.git.view.event.GitEventInfo;
+import com.oxygenxml.git.view.event.GitOperation;
+
+/**
+ * Delivering the Git events to the listeners.
+ */
+public class GitListenersTest {
+
+  private final List<GitEventListener> registered = new ArrayList<>();
+
+  /**
+   * <p><b>Description:</b> a slow background listener doesn't delay the operation or the
+   * synchronous listeners. It receives the events in order, without the duplicates that piled
+   * up while it was busy.</p>
+   */
+  @Test
+  public void testBackgroundDelivery() throws Exception {
+    CountDownLatch unblock = new CountDownLatch(1);
+    CountDownLatch delivered = new CountDownLatch(3);
+    List<String> slowEvents = Collections.synchronizedList(new ArrayList<>());
+    GitEventListener slowListener = new GitEventAdapter() {
+      @Override
+      public void operationAboutToStart(GitEventInfo info) {
+        try {
+          unblock.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        slowEvents.add("start " + info.getGitOperation());
+        delivered.countDown();
+      }
+      @Override
+      public void operationSuccessfullyEnded(GitEventInfo info) {
+        slowEvents.add("end " + info.getGitOperation());
+        delivered.countDown();
+      }
+    };
+    List<String> syncEvents = new ArrayList<>();
+    GitEventListener syncListener = new GitEventAdapter() {
+      @Override
+      public void operationSuccessfullyEnded(GitEventInfo info) {
+        syncEvents.add("end " + info.getGitOperation());
+      }
+    };
+    register(slowListener, GitEventDelivery.BACKGROUND);
+    register(syncListener, GitEventDelivery.SYNCHRONOUS);
+
+    GitListeners listeners = GitListeners.getInstance();
+    listeners.fireOperationAboutToStart(new GitEventInfo(GitOperation.COMMIT));
+    listeners.fireOperationSuccessfullyEnded(new GitEventInfo(GitOperation.COMMIT));
+    listeners.fireOperationSuccessfullyEnded(new GitEventInfo(GitOperation.COMMIT));
+    listeners.fireOperationSuccessfullyEnded(new BranchGitEventInfo(GitOperation.CHECKOUT, "main"));
+
+    // The synchronous listener got everything, before the slow one got anything.
+    assertEquals(Arrays.asList("end COMMIT", "end COMMIT", "end CHECKOUT"), syncEvents);
+    assertTrue(slowEvents.isEmpty());
+
+    unblock.countDown();
+    assertTrue(delivered.await(5, TimeUnit.SECONDS));
+    Thread.sleep(100);
+    assertEquals(Arrays.asList("start COMMIT", "end COMMIT", "end CHECKOUT"), slowEvents);
+    assertTrue(listeners.getMaxDeliveryLatency(slowListener) >= 0);
+  }
+
+  /**
+   * <p><b>Description:</b> the ends of a burst of operations on files reach a coalescing listener
+   * as one event with all the files.</p>
+   */
+  @Test
+  public void testMergeFileEvents() throws Exception {
+    CountDownLatch unblock = new CountDownLatch(1);
+    List<GitEventInfo> ended = Collections.synchronizedList(new ArrayList<>());
+    GitEventListener listener = new GitEventAdapter() {
+      @Override
+      public void operationAboutToStart(GitEventInfo info) {
+        try {
+          unblock.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      @Override
+      public void operationSuccessfullyEnded(GitEventInfo info) {
+        ended.add(info);
+      }
+    };
+    register(listener, null);
+
+    GitListeners listeners = GitListeners.getInstance();
+    // Keeps the listener busy while the burst comes.
+    listeners.fireOperationAboutToStart(new GitEventInfo(GitOperation.OPEN_WORKING_COPY));
+    for (int i = 0; i < 3; i++) {
+      List<String> chunk = Arrays.asList("a" + i + ".txt", "b" + i + ".txt");
+      listeners.fireOperationAboutToStart(new FileGitEventInfo(GitOperation.STAGE, chunk));
+      listeners.fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.STAGE, chunk));
+    }
+    listeners.fireOperationSuccessfullyEnded(new FileGitEventInfo(GitOperation.UNSTAGE, Arrays.asList("c.txt")));
+
+    unblock.countDown();
+    long deadline = System.currentTimeMillis() + 5000;
+    while (ended.size() < 2 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+    }
+    assertEquals(2, ended.size());
+    assertEquals(GitOperation.STAGE, ended.get(0).getGitOperation());
+    assertEquals(
+        Arrays.asList("a0.txt", "b0.txt", "a1.txt", "b1.txt", "a2.txt", "b2.txt"),
+        new ArrayList<>(((FileGitEventInfo) ended.get(0)).getAffectedFilePaths()));
+    assertEquals(GitOperation.UNSTAGE, ended.get(1).getGitOperation());
+  }
+
+  /**
+   * Registers a listener, to be removed at the end of the test.
+   *
+   * @param listener The listener.
+   * @param delivery How it receives the events. <code>null</code> for a coalescing background listener.
+   */
+  private void register(GitEventListener listener, GitEventDelivery delivery) {
+    if (delivery != null) {
+      GitListeners.getInstance().addGitListener(listener, delivery);
+    } else {
+      GitListeners.getInstance().addCoalescingGitListener(listener, GitEventDelivery.BACKGROUND);
+    }
+    registered.add(listener);
+  }
+
+  @After
+  public void removeListeners() {
+    for (GitEventListener listener : registered) {
+      GitListeners.getInstance().removeGitListener(listener);
+    }
+  }
+}
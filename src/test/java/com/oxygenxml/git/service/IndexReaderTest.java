@@ -0,0 +1,79 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+
+/**
+ * Finding files in the index.
+ */
+public class IndexReaderTest {
+
+  private static final String LOCAL_TEST_REPOSITORY = "target/test-resources/IndexReaderTest";
+  private GitAccess gitAccess;
+
+  @Before
+  public void init() throws GitAPIException, IOException {
+    gitAccess = GitAccess.getInstance();
+    gitAccess.createNewRepository(LOCAL_TEST_REPOSITORY);
+    for (String path : new String[] {"a.txt", "a/b.txt", "a-b.txt", "a0", "b/c/d.txt"}) {
+      FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, path), path, "UTF-8");
+      gitAccess.add(new FileStatus(GitChangeType.ADD, path));
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> the files are found in the index, one by one or many at once,
+   * with the same result as JGit. A change of the index is seen.</p>
+   */
+  @Test
+  public void testLocateObjectIdsInIndex() throws Exception {
+    Repository repository = gitAccess.getRepository();
+    DirCache dirCache = repository.readDirCache();
+    Map<String, ObjectId> expected = new HashMap<>();
+    for (int i = 0; i < dirCache.getEntryCount(); i++) {
+      expected.put(dirCache.getEntry(i).getPathString(), dirCache.getEntry(i).getObjectId());
+    }
+    assertEquals(5, expected.size());
+
+    for (Map.Entry<String, ObjectId> entry : expected.entrySet()) {
+      assertEquals(entry.getValue(), gitAccess.locateObjectIdInIndex(entry.getKey()));
+    }
+    assertEquals(expected, gitAccess.locateObjectIdsInIndex(expected.keySet()));
+    assertNull(gitAccess.locateObjectIdInIndex("a"));
+    assertNull(gitAccess.locateObjectIdInIndex("b/c"));
+    assertNull(gitAccess.locateObjectIdInIndex("z.txt"));
+
+    // Stage a new version.
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "a/b.txt"), "changed", "UTF-8");
+    gitAccess.add(new FileStatus(GitChangeType.MODIFIED, "a/b.txt"));
+    ObjectId changed = repository.readDirCache().getEntry("a/b.txt").getObjectId();
+    assertEquals(changed, gitAccess.locateObjectIdInIndex("a/b.txt"));
+    assertEquals(
+        expected.get("a.txt"),
+        gitAccess.locateObjectIdsInIndex(Arrays.asList("a.txt", "a/b.txt", "missing")).get("a.txt"));
+  }
+
+  @After
+  public void freeResources() throws IOException {
+    gitAccess.closeRepo();
+    FileUtils.deleteDirectory(new File(LOCAL_TEST_REPOSITORY));
+  }
+}
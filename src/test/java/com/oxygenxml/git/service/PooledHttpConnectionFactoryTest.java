@@ -0,0 +1,123 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import org.eclipse.jgit.transport.http.HttpConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Reusing the HTTP connections.
+ */
+public class PooledHttpConnectionFactoryTest {
+
+  private HttpServer server;
+  private final List<Integer> clientPorts = Collections.synchronizedList(new ArrayList<>());
+
+  @Before
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/repo.git", exchange -> {
+      clientPorts.add(exchange.getRemoteAddress().getPort());
+      boolean authenticated = exchange.getRequestHeaders().containsKey("Authorization");
+      byte[] body = (authenticated ? "refs" : "Authentication required").getBytes(StandardCharsets.UTF_8);
+      if (!authenticated) {
+        exchange.getResponseHeaders().add("WWW-Authenticate", "Basic realm=\"git\"");
+      }
+      exchange.sendResponseHeaders(authenticated ? 200 : 401, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.start();
+  }
+
+  /**
+   * <p><b>Description:</b> the request sent after an authentication challenge, like the ones of JGit,
+   * goes over the same connection.</p>
+   */
+  @Test
+  public void testReuseConnectionAfterChallenge() throws Exception {
+    PooledHttpConnectionFactory factory = PooledHttpConnectionFactory.getInstance();
+    long requestsBefore = factory.getStatistics().getRequests();
+    URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/repo.git/info/refs");
+
+    HttpConnection challenged = factory.create(url);
+    assertEquals(401, challenged.getResponseCode());
+    assertEquals(
+        Collections.singletonList("Basic realm=\"git\""),
+        ((PooledHttpConnection) challenged).getHeaderFields("www-authenticate"));
+
+    HttpConnection authenticated = factory.create(url);
+    authenticated.setRequestProperty("Authorization", "Basic dXNlcjpwYXNz");
+    assertEquals(200, authenticated.getResponseCode());
+    try (InputStream in = authenticated.getInputStream()) {
+      byte[] buffer = new byte[100];
+      assertEquals("refs", new String(buffer, 0, in.read(buffer), StandardCharsets.UTF_8));
+    }
+
+    assertEquals(2, clientPorts.size());
+    assertEquals(clientPorts.get(0), clientPorts.get(1));
+    assertEquals(requestsBefore + 2, factory.getStatistics().getRequests());
+  }
+
+  /**
+   * <p><b>Description:</b> the connections configured with different trust managers of the same class
+   * don't share a socket factory, so they don't share the TLS connections either.</p>
+   */
+  @Test
+  public void testSocketFactoryPerTrustManager() throws Exception {
+    PooledHttpConnectionFactory factory = PooledHttpConnectionFactory.getInstance();
+    TrustManager[] trustManagers = {new TestTrustManager()};
+
+    assertNotSame(
+        factory.getSocketFactory(null, trustManagers, null),
+        factory.getSocketFactory(null, new TrustManager[] {new TestTrustManager()}, null));
+    assertNotSame(
+        factory.getSocketFactory(null, trustManagers, null),
+        factory.getSocketFactory(null, trustManagers, null));
+  }
+
+  /**
+   * Trusts all the certificates.
+   */
+  private static class TestTrustManager implements X509TrustManager {
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) {
+      // Trusted.
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) {
+      // Trusted.
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+      return new X509Certificate[0];
+    }
+  }
+
+  @After
+  public void stopServer() {
+    server.stop(0);
+  }
+}
@@ -0,0 +1,118 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.internal.storage.file.GC.RepoStatistics;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oxygenxml.git.service.RepositoryMaintenance.Report;
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+import com.oxygenxml.git.view.history.CommitsAheadAndBehind;
+
+/**
+ * Optimizing the object database.
+ */
+public class RepositoryMaintenanceTest {
+
+  private static final String LOCAL_TEST_REPOSITORY = "target/test-resources/RepositoryMaintenanceTest";
+  private GitAccess gitAccess;
+
+  @Before
+  public void init() throws GitAPIException, IOException {
+    gitAccess = GitAccess.getInstance();
+    gitAccess.createNewRepository(LOCAL_TEST_REPOSITORY);
+    for (int i = 0; i < 10; i++) {
+      String name = "file" + i + ".txt";
+      FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, name), name, "UTF-8");
+      gitAccess.add(new FileStatus(GitChangeType.ADD, name));
+      gitAccess.commit("commit " + i);
+      gitAccess.createBranch("branch" + i);
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> the loose objects are packed and the loose references are packed.
+   * The statistics before and after are reported.</p>
+   */
+  @Test
+  public void testOptimize() throws Exception {
+    RepositoryMaintenance maintenance = RepositoryMaintenance.getInstance();
+    RepoStatistics before = maintenance.getStatistics(gitAccess.getRepository());
+    assertEquals(30, before.numberOfLooseObjects);
+    assertEquals(0, before.numberOfPackFiles);
+    assertFalse(RepositoryMaintenance.isMaintenanceNeeded(before));
+
+    Report report = maintenance.optimize(gitAccess.getRepository());
+    assertSame(report, maintenance.getLastReport());
+    assertEquals(30, report.getBefore().numberOfLooseObjects);
+    assertEquals(0, report.getAfter().numberOfLooseObjects);
+    assertEquals(30, report.getAfter().numberOfPackedObjects);
+    assertEquals(1, report.getAfter().numberOfPackFiles);
+    assertTrue(report.getAfter().numberOfPackedRefs >= 10);
+
+    // The repository is still usable.
+    assertEquals(10, gitAccess.getLocalBranchList().size() - 1);
+  }
+
+  /**
+   * <p><b>Description:</b> the optimized repository gets reachability bitmaps. The commits ahead
+   * and behind are the same with them.</p>
+   */
+  @Test
+  public void testAheadAndBehindWithBitmaps() throws Exception {
+    Repository repository = gitAccess.getRepository();
+    String branch = repository.getBranch();
+    StoredConfig config = repository.getConfig();
+    config.setString(ConfigConstants.CONFIG_BRANCH_SECTION, branch, ConfigConstants.CONFIG_KEY_REMOTE, "origin");
+    config.setString(ConfigConstants.CONFIG_BRANCH_SECTION, branch, ConfigConstants.CONFIG_KEY_MERGE,
+        Constants.R_HEADS + branch);
+    config.save();
+    RefUpdate refUpdate = repository.updateRef(Constants.R_REMOTES + "origin/" + branch);
+    refUpdate.setNewObjectId(repository.resolve("HEAD~4"));
+    refUpdate.update();
+
+    BranchStatus walked = BranchStatus.compute(repository);
+    assertEquals(4, walked.getPushesAhead());
+    assertEquals(0, walked.getPullsBehind());
+
+    Report report = RepositoryMaintenance.getInstance().optimize(repository);
+    assertTrue(report.getAfter().numberOfBitmaps > 0);
+
+    BranchStatus fromBitmaps = BranchStatus.compute(repository);
+    assertEquals(4, fromBitmaps.getPushesAhead());
+    assertEquals(0, fromBitmaps.getPullsBehind());
+
+    CommitsAheadAndBehind commits = RevCommitUtil.getCommitsAheadAndBehind(repository, branch);
+    // The commits were created in the same second, so they can't be ordered by time.
+    assertEquals(
+        new HashSet<>(Arrays.asList("commit 9", "commit 8", "commit 7", "commit 6")),
+        commits.getCommitsAhead().stream().map(RevCommit::getShortMessage).collect(Collectors.toSet()));
+    assertTrue(commits.getCommitsBehind().isEmpty());
+  }
+
+  @After
+  public void freeResources() throws IOException {
+    gitAccess.closeRepo();
+    FileUtils.deleteDirectory(new File(LOCAL_TEST_REPOSITORY));
+  }
+}
@@ -0,0 +1,82 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+
+/**
+ * Sharing the status of the working copy.
+ */
+public class StatusServiceTest {
+
+  private static final String LOCAL_TEST_REPOSITORY = "target/test-resources/StatusServiceTest";
+  private GitAccess gitAccess;
+  private final List<GitStatus> notified = new ArrayList<>();
+  private final Consumer<GitStatus> listener = notified::add;
+
+  @Before
+  public void init() throws GitAPIException, IOException {
+    gitAccess = GitAccess.getInstance();
+    gitAccess.createNewRepository(LOCAL_TEST_REPOSITORY);
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "a.txt"), "a", "UTF-8");
+    gitAccess.add(new FileStatus(GitChangeType.ADD, "a.txt"));
+    gitAccess.commit("first");
+    StatusService.getInstance().addSnapshotListener(listener);
+  }
+
+  /**
+   * <p><b>Description:</b> a snapshot is reused until it is invalidated. The Git operations
+   * invalidate it. Each new snapshot has a greater version and is sent to the listeners.</p>
+   */
+  @Test
+  public void testSnapshots() throws Exception {
+    StatusService statusService = StatusService.getInstance();
+    statusService.invalidate();
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "b.txt"), "b", "UTF-8");
+
+    GitStatus first = statusService.getStatus();
+    assertEquals(Arrays.asList(new FileStatus(GitChangeType.UNTRACKED, "b.txt")), first.getUnstagedFiles());
+    assertTrue(first.getStagedFiles().isEmpty());
+    assertSame(first, statusService.getStatus());
+    assertTrue(notified.contains(first));
+
+    // Staging invalidates the snapshot.
+    gitAccess.add(new FileStatus(GitChangeType.UNTRACKED, "b.txt"));
+    GitStatus second = statusService.getStatus();
+    assertTrue(second.getGeneration() > first.getGeneration());
+    assertTrue(second.getUnstagedFiles().isEmpty());
+    assertEquals(Arrays.asList(new FileStatus(GitChangeType.ADD, "b.txt")), second.getStagedFiles());
+    assertSame(second, statusService.getStatus());
+
+    // A change that is not signaled is seen after an invalidation.
+    FileUtils.writeStringToFile(new File(LOCAL_TEST_REPOSITORY, "a.txt"), "changed", "UTF-8");
+    statusService.invalidate();
+    GitStatus third = statusService.getStatus();
+    assertEquals(Arrays.asList(new FileStatus(GitChangeType.MODIFIED, "a.txt")), third.getUnstagedFiles());
+    assertTrue(notified.contains(second));
+    assertTrue(notified.contains(third));
+  }
+
+  @After
+  public void freeResources() throws IOException {
+    StatusService.getInstance().removeSnapshotListener(listener);
+    gitAccess.closeRepo();
+    FileUtils.deleteDirectory(new File(LOCAL_TEST_REPOSITORY));
+  }
+}
@@ -0,0 +1,72 @@
+package com.oxygenxml.git.service.entities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link FileStatusDelta}.
+ */
+public class FileStatusDeltaTest {
+
+  /**
+   * <p><b>Description:</b> the same files, in a different order, give an empty delta.</p>
+   */
+  @Test
+  public void testNoChanges() {
+    List<FileStatus> oldFiles = Arrays.asList(
+        new FileStatus(GitChangeType.MODIFIED, "a.txt"),
+        new FileStatus(GitChangeType.UNTRACKED, "dir/b.txt"));
+    List<FileStatus> newFiles = Arrays.asList(
+        new FileStatus(GitChangeType.UNTRACKED, "dir/b.txt"),
+        new FileStatus(GitChangeType.MODIFIED, "a.txt"));
+
+    FileStatusDelta delta = FileStatusDelta.compute(oldFiles, newFiles);
+
+    assertTrue(delta.isEmpty());
+    assertFalse(delta.isStructural());
+  }
+
+  /**
+   * <p><b>Description:</b> added, removed and changed resources are detected.</p>
+   */
+  @Test
+  public void testAddedRemovedChanged() {
+    List<FileStatus> oldFiles = Arrays.asList(
+        new FileStatus(GitChangeType.MODIFIED, "a.txt"),
+        new FileStatus(GitChangeType.UNTRACKED, "b.txt"),
+        new FileStatus(GitChangeType.MODIFIED, "c.txt"));
+    List<FileStatus> newFiles = Arrays.asList(
+        new FileStatus(GitChangeType.MODIFIED, "a.txt"),
+        new FileStatus(GitChangeType.MISSING, "c.txt"),
+        new FileStatus(GitChangeType.UNTRACKED, "d.txt"));
+
+    FileStatusDelta delta = FileStatusDelta.compute(oldFiles, newFiles);
+
+    assertFalse(delta.isEmpty());
+    assertTrue(delta.isStructural());
+    assertEquals("[(changeType=UNTRACKED, fileLocation=d.txt)]", delta.getAdded().toString());
+    assertEquals("[(changeType=UNTRACKED, fileLocation=b.txt)]", delta.getRemoved().toString());
+    assertEquals("[(changeType=MODIFIED, fileLocation=c.txt)]", delta.getChangedFrom().toString());
+    assertEquals("[(changeType=MISSING, fileLocation=c.txt)]", delta.getChangedTo().toString());
+  }
+
+  /**
+   * <p><b>Description:</b> a state change alone is not a structural change.</p>
+   */
+  @Test
+  public void testOnlyStateChanged() {
+    FileStatusDelta delta = FileStatusDelta.compute(
+        Collections.singletonList(new FileStatus(GitChangeType.MODIFIED, "a.txt")),
+        Collections.singletonList(new FileStatus(GitChangeType.CONFLICT, "a.txt")));
+
+    assertFalse(delta.isEmpty());
+    assertFalse(delta.isStructural());
+  }
+}
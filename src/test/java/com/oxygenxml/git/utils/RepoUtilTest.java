@@ -203,4 +203,82 @@ public class RepoUtilTest extends GitTestBase {
     
     assertEquals(gitDir.getAbsolutePath(), detectRepositoryInProject.getAbsolutePath());
   } 
+
+  /**
+   * <p><b>Description:</b> the folders of a project are searched again for a repository
+   * only when the project file changes.</p>
+   *
+   * <pre>
+   * rootDir
+   *   child1
+   *     .git
+   *   child2
+   *     .git
+   *   *.xpr
+   * </pre>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testRepositoryDetection_Cached() throws Exception {
+    File gitDir1 = new File(workDir, "child1");
+    gitDir1.mkdir();
+    File gitDir2 = new File(workDir, "child2");
+    gitDir2.mkdir();
+    Git.init().setDirectory(gitDir1).call().close();
+    Git.init().setDirectory(gitDir2).call().close();
+
+    File xprFile = new File(workDir, "cached.xpr");
+    String projectContent = 
+        "<project version=\"22.1\">\n" + 
+        "    <projectTree name=\"cached.xpr\">\n" + 
+        "        <folder path=\"child1\"/>\n" + 
+        "    </projectTree>\n" + 
+        "</project>";
+    setFileContent(xprFile, projectContent);
+    long lastModified = xprFile.lastModified();
+    
+    assertEquals(gitDir1.getAbsolutePath(), RepoUtil.detectRepositoryInProject(xprFile).getAbsolutePath());
+    
+    // Same size and modification time. The project is not parsed again.
+    setFileContent(xprFile, projectContent.replace("child1", "child2"));
+    xprFile.setLastModified(lastModified);
+    assertEquals(gitDir1.getAbsolutePath(), RepoUtil.detectRepositoryInProject(xprFile).getAbsolutePath());
+    
+    // Changed.
+    xprFile.setLastModified(lastModified + 2000);
+    assertEquals(gitDir2.getAbsolutePath(), RepoUtil.detectRepositoryInProject(xprFile).getAbsolutePath());
+  }
+
+  /**
+   * <p><b>Description:</b> a project without a repository is searched again each time,
+   * so a repository created later in its folders is found even if the project file didn't change.</p>
+   *
+   * <pre>
+   * rootDir
+   *   child
+   *   *.xpr
+   * </pre>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testRepositoryDetection_NotFoundNotCached() throws Exception {
+    File childDir = new File(workDir, "child");
+    childDir.mkdir();
+
+    File xprFile = new File(workDir, "notFound.xpr");
+    setFileContent(xprFile, 
+        "<project version=\"22.1\">\n" + 
+        "    <projectTree name=\"notFound.xpr\">\n" + 
+        "        <folder path=\"child\"/>\n" + 
+        "    </projectTree>\n" + 
+        "</project>");
+    long lastModified = xprFile.lastModified();
+
+    // Not in the folders of the project. Upwards, the repository that contains the tests might be found.
+    assertFalse(childDir.getAbsoluteFile().equals(RepoUtil.detectRepositoryInProject(xprFile)));
+
+    Git.init().setDirectory(childDir).call().close();
+    assertEquals(lastModified, xprFile.lastModified());
+    assertEquals(childDir.getAbsolutePath(), RepoUtil.detectRepositoryInProject(xprFile).getAbsolutePath());
+  }
 }
@@ -0,0 +1,162 @@
+package com.oxygenxml.git.utils;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.Test;
+
+import com.oxygenxml.git.service.GitTestBase;
+import com.oxygenxml.git.service.TestUtil;
+
+/**
+ * Updating the submodules in parallel.
+ */
+public class SubmoduleUpdaterTest extends GitTestBase {
+
+  /**
+   * The clone whose submodules are updated.
+   */
+  private Repository clone;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+
+    Repository nested = createRepository("target/test-resources/SubmoduleUpdaterTest_nested");
+    TestUtil.commitOneFile(nested, "file.txt", "nested");
+
+    Repository[] submodules = new Repository[3];
+    for (int i = 0; i < submodules.length; i++) {
+      submodules[i] = createRepository("target/test-resources/SubmoduleUpdaterTest_sub" + (i + 1));
+      TestUtil.commitOneFile(submodules[i], "file.txt", "sub" + (i + 1));
+    }
+    addSubmodule(submodules[0], nested, "nested");
+
+    Repository main = createRepository("target/test-resources/SubmoduleUpdaterTest_main");
+    TestUtil.commitOneFile(main, "main.txt", "main");
+    for (int i = 0; i < submodules.length; i++) {
+      addSubmodule(main, submodules[i], "sub" + (i + 1));
+    }
+
+    clone = Git.cloneRepository()
+        .setURI(toURI(main))
+        .setDirectory(new File("target/test-resources/SubmoduleUpdaterTest_clone"))
+        .call()
+        .getRepository();
+    record4Cleanup(clone);
+  }
+
+  /**
+   * Adds a submodule and commits it.
+   *
+   * @param parent    The parent repository.
+   * @param submodule The repository of the submodule.
+   * @param path      The path of the submodule.
+   *
+   * @throws GitAPIException If it fails.
+   */
+  private void addSubmodule(Repository parent, Repository submodule, String path) throws GitAPIException {
+    try (Git git = new Git(parent)) {
+      git.submoduleAdd().setPath(path).setURI(toURI(submodule)).call().close();
+      git.commit().setMessage("Submodule " + path).call();
+    }
+  }
+
+  /**
+   * @param repository A local repository.
+   *
+   * @return The URI of the repository, for cloning it.
+   */
+  private static String toURI(Repository repository) {
+    return repository.getDirectory().toURI().toString();
+  }
+
+  /**
+   * Makes the remote of a submodule unavailable.
+   *
+   * @param name The name of the submodule.
+   *
+   * @throws Exception If it fails.
+   */
+  private void removeRemote(String name) throws Exception {
+    FileUtils.deleteDirectory(new File("target/test-resources/SubmoduleUpdaterTest_" + name, ".git"));
+  }
+
+  /**
+   * @param path A path inside the clone.
+   *
+   * @return The content of the file.
+   *
+   * @throws Exception If it fails.
+   */
+  private String readInClone(String path) throws Exception {
+    return read(new File(clone.getWorkTree(), path).toURI().toURL()).trim();
+  }
+
+  /**
+   * <p><b>Description:</b> the submodules are updated in parallel, together with their own submodules.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testParallelUpdate() throws Exception {
+    try (Git git = new Git(clone)) {
+      new SubmoduleUpdater(3, false, null).update(git, NullProgressMonitor.INSTANCE);
+    }
+
+    assertEquals("sub1", readInClone("sub1/file.txt"));
+    assertEquals("sub2", readInClone("sub2/file.txt"));
+    assertEquals("sub3", readInClone("sub3/file.txt"));
+    assertEquals("nested", readInClone("sub1/nested/file.txt"));
+  }
+
+  /**
+   * <p><b>Description:</b> by default, the first failure stops the other updates.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testFailFast() throws Exception {
+    removeRemote("sub1");
+
+    GitAPIException failure = null;
+    try (Git git = new Git(clone)) {
+      // One thread, so the submodules are updated in order.
+      new SubmoduleUpdater(1, false, null).update(git, NullProgressMonitor.INSTANCE);
+    } catch (GitAPIException e) {
+      failure = e;
+    }
+
+    assertNotNull(failure);
+    assertEquals(0, failure.getSuppressed().length);
+    assertFalse(new File(clone.getWorkTree(), "sub2/file.txt").exists());
+    assertFalse(new File(clone.getWorkTree(), "sub3/file.txt").exists());
+  }
+
+  /**
+   * <p><b>Description:</b> when asked to, all the submodules that can be updated are updated
+   * and all the failures are reported at the end.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testContinueOnError() throws Exception {
+    removeRemote("sub1");
+    removeRemote("sub3");
+
+    GitAPIException failure = null;
+    try (Git git = new Git(clone)) {
+      new SubmoduleUpdater(3, true, null).update(git, NullProgressMonitor.INSTANCE);
+    } catch (GitAPIException e) {
+      failure = e;
+    }
+
+    assertNotNull(failure);
+    assertEquals(1, failure.getSuppressed().length);
+    assertEquals("sub2", readInClone("sub2/file.txt"));
+  }
+}
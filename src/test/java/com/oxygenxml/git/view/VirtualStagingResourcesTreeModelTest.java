@@ -0,0 +1,112 @@
+package com.oxygenxml.git.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+
+/**
+ * Tests for {@link VirtualStagingResourcesTreeModel}.
+ */
+public class VirtualStagingResourcesTreeModelTest {
+
+  /**
+   * Creates a model over the given paths.
+   *
+   * @param paths The paths of the modified files.
+   *
+   * @return The model.
+   */
+  private static VirtualStagingResourcesTreeModel createModel(String... paths) {
+    List<FileStatus> files = new ArrayList<>();
+    for (String path : paths) {
+      files.add(new FileStatus(GitChangeType.MODIFIED, path));
+    }
+    return new VirtualStagingResourcesTreeModel(null, "root", false, files);
+  }
+
+  /**
+   * Dumps the structure of the tree, with the leaf count of the folders.
+   *
+   * @param node   The node to dump.
+   * @param indent The current indent.
+   * @param dump   Collects the result.
+   */
+  private static void dump(GitTreeNode node, String indent, StringBuilder dump) {
+    dump.append(indent).append(node.getUserObject());
+    if (node instanceof VirtualStagingResourcesTreeModel.DirectoryNode) {
+      dump.append(" (").append(((VirtualStagingResourcesTreeModel.DirectoryNode) node).getLeafCount()).append(")");
+    }
+    dump.append("\n");
+    for (int i = 0; i < node.getChildCount(); i++) {
+      dump((GitTreeNode) node.getChildAt(i), indent + "  ", dump);
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> the lazily created structure is the same as the one of the regular tree model:
+   * folders first, then files. Folders with a common name prefix are kept apart.</p>
+   */
+  @Test
+  public void testStructure() {
+    VirtualStagingResourcesTreeModel model = createModel(
+        "b.txt", "a/x.txt", "a/b/c.txt", "a/b/d.txt", "a.txt", "ab/z.txt", "a-b/q.txt");
+
+    StringBuilder dump = new StringBuilder();
+    dump((GitTreeNode) model.getRoot(), "", dump);
+    assertEquals(
+        "root (7)\n" +
+        "  a (3)\n" +
+        "    b (2)\n" +
+        "      c.txt\n" +
+        "      d.txt\n" +
+        "    x.txt\n" +
+        "  a-b (1)\n" +
+        "    q.txt\n" +
+        "  ab (1)\n" +
+        "    z.txt\n" +
+        "  a.txt\n" +
+        "  b.txt\n",
+        dump.toString());
+  }
+
+  /**
+   * <p><b>Description:</b> folders answer that they are not leaves and how many files they contain,
+   * without creating any child.</p>
+   */
+  @Test
+  public void testFoldersNotExpanded() {
+    VirtualStagingResourcesTreeModel model = createModel("dir/a.txt", "dir/sub/b.txt");
+
+    GitTreeNode root = (GitTreeNode) model.getRoot();
+    GitTreeNode dir = (GitTreeNode) root.getChildAt(0);
+    assertFalse(model.isLeaf(dir));
+    assertEquals(2, ((VirtualStagingResourcesTreeModel.DirectoryNode) dir).getLeafCount());
+    // Only the children of the root were created.
+    assertEquals("[dir]", Collections.list(root.children()).toString());
+  }
+
+  /**
+   * <p><b>Description:</b> the files are found by path and by folder prefix.</p>
+   */
+  @Test
+  public void testLookups() {
+    VirtualStagingResourcesTreeModel model = createModel("a/x.txt", "a/b/c.txt", "ab/z.txt", "c.txt");
+
+    assertEquals("(changeType=MODIFIED, fileLocation=a/b/c.txt)", model.getFileByPath("a/b/c.txt").toString());
+    assertEquals(
+        "[(changeType=MODIFIED, fileLocation=a/b/c.txt), (changeType=MODIFIED, fileLocation=a/x.txt)]",
+        model.getFilesByPaths(Arrays.asList("a/")).toString());
+    assertEquals(
+        "[(changeType=MODIFIED, fileLocation=c.txt)]",
+        model.getFileLeavesByPaths(Arrays.asList("c.txt", "a")).toString());
+  }
+}
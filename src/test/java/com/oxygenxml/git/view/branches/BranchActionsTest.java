@@ -83,6 +83,7 @@ public class BranchActionsTest extends GitTestBase {
     GitControllerBase mock = new GitController(GitAccess.getInstance());
     BranchManagementPanel branchManagementPanel = new BranchManagementPanel(mock);
     branchManagementPanel.refreshBranches();
+    waitForScheduler();
     flushAWT();
     BranchTreeMenuActionsProvider branchTreeMenuActionsProvider = new BranchTreeMenuActionsProvider(mock);
     GitTreeNode root = (GitTreeNode)(branchManagementPanel.getTree().getModel().getRoot());
@@ -148,6 +149,7 @@ public class BranchActionsTest extends GitTestBase {
       GitControllerBase mock = new GitController(GitAccess.getInstance());
       BranchManagementPanel branchManagementPanel = new BranchManagementPanel(mock);
       branchManagementPanel.refreshBranches();
+      waitForScheduler();
       flushAWT();
       BranchTreeMenuActionsProvider branchTreeMenuActionsProvider = new BranchTreeMenuActionsProvider(mock);
       GitTreeNode root = (GitTreeNode)(branchManagementPanel.getTree().getModel().getRoot());
@@ -233,6 +235,7 @@ public class BranchActionsTest extends GitTestBase {
       GitControllerBase mock = new GitController(GitAccess.getInstance());
       BranchManagementPanel branchManagementPanel = new BranchManagementPanel(mock);
       branchManagementPanel.refreshBranches();
+      waitForScheduler();
       flushAWT();
       BranchTreeMenuActionsProvider branchTreeMenuActionsProvider = new BranchTreeMenuActionsProvider(mock);
       GitTreeNode root = (GitTreeNode)(branchManagementPanel.getTree().getModel().getRoot());
@@ -313,6 +316,7 @@ public class BranchActionsTest extends GitTestBase {
     GitControllerBase mock = new GitController(GitAccess.getInstance());
     BranchManagementPanel branchManagementPanel = new BranchManagementPanel(mock);
     branchManagementPanel.refreshBranches();
+    waitForScheduler();
     flushAWT();
     BranchTreeMenuActionsProvider branchTreeMenuActionsProvider = new BranchTreeMenuActionsProvider(mock);
     GitTreeNode root = (GitTreeNode)(branchManagementPanel.getTree().getModel().getRoot());
@@ -381,6 +385,7 @@ public class BranchActionsTest extends GitTestBase {
     GitControllerBase mock = new GitController(GitAccess.getInstance());
     BranchManagementPanel branchManagementPanel = new BranchManagementPanel(mock);
     branchManagementPanel.refreshBranches();
+    waitForScheduler();
     flushAWT();
     BranchTreeMenuActionsProvider branchTreeMenuActionsProvider = new BranchTreeMenuActionsProvider(mock);
     GitTreeNode root = (GitTreeNode)(branchManagementPanel.getTree().getModel().getRoot());
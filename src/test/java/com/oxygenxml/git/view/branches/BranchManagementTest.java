@@ -105,6 +105,7 @@ public class BranchManagementTest extends GitTestBase{
 
     BranchManagementPanel branchManagementPanel = new BranchManagementPanel(Mockito.mock(GitControllerBase.class));
     branchManagementPanel.refreshBranches();
+    waitForScheduler();
     flushAWT();
     JTree tree = branchManagementPanel.getTree();
     GitTreeNode root = (GitTreeNode)tree.getModel().getRoot();
@@ -150,6 +151,7 @@ public class BranchManagementTest extends GitTestBase{
 
     BranchManagementPanel branchManagementPanel = new BranchManagementPanel(Mockito.mock(GitControllerBase.class));
     branchManagementPanel.refreshBranches();
+    waitForScheduler();
     flushAWT();
     JTree tree = branchManagementPanel.getTree();
     GitTreeNode root = (GitTreeNode)tree.getModel().getRoot();
@@ -195,6 +197,7 @@ public class BranchManagementTest extends GitTestBase{
     
     BranchManagementPanel branchManagementPanel = new BranchManagementPanel(Mockito.mock(GitControllerBase.class));
     branchManagementPanel.refreshBranches();
+    waitForScheduler();
     flushAWT();
     JTree tree = branchManagementPanel.getTree();
     GitTreeNode root = (GitTreeNode)tree.getModel().getRoot();
@@ -236,6 +239,7 @@ public class BranchManagementTest extends GitTestBase{
 
     BranchManagementPanel branchManagementPanel = new BranchManagementPanel(Mockito.mock(GitControllerBase.class));
     branchManagementPanel.refreshBranches();
+    waitForScheduler();
     flushAWT();
     JTree tree = branchManagementPanel.getTree();
     GitTreeNode root = (GitTreeNode)tree.getModel().getRoot();
@@ -275,6 +279,7 @@ public class BranchManagementTest extends GitTestBase{
 
     BranchManagementPanel branchManagementPanel = new BranchManagementPanel(Mockito.mock(GitControllerBase.class));
     branchManagementPanel.refreshBranches();
+    waitForScheduler();
     flushAWT();
     branchManagementPanel.filterTree("hedz");
     flushAWT();
@@ -348,6 +353,7 @@ public class BranchManagementTest extends GitTestBase{
     
     BranchManagementPanel branchManagementPanel = new BranchManagementPanel(Mockito.mock(GitControllerBase.class));
     branchManagementPanel.refreshBranches();
+    waitForScheduler();
     flushAWT();
     branchManagementPanel.filterTree("rimotz");
     flushAWT();
@@ -446,6 +452,7 @@ public class BranchManagementTest extends GitTestBase{
 
     BranchManagementPanel branchManagementPanel = new BranchManagementPanel(Mockito.mock(GitControllerBase.class));
     branchManagementPanel.refreshBranches();
+    waitForScheduler();
     flushAWT();
     branchManagementPanel.filterTree("ewu82m");
     flushAWT();